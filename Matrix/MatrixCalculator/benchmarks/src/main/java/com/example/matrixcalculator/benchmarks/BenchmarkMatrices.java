@@ -0,0 +1,36 @@
+package com.example.matrixcalculator.benchmarks;
+
+import com.example.matrixcalculator.IntMatrix;
+
+import java.util.SplittableRandom;
+
+/**
+ * Генерация входных матриц для бенчмарков.
+ */
+final class BenchmarkMatrices {
+
+    private BenchmarkMatrices() {
+    }
+
+    /**
+     * Создает случайную матрицу с заданной долей ненулевых элементов.
+     *
+     * @param rows     Количество строк.
+     * @param cols     Количество столбцов.
+     * @param density  Доля ненулевых элементов от 0 до 1.
+     * @param maxValue Максимальное по модулю значение элемента.
+     * @param seed     Начальное значение генератора.
+     * @return Случайная матрица.
+     */
+    static IntMatrix random(int rows, int cols, double density, int maxValue, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        IntMatrix matrix = new IntMatrix(rows, cols);
+        int[] data = matrix.data();
+        for (int i = 0; i < data.length; i++) {
+            if (random.nextDouble() < density) {
+                data[i] = random.nextInt(-maxValue, maxValue + 1);
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.matrixcalculator.benchmarks;
+
+import com.example.matrixcalculator.CsvMatrixParser;
+import com.example.matrixcalculator.IntMatrix;
+import com.example.matrixcalculator.MatrixReader;
+import com.example.matrixcalculator.MatrixWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки чтения и записи матриц в формате CSV: путь загрузки, которым пользуется
+ * {@code HelloController.loadMatrix}, и {@link MatrixWriter#writeMatrixToFile}.
+ * {@code loadCsvSinglePass} читает тот же файл однопроходным разборщиком без деления на части
+ * (большие файлы {@link MatrixReader#readMatrix} читает параллельно).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvIoBenchmark {
+
+    @Param({"8", "64", "256", "1024", "4096"})
+    public int size;
+
+    @Param({"SQUARE", "TALL", "WIDE"})
+    public MatrixShape shape;
+
+    @Param({"1.0", "0.1", "0.01"})
+    public double density;
+
+    private List<List<Integer>> matrix;
+    private File input;
+    private File output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        matrix = BenchmarkMatrices.random(shape.rows(size), shape.cols(size), density, 1_000_000, 5).toList();
+        input = Files.createTempFile("matrix-input", ".csv").toFile();
+        output = Files.createTempFile("matrix-output", ".csv").toFile();
+        MatrixWriter.writeMatrixToFile(matrix, input.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input.toPath());
+        Files.deleteIfExists(output.toPath());
+    }
+
+    @Benchmark
+    public IntMatrix loadCsv() throws IOException {
+        // Та же последовательность, что и при нажатии кнопки "Загрузить матрицу"
+        IntMatrix loaded = MatrixReader.readMatrix(input);
+        if (loaded.rows() < 2) {
+            throw new IllegalStateException("Файл не является матрицей: " + input);
+        }
+        return loaded;
+    }
+
+    @Benchmark
+    public IntMatrix loadCsvSinglePass() throws IOException {
+        return CsvMatrixParser.parse(input.toPath());
+    }
+
+    @Benchmark
+    public void writeCsv() throws IOException {
+        MatrixWriter.writeMatrixToFile(matrix, output.getPath());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.matrixcalculator.benchmarks;
+
+import com.example.matrixcalculator.IntMatrix;
+import com.example.matrixcalculator.MatrixOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк точного вычисления определителя квадратной матрицы.
+ * Элементы берутся из {-1, 0, 1}, чтобы промежуточные значения как можно дольше оставались в пределах long;
+ * на больших размерах измеряется и переход к многомодульному вычислению (см. {@link ExactDeterminantBenchmark}).
+ * Время растет примерно как n^3.3 (около 8 с при n = 512), поэтому размер ограничен {@value #MAX_SIZE}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeterminantBenchmark {
+
+    /**
+     * Наибольший измеряемый размер, в том числе при общем запуске с большим -p size.
+     */
+    static final int MAX_SIZE = 256;
+
+    @Param({"8", "64", "256"})
+    public int size;
+
+    @Param({"1.0", "0.1", "0.01"})
+    public double density;
+
+    private IntMatrix matrix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int n = Math.min(size, MAX_SIZE);
+        matrix = BenchmarkMatrices.random(n, n, density, 1, 4);
+    }
+
+    @Benchmark
+    public BigInteger determinant() {
+        return MatrixOperations.calculateDeterminantExact(matrix);
+    }
+}
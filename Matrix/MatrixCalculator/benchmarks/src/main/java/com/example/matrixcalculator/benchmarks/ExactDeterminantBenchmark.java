@@ -0,0 +1,56 @@
+package com.example.matrixcalculator.benchmarks;
+
+import com.example.matrixcalculator.FractionFreeLU;
+import com.example.matrixcalculator.IntMatrix;
+import com.example.matrixcalculator.ModularDeterminant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк точного определителя, не помещающегося в long: многомодульный метод с восстановлением
+ * по китайской теореме об остатках против метода Барейса в BigInteger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ExactDeterminantBenchmark {
+
+    @Param({"32", "64", "128"})
+    public int size;
+
+    private IntMatrix matrix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Метод Барейса в BigInteger на больших матрицах работает часами, поэтому размер ограничен
+        // и при общем запуске с -p size=1024
+        int n = Math.min(size, 128);
+        matrix = BenchmarkMatrices.random(n, n, 1.0, 1000, 5);
+    }
+
+    @Benchmark
+    public BigInteger modular() {
+        return ModularDeterminant.determinant(matrix);
+    }
+
+    @Benchmark
+    public BigInteger bareissBigInteger() {
+        return FractionFreeLU.of(matrix).determinant();
+    }
+}
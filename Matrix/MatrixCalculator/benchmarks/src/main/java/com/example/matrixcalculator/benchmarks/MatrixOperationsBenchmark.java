@@ -0,0 +1,68 @@
+package com.example.matrixcalculator.benchmarks;
+
+import com.example.matrixcalculator.IntMatrix;
+import com.example.matrixcalculator.MatrixOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки сложения, вычитания и умножения матриц по размеру, форме и плотности.
+ * Для умножения вторая матрица имеет транспонированную форму, поэтому произведение всегда определено.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixOperationsBenchmark {
+
+    @Param({"8", "64", "256", "1024", "4096"})
+    public int size;
+
+    @Param({"SQUARE", "TALL", "WIDE"})
+    public MatrixShape shape;
+
+    @Param({"1.0", "0.1", "0.01"})
+    public double density;
+
+    private IntMatrix matrix1;
+    private IntMatrix matrix2;
+    private IntMatrix transposed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int rows = shape.rows(size);
+        int cols = shape.cols(size);
+        matrix1 = BenchmarkMatrices.random(rows, cols, density, 1000, 1);
+        matrix2 = BenchmarkMatrices.random(rows, cols, density, 1000, 2);
+        transposed = BenchmarkMatrices.random(cols, rows, density, 1000, 3);
+    }
+
+    @Benchmark
+    public IntMatrix add() {
+        return MatrixOperations.addMatrices(matrix1, matrix2);
+    }
+
+    @Benchmark
+    public IntMatrix subtract() {
+        return MatrixOperations.subtractMatrices(matrix1, matrix2);
+    }
+
+    @Benchmark
+    public IntMatrix multiply() {
+        return MatrixOperations.multiplyMatrices(matrix1, transposed);
+    }
+}
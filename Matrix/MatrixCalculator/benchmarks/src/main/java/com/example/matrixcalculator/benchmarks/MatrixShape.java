@@ -0,0 +1,35 @@
+package com.example.matrixcalculator.benchmarks;
+
+/**
+ * Форма матрицы относительно базового размера n.
+ */
+public enum MatrixShape {
+    /** n x n. */
+    SQUARE,
+    /** 2n x n/2. */
+    TALL,
+    /** n/2 x 2n. */
+    WIDE;
+
+    int rows(int size) {
+        switch (this) {
+            case TALL:
+                return size * 2;
+            case WIDE:
+                return Math.max(1, size / 2);
+            default:
+                return size;
+        }
+    }
+
+    int cols(int size) {
+        switch (this) {
+            case TALL:
+                return Math.max(1, size / 2);
+            case WIDE:
+                return size * 2;
+            default:
+                return size;
+        }
+    }
+}
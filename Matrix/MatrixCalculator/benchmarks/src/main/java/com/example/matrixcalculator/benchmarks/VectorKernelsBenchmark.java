@@ -0,0 +1,98 @@
+package com.example.matrixcalculator.benchmarks;
+
+import com.example.matrixcalculator.IntMatrix;
+import com.example.matrixcalculator.MatrixOperations;
+import com.example.matrixcalculator.MultiplyKernels;
+import com.example.matrixcalculator.ParallelExecution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение векторных (Vector API) и скалярных ядер. Каждый метод запускается в отдельной JVM:
+ * векторный - с модулем jdk.incubator.vector, скалярный - с -Dmatrix.vector=false.
+ * Измерения однопоточные, чтобы ускорение относилось только к внутренним циклам.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VectorKernelsBenchmark {
+
+    private static final String VECTOR_MODULE = "--add-modules=jdk.incubator.vector";
+    private static final String SCALAR = "-Dmatrix.vector=false";
+
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    private IntMatrix matrix1;
+    private IntMatrix matrix2;
+    private IntMatrix smallValues;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ParallelExecution.setParallelism(1);
+        matrix1 = BenchmarkMatrices.random(size, size, 1.0, 1000, 1);
+        matrix2 = BenchmarkMatrices.random(size, size, 1.0, 1000, 2);
+        // Разреженная матрица из {-1, 0, 1}: промежуточные значения метода Барейса долго остаются малыми.
+        // Размер ограничен, так как на больших матрицах вычисление переходит к многомодульному методу
+        int determinantSize = Math.min(size, 256);
+        smallValues = BenchmarkMatrices.random(determinantSize, determinantSize, 0.05, 1, 3);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VECTOR_MODULE)
+    public IntMatrix addVector() {
+        return MatrixOperations.addMatrices(matrix1, matrix2);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public IntMatrix addScalar() {
+        return MatrixOperations.addMatrices(matrix1, matrix2);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VECTOR_MODULE)
+    public IntMatrix multiplyVector() {
+        return MultiplyKernels.multiply(matrix1, matrix2);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public IntMatrix multiplyScalar() {
+        return MultiplyKernels.multiply(matrix1, matrix2);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VECTOR_MODULE)
+    public Object determinantVector() {
+        return determinant();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public Object determinantScalar() {
+        return determinant();
+    }
+
+    private Object determinant() {
+        try {
+            return MatrixOperations.calculateDeterminant(smallValues);
+        } catch (ArithmeticException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package com.example.matrixcalculator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пакетный режим без графического интерфейса: выполняет задания из файла и записывает результаты.
+ * JavaFX в этом режиме не инициализируется.
+ * <p>
+ * Формат файла заданий - по одному заданию в строке, пустые строки и строки с '#' пропускаются:
+ * <pre>
+ * add a.csv b.csv -&gt; sum.csv
+ * subtract a.csv b.mbin -&gt; difference.csv
+ * multiply a.mbin b.mbin -&gt; product.mbin
+ * det a.csv -&gt; det.csv
+ * power a.csv 100 [модуль] -&gt; power.csv
+ * rank a.csv -&gt; rank.csv
+ * inverse a.csv -&gt; inverse.csv
+ * solve a.csv b.csv -&gt; x.csv
+ * </pre>
+ * Относительные пути отсчитываются от каталога файла заданий. Сложение, вычитание, умножение и степень точные
+ * ({@link ExactOperations}; степень без модуля требует, чтобы промежуточные степени помещались в int),
+ * определитель вычисляется точно ({@link MatrixOperations#calculateDeterminantExact}).
+ * Ранг, обратная матрица и решение систем A * X = B (по столбцам B) вычисляются точно по разложению
+ * {@link LoadedMatrix#factorization()}; обратная матрица и решение записываются в CSV дробями "p/q".
+ * Файлы Matrix Market ({@value MatrixMarketFormat#EXTENSION}) читаются в формате CSR; если результат
+ * сложения, вычитания или умножения разреженных матриц записывается в файл {@value MatrixMarketFormat#EXTENSION},
+ * плотные копии не создаются вовсе.
+ * <p>
+ * Задания проходят конвейер из трех этапов с отдельными пулами потоков: чтение входных файлов,
+ * вычисление и запись результата, поэтому чтение следующих матриц совмещается с вычислением текущего
+ * задания и записью предыдущего результата. Независимые задания выполняются одновременно, пока их
+ * оценка занимаемой памяти укладывается в общий бюджет.
+ */
+public final class BatchRunner {
+
+    static final Logger logger = LogManager.getLogger(BatchRunner.class.getName());
+
+    /**
+     * Бюджет памяти на одновременно выполняемые задания в байтах (системное свойство matrix.batch.memory):
+     * по умолчанию половина максимального размера кучи.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = Long.getLong("matrix.batch.memory",
+            Runtime.getRuntime().maxMemory() / 2);
+
+    /**
+     * Количество потоков чтения входных файлов (системное свойство matrix.batch.loaders).
+     */
+    public static final int DEFAULT_LOADERS = Integer.getInteger("matrix.batch.loaders", 2);
+
+    /**
+     * Количество одновременно вычисляемых заданий (системное свойство matrix.batch.workers).
+     * Сами операции дополнительно распараллеливаются в {@link ParallelExecution}.
+     */
+    public static final int DEFAULT_WORKERS = Integer.getInteger("matrix.batch.workers", 2);
+
+    /**
+     * Бюджет памяти учитывается в килобайтах, чтобы количество разрешений помещалось в int.
+     */
+    private static final int BYTES_PER_PERMIT = 1024;
+
+    private BatchRunner() {
+    }
+
+    /**
+     * Выполняет все задания из файла.
+     *
+     * @param jobFile Файл заданий.
+     * @return Количество заданий, завершившихся ошибкой.
+     * @throws IOException              Возникает при ошибке чтения файла заданий.
+     * @throws IllegalArgumentException Если файл заданий содержит некорректную строку.
+     * @throws InterruptedException     Если ожидание заданий прервано.
+     */
+    public static int run(Path jobFile) throws IOException, InterruptedException {
+        List<Job> jobs = parseJobs(jobFile);
+        long budget = Math.max(BYTES_PER_PERMIT, DEFAULT_MEMORY_BUDGET);
+        int totalPermits = (int) Math.min(Integer.MAX_VALUE, budget / BYTES_PER_PERMIT);
+        Semaphore memory = new Semaphore(totalPermits, true);
+        ExecutorService loaders = Executors.newFixedThreadPool(DEFAULT_LOADERS, daemonThreads("batch-load"));
+        ExecutorService workers = Executors.newFixedThreadPool(DEFAULT_WORKERS, daemonThreads("batch-compute"));
+        ExecutorService writers = Executors.newSingleThreadExecutor(daemonThreads("batch-write"));
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        try {
+            for (Job job : jobs) {
+                // Задание больше всего бюджета выполняется в одиночку
+                int permits = (int) Math.min(totalPermits, Math.max(1, job.estimateBytes() / BYTES_PER_PERMIT));
+                memory.acquire(permits);
+                long started = System.nanoTime();
+                CompletableFuture<Void> result = CompletableFuture
+                        .supplyAsync(job::load, loaders)
+                        .thenApplyAsync(job::compute, workers)
+                        .thenAcceptAsync(job::write, writers)
+                        .whenComplete((ignored, error) -> {
+                            memory.release(permits);
+                            long millis = (System.nanoTime() - started) / 1_000_000;
+                            if (error == null) {
+                                report("Готово (" + millis + " мс): " + job);
+                            } else {
+                                failed.incrementAndGet();
+                                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                                logger.error("Ошибка в задании " + job, cause);
+                                report("Ошибка: " + job + ": " + cause.getMessage());
+                            }
+                        });
+                pending.add(result);
+            }
+            for (CompletableFuture<Void> result : pending) {
+                result.exceptionally(error -> null).join();
+            }
+        } finally {
+            loaders.shutdownNow();
+            workers.shutdownNow();
+            writers.shutdownNow();
+        }
+        report("Выполнено заданий: " + (jobs.size() - failed.get()) + " из " + jobs.size());
+        logger.info("Статистика операций:\n" + OperationMetrics.dump());
+        return failed.get();
+    }
+
+    /**
+     * Читает файл заданий.
+     *
+     * @param jobFile Файл заданий.
+     * @return Задания в порядке следования.
+     * @throws IOException              Возникает при ошибке чтения файла.
+     * @throws IllegalArgumentException Если строка задания некорректна.
+     */
+    static List<Job> parseJobs(Path jobFile) throws IOException {
+        Path base = jobFile.toAbsolutePath().getParent();
+        List<Job> jobs = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(jobFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    jobs.add(Job.parse(line, base));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Строка " + lineNumber + " файла заданий: " + e.getMessage(), e);
+                }
+            }
+        }
+        return jobs;
+    }
+
+    private static void report(String message) {
+        System.out.println(message);
+        logger.debug(message);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Операция задания.
+     */
+    enum Operation {
+        ADD(2), SUBTRACT(2), MULTIPLY(2), DET(1), POWER(1), RANK(1), INVERSE(1), SOLVE(2);
+
+        private final int inputs;
+
+        Operation(int inputs) {
+            this.inputs = inputs;
+        }
+    }
+
+    /**
+     * Одно задание: операция, входные файлы, параметры и файл результата.
+     */
+    static final class Job {
+        private final String text;
+        private final Operation operation;
+        private final List<Path> inputs;
+        private final long exponent;
+        private final int modulus;
+        private final Path output;
+
+        private Job(String text, Operation operation, List<Path> inputs, long exponent, int modulus, Path output) {
+            this.text = text;
+            this.operation = operation;
+            this.inputs = inputs;
+            this.exponent = exponent;
+            this.modulus = modulus;
+            this.output = output;
+        }
+
+        /**
+         * Разбирает строку вида "операция вход... [параметры] -> выход".
+         */
+        static Job parse(String line, Path base) {
+            int arrow = line.lastIndexOf("->");
+            if (arrow < 0) {
+                throw new IllegalArgumentException("не указан файл результата ('-> файл')");
+            }
+            String target = line.substring(arrow + 2).trim();
+            String[] tokens = line.substring(0, arrow).trim().split("\\s+");
+            if (target.isEmpty() || tokens[0].isEmpty()) {
+                throw new IllegalArgumentException("некорректное задание '" + line + "'");
+            }
+            Operation operation;
+            try {
+                operation = Operation.valueOf(tokens[0].toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("неизвестная операция '" + tokens[0] + "'");
+            }
+            int parameters = operation == Operation.POWER ? tokens.length - 2 : 0;
+            if (tokens.length - 1 - parameters != operation.inputs
+                    || (operation == Operation.POWER && (parameters < 1 || parameters > 2))) {
+                throw new IllegalArgumentException("неверное количество аргументов операции " + tokens[0]);
+            }
+            Path output = base.resolve(target);
+            if ((operation == Operation.INVERSE || operation == Operation.SOLVE)
+                    && (BinaryMatrixFormat.isBinaryFile(output.toFile())
+                    || MatrixMarketFormat.isMatrixMarketFile(output.toFile()))) {
+                throw new IllegalArgumentException("результат операции " + tokens[0]
+                        + " состоит из дробей и записывается только в CSV");
+            }
+            if (operation == Operation.DET && (BinaryMatrixFormat.isBinaryFile(output.toFile())
+                    || MatrixMarketFormat.isMatrixMarketFile(output.toFile()))) {
+                // Определитель - BigInteger, который не записывается ни в один из этих форматов
+                throw new IllegalArgumentException("определитель записывается только в CSV");
+            }
+            List<Path> inputs = new ArrayList<>();
+            for (int i = 1; i <= operation.inputs; i++) {
+                inputs.add(base.resolve(tokens[i]));
+            }
+            long exponent = 0;
+            int modulus = 0;
+            if (operation == Operation.POWER) {
+                try {
+                    exponent = Long.parseLong(tokens[2]);
+                    modulus = parameters == 2 ? Integer.parseInt(tokens[3]) : 0;
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("некорректный показатель или модуль: " + e.getMessage());
+                }
+            }
+            return new Job(line, operation, inputs, exponent, modulus, output);
+        }
+
+        /**
+         * Оценивает память, занимаемую заданием: входные матрицы, результат и рабочие массивы.
+         * Размер матрицы в CSV оценивается по первой строке и размеру файла, двоичного файла - по заголовку.
+         */
+        long estimateBytes() {
+            if ((operation == Operation.ADD || operation == Operation.SUBTRACT || operation == Operation.MULTIPLY)
+                    && MatrixMarketFormat.isMatrixMarketFile(output.toFile())) {
+                // Разреженные операнды и результат: оценка по количеству ненулевых элементов
+                long total = 0;
+                for (Path input : inputs) {
+                    long bytes = estimateSparseBytes(input);
+                    if (bytes < 0) {
+                        total = -1;
+                        break;
+                    }
+                    total += bytes;
+                }
+                if (total >= 0) {
+                    return 2 * total;
+                }
+            }
+            long[][] shapes = new long[inputs.size()][];
+            long total = 0;
+            for (int i = 0; i < inputs.size(); i++) {
+                shapes[i] = estimateShape(inputs.get(i));
+                total += shapes[i][0] * shapes[i][1] * Integer.BYTES;
+            }
+            long[] first = shapes[0];
+            switch (operation) {
+                case ADD:
+                case SUBTRACT:
+                    return total + first[0] * first[1] * Long.BYTES;
+                case MULTIPLY:
+                    return total + first[0] * shapes[1][1] * Long.BYTES;
+                case POWER:
+                    return total + 3 * first[0] * first[0] * Integer.BYTES;
+                default:
+                    return total + 2 * first[0] * first[0] * Long.BYTES;
+            }
+        }
+
+        /**
+         * Читает входные матрицы.
+         */
+        LoadedMatrix[] load() {
+            LoadedMatrix[] matrices = new LoadedMatrix[inputs.size()];
+            for (int i = 0; i < matrices.length; i++) {
+                try {
+                    matrices[i] = MatrixReader.loadMatrixFile(inputs.get(i).toFile());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Ошибка чтения файла " + inputs.get(i), e);
+                }
+            }
+            return matrices;
+        }
+
+        /**
+         * Выполняет операцию.
+         *
+         * @return Плотная матрица ({@link Matrix}), разреженная ({@link CsrMatrix}) или матрица дробей
+         * ({@code Fraction[][]}).
+         */
+        Object compute(LoadedMatrix[] matrices) {
+            return OperationMetrics.measure(operation.name().toLowerCase(Locale.ROOT), matrices[0],
+                    matrices.length > 1 ? matrices[1] : null, () -> apply(matrices));
+        }
+
+        private Object apply(LoadedMatrix[] matrices) {
+            if (MatrixMarketFormat.isMatrixMarketFile(output.toFile())) {
+                CsrMatrix sparse = applySparse(matrices);
+                if (sparse != null) {
+                    return sparse;
+                }
+            }
+            switch (operation) {
+                case ADD:
+                    return ExactOperations.add(matrices[0], matrices[1]);
+                case SUBTRACT:
+                    return ExactOperations.subtract(matrices[0], matrices[1]);
+                case MULTIPLY:
+                    return ExactOperations.multiply(matrices[0], matrices[1]);
+                case POWER:
+                    return ExactOperations.power(matrices[0].matrix(), exponent, modulus);
+                case DET:
+                    BigInteger determinant = MatrixOperations.calculateDeterminantExact(matrices[0].matrix());
+                    BigIntegerMatrix result = new BigIntegerMatrix(1, 1);
+                    result.set(0, 0, determinant);
+                    return result;
+                case RANK:
+                    IntMatrix rank = new IntMatrix(1, 1);
+                    rank.set(0, 0, matrices[0].factorization().rank());
+                    return rank;
+                case INVERSE:
+                    return matrices[0].factorization().inverse();
+                default:
+                    return solve(matrices[0].factorization(), matrices[1].matrix());
+            }
+        }
+
+        /**
+         * Решает систему A * X = B по столбцам B; каждый столбец стоит O(n^2) по готовому разложению.
+         */
+        private static Fraction[][] solve(FractionFreeLU factorization, IntMatrix rightHandSides) {
+            int rows = rightHandSides.rows();
+            int cols = rightHandSides.cols();
+            Fraction[][] solution = new Fraction[factorization.cols()][cols];
+            int[] column = new int[rows];
+            for (int j = 0; j < cols; j++) {
+                for (int i = 0; i < rows; i++) {
+                    column[i] = rightHandSides.get(i, j);
+                }
+                Fraction[] x = factorization.solve(column);
+                for (int i = 0; i < x.length; i++) {
+                    solution[i][j] = x[i];
+                }
+                OperationMonitor.checkCancelled();
+            }
+            return solution;
+        }
+
+        /**
+         * Выполняет операцию в формате CSR.
+         *
+         * @return Разреженный результат или null, если операнды плотные или результат может не поместиться в int.
+         */
+        private CsrMatrix applySparse(LoadedMatrix[] matrices) {
+            switch (operation) {
+                case ADD:
+                    return ExactOperations.addSparse(matrices[0], matrices[1]);
+                case SUBTRACT:
+                    return ExactOperations.subtractSparse(matrices[0], matrices[1]);
+                case MULTIPLY:
+                    return ExactOperations.multiplySparse(matrices[0], matrices[1]);
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Записывает результат: в формат Matrix Market, если файл результата имеет расширение
+         * {@value MatrixMarketFormat#EXTENSION}, в двоичный формат, если файл результата имеет расширение
+         * {@value BinaryMatrixFormat#EXTENSION}, иначе в CSV.
+         * Матрица дробей всегда записывается в CSV.
+         *
+         * @throws IllegalArgumentException Если результат не помещается в int, а файл результата - Matrix Market,
+         *                                  или не помещается в long, а файл результата - двоичный.
+         */
+        void write(Object computed) {
+            try {
+                if (computed instanceof Fraction[][]) {
+                    MatrixWriter.writeFractions((Fraction[][]) computed, output);
+                    return;
+                }
+                if (MatrixMarketFormat.isMatrixMarketFile(output.toFile())) {
+                    if (computed instanceof CsrMatrix) {
+                        MatrixMarketFormat.write((CsrMatrix) computed, output);
+                    } else if (computed instanceof IntMatrix) {
+                        MatrixMarketFormat.write((IntMatrix) computed, output);
+                    } else {
+                        throw new IllegalArgumentException("Результат не помещается в int и не может быть записан "
+                                + "в формате Matrix Market: " + output.getFileName());
+                    }
+                    return;
+                }
+                Matrix result = computed instanceof CsrMatrix ? ((CsrMatrix) computed).toDense() : (Matrix) computed;
+                if (BinaryMatrixFormat.isBinaryFile(output.toFile()) && result instanceof IntMatrix) {
+                    BinaryMatrixFormat.write((IntMatrix) result, output);
+                } else if (BinaryMatrixFormat.isBinaryFile(output.toFile()) && result instanceof LongMatrix) {
+                    BinaryMatrixFormat.write((LongMatrix) result, output);
+                } else if (BinaryMatrixFormat.isBinaryFile(output.toFile())) {
+                    throw new IllegalArgumentException("Результат не помещается в long и не может быть записан "
+                            + "в двоичном формате: " + output.getFileName());
+                } else {
+                    MatrixWriter.writeMatrix(result, output);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Ошибка записи файла " + output, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+
+        /**
+         * Оценивает память разреженной матрицы в формате CSR по заголовку файла Matrix Market.
+         *
+         * @return Оценка в байтах или -1, если файл не в формате Matrix Market или матрица не разреженная.
+         */
+        private static long estimateSparseBytes(Path file) {
+            if (!MatrixMarketFormat.isMatrixMarketFile(file.toFile())) {
+                return -1;
+            }
+            try {
+                long[] size = MatrixMarketFormat.readSize(file);
+                double cells = (double) size[0] * size[1];
+                if (cells == 0 || size[2] >= SparseOperations.DENSITY_THRESHOLD * cells) {
+                    return -1;
+                }
+                // Индекс столбца и значение на элемент (симметричные файлы разворачиваются вдвое) и начала строк
+                return 4 * size[2] * Integer.BYTES + (size[0] + 1) * Integer.BYTES;
+            } catch (IOException | IllegalArgumentException e) {
+                return -1;
+            }
+        }
+
+        private static long[] estimateShape(Path file) {
+            try {
+                if (MatrixMarketFormat.isMatrixMarketFile(file.toFile())) {
+                    long[] size = MatrixMarketFormat.readSize(file);
+                    return new long[]{size[0], size[1]};
+                }
+                if (BinaryMatrixFormat.isBinaryFile(file.toFile())) {
+                    BinaryMatrixFormat.Header header = BinaryMatrixFormat.readHeader(file);
+                    return new long[]{header.rows(), header.cols()};
+                }
+                long size = Files.size(file);
+                try (InputStream input = Files.newInputStream(file)) {
+                    byte[] buffer = new byte[64 * 1024];
+                    int length = input.read(buffer);
+                    int columns = 1;
+                    int lineLength = 0;
+                    while (lineLength < Math.max(0, length) && buffer[lineLength] != '\n') {
+                        if (buffer[lineLength] == ';') {
+                            columns++;
+                        }
+                        lineLength++;
+                    }
+                    return new long[]{Math.max(1, size / Math.max(1, lineLength + 1)), columns};
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // Ошибка будет выдана при чтении файла; для оценки считаем матрицу пустой
+                return new long[]{0, 0};
+            }
+        }
+    }
+}
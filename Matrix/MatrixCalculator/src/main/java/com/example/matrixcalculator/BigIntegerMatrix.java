@@ -0,0 +1,62 @@
+package com.example.matrixcalculator;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Плотная матрица целых чисел произвольной длины, хранящаяся построчно в одном массиве.
+ * Используется для точных результатов, которые не помещаются в long (см. {@link ExactOperations}).
+ */
+public final class BigIntegerMatrix extends Matrix {
+
+    /**
+     * Элементы матрицы в построчном порядке.
+     */
+    private final BigInteger[] data;
+
+    /**
+     * Создает нулевую матрицу заданного размера.
+     *
+     * @param rows Количество строк.
+     * @param cols Количество столбцов.
+     */
+    public BigIntegerMatrix(int rows, int cols) {
+        super(rows, cols, cols);
+        this.data = new BigInteger[rows * cols];
+        Arrays.fill(data, BigInteger.ZERO);
+    }
+
+    /**
+     * @param row Индекс строки.
+     * @param col Индекс столбца.
+     * @return Элемент (row, col).
+     */
+    public BigInteger get(int row, int col) {
+        return data[row * stride + col];
+    }
+
+    @Override
+    public String elementToString(int row, int col) {
+        return data[row * stride + col].toString();
+    }
+
+    /**
+     * Устанавливает значение элемента.
+     *
+     * @param row   Индекс строки.
+     * @param col   Индекс столбца.
+     * @param value Новое значение.
+     */
+    public void set(int row, int col, BigInteger value) {
+        data[row * stride + col] = value;
+    }
+
+    /**
+     * Возвращает внутренний массив данных без копирования.
+     *
+     * @return Массив элементов в построчном порядке с шагом {@link #stride()}.
+     */
+    public BigInteger[] data() {
+        return data;
+    }
+}
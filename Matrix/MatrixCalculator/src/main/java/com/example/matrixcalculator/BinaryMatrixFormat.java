@@ -0,0 +1,510 @@
+package com.example.matrixcalculator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Двоичный формат хранения матриц (расширение {@value #EXTENSION}).
+ * <p>
+ * Файл начинается с заголовка длиной {@value #HEADER_SIZE} байт:
+ * <pre>
+ * 0  int   магическое число "MTRX" (всегда big-endian)
+ * 4  byte  порядок байтов данных: 0 - big-endian, 1 - little-endian
+ * 5  byte  версия формата
+ * 6  byte  тип элементов: 1 - int32, 2 - int64
+ * 7  byte  зарезервировано
+ * 8  int   количество строк
+ * 12 int   количество столбцов
+ * 16..31   зарезервировано
+ * </pre>
+ * Далее следуют элементы матрицы построчно без разделителей. Файл читается и записывается через
+ * отображение в память ({@link MappedByteBuffer}), поэтому загрузка сводится к копированию блоков памяти,
+ * а {@link MappedIntMatrix} позволяет обращаться к элементам вообще без копирования.
+ */
+public final class BinaryMatrixFormat {
+
+    /**
+     * Расширение файлов двоичного формата.
+     */
+    public static final String EXTENSION = ".mbin";
+
+    /**
+     * Магическое число "MTRX".
+     */
+    public static final int MAGIC = 0x4D545258;
+
+    /**
+     * Текущая версия формата.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Тип элементов int32.
+     */
+    public static final byte TYPE_INT32 = 1;
+
+    /**
+     * Тип элементов int64.
+     */
+    public static final byte TYPE_INT64 = 2;
+
+    /**
+     * Длина заголовка в байтах; данные выровнены по 32 байтам.
+     */
+    public static final int HEADER_SIZE = 32;
+
+    /**
+     * Максимальный размер одного отображаемого в память участка файла.
+     */
+    static final long MAX_REGION_BYTES = 1L << 30;
+
+    private BinaryMatrixFormat() {
+    }
+
+    /**
+     * Заголовок двоичного файла с матрицей.
+     */
+    public static final class Header {
+        private final int rows;
+        private final int cols;
+        private final byte elementType;
+        private final ByteOrder order;
+
+        Header(int rows, int cols, byte elementType, ByteOrder order) {
+            this.rows = rows;
+            this.cols = cols;
+            this.elementType = elementType;
+            this.order = order;
+        }
+
+        /**
+         * @return Количество строк.
+         */
+        public int rows() {
+            return rows;
+        }
+
+        /**
+         * @return Количество столбцов.
+         */
+        public int cols() {
+            return cols;
+        }
+
+        /**
+         * @return Тип элементов ({@link #TYPE_INT32} или {@link #TYPE_INT64}).
+         */
+        public byte elementType() {
+            return elementType;
+        }
+
+        /**
+         * @return Порядок байтов данных.
+         */
+        public ByteOrder order() {
+            return order;
+        }
+
+        /**
+         * @return Размер одного элемента в байтах.
+         */
+        public int elementSize() {
+            return elementType == TYPE_INT64 ? Long.BYTES : Integer.BYTES;
+        }
+
+        /**
+         * @return Полный размер файла в байтах.
+         */
+        public long fileSize() {
+            return HEADER_SIZE + (long) rows * cols * elementSize();
+        }
+    }
+
+    /**
+     * Проверяет, относится ли файл к двоичному формату (по расширению).
+     *
+     * @param file Файл.
+     * @return True, если имя файла оканчивается на {@value #EXTENSION}.
+     */
+    public static boolean isBinaryFile(File file) {
+        return file.getName().toLowerCase().endsWith(EXTENSION);
+    }
+
+    /**
+     * Читает и проверяет заголовок файла.
+     *
+     * @param channel Открытый канал файла.
+     * @return Заголовок.
+     * @throws IOException              Возникает при ошибке ввода/вывода.
+     * @throws IllegalArgumentException Если файл не является матрицей двоичного формата.
+     */
+    static Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IllegalArgumentException("Файл слишком короткий для двоичной матрицы.");
+            }
+        }
+        buffer.flip();
+        Header header = parseHeader(buffer);
+        if (channel.size() < header.fileSize()) {
+            throw new IllegalArgumentException("Файл короче, чем указано в заголовке.");
+        }
+        return header;
+    }
+
+    /**
+     * Разбирает и проверяет заголовок, записанный в начале буфера (с абсолютной позиции 0).
+     *
+     * @throws IllegalArgumentException Если данные не являются заголовком двоичной матрицы.
+     */
+    private static Header parseHeader(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Файл не является двоичной матрицей.");
+        }
+        ByteOrder order = buffer.get(4) == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        byte version = buffer.get(5);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Неподдерживаемая версия двоичного формата: " + version);
+        }
+        byte type = buffer.get(6);
+        if (type != TYPE_INT32 && type != TYPE_INT64) {
+            throw new IllegalArgumentException("Неподдерживаемый тип элементов: " + type);
+        }
+        buffer.order(order);
+        int rows = buffer.getInt(8);
+        int cols = buffer.getInt(12);
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Некорректные размеры матрицы: " + rows + "x" + cols);
+        }
+        return new Header(rows, cols, type, order);
+    }
+
+    /**
+     * Читает заголовок файла.
+     *
+     * @param file Путь к файлу.
+     * @return Заголовок.
+     * @throws IOException Возникает при ошибке ввода/вывода.
+     */
+    public static Header readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readHeader(channel);
+        }
+    }
+
+    /**
+     * Записывает заголовок в начало файла.
+     */
+    static void writeHeader(FileChannel channel, Header header) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.put(4, header.order() == ByteOrder.BIG_ENDIAN ? (byte) 0 : (byte) 1);
+        buffer.put(5, VERSION);
+        buffer.put(6, header.elementType());
+        buffer.order(header.order());
+        buffer.putInt(8, header.rows());
+        buffer.putInt(12, header.cols());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+    }
+
+    /**
+     * Читает матрицу int32 (или int64 со значениями в пределах int) в память.
+     *
+     * @param file Путь к файлу.
+     * @return Прочитанная матрица.
+     * @throws IOException              Возникает при ошибке ввода/вывода.
+     * @throws IllegalArgumentException Если файл некорректен или значение не помещается в int.
+     */
+    public static IntMatrix read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            if (header.elementType() == TYPE_INT64) {
+                return narrow(readLongData(channel, header));
+            }
+            IntMatrix matrix = new IntMatrix(header.rows(), header.cols());
+            int[] data = matrix.data();
+            int rowsPerRegion = rowsPerRegion(header);
+            for (int row = 0; row < header.rows(); row += rowsPerRegion) {
+                int count = Math.min(rowsPerRegion, header.rows() - row);
+                IntBuffer region = map(channel, header, row, count, FileChannel.MapMode.READ_ONLY).asIntBuffer();
+                region.get(data, row * header.cols(), count * header.cols());
+            }
+            return matrix;
+        }
+    }
+
+    /**
+     * Читает матрицу int32 или int64 в память как матрицу long.
+     *
+     * @param file Путь к файлу.
+     * @return Прочитанная матрица.
+     * @throws IOException Возникает при ошибке ввода/вывода.
+     */
+    public static LongMatrix readLong(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            if (header.elementType() == TYPE_INT64) {
+                return readLongData(channel, header);
+            }
+            LongMatrix matrix = new LongMatrix(header.rows(), header.cols());
+            long[] data = matrix.data();
+            int rowsPerRegion = rowsPerRegion(header);
+            int index = 0;
+            for (int row = 0; row < header.rows(); row += rowsPerRegion) {
+                int count = Math.min(rowsPerRegion, header.rows() - row);
+                IntBuffer region = map(channel, header, row, count, FileChannel.MapMode.READ_ONLY).asIntBuffer();
+                while (region.hasRemaining()) {
+                    data[index++] = region.get();
+                }
+            }
+            return matrix;
+        }
+    }
+
+    /**
+     * Записывает матрицу int в двоичный файл с порядком байтов платформы.
+     *
+     * @param matrix Матрица.
+     * @param file   Путь к файлу (перезаписывается).
+     * @throws IOException Возникает при ошибке ввода/вывода.
+     */
+    public static void write(IntMatrix matrix, Path file) throws IOException {
+        Header header = new Header(matrix.rows(), matrix.cols(), TYPE_INT32, ByteOrder.nativeOrder());
+        try (FileChannel channel = openForWrite(file, header)) {
+            int[] data = matrix.data();
+            int rowsPerRegion = rowsPerRegion(header);
+            for (int row = 0; row < header.rows(); row += rowsPerRegion) {
+                int count = Math.min(rowsPerRegion, header.rows() - row);
+                IntBuffer region = map(channel, header, row, count, FileChannel.MapMode.READ_WRITE).asIntBuffer();
+                for (int i = row; i < row + count; i++) {
+                    region.put(data, i * matrix.stride(), matrix.cols());
+                }
+            }
+        }
+    }
+
+    /**
+     * Записывает матрицу long в двоичный файл с порядком байтов платформы.
+     *
+     * @param matrix Матрица.
+     * @param file   Путь к файлу (перезаписывается).
+     * @throws IOException Возникает при ошибке ввода/вывода.
+     */
+    public static void write(LongMatrix matrix, Path file) throws IOException {
+        Header header = new Header(matrix.rows(), matrix.cols(), TYPE_INT64, ByteOrder.nativeOrder());
+        try (FileChannel channel = openForWrite(file, header)) {
+            long[] data = matrix.data();
+            int rowsPerRegion = rowsPerRegion(header);
+            for (int row = 0; row < header.rows(); row += rowsPerRegion) {
+                int count = Math.min(rowsPerRegion, header.rows() - row);
+                LongBuffer region = map(channel, header, row, count, FileChannel.MapMode.READ_WRITE).asLongBuffer();
+                for (int i = row; i < row + count; i++) {
+                    region.put(data, i * matrix.stride(), matrix.cols());
+                }
+            }
+        }
+    }
+
+    /**
+     * Читает и проверяет заголовок, записанный в буфере с текущей позиции. Позиция буфера не меняется,
+     * поэтому размеры матрицы можно проверить до чтения данных.
+     *
+     * @param buffer Буфер, содержащий как минимум заголовок.
+     * @return Заголовок.
+     * @throws IllegalArgumentException Если данные не являются заголовком двоичной матрицы.
+     */
+    public static Header readHeader(ByteBuffer buffer) {
+        ByteBuffer source = buffer.slice();
+        if (source.remaining() < HEADER_SIZE) {
+            throw new IllegalArgumentException("Данные слишком короткие для двоичной матрицы.");
+        }
+        return parseHeader(source);
+    }
+
+    /**
+     * Читает матрицу int32 (или int64 со значениями в пределах int) из буфера в памяти, начиная
+     * с текущей позиции. После чтения позиция указывает на следующий байт после матрицы, поэтому
+     * несколько матриц, записанных подряд, читаются последовательными вызовами.
+     *
+     * @param buffer Буфер с заголовком и данными.
+     * @return Прочитанная матрица.
+     * @throws IllegalArgumentException Если данные некорректны или значение не помещается в int.
+     */
+    public static IntMatrix read(ByteBuffer buffer) {
+        ByteBuffer source = buffer.slice();
+        Header header = readHeader(source);
+        if (source.remaining() < header.fileSize()) {
+            throw new IllegalArgumentException("Данные короче, чем указано в заголовке.");
+        }
+        source.position(HEADER_SIZE).limit((int) header.fileSize());
+        source.order(header.order());
+        buffer.position(buffer.position() + (int) header.fileSize());
+        if (header.elementType() == TYPE_INT64) {
+            LongMatrix matrix = new LongMatrix(header.rows(), header.cols());
+            source.asLongBuffer().get(matrix.data());
+            return narrow(matrix);
+        }
+        IntMatrix matrix = new IntMatrix(header.rows(), header.cols());
+        source.asIntBuffer().get(matrix.data());
+        return matrix;
+    }
+
+    /**
+     * Записывает матрицу int в буфер в памяти (заголовок и данные) с порядком байтов платформы.
+     *
+     * @param matrix Матрица.
+     * @return Буфер, готовый к чтению.
+     */
+    public static ByteBuffer encode(IntMatrix matrix) {
+        Header header = new Header(matrix.rows(), matrix.cols(), TYPE_INT32, ByteOrder.nativeOrder());
+        ByteBuffer buffer = allocate(header);
+        IntBuffer data = buffer.position(HEADER_SIZE).slice().order(header.order()).asIntBuffer();
+        for (int i = 0; i < matrix.rows(); i++) {
+            data.put(matrix.data(), i * matrix.stride(), matrix.cols());
+        }
+        return buffer.position(0);
+    }
+
+    /**
+     * Записывает матрицу long в буфер в памяти (заголовок и данные) с порядком байтов платформы.
+     *
+     * @param matrix Матрица.
+     * @return Буфер, готовый к чтению.
+     */
+    public static ByteBuffer encode(LongMatrix matrix) {
+        Header header = new Header(matrix.rows(), matrix.cols(), TYPE_INT64, ByteOrder.nativeOrder());
+        ByteBuffer buffer = allocate(header);
+        LongBuffer data = buffer.position(HEADER_SIZE).slice().order(header.order()).asLongBuffer();
+        for (int i = 0; i < matrix.rows(); i++) {
+            data.put(matrix.data(), i * matrix.stride(), matrix.cols());
+        }
+        return buffer.position(0);
+    }
+
+    /**
+     * Преобразует матрицу из формата CSV в двоичный формат.
+     *
+     * @param csvFile    Исходный файл CSV.
+     * @param binaryFile Файл двоичного формата (перезаписывается).
+     * @throws IOException           Возникает при ошибке ввода/вывода.
+     * @throws MatrixFormatException Возникает при некорректных данных в CSV.
+     */
+    public static void convertCsvToBinary(Path csvFile, Path binaryFile) throws IOException {
+        write(CsvMatrixParser.parse(csvFile), binaryFile);
+    }
+
+    /**
+     * Преобразует матрицу из двоичного формата в формат CSV.
+     *
+     * @param binaryFile Исходный файл двоичного формата.
+     * @param csvFile    Файл CSV (перезаписывается).
+     * @throws IOException Возникает при ошибке ввода/вывода.
+     */
+    public static void convertBinaryToCsv(Path binaryFile, Path csvFile) throws IOException {
+        MatrixWriter.writeMatrixToFile(read(binaryFile), csvFile.toString());
+    }
+
+    /**
+     * Выделяет буфер под матрицу и записывает в него заголовок.
+     */
+    private static ByteBuffer allocate(Header header) {
+        if (header.fileSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Матрица слишком велика для буфера в памяти: "
+                    + header.rows() + "x" + header.cols());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) header.fileSize());
+        buffer.putInt(0, MAGIC);
+        buffer.put(4, header.order() == ByteOrder.BIG_ENDIAN ? (byte) 0 : (byte) 1);
+        buffer.put(5, VERSION);
+        buffer.put(6, header.elementType());
+        buffer.order(header.order());
+        buffer.putInt(8, header.rows());
+        buffer.putInt(12, header.cols());
+        return buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Создает файл нужного размера и записывает заголовок.
+     */
+    static FileChannel openForWrite(Path file, Header header) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeHeader(channel, header);
+            // Расширяем файл до полного размера, чтобы его можно было отобразить в память
+            if (header.fileSize() > HEADER_SIZE) {
+                channel.write(ByteBuffer.allocate(1), header.fileSize() - 1);
+            }
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Отображает в память строки [row, row + count) файла.
+     */
+    static MappedByteBuffer map(FileChannel channel, Header header, int row, int count, FileChannel.MapMode mode)
+            throws IOException {
+        long rowBytes = (long) header.cols() * header.elementSize();
+        MappedByteBuffer buffer = channel.map(mode, HEADER_SIZE + row * rowBytes, count * rowBytes);
+        buffer.order(header.order());
+        return buffer;
+    }
+
+    /**
+     * Количество строк в одном отображаемом участке файла.
+     */
+    static int rowsPerRegion(Header header) {
+        long rowBytes = Math.max(1L, (long) header.cols() * header.elementSize());
+        if (rowBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Строка матрицы слишком длинная: " + header.cols() + " столбцов");
+        }
+        return (int) Math.max(1, Math.min(header.rows(), MAX_REGION_BYTES / rowBytes));
+    }
+
+    /**
+     * Читает данные int64 в матрицу long.
+     */
+    private static LongMatrix readLongData(FileChannel channel, Header header) throws IOException {
+        LongMatrix matrix = new LongMatrix(header.rows(), header.cols());
+        long[] data = matrix.data();
+        int rowsPerRegion = rowsPerRegion(header);
+        for (int row = 0; row < header.rows(); row += rowsPerRegion) {
+            int count = Math.min(rowsPerRegion, header.rows() - row);
+            LongBuffer region = map(channel, header, row, count, FileChannel.MapMode.READ_ONLY).asLongBuffer();
+            region.get(data, row * header.cols(), count * header.cols());
+        }
+        return matrix;
+    }
+
+    /**
+     * Преобразует матрицу long в матрицу int с проверкой диапазона.
+     */
+    private static IntMatrix narrow(LongMatrix source) {
+        IntMatrix matrix = new IntMatrix(source.rows(), source.cols());
+        long[] from = source.data();
+        int[] to = matrix.data();
+        for (int i = 0; i < to.length; i++) {
+            long value = from[i];
+            if (value != (int) value) {
+                throw new IllegalArgumentException("Значение " + value + " в строке " + (i / source.cols() + 1)
+                        + " не помещается в тип int");
+            }
+            to[i] = (int) value;
+        }
+        return matrix;
+    }
+}
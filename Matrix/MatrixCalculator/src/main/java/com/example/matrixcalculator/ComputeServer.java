@@ -0,0 +1,583 @@
+package com.example.matrixcalculator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Локальный HTTP-сервер вычислений: позволяет скриптам использовать один "прогретый" экземпляр JVM
+ * вместо запуска приложения на каждую операцию. Сервер слушает только адрес обратной петли.
+ * <p>
+ * Операции: POST /add, /subtract, /multiply, /determinant. Тело запроса - CSV (две матрицы разделяются
+ * пустой строкой) или двоичный формат {@link BinaryMatrixFormat} (матрицы записаны подряд) при заголовке
+ * {@code Content-Type: application/octet-stream}. Результат возвращается в CSV, а при заголовке
+ * {@code Accept: application/octet-stream} - в двоичном формате, если он помещается в long.
+ * Определитель возвращается числом в тексте. GET /health возвращает "ok", а GET /metrics - статистику
+ * {@link OperationMetrics#dump()}.
+ * <p>
+ * Каждый запрос обрабатывается в отдельном виртуальном потоке, если их поддерживает JVM, иначе в пуле потоков.
+ * Небольшие операции (не дороже порога {@link ParallelExecution}) не выполняются по отдельности, а собираются
+ * диспетчером в пакет и вычисляются одним вызовом {@link ParallelExecution#forEachRowBand}. Крупные операции
+ * выполняются не более чем {@link #DEFAULT_LARGE_SLOTS} одновременно и не задерживают пакеты небольших:
+ * у них разные очереди.
+ */
+public final class ComputeServer implements AutoCloseable {
+
+    static final Logger logger = LogManager.getLogger(ComputeServer.class.getName());
+
+    /**
+     * Порт по умолчанию (системное свойство matrix.server.port).
+     */
+    public static final int DEFAULT_PORT = Integer.getInteger("matrix.server.port", 8085);
+
+    /**
+     * Наибольшая стоимость операции, которая выполняется в пакете небольших операций
+     * (системное свойство matrix.server.smallWork), по умолчанию равна порогу распараллеливания.
+     */
+    public static final long DEFAULT_SMALL_WORK = Long.getLong("matrix.server.smallWork",
+            ParallelExecution.DEFAULT_THRESHOLD);
+
+    /**
+     * Наибольшее количество операций в одном пакете (системное свойство matrix.server.batch).
+     */
+    public static final int DEFAULT_BATCH_SIZE = Integer.getInteger("matrix.server.batch", 64);
+
+    /**
+     * Количество одновременно выполняемых крупных операций (системное свойство matrix.server.largeSlots).
+     */
+    public static final int DEFAULT_LARGE_SLOTS = Integer.getInteger("matrix.server.largeSlots", 1);
+
+    /**
+     * Наибольшее количество элементов одной входной матрицы (системное свойство matrix.server.maxElements).
+     * Запросы с большими матрицами отклоняются с кодом 413.
+     */
+    public static final long DEFAULT_MAX_ELEMENTS = Long.getLong("matrix.server.maxElements", 1L << 24);
+
+    /**
+     * Верхняя оценка размера одного элемента в теле запроса: "-2147483648;" с переводом строки в CSV
+     * или 8 байт в двоичном формате int64.
+     */
+    private static final int MAX_BYTES_PER_ELEMENT = 16;
+
+    /**
+     * Наибольший размер тела запроса в байтах (системное свойство matrix.server.maxBodyBytes). По умолчанию
+     * выводится из {@link #DEFAULT_MAX_ELEMENTS}: две матрицы по {@value #MAX_BYTES_PER_ELEMENT} байт на элемент.
+     * Более длинные запросы отклоняются с кодом 413 по заголовку Content-Length или, если длина заранее
+     * не известна, как только прочитано больше этого количества байтов.
+     */
+    public static final long DEFAULT_MAX_BODY_BYTES = Long.getLong("matrix.server.maxBodyBytes",
+            Math.min(Integer.MAX_VALUE - 8, 2 * (BinaryMatrixFormat.HEADER_SIZE
+                    + DEFAULT_MAX_ELEMENTS * MAX_BYTES_PER_ELEMENT)));
+
+    /**
+     * Бюджет памяти на входные данные всех одновременно обрабатываемых запросов в байтах (системное свойство
+     * matrix.server.memory): по умолчанию половина максимального размера кучи. Запрос резервирует свою долю
+     * до чтения тела и ждет, пока она не освободится, так что несколько одновременных загрузок
+     * не могут исчерпать кучу до проверки размеров.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = Long.getLong("matrix.server.memory",
+            Runtime.getRuntime().maxMemory() / 2);
+
+    /**
+     * Во сколько раз память на входные данные запроса больше тела: само тело, разобранные матрицы
+     * и запас на рост массива при разборе CSV.
+     */
+    private static final int BODY_MEMORY_FACTOR = 3;
+
+    /**
+     * Бюджет памяти учитывается в килобайтах, чтобы количество разрешений помещалось в int.
+     */
+    private static final int BYTES_PER_PERMIT = 1024;
+
+    private static final String BINARY_TYPE = "application/octet-stream";
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final Thread dispatcher;
+    private final BlockingQueue<PendingOperation> smallOperations = new LinkedBlockingQueue<>();
+    private final Semaphore largeSlots = new Semaphore(Math.max(1, DEFAULT_LARGE_SLOTS), true);
+    private final int memoryPermits = (int) Math.min(Integer.MAX_VALUE,
+            Math.max(BYTES_PER_PERMIT, DEFAULT_MEMORY_BUDGET) / BYTES_PER_PERMIT);
+    private final Semaphore memory = new Semaphore(memoryPermits, true);
+
+    private ComputeServer(HttpServer server) {
+        this.server = server;
+        this.requestExecutor = newRequestExecutor();
+        this.dispatcher = new Thread(this::dispatchSmallOperations, "compute-server-batch");
+        this.dispatcher.setDaemon(true);
+        server.setExecutor(requestExecutor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Запускает сервер на адресе обратной петли.
+     *
+     * @param port Порт или 0 для выбора свободного порта.
+     * @return Запущенный сервер.
+     * @throws IOException Возникает, если порт занят.
+     */
+    public static ComputeServer start(int port) throws IOException {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        ComputeServer computeServer = new ComputeServer(httpServer);
+        computeServer.dispatcher.start();
+        httpServer.start();
+        logger.info("Сервер вычислений запущен на порту " + computeServer.port());
+        return computeServer;
+    }
+
+    /**
+     * @return Порт, на котором слушает сервер.
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Останавливает сервер, дожидаясь завершения начатых обменов не дольше секунды.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        dispatcher.interrupt();
+        requestExecutor.shutdownNow();
+    }
+
+    /**
+     * Исполнитель "поток на запрос": виртуальные потоки, если JVM их поддерживает (Java 21+),
+     * иначе пул потоков-демонов. Метод ищется через отражение, так как проект собирается для Java 16.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "compute-server-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Обрабатывает один HTTP-запрос.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if ("/health".equals(path)) {
+                respondText(exchange, 200, "ok");
+                return;
+            }
+            if ("/metrics".equals(path)) {
+                respondText(exchange, 200, OperationMetrics.dump());
+                return;
+            }
+            Operation operation = Operation.of(path);
+            if (operation == null) {
+                respondText(exchange, 404, "Неизвестная операция: " + path);
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respondText(exchange, 405, "Ожидается метод POST");
+                return;
+            }
+            String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            long length = contentLength != null ? parseLength(contentLength) : -1;
+            if (length > DEFAULT_MAX_BODY_BYTES) {
+                respondText(exchange, 413, "Тело запроса длиннее " + DEFAULT_MAX_BODY_BYTES + " байт");
+                return;
+            }
+            // Без Content-Length резервируется память на тело наибольшего допустимого размера;
+            // запрос больше всего бюджета выполняется в одиночку
+            long bodyBytes = length >= 0 ? length : DEFAULT_MAX_BODY_BYTES;
+            int permits = (int) Math.min(memoryPermits,
+                    Math.max(1, BODY_MEMORY_FACTOR * bodyBytes / BYTES_PER_PERMIT));
+            boolean reserved = false;
+            try {
+                memory.acquire(permits);
+                reserved = true;
+                List<IntMatrix> operands = readOperands(exchange, operation.operands);
+                for (IntMatrix operand : operands) {
+                    if ((long) operand.rows() * operand.cols() > DEFAULT_MAX_ELEMENTS) {
+                        respondText(exchange, 413, "Матрица " + operand.rows() + "x" + operand.cols()
+                                + " превышает допустимый размер (" + DEFAULT_MAX_ELEMENTS + " элементов)");
+                        return;
+                    }
+                }
+                Object result = execute(operation, operands);
+                respond(exchange, result);
+            } catch (RequestTooLargeException e) {
+                respondText(exchange, 413, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                respondText(exchange, 400, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                respondText(exchange, 503, "Сервер останавливается");
+            } catch (RuntimeException e) {
+                logger.error("Ошибка при выполнении " + path, e);
+                respondText(exchange, 500, String.valueOf(e.getMessage()));
+            } finally {
+                if (reserved) {
+                    memory.release(permits);
+                }
+            }
+        }
+    }
+
+    /**
+     * Выполняет операцию: небольшую - в очередном пакете, крупную - после получения одного из слотов.
+     */
+    private Object execute(Operation operation, List<IntMatrix> operands) throws InterruptedException {
+        Callable<Object> action = () -> operation.apply(operands);
+        long work = operation.work(operands);
+        if (work <= DEFAULT_SMALL_WORK) {
+            PendingOperation pending = new PendingOperation(action, work);
+            smallOperations.put(pending);
+            try {
+                return pending.result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        largeSlots.acquire();
+        try {
+            return action.call();
+        } catch (RuntimeException | InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            largeSlots.release();
+        }
+    }
+
+    /**
+     * Цикл диспетчера: забирает из очереди все накопившиеся небольшие операции (не больше размера пакета)
+     * и выполняет их одним распараллеленным вызовом, так что стоимость запуска задач в пуле делится на весь пакет.
+     */
+    private void dispatchSmallOperations() {
+        List<PendingOperation> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(smallOperations.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            smallOperations.drainTo(batch, Math.max(1, DEFAULT_BATCH_SIZE) - 1);
+            long totalWork = 0;
+            for (PendingOperation pending : batch) {
+                totalWork += pending.work;
+            }
+            List<PendingOperation> current = batch;
+            ParallelExecution.forEachRowBand(current.size(), Math.max(1, totalWork / current.size()),
+                    (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            current.get(i).run();
+                        }
+                    });
+            batch = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Читает операнды из тела запроса не более чем на {@link #DEFAULT_MAX_BODY_BYTES} байт. Двоичные матрицы
+     * читаются по одной: размеры из заголовка проверяются до выделения памяти под данные.
+     *
+     * @throws RequestTooLargeException Если тело запроса или одна из матриц превышает допустимый размер.
+     */
+    private static List<IntMatrix> readOperands(HttpExchange exchange, int count) throws IOException {
+        List<IntMatrix> operands = new ArrayList<>();
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        byte[] body;
+        try (LimitedInputStream input = new LimitedInputStream(exchange.getRequestBody(), DEFAULT_MAX_BODY_BYTES)) {
+            if (contentType != null && contentType.startsWith(BINARY_TYPE)) {
+                for (int i = 0; i < count; i++) {
+                    operands.add(readBinaryOperand(input));
+                }
+                if (input.read() != -1) {
+                    throw new IllegalArgumentException("Лишние данные после " + count + " матриц");
+                }
+                return operands;
+            }
+            body = input.readAllBytes();
+        }
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = i == count - 1 ? body.length : blankLine(body, start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Ожидается " + count + " матрицы, разделенные пустой строкой");
+            }
+            operands.add(CsvMatrixParser.parse(new ByteArrayInputStream(body, start, end - start)));
+            start = end;
+        }
+        return operands;
+    }
+
+    /**
+     * Читает одну двоичную матрицу из потока: сначала заголовок, затем, если размеры допустимы, данные.
+     */
+    private static IntMatrix readBinaryOperand(LimitedInputStream input) throws IOException {
+        byte[] header = input.readNBytes(BinaryMatrixFormat.HEADER_SIZE);
+        BinaryMatrixFormat.Header parsed = BinaryMatrixFormat.readHeader(ByteBuffer.wrap(header));
+        if ((long) parsed.rows() * parsed.cols() > DEFAULT_MAX_ELEMENTS) {
+            throw new RequestTooLargeException("Матрица " + parsed.rows() + "x" + parsed.cols()
+                    + " превышает допустимый размер (" + DEFAULT_MAX_ELEMENTS + " элементов)");
+        }
+        if (parsed.fileSize() - header.length > input.remaining()) {
+            // Данные не поместятся в допустимое тело запроса, а значит, и в зарезервированную память
+            throw new RequestTooLargeException("Матрица " + parsed.rows() + "x" + parsed.cols()
+                    + " длиннее допустимого тела запроса (" + DEFAULT_MAX_BODY_BYTES + " байт)");
+        }
+        byte[] matrix = new byte[(int) parsed.fileSize()];
+        System.arraycopy(header, 0, matrix, 0, header.length);
+        int length = header.length + input.readNBytes(matrix, header.length, matrix.length - header.length);
+        if (length < matrix.length) {
+            throw new IllegalArgumentException("Данные короче, чем указано в заголовке.");
+        }
+        return BinaryMatrixFormat.read(ByteBuffer.wrap(matrix));
+    }
+
+    /**
+     * Разбирает значение заголовка Content-Length.
+     *
+     * @return Длина тела или -1, если значение некорректно (тогда длина ограничивается при чтении).
+     */
+    private static long parseLength(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Ищет пустую строку, отделяющую матрицы в CSV.
+     *
+     * @return Индекс первого байта после пустой строки или -1.
+     */
+    private static int blankLine(byte[] body, int from) {
+        boolean lineEmpty = false;
+        for (int i = from; i < body.length; i++) {
+            if (body[i] == '\n') {
+                if (lineEmpty) {
+                    return i + 1;
+                }
+                lineEmpty = true;
+            } else if (body[i] != '\r') {
+                lineEmpty = false;
+            }
+        }
+        return -1;
+    }
+
+    private static void respond(HttpExchange exchange, Object result) throws IOException {
+        if (result instanceof BigInteger) {
+            respondText(exchange, 200, result.toString());
+            return;
+        }
+        Matrix matrix = (Matrix) result;
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept != null && accept.contains(BINARY_TYPE) && !(matrix instanceof BigIntegerMatrix)) {
+            ByteBuffer encoded = matrix instanceof IntMatrix
+                    ? BinaryMatrixFormat.encode((IntMatrix) matrix)
+                    : BinaryMatrixFormat.encode((LongMatrix) matrix);
+            exchange.getResponseHeaders().set("Content-Type", BINARY_TYPE);
+            exchange.sendResponseHeaders(200, encoded.remaining());
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(encoded.array(), encoded.position(), encoded.remaining());
+            }
+            return;
+        }
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        MatrixWriter.writeMatrix(matrix, text);
+        exchange.getResponseHeaders().set("Content-Type", "text/csv; charset=utf-8");
+        exchange.sendResponseHeaders(200, text.size());
+        try (OutputStream output = exchange.getResponseBody()) {
+            text.writeTo(output);
+        }
+    }
+
+    private static void respondText(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Операции сервера.
+     */
+    private enum Operation {
+        ADD("/add", 2), SUBTRACT("/subtract", 2), MULTIPLY("/multiply", 2), DETERMINANT("/determinant", 1);
+
+        private final String path;
+        private final int operands;
+
+        Operation(String path, int operands) {
+            this.path = path;
+            this.operands = operands;
+        }
+
+        static Operation of(String path) {
+            for (Operation operation : values()) {
+                if (operation.path.equals(path)) {
+                    return operation;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Оценка стоимости в тех же единицах, что и у {@link ParallelExecution}.
+         */
+        long work(List<IntMatrix> matrices) {
+            IntMatrix first = matrices.get(0);
+            switch (this) {
+                case MULTIPLY:
+                    return (long) first.rows() * first.cols() * matrices.get(1).cols();
+                case DETERMINANT:
+                    return (long) first.rows() * first.rows() * first.rows() / 3;
+                default:
+                    return (long) first.rows() * first.cols();
+            }
+        }
+
+        Object apply(List<IntMatrix> matrices) {
+            return OperationMetrics.measure(path.substring(1), matrices.get(0),
+                    matrices.size() > 1 ? matrices.get(1) : null, () -> compute(matrices));
+        }
+
+        private Object compute(List<IntMatrix> matrices) {
+            IntMatrix first = matrices.get(0);
+            switch (this) {
+                case ADD:
+                    return ExactOperations.add(first, MatrixBounds.of(first), matrices.get(1),
+                            MatrixBounds.of(matrices.get(1)));
+                case SUBTRACT:
+                    return ExactOperations.subtract(first, MatrixBounds.of(first), matrices.get(1),
+                            MatrixBounds.of(matrices.get(1)));
+                case MULTIPLY:
+                    return ExactOperations.multiply(first, MatrixBounds.of(first), matrices.get(1),
+                            MatrixBounds.of(matrices.get(1)));
+                default:
+                    return MatrixOperations.calculateDeterminantExact(first);
+            }
+        }
+    }
+
+    /**
+     * Запрос превышает допустимый размер; отвечается кодом 413.
+     */
+    private static final class RequestTooLargeException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        RequestTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Поток, который выбрасывает {@link RequestTooLargeException}, как только из него прочитано больше limit байт.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream input, long limit) {
+            super(input);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                counted(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            counted(skipped);
+            return skipped;
+        }
+
+        /**
+         * @return Сколько байтов еще можно прочитать до превышения предела.
+         */
+        long remaining() {
+            return limit - count;
+        }
+
+        private void counted(long bytes) {
+            count += bytes;
+            if (count > limit) {
+                throw new RequestTooLargeException("Тело запроса длиннее " + limit + " байт");
+            }
+        }
+    }
+
+    /**
+     * Небольшая операция, ожидающая выполнения в пакете.
+     */
+    private static final class PendingOperation {
+        private final Callable<Object> action;
+        private final long work;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        PendingOperation(Callable<Object> action, long work) {
+            this.action = action;
+            this.work = work;
+        }
+
+        /**
+         * Выполняет операцию; ошибка одной операции не влияет на остальные операции пакета.
+         */
+        void run() {
+            try {
+                result.complete(action.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.matrixcalculator;
+
+import java.util.Arrays;
+
+/**
+ * Разреженная матрица целых чисел в формате CSR (compressed sparse row).
+ * Ненулевые элементы строки i хранятся в позициях [rowPointers[i], rowPointers[i + 1]) массивов
+ * columnIndices и values, причем индексы столбцов внутри строки возрастают.
+ * Объем памяти пропорционален количеству ненулевых элементов.
+ */
+public final class CsrMatrix {
+
+    private final int rows;
+    private final int cols;
+    private final int[] rowPointers;
+    private final int[] columnIndices;
+    private final int[] values;
+
+    /**
+     * Создает матрицу из готовых массивов CSR без копирования.
+     *
+     * @param rows          Количество строк.
+     * @param cols          Количество столбцов.
+     * @param rowPointers   Начала строк (длина rows + 1).
+     * @param columnIndices Индексы столбцов ненулевых элементов.
+     * @param values        Значения ненулевых элементов.
+     * @throws IllegalArgumentException Если массивы не согласованы с размерами.
+     */
+    public CsrMatrix(int rows, int cols, int[] rowPointers, int[] columnIndices, int[] values) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Размеры матрицы не могут быть отрицательными: " + rows + "x" + cols);
+        }
+        if (rowPointers.length != rows + 1 || rowPointers[0] != 0 || columnIndices.length < rowPointers[rows]
+                || values.length < rowPointers[rows]) {
+            throw new IllegalArgumentException("Массивы CSR не согласованы с размерами матрицы.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * Преобразует плотную матрицу в формат CSR.
+     *
+     * @param matrix Плотная матрица.
+     * @return Разреженная матрица с теми же элементами.
+     */
+    public static CsrMatrix fromDense(IntMatrix matrix) {
+        int rows = matrix.rows();
+        int cols = matrix.cols();
+        int[] data = matrix.data();
+        int stride = matrix.stride();
+        int[] pointers = new int[rows + 1];
+        for (int i = 0; i < rows; i++) {
+            int count = 0;
+            for (int j = 0, p = i * stride; j < cols; j++, p++) {
+                if (data[p] != 0) {
+                    count++;
+                }
+            }
+            pointers[i + 1] = pointers[i] + count;
+        }
+        int[] columns = new int[pointers[rows]];
+        int[] values = new int[pointers[rows]];
+        int index = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0, p = i * stride; j < cols; j++, p++) {
+                if (data[p] != 0) {
+                    columns[index] = j;
+                    values[index++] = data[p];
+                }
+            }
+        }
+        return new CsrMatrix(rows, cols, pointers, columns, values);
+    }
+
+    /**
+     * Собирает матрицу из списка координат (формат COO). Повторяющиеся координаты суммируются,
+     * нулевые суммы отбрасываются.
+     *
+     * @param rows       Количество строк.
+     * @param cols       Количество столбцов.
+     * @param rowIndex   Индексы строк элементов.
+     * @param colIndex   Индексы столбцов элементов.
+     * @param entries    Значения элементов.
+     * @param count      Количество элементов в массивах.
+     * @return Разреженная матрица.
+     * @throws IllegalArgumentException Если индекс выходит за пределы матрицы.
+     */
+    public static CsrMatrix fromCoordinates(int rows, int cols, int[] rowIndex, int[] colIndex, int[] entries,
+                                            int count) {
+        int[] pointers = new int[rows + 1];
+        for (int e = 0; e < count; e++) {
+            if (rowIndex[e] < 0 || rowIndex[e] >= rows || colIndex[e] < 0 || colIndex[e] >= cols) {
+                throw new IllegalArgumentException("Элемент (" + (rowIndex[e] + 1) + ", " + (colIndex[e] + 1)
+                        + ") выходит за пределы матрицы " + rows + "x" + cols);
+            }
+            pointers[rowIndex[e] + 1]++;
+        }
+        for (int i = 0; i < rows; i++) {
+            pointers[i + 1] += pointers[i];
+        }
+        // Раскладываем элементы по строкам (сортировка подсчетом)
+        int[] next = Arrays.copyOf(pointers, rows);
+        int[] columns = new int[count];
+        int[] values = new int[count];
+        for (int e = 0; e < count; e++) {
+            int position = next[rowIndex[e]]++;
+            columns[position] = colIndex[e];
+            values[position] = entries[e];
+        }
+        // Сортируем столбцы внутри каждой строки и суммируем повторы
+        int[] compactPointers = new int[rows + 1];
+        int write = 0;
+        for (int i = 0; i < rows; i++) {
+            int from = pointers[i];
+            int to = pointers[i + 1];
+            sortRow(columns, values, from, to);
+            for (int p = from; p < to; p++) {
+                if (write > compactPointers[i] && columns[write - 1] == columns[p]) {
+                    values[write - 1] += values[p];
+                } else {
+                    columns[write] = columns[p];
+                    values[write++] = values[p];
+                }
+            }
+            // Удаляем нули, получившиеся после суммирования
+            int keep = compactPointers[i];
+            for (int p = compactPointers[i]; p < write; p++) {
+                if (values[p] != 0) {
+                    columns[keep] = columns[p];
+                    values[keep++] = values[p];
+                }
+            }
+            write = keep;
+            compactPointers[i + 1] = write;
+        }
+        return new CsrMatrix(rows, cols, compactPointers, Arrays.copyOf(columns, write), Arrays.copyOf(values, write));
+    }
+
+    /**
+     * Преобразует матрицу в плотное представление.
+     *
+     * @return Плотная матрица.
+     */
+    public IntMatrix toDense() {
+        IntMatrix result = new IntMatrix(rows, cols);
+        int[] data = result.data();
+        for (int i = 0; i < rows; i++) {
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                data[i * cols + columnIndices[p]] = values[p];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param row Индекс строки.
+     * @param col Индекс столбца.
+     * @return Элемент (row, col).
+     */
+    public int get(int row, int col) {
+        int position = Arrays.binarySearch(columnIndices, rowPointers[row], rowPointers[row + 1], col);
+        return position >= 0 ? values[position] : 0;
+    }
+
+    /**
+     * @return Количество строк.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return Количество столбцов.
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @return Количество хранимых ненулевых элементов.
+     */
+    public int nonZeros() {
+        return rowPointers[rows];
+    }
+
+    /**
+     * @return Доля ненулевых элементов.
+     */
+    public double density() {
+        long cells = (long) rows * cols;
+        return cells == 0 ? 0 : (double) nonZeros() / cells;
+    }
+
+    /**
+     * @return Массив начал строк без копирования.
+     */
+    public int[] rowPointers() {
+        return rowPointers;
+    }
+
+    /**
+     * @return Массив индексов столбцов без копирования.
+     */
+    public int[] columnIndices() {
+        return columnIndices;
+    }
+
+    /**
+     * @return Массив значений без копирования.
+     */
+    public int[] values() {
+        return values;
+    }
+
+    /**
+     * Сортирует пары (столбец, значение) строки по столбцу. Короткие строки сортируются вставками,
+     * длинные - упаковкой пар в long и стандартной сортировкой.
+     */
+    private static void sortRow(int[] columns, int[] values, int from, int to) {
+        boolean sorted = true;
+        for (int i = from + 1; i < to && sorted; i++) {
+            sorted = columns[i - 1] <= columns[i];
+        }
+        if (sorted) {
+            return;
+        }
+        if (to - from > 32) {
+            long[] packed = new long[to - from];
+            for (int i = from; i < to; i++) {
+                packed[i - from] = ((long) columns[i] << 32) | (values[i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(packed);
+            for (int i = from; i < to; i++) {
+                columns[i] = (int) (packed[i - from] >>> 32);
+                values[i] = (int) packed[i - from];
+            }
+            return;
+        }
+        for (int i = from + 1; i < to; i++) {
+            int column = columns[i];
+            int value = values[i];
+            int j = i - 1;
+            while (j >= from && columns[j] > column) {
+                columns[j + 1] = columns[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            columns[j + 1] = column;
+            values[j + 1] = value;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.matrixcalculator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Однопроходный разборщик матриц в формате CSV с разделителем ";".
+ * Файл читается один раз блоками байтов, числа разбираются прямо из буфера без создания строк
+ * и сразу записываются в массив будущей {@link IntMatrix}. Прямоугольность проверяется по ходу чтения,
+ * а при ошибке выбрасывается {@link MatrixFormatException} с номером строки и столбца.
+ * <p>
+ * Как и прежний разбор через {@code String.split(";")} и {@code Integer.parseInt}, разборщик отбрасывает
+ * пустые значения в конце строки, игнорирует символ '\r' перед переводом строки и отклоняет пустые значения
+ * внутри строки, пробелы и числа вне диапазона int. Отличия от прежнего разбора:
+ * <ul>
+ *     <li>пустые строки в конце файла (например, {@code "1;2\n\n"}) допускаются, а файл из одного
+ *     перевода строки дает матрицу 0x0 - раньше пустая строка не проходила {@code Integer.parseInt};</li>
+ *     <li>метка порядка байтов UTF-8 в начале файла пропускается - раньше она попадала в первое значение
+ *     и давала ошибку;</li>
+ *     <li>строки разной длины отклоняются - раньше такая матрица загружалась;</li>
+ *     <li>строка, состоящая только из разделителей, отклоняется - раньше она давала пустую строку матрицы;</li>
+ *     <li>одиночный символ '\r' не считается концом строки и отклоняется;</li>
+ *     <li>ошибки сообщаются {@link MatrixFormatException} с номером строки и столбца, а не текстом строки.</li>
+ * </ul>
+ */
+public final class CsvMatrixParser {
+
+    /**
+     * Размер буфера чтения.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Модуль наименьшего значения int.
+     */
+    private static final long INT_MIN_ABS = 1L << 31;
+
+    // Состояние разбора
+    private int[] data;
+    private int size;
+    private int rows;
+    private int cols = -1;
+    private long line = 1;
+    private int rowCells;
+    private int pendingEmptyCells;
+    private boolean lineStarted;
+    private long firstBlankLine;
+    private boolean inValue;
+    private boolean negative;
+    private boolean hasDigits;
+    private boolean carriageReturn;
+    private long value;
+
+    private CsvMatrixParser(int initialCapacity) {
+        this.data = new int[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Разборщик части файла: значения записываются в готовый массив начиная с offset,
+     * количество столбцов известно заранее, нумерация строк начинается с firstLine, а blankLine -
+     * начало пустых строк, которыми закончились предыдущие части.
+     */
+    private CsvMatrixParser(int[] data, int offset, int cols, long firstLine, long blankLine) {
+        this.data = data;
+        this.size = offset;
+        this.cols = cols;
+        this.line = firstLine;
+        this.firstBlankLine = blankLine;
+    }
+
+    /**
+     * Читает матрицу из файла.
+     *
+     * @param file Путь к файлу.
+     * @return Прочитанная матрица.
+     * @throws IOException           Возникает при ошибке ввода/вывода при чтении файла.
+     * @throws MatrixFormatException Возникает при некорректном значении или разной длине строк.
+     */
+    public static IntMatrix parse(Path file) throws IOException {
+        // Начальная емкость из расчета нескольких байтов на значение; при необходимости массив растет
+        long size = Files.size(file);
+        long estimate = Math.min(size / 4 + 1, Integer.MAX_VALUE - 8);
+        OperationMonitor.beginWork(size);
+        try (InputStream input = Files.newInputStream(file)) {
+            return new CsvMatrixParser((int) estimate).read(input);
+        }
+    }
+
+    /**
+     * Читает матрицу из потока. Поток не закрывается.
+     *
+     * @param input Поток с данными CSV.
+     * @return Прочитанная матрица.
+     * @throws IOException           Возникает при ошибке ввода/вывода при чтении потока.
+     * @throws MatrixFormatException Возникает при некорректном значении или разной длине строк.
+     */
+    public static IntMatrix parse(InputStream input) throws IOException {
+        return new CsvMatrixParser(1024).read(input);
+    }
+
+    /**
+     * Разбирает часть файла, начинающуюся с начала строки и заканчивающуюся концом строки, в полосу строк
+     * готового массива. Используется {@link ParallelCsvLoader}; правила и сообщения об ошибках те же,
+     * что и при чтении файла целиком.
+     *
+     * @param chunk     Байты части файла (от текущей позиции до предела).
+     * @param data      Массив значений всей матрицы.
+     * @param offset    Индекс первого значения полосы в массиве.
+     * @param cols      Количество столбцов матрицы.
+     * @param firstLine Номер первой строки части в файле (начиная с 1).
+     * @param rows      Ожидаемое количество непустых строк в части.
+     * @param blankLine Номер первой из пустых строк, которыми заканчиваются предыдущие части, или 0.
+     * @return Номер первой из пустых строк в конце части (с учетом blankLine) или 0, если часть ими
+     * не заканчивается.
+     * @throws MatrixFormatException Возникает при некорректном значении или разной длине строк.
+     */
+    static long parseChunk(ByteBuffer chunk, int[] data, int offset, int cols, long firstLine, int rows,
+                           long blankLine) {
+        CsvMatrixParser parser = new CsvMatrixParser(data, offset, cols, firstLine, blankLine);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while (chunk.hasRemaining()) {
+            int count = Math.min(buffer.length, chunk.remaining());
+            chunk.get(buffer, 0, count);
+            for (int i = 0; i < count; i++) {
+                parser.accept(buffer[i]);
+            }
+            OperationMonitor.checkCancelled();
+        }
+        if (parser.lineStarted) {
+            parser.endLine();
+        }
+        if (parser.rows != rows) {
+            throw new IllegalStateException("Ожидалось " + rows + " строк, разобрано " + parser.rows
+                    + " (строка " + firstLine + ")");
+        }
+        return parser.firstBlankLine;
+    }
+
+    /**
+     * Читает поток до конца и собирает матрицу.
+     */
+    private IntMatrix read(InputStream input) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        boolean first = true;
+        int count;
+        while ((count = input.read(buffer)) != -1) {
+            int start = 0;
+            if (first && count > 0) {
+                first = false;
+                start = skipByteOrderMark(buffer, count);
+            }
+            for (int i = start; i < count; i++) {
+                accept(buffer[i]);
+            }
+            OperationMonitor.worked(count);
+            OperationMonitor.checkCancelled();
+        }
+        if (lineStarted) {
+            endLine();
+        }
+        int columns = Math.max(cols, 0);
+        int[] values = data.length == size ? data : Arrays.copyOf(data, size);
+        return new IntMatrix(rows, columns, columns, values);
+    }
+
+    /**
+     * Обрабатывает очередной байт.
+     */
+    private void accept(byte b) {
+        if (carriageReturn) {
+            // Символ '\r' допустим только непосредственно перед переводом строки
+            carriageReturn = false;
+            if (b != '\n') {
+                throw error("Недопустимый символ '\\r'");
+            }
+        }
+        if (b >= '0' && b <= '9') {
+            startValue();
+            hasDigits = true;
+            value = value * 10 + (b - '0');
+            if (value > INT_MIN_ABS) {
+                throw error("Значение выходит за пределы типа int");
+            }
+        } else if (b == ';') {
+            startLine();
+            endCell();
+        } else if (b == '\n') {
+            if (lineStarted) {
+                endLine();
+            } else if (firstBlankLine == 0) {
+                firstBlankLine = line;
+            }
+            line++;
+        } else if (b == '-' || b == '+') {
+            if (inValue) {
+                throw error("Некорректное значение");
+            }
+            startValue();
+            negative = b == '-';
+        } else if (b == '\r') {
+            carriageReturn = true;
+        } else {
+            startLine();
+            throw error("Недопустимый символ '" + (char) (b & 0xFF) + "'");
+        }
+    }
+
+    /**
+     * Отмечает начало непустой строки; пустые строки перед ней считаются ошибкой.
+     */
+    private void startLine() {
+        if (!lineStarted) {
+            if (firstBlankLine != 0) {
+                throw new MatrixFormatException("Пустая строка внутри матрицы", firstBlankLine, 1);
+            }
+            lineStarted = true;
+        }
+    }
+
+    /**
+     * Отмечает начало числа; пропущенные значения перед ним считаются ошибкой.
+     */
+    private void startValue() {
+        startLine();
+        if (pendingEmptyCells > 0) {
+            throw error("Пустое значение");
+        }
+        inValue = true;
+    }
+
+    /**
+     * Завершает текущее значение и добавляет его в матрицу.
+     */
+    private void endCell() {
+        if (!inValue) {
+            // Пустое значение допустимо только в конце строки
+            pendingEmptyCells++;
+            return;
+        }
+        if (!hasDigits) {
+            throw error("Некорректное значение");
+        }
+        if (!negative && value == INT_MIN_ABS) {
+            throw error("Значение выходит за пределы типа int");
+        }
+        if (cols >= 0 && rowCells == cols) {
+            throw error("Строка содержит больше " + cols + " значений");
+        }
+        if (size == data.length) {
+            data = Arrays.copyOf(data, (int) Math.min((long) data.length * 2, Integer.MAX_VALUE - 8));
+        }
+        data[size++] = (int) (negative ? -value : value);
+        rowCells++;
+        inValue = false;
+        negative = false;
+        hasDigits = false;
+        value = 0;
+    }
+
+    /**
+     * Завершает строку и проверяет количество значений в ней.
+     */
+    private void endLine() {
+        endCell();
+        if (rowCells == 0) {
+            throw error("Строка не содержит значений");
+        }
+        if (cols < 0) {
+            cols = rowCells;
+        } else if (rowCells != cols) {
+            throw error("Строка содержит " + rowCells + " значений вместо " + cols);
+        }
+        rows++;
+        rowCells = 0;
+        pendingEmptyCells = 0;
+        lineStarted = false;
+    }
+
+    /**
+     * Создает исключение с текущей позицией разбора.
+     */
+    private MatrixFormatException error(String message) {
+        return new MatrixFormatException(message, line, rowCells + 1);
+    }
+
+    /**
+     * Пропускает метку порядка байтов UTF-8 в начале файла.
+     */
+    static int skipByteOrderMark(byte[] buffer, int count) {
+        if (count >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF) {
+            return 3;
+        }
+        return 0;
+    }
+}
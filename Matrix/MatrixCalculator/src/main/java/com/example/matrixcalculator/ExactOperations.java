@@ -0,0 +1,486 @@
+package com.example.matrixcalculator;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Точные операции над целочисленными матрицами с адаптивной разрядностью. В отличие от {@link MatrixOperations},
+ * где арифметика int переполняется без предупреждения, результат всегда точен.
+ * <p>
+ * Разрядность выбирается по оценкам {@link MatrixBounds}, вычисленным при загрузке матриц:
+ * <ul>
+ *     <li>если оценка результата помещается в int, используется обычная быстрая реализация
+ *     (векторные ядра, Штрассен, разреженное умножение) - при таких данных она точна;</li>
+ *     <li>иначе строки результата, для которых оценка помещается в int, по-прежнему считаются ядром int,
+ *     а остальные накапливаются в long;</li>
+ *     <li>если и long не хватает, строка накапливается в 128-битных суммах (пара long),
+ *     и в BigInteger переводятся только итоговые значения строки, не помещающиеся в long.</li>
+ * </ul>
+ * Результат возвращается в самом узком типе, вмещающем все элементы: {@link IntMatrix}, {@link LongMatrix}
+ * или {@link BigIntegerMatrix}.
+ * <p>
+ * Для загруженных матриц с низкой плотностью ({@link LoadedMatrix#isSparse()}) сложение, вычитание и умножение
+ * выполняются ядрами {@link SparseOperations} в формате CSR, если оценки гарантируют результат в int;
+ * методы с суффиксом Sparse возвращают результат в том же формате без плотной копии.
+ */
+public final class ExactOperations {
+
+    private ExactOperations() {
+    }
+
+    /**
+     * Точное сложение загруженных матриц. Разреженные матрицы складываются в формате CSR
+     * (см. {@link #addSparse(LoadedMatrix, LoadedMatrix)}).
+     *
+     * @param matrix1 Первая матрица.
+     * @param matrix2 Вторая матрица.
+     * @return Сумма.
+     * @throws IllegalArgumentException Если размеры матриц не совпадают.
+     */
+    public static Matrix add(LoadedMatrix matrix1, LoadedMatrix matrix2) {
+        CsrMatrix sparse = addSparse(matrix1, matrix2);
+        if (sparse != null) {
+            return sparse.toDense();
+        }
+        return add(matrix1.matrix(), matrix1.bounds(), matrix2.matrix(), matrix2.bounds());
+    }
+
+    /**
+     * Точное вычитание загруженных матриц. Разреженные матрицы вычитаются в формате CSR
+     * (см. {@link #subtractSparse(LoadedMatrix, LoadedMatrix)}).
+     *
+     * @param matrix1 Исходная матрица.
+     * @param matrix2 Вычитаемая матрица.
+     * @return Разность.
+     * @throws IllegalArgumentException Если размеры матриц не совпадают.
+     */
+    public static Matrix subtract(LoadedMatrix matrix1, LoadedMatrix matrix2) {
+        CsrMatrix sparse = subtractSparse(matrix1, matrix2);
+        if (sparse != null) {
+            return sparse.toDense();
+        }
+        return subtract(matrix1.matrix(), matrix1.bounds(), matrix2.matrix(), matrix2.bounds());
+    }
+
+    /**
+     * Точное умножение загруженных матриц. Если обе матрицы разреженные, они умножаются алгоритмом
+     * Густавсона (см. {@link #multiplySparse(LoadedMatrix, LoadedMatrix)}); если разреженная только первая,
+     * ее строки CSR умножаются на плотную вторую матрицу. Разреженные ядра выбираются, только если оценки
+     * элементов гарантируют, что результат помещается в int.
+     *
+     * @param matrix1 Первая матрица.
+     * @param matrix2 Вторая матрица.
+     * @return Произведение.
+     * @throws IllegalArgumentException Если размеры матриц не соответствуют правилам умножения.
+     */
+    public static Matrix multiply(LoadedMatrix matrix1, LoadedMatrix matrix2) {
+        CsrMatrix sparse = multiplySparse(matrix1, matrix2);
+        if (sparse != null) {
+            return sparse.toDense();
+        }
+        if (matrix1.isSparse() && sparseProductFitsInt(matrix1.sparse(), matrix2.bounds())) {
+            OperationMetrics.kernel("sparse-csr");
+            return SparseOperations.multiply(matrix1.sparse(), matrix2.matrix());
+        }
+        return multiply(matrix1.matrix(), matrix1.bounds(), matrix2.matrix(), matrix2.bounds());
+    }
+
+    /**
+     * Точное сложение в формате CSR без плотных копий операндов и результата.
+     *
+     * @param matrix1 Первая матрица.
+     * @param matrix2 Вторая матрица.
+     * @return Сумма или null, если одна из матриц не разреженная либо сумма может не поместиться в int.
+     * @throws IllegalArgumentException Если размеры матриц не совпадают.
+     */
+    public static CsrMatrix addSparse(LoadedMatrix matrix1, LoadedMatrix matrix2) {
+        if (!sparseSumApplicable(matrix1, matrix2)) {
+            return null;
+        }
+        OperationMetrics.kernel("sparse-merge");
+        return SparseOperations.add(matrix1.sparse(), matrix2.sparse());
+    }
+
+    /**
+     * Точное вычитание в формате CSR без плотных копий операндов и результата.
+     *
+     * @param matrix1 Исходная матрица.
+     * @param matrix2 Вычитаемая матрица.
+     * @return Разность или null, если одна из матриц не разреженная либо разность может не поместиться в int.
+     * @throws IllegalArgumentException Если размеры матриц не совпадают.
+     */
+    public static CsrMatrix subtractSparse(LoadedMatrix matrix1, LoadedMatrix matrix2) {
+        if (!sparseSumApplicable(matrix1, matrix2)) {
+            return null;
+        }
+        OperationMetrics.kernel("sparse-merge");
+        return SparseOperations.subtract(matrix1.sparse(), matrix2.sparse());
+    }
+
+    /**
+     * Точное умножение в формате CSR алгоритмом Густавсона без плотных копий операндов и результата.
+     *
+     * @param matrix1 Первая матрица.
+     * @param matrix2 Вторая матрица.
+     * @return Произведение или null, если одна из матриц не разреженная либо произведение может
+     * не поместиться в int.
+     * @throws IllegalArgumentException Если размеры матриц не соответствуют правилам умножения.
+     */
+    public static CsrMatrix multiplySparse(LoadedMatrix matrix1, LoadedMatrix matrix2) {
+        if (matrix1.cols() != matrix2.rows()) {
+            throw new IllegalArgumentException("Невозможно умножить матрицы: количество столбцов первой матрицы должно равняться количеству строк второй.");
+        }
+        if (!matrix1.isSparse() || !matrix2.isSparse()
+                || !sparseProductFitsInt(matrix1.sparse(), matrix2.bounds())) {
+            return null;
+        }
+        OperationMetrics.kernel("sparse-gustavson");
+        return SparseOperations.multiply(matrix1.sparse(), matrix2.sparse());
+    }
+
+    /**
+     * Точное сложение матриц с известными оценками элементов.
+     *
+     * @param matrix1 Первая матрица.
+     * @param bounds1 Оценки элементов первой матрицы.
+     * @param matrix2 Вторая матрица.
+     * @param bounds2 Оценки элементов второй матрицы.
+     * @return Сумма.
+     * @throws IllegalArgumentException Если размеры матриц не совпадают.
+     */
+    public static Matrix add(IntMatrix matrix1, MatrixBounds bounds1, IntMatrix matrix2, MatrixBounds bounds2) {
+        return addOrSubtract(matrix1, bounds1, matrix2, bounds2, false);
+    }
+
+    /**
+     * Точное вычитание матриц с известными оценками элементов.
+     *
+     * @param matrix1 Исходная матрица.
+     * @param bounds1 Оценки элементов исходной матрицы.
+     * @param matrix2 Вычитаемая матрица.
+     * @param bounds2 Оценки элементов вычитаемой матрицы.
+     * @return Разность.
+     * @throws IllegalArgumentException Если размеры матриц не совпадают.
+     */
+    public static Matrix subtract(IntMatrix matrix1, MatrixBounds bounds1, IntMatrix matrix2, MatrixBounds bounds2) {
+        return addOrSubtract(matrix1, bounds1, matrix2, bounds2, true);
+    }
+
+    /**
+     * Точное возведение квадратной матрицы в степень. С модулем вычисление выполняет
+     * {@link MatrixOperations#power(IntMatrix, long, int)}, результат которого точен при любом показателе.
+     * Без модуля используется двоичное возведение, где каждое умножение выполняется
+     * {@link #multiply(IntMatrix, MatrixBounds, IntMatrix, MatrixBounds)} по оценкам фактических значений:
+     * промежуточные степени должны помещаться в int, а последнее произведение возвращается
+     * в самом узком подходящем типе. Если промежуточная степень не помещается в int, вычисление прекращается,
+     * а не продолжается с переполнением.
+     *
+     * @param matrix   Квадратная матрица.
+     * @param exponent Неотрицательный показатель степени.
+     * @param modulus  Модуль или 0 для точного результата без приведения.
+     * @return Матрица matrix в степени exponent.
+     * @throws IllegalArgumentException Если матрица не квадратная, показатель или модуль отрицательный
+     *                                  или без модуля промежуточная степень не помещается в int.
+     */
+    public static Matrix power(IntMatrix matrix, long exponent, int modulus) {
+        if (modulus != 0 || exponent <= 1) {
+            return MatrixOperations.power(matrix, exponent, modulus);
+        }
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Возвести в степень можно только квадратную матрицу");
+        }
+        IntMatrix result = null;
+        IntMatrix square = matrix;
+        long remaining = exponent;
+        while (true) {
+            if ((remaining & 1) != 0) {
+                Matrix product = result == null ? square
+                        : multiply(result, MatrixBounds.of(result), square, MatrixBounds.of(square));
+                if (remaining == 1) {
+                    return product;
+                }
+                result = requireInt(product, exponent);
+            }
+            remaining >>>= 1;
+            square = requireInt(multiply(square, MatrixBounds.of(square), square, MatrixBounds.of(square)), exponent);
+        }
+    }
+
+    /**
+     * Промежуточная степень должна помещаться в int, чтобы следующее умножение выполнялось ядрами int.
+     */
+    private static IntMatrix requireInt(Matrix power, long exponent) {
+        if (power instanceof IntMatrix) {
+            return (IntMatrix) power;
+        }
+        throw new IllegalArgumentException("Промежуточные степени не помещаются в int, точная степень " + exponent
+                + " не вычисляется; укажите модуль");
+    }
+
+    /**
+     * Точное умножение матриц с известными оценками элементов. Для строки i результата
+     * |c_ij| <= сумма по p |a_ip| * max_j |b_pj|; по этой оценке строка считается в int, long или BigInteger.
+     *
+     * @param matrix1 Первая матрица.
+     * @param bounds1 Оценки элементов первой матрицы.
+     * @param matrix2 Вторая матрица.
+     * @param bounds2 Оценки элементов второй матрицы.
+     * @return Произведение.
+     * @throws IllegalArgumentException Если размеры матриц не соответствуют правилам умножения.
+     */
+    public static Matrix multiply(IntMatrix matrix1, MatrixBounds bounds1, IntMatrix matrix2, MatrixBounds bounds2) {
+        if (matrix1.cols() != matrix2.rows()) {
+            throw new IllegalArgumentException("Невозможно умножить матрицы: количество столбцов первой матрицы должно равняться количеству строк второй.");
+        }
+        int rows = matrix1.rows();
+        int inner = matrix1.cols();
+        int columns = matrix2.cols();
+        // Грубая проверка по наибольшим модулям: для хорошо масштабированных данных дальше ничего не нужно
+        if (saturatedMultiply(saturatedMultiply(bounds1.maxAbs(), bounds2.maxAbs()), inner) <= Integer.MAX_VALUE) {
+            return MatrixOperations.multiplyMatrices(matrix1, matrix2);
+        }
+        int[] a = matrix1.data();
+        int strideA = matrix1.stride();
+        long[] rowBounds = new long[rows];
+        boolean intSafe = true;
+        for (int i = 0; i < rows; i++) {
+            long bound = 0;
+            int rowA = i * strideA;
+            for (int p = 0; p < inner; p++) {
+                bound = saturatedAdd(bound, Math.abs((long) a[rowA + p]) * bounds2.rowMaxAbs(p));
+            }
+            rowBounds[i] = bound;
+            intSafe &= bound <= Integer.MAX_VALUE;
+        }
+        if (intSafe) {
+            // Арифметика int вычисляет результат по модулю 2^32; если он помещается в int, он точен
+            return MatrixOperations.multiplyMatrices(matrix1, matrix2);
+        }
+
+        int[] b = matrix2.data();
+        int strideB = matrix2.stride();
+        OperationMetrics.kernel("adaptive-int-long-128");
+        long[] c = new long[rows * columns];
+        BigInteger[][] bigRows = new BigInteger[rows][];
+        OperationMonitor.beginWork((long) rows * inner * columns);
+        ParallelExecution.forEachRowBand(rows, (long) inner * columns, (fromRow, toRow) -> {
+            int[] intRow = null;
+            long[] high = null;
+            for (int i = fromRow; i < toRow; i++) {
+                OperationMonitor.checkCancelled();
+                int rowA = i * strideA;
+                int rowC = i * columns;
+                if (rowBounds[i] <= Integer.MAX_VALUE) {
+                    // Строке хватает int: считаем ядром int и расширяем
+                    if (intRow == null) {
+                        intRow = new int[columns];
+                    }
+                    MultiplyKernels.multiply(a, rowA, strideA, b, 0, strideB, intRow, 0, columns, 1, inner, columns, false);
+                    for (int j = 0; j < columns; j++) {
+                        c[rowC + j] = intRow[j];
+                    }
+                    continue;
+                }
+                if (rowBounds[i] < Long.MAX_VALUE) {
+                    // Строке хватает long
+                    for (int p = 0; p < inner; p++) {
+                        long aip = a[rowA + p];
+                        if (aip == 0) {
+                            continue;
+                        }
+                        int rowB = p * strideB;
+                        for (int j = 0; j < columns; j++) {
+                            c[rowC + j] += aip * b[rowB + j];
+                        }
+                    }
+                    continue;
+                }
+                // Суммы накапливаются в 128 битах: младшая половина в c, старшая в high.
+                // Каждое произведение меньше 2^62, а слагаемых меньше 2^31, поэтому 128 бит всегда достаточно
+                if (high == null) {
+                    high = new long[columns];
+                }
+                Arrays.fill(high, 0);
+                for (int p = 0; p < inner; p++) {
+                    long aip = a[rowA + p];
+                    if (aip == 0) {
+                        continue;
+                    }
+                    int rowB = p * strideB;
+                    for (int j = 0; j < columns; j++) {
+                        long product = aip * b[rowB + j];
+                        long low = c[rowC + j];
+                        long sum = low + product;
+                        high[j] += (product >> 63) + (Long.compareUnsigned(sum, low) < 0 ? 1 : 0);
+                        c[rowC + j] = sum;
+                    }
+                }
+                boolean fitsLong = true;
+                for (int j = 0; j < columns; j++) {
+                    fitsLong &= high[j] == (c[rowC + j] >> 63);
+                }
+                if (!fitsLong) {
+                    // Значение не помещается в long: переводим строку в BigInteger
+                    BigInteger[] bigRow = new BigInteger[columns];
+                    for (int j = 0; j < columns; j++) {
+                        bigRow[j] = toBigInteger(high[j], c[rowC + j]);
+                    }
+                    bigRows[i] = bigRow;
+                }
+            }
+        });
+        return narrow(rows, columns, c, bigRows);
+    }
+
+    private static Matrix addOrSubtract(IntMatrix matrix1, MatrixBounds bounds1, IntMatrix matrix2,
+                                        MatrixBounds bounds2, boolean subtract) {
+        if (matrix1.rows() != matrix2.rows() || matrix1.cols() != matrix2.cols()) {
+            throw new IllegalArgumentException("Матрицы должны быть одного размера для выполнения операции.");
+        }
+        int rows = matrix1.rows();
+        int columns = matrix1.cols();
+        if (sumFitsInt(bounds1, bounds2, rows)) {
+            OperationMetrics.kernel(VectorKernels.ENABLED ? "int-vector" : "int-scalar");
+            return subtract ? MatrixOperations.subtractMatrices(matrix1, matrix2)
+                    : MatrixOperations.addMatrices(matrix1, matrix2);
+        }
+        OperationMetrics.kernel("long");
+        // Сумма двух int всегда помещается в long
+        int[] a = matrix1.data();
+        int[] b = matrix2.data();
+        int strideA = matrix1.stride();
+        int strideB = matrix2.stride();
+        long[] c = new long[rows * columns];
+        OperationMonitor.beginWork((long) rows * columns);
+        ParallelExecution.forEachRowBand(rows, columns, (fromRow, toRow) -> {
+            for (int i = fromRow; i < toRow; i++) {
+                int rowA = i * strideA;
+                int rowB = i * strideB;
+                int rowC = i * columns;
+                if (subtract) {
+                    for (int j = 0; j < columns; j++) {
+                        c[rowC + j] = (long) a[rowA + j] - b[rowB + j];
+                    }
+                } else {
+                    for (int j = 0; j < columns; j++) {
+                        c[rowC + j] = (long) a[rowA + j] + b[rowB + j];
+                    }
+                }
+            }
+        });
+        return narrow(rows, columns, c, new BigInteger[rows][]);
+    }
+
+    /**
+     * Проверяет, что обе матрицы разреженные, имеют одинаковый размер и их сумма (разность) помещается в int.
+     */
+    private static boolean sparseSumApplicable(LoadedMatrix matrix1, LoadedMatrix matrix2) {
+        if (matrix1.rows() != matrix2.rows() || matrix1.cols() != matrix2.cols()) {
+            throw new IllegalArgumentException("Матрицы должны быть одного размера для выполнения операции.");
+        }
+        return matrix1.isSparse() && matrix2.isSparse()
+                && sumFitsInt(matrix1.bounds(), matrix2.bounds(), matrix1.rows());
+    }
+
+    /**
+     * @return True, если по оценкам строк сумма или разность любых элементов помещается в int.
+     */
+    private static boolean sumFitsInt(MatrixBounds bounds1, MatrixBounds bounds2, int rows) {
+        if (bounds1.maxAbs() + bounds2.maxAbs() <= Integer.MAX_VALUE) {
+            return true;
+        }
+        for (int i = 0; i < rows; i++) {
+            if (bounds1.rowMaxAbs(i) + bounds2.rowMaxAbs(i) > Integer.MAX_VALUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет оценку |c_ij| <= сумма по ненулевым a_ip |a_ip| * max_j |b_pj| для каждой строки разреженной
+     * первой матрицы; время пропорционально количеству ее ненулевых элементов.
+     *
+     * @return True, если каждый элемент произведения помещается в int.
+     */
+    private static boolean sparseProductFitsInt(CsrMatrix matrix1, MatrixBounds bounds2) {
+        int[] pointers = matrix1.rowPointers();
+        int[] columns = matrix1.columnIndices();
+        int[] values = matrix1.values();
+        for (int i = 0; i < matrix1.rows(); i++) {
+            long bound = 0;
+            for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+                bound = saturatedAdd(bound, Math.abs((long) values[p]) * bounds2.rowMaxAbs(columns[p]));
+            }
+            if (bound > Integer.MAX_VALUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Собирает результат в самом узком подходящем типе.
+     *
+     * @param c       Значения строк, посчитанных в long.
+     * @param bigRows Строки, посчитанные в BigInteger (null для строк в long).
+     */
+    private static Matrix narrow(int rows, int columns, long[] c, BigInteger[][] bigRows) {
+        boolean fitsLong = true;
+        for (BigInteger[] row : bigRows) {
+            if (row != null) {
+                for (BigInteger value : row) {
+                    fitsLong &= value.bitLength() < Long.SIZE;
+                }
+            }
+        }
+        if (!fitsLong) {
+            BigIntegerMatrix result = new BigIntegerMatrix(rows, columns);
+            BigInteger[] data = result.data();
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) {
+                    data[i * columns + j] = bigRows[i] != null ? bigRows[i][j] : BigInteger.valueOf(c[i * columns + j]);
+                }
+            }
+            return result;
+        }
+        boolean fitsInt = true;
+        for (int i = 0; i < rows; i++) {
+            if (bigRows[i] != null) {
+                for (int j = 0; j < columns; j++) {
+                    c[i * columns + j] = bigRows[i][j].longValue();
+                }
+            }
+            for (int j = 0; j < columns && fitsInt; j++) {
+                long value = c[i * columns + j];
+                fitsInt = value == (int) value;
+            }
+        }
+        if (!fitsInt) {
+            return new LongMatrix(rows, columns, columns, c);
+        }
+        IntMatrix result = new IntMatrix(rows, columns);
+        int[] data = result.data();
+        for (int index = 0; index < c.length; index++) {
+            data[index] = (int) c[index];
+        }
+        return result;
+    }
+
+    /**
+     * Преобразует 128-битное число в дополнительном коде (старшая и младшая половины) в BigInteger.
+     */
+    private static BigInteger toBigInteger(long high, long low) {
+        // high * 2^64 + (low как беззнаковое) = (high + старший бит low) * 2^64 + (low как знаковое)
+        return BigInteger.valueOf(high + (low >>> 63)).shiftLeft(Long.SIZE).add(BigInteger.valueOf(low));
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        return Math.multiplyHigh(a, b) != 0 || a * b < 0 ? Long.MAX_VALUE : a * b;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.matrixcalculator;
+
+import java.math.BigInteger;
+
+/**
+ * Несократимая рациональная дробь с произвольной точностью. Знаменатель всегда положителен.
+ */
+public final class Fraction {
+
+    private final BigInteger numerator;
+    private final BigInteger denominator;
+
+    private Fraction(BigInteger numerator, BigInteger denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    /**
+     * Создает дробь numerator / denominator и сокращает ее.
+     *
+     * @param numerator   Числитель.
+     * @param denominator Знаменатель.
+     * @return Несократимая дробь.
+     * @throws ArithmeticException Если знаменатель равен нулю.
+     */
+    public static Fraction of(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0) {
+            throw new ArithmeticException("Знаменатель дроби равен нулю");
+        }
+        if (denominator.signum() < 0) {
+            numerator = numerator.negate();
+            denominator = denominator.negate();
+        }
+        BigInteger gcd = numerator.gcd(denominator);
+        if (!gcd.equals(BigInteger.ONE)) {
+            numerator = numerator.divide(gcd);
+            denominator = denominator.divide(gcd);
+        }
+        return new Fraction(numerator, denominator);
+    }
+
+    /**
+     * @param value Целое число.
+     * @return Дробь со знаменателем 1.
+     */
+    public static Fraction of(BigInteger value) {
+        return new Fraction(value, BigInteger.ONE);
+    }
+
+    /**
+     * @return Числитель.
+     */
+    public BigInteger numerator() {
+        return numerator;
+    }
+
+    /**
+     * @return Знаменатель (положительный).
+     */
+    public BigInteger denominator() {
+        return denominator;
+    }
+
+    /**
+     * @return True, если дробь является целым числом.
+     */
+    public boolean isInteger() {
+        return denominator.equals(BigInteger.ONE);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Fraction)) {
+            return false;
+        }
+        Fraction fraction = (Fraction) other;
+        return numerator.equals(fraction.numerator) && denominator.equals(fraction.denominator);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * numerator.hashCode() + denominator.hashCode();
+    }
+
+    /**
+     * @return Запись вида "p/q" или "p" для целого числа.
+     */
+    @Override
+    public String toString() {
+        return isInteger() ? numerator.toString() : numerator + "/" + denominator;
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.matrixcalculator;
+
+import java.math.BigInteger;
+
+/**
+ * Точное LU-разложение целочисленной матрицы без дробей (метод Барейса в арифметике BigInteger).
+ * Разложение строится один раз за O(n^3) и затем отвечает на запросы определителя, ранга,
+ * решения систем и обратной матрицы. Каждое решение системы с новой правой частью стоит O(n^2):
+ * правая часть проходит те же шаги исключения, что и матрица, после чего выполняется обратная
+ * подстановка в целых числах. Результаты точные и согласованы с целочисленной семантикой
+ * {@link MatrixOperations}.
+ * <p>
+ * После k-го шага выше диагонали хранится строка k треугольной матрицы U (ее ведущий элемент - минор
+ * порядка k + 1), а ниже ведущего элемента - множители исключения, то есть столбец матрицы L.
+ * Строки переставляются при поиске ненулевого ведущего элемента; столбцы без ведущего элемента
+ * пропускаются, поэтому разложение определено и для вырожденных и прямоугольных матриц.
+ */
+public final class FractionFreeLU {
+
+    /**
+     * Условная стоимость одной операции над BigInteger в единицах работы {@link ParallelExecution}:
+     * без нее даже большие шаги исключения выполнялись бы последовательно.
+     */
+    private static final long BIG_INTEGER_WEIGHT = 64;
+
+    private final int rows;
+    private final int cols;
+    private final BigInteger[][] lu;
+    private final int[] permutation;
+    private final int rank;
+    private final int sign;
+
+    private FractionFreeLU(int rows, int cols, BigInteger[][] lu, int[] permutation, int rank, int sign) {
+        this.rows = rows;
+        this.cols = cols;
+        this.lu = lu;
+        this.permutation = permutation;
+        this.rank = rank;
+        this.sign = sign;
+    }
+
+    /**
+     * Строит разложение матрицы. Строки активной подматрицы на каждом шаге обновляются параллельно.
+     *
+     * @param matrix Матрица любого размера.
+     * @return Разложение.
+     */
+    public static FractionFreeLU of(IntMatrix matrix) {
+        int rows = matrix.rows();
+        int cols = matrix.cols();
+        BigInteger[][] a = new BigInteger[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                a[i][j] = BigInteger.valueOf(matrix.get(i, j));
+            }
+        }
+        int[] permutation = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            permutation[i] = i;
+        }
+        long work = 0;
+        for (int k = 0; k < Math.min(rows, cols); k++) {
+            work += (long) (rows - k - 1) * (cols - k) * BIG_INTEGER_WEIGHT;
+        }
+        OperationMonitor.beginWork(work);
+
+        BigInteger previousPivot = BigInteger.ONE;
+        int sign = 1;
+        int rank = 0;
+        for (int column = 0; column < cols && rank < rows; column++) {
+            OperationMonitor.checkCancelled();
+            int pivotRow = rank;
+            while (pivotRow < rows && a[pivotRow][column].signum() == 0) {
+                pivotRow++;
+            }
+            if (pivotRow == rows) {
+                // В столбце нет ведущего элемента: он не увеличивает ранг
+                continue;
+            }
+            if (pivotRow != rank) {
+                BigInteger[] row = a[rank];
+                a[rank] = a[pivotRow];
+                a[pivotRow] = row;
+                int index = permutation[rank];
+                permutation[rank] = permutation[pivotRow];
+                permutation[pivotRow] = index;
+                sign = -sign;
+            }
+            int r = rank;
+            int c = column;
+            BigInteger pivot = a[r][c];
+            BigInteger divisor = previousPivot;
+            // Обновляем строки ниже ведущей; множитель a[i][c] остается на месте как элемент L
+            ParallelExecution.forEachRowBand(r + 1, rows, (cols - c) * BIG_INTEGER_WEIGHT, (fromRow, toRow) -> {
+                BigInteger[] pivotValues = a[r];
+                for (int i = fromRow; i < toRow; i++) {
+                    BigInteger[] row = a[i];
+                    BigInteger factor = row[c];
+                    for (int j = c + 1; j < cols; j++) {
+                        row[j] = pivot.multiply(row[j]).subtract(factor.multiply(pivotValues[j])).divide(divisor);
+                    }
+                }
+            });
+            rank++;
+            previousPivot = pivot;
+        }
+        return new FractionFreeLU(rows, cols, a, permutation, rank, sign);
+    }
+
+    /**
+     * @return Количество строк исходной матрицы.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return Количество столбцов исходной матрицы.
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @return Ранг матрицы.
+     */
+    public int rank() {
+        return rank;
+    }
+
+    /**
+     * @return True, если матрица квадратная и невырожденная.
+     */
+    public boolean isInvertible() {
+        return rows == cols && rank == rows;
+    }
+
+    /**
+     * Определитель как побочный результат разложения. Если нужен только определитель, быстрее
+     * {@link MatrixOperations#calculateDeterminantExact}, который не строит разложение в BigInteger.
+     *
+     * @return Точный определитель матрицы.
+     * @throws IllegalArgumentException Если матрица не квадратная.
+     */
+    public BigInteger determinant() {
+        if (rows != cols) {
+            throw new IllegalArgumentException("Определитель можно найти только у квадратной матрицы");
+        }
+        if (rank < rows) {
+            return BigInteger.ZERO;
+        }
+        if (rows == 0) {
+            return BigInteger.ONE;
+        }
+        BigInteger last = lu[rows - 1][rows - 1];
+        return sign < 0 ? last.negate() : last;
+    }
+
+    /**
+     * Решает систему A * x = b за O(n^2).
+     *
+     * @param rightHandSide Правая часть b.
+     * @return Точное решение x.
+     * @throws IllegalArgumentException Если матрица не квадратная, вырождена или длина b не совпадает
+     *                                  с количеством строк.
+     */
+    public Fraction[] solve(int[] rightHandSide) {
+        BigInteger[] b = new BigInteger[rightHandSide.length];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = BigInteger.valueOf(rightHandSide[i]);
+        }
+        return solve(b);
+    }
+
+    /**
+     * Решает систему A * x = b за O(n^2).
+     *
+     * @param rightHandSide Правая часть b.
+     * @return Точное решение x.
+     * @throws IllegalArgumentException Если матрица не квадратная, вырождена или длина b не совпадает
+     *                                  с количеством строк.
+     */
+    public Fraction[] solve(BigInteger[] rightHandSide) {
+        checkInvertible();
+        if (rightHandSide.length != rows) {
+            throw new IllegalArgumentException("Длина правой части " + rightHandSide.length
+                    + " не совпадает с количеством строк матрицы " + rows);
+        }
+        BigInteger[] y = solveScaled(rightHandSide);
+        BigInteger denominator = rows == 0 ? BigInteger.ONE : lu[rows - 1][rows - 1];
+        Fraction[] x = new Fraction[rows];
+        for (int i = 0; i < rows; i++) {
+            x[i] = Fraction.of(y[i], denominator);
+        }
+        return x;
+    }
+
+    /**
+     * Вычисляет обратную матрицу, решая систему для каждого столбца единичной матрицы.
+     * Столбцы вычисляются параллельно.
+     *
+     * @return Обратная матрица: элемент [i][j] - дробь в строке i и столбце j.
+     * @throws IllegalArgumentException Если матрица не квадратная или вырождена.
+     */
+    public Fraction[][] inverse() {
+        checkInvertible();
+        int n = rows;
+        Fraction[][] inverse = new Fraction[n][n];
+        BigInteger denominator = n == 0 ? BigInteger.ONE : lu[n - 1][n - 1];
+        OperationMonitor.beginWork((long) n * n * n * BIG_INTEGER_WEIGHT);
+        ParallelExecution.forEachRowBand(n, (long) n * n * BIG_INTEGER_WEIGHT, (fromColumn, toColumn) -> {
+            for (int j = fromColumn; j < toColumn; j++) {
+                BigInteger[] unit = new BigInteger[n];
+                for (int i = 0; i < n; i++) {
+                    unit[i] = i == j ? BigInteger.ONE : BigInteger.ZERO;
+                }
+                BigInteger[] y = solveScaled(unit);
+                for (int i = 0; i < n; i++) {
+                    inverse[i][j] = Fraction.of(y[i], denominator);
+                }
+            }
+        });
+        return inverse;
+    }
+
+    /**
+     * Решение в целых числах: возвращает y = D * x, где D - последний ведущий элемент.
+     * По правилу Крамера все y целые, поэтому все деления выполняются нацело.
+     */
+    private BigInteger[] solveScaled(BigInteger[] rightHandSide) {
+        int n = rows;
+        if (n == 0) {
+            return new BigInteger[0];
+        }
+        BigInteger[] b = new BigInteger[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = rightHandSide[permutation[i]];
+        }
+        // Прямой ход: те же шаги исключения, что и при разложении
+        BigInteger previousPivot = BigInteger.ONE;
+        for (int k = 0; k < n - 1; k++) {
+            BigInteger pivot = lu[k][k];
+            for (int i = k + 1; i < n; i++) {
+                b[i] = pivot.multiply(b[i]).subtract(lu[i][k].multiply(b[k])).divide(previousPivot);
+            }
+            previousPivot = pivot;
+        }
+        // Обратная подстановка: U[i][i] * y_i = D * b_i - сумма U[i][j] * y_j
+        BigInteger last = lu[n - 1][n - 1];
+        BigInteger[] y = new BigInteger[n];
+        for (int i = n - 1; i >= 0; i--) {
+            BigInteger sum = last.multiply(b[i]);
+            for (int j = i + 1; j < n; j++) {
+                sum = sum.subtract(lu[i][j].multiply(y[j]));
+            }
+            y[i] = sum.divide(lu[i][i]);
+        }
+        return y;
+    }
+
+    private void checkInvertible() {
+        if (rows != cols) {
+            throw new IllegalArgumentException("Матрица не квадратная: " + rows + "x" + cols);
+        }
+        if (rank < rows) {
+            throw new IllegalArgumentException("Матрица вырождена (ранг " + rank + " меньше " + rows + ")");
+        }
+    }
+}
@@ -37,7 +37,10 @@ public class HelloApplication extends Application {
         stage.show();
 
         // Обработчик события закрытия окна
-        stage.setOnCloseRequest(event -> logger.info("Пользователь закрыл приложение."));
+        stage.setOnCloseRequest(event -> {
+            logger.info("Пользователь закрыл приложение.");
+            logger.info("Статистика операций:\n" + OperationMetrics.dump());
+        });
     }
 
     /**
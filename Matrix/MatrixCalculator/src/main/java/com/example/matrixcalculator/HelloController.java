@@ -5,16 +5,23 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TextInputDialog;
+import javafx.scene.control.Tooltip;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.FileChooser.ExtensionFilter;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
@@ -31,8 +38,37 @@ public class HelloController {
     /**
      * Данные для матриц
      */
-    private List<List<Integer>> matrix1Data = null;
-    private List<List<Integer>> matrix2Data = null;
+    private LoadedMatrix matrix1Data = null;
+    private LoadedMatrix matrix2Data = null;
+
+    /**
+     * Кэш результатов операций по хешам содержимого загруженных матриц
+     */
+    private final ResultCache resultCache = new ResultCache(ResultCache.DEFAULT_MAX_BYTES);
+
+    /**
+     * Потоки для фоновых операций, чтобы окно не блокировалось на время вычислений
+     */
+    private final ExecutorService backgroundExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "matrix-task");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Выполняющиеся фоновые задачи по назначению (результат, матрица 1, определитель 2 и т.д.).
+     * Новый запрос с тем же назначением отменяет предыдущий. Доступ только из потока JavaFX.
+     */
+    private final Map<String, MatrixTask<?>> runningTasks = new LinkedHashMap<>();
+
+    private static final String RESULT_TARGET = "result";
+    private static final String MATRIX_TARGET = "matrix";
+    private static final String DETERMINANT_TARGET = "determinant";
+
+    /**
+     * Наибольшее количество символов определителя, выводимое в метке без сокращения
+     */
+    private static final int MAX_DETERMINANT_DIGITS = 24;
 
     /**
      * Элементы управления из FXML, связанные с этим контроллером
@@ -50,13 +86,16 @@ public class HelloController {
     private Button multiplyButton;
 
     @FXML
-    private Label matrix1Label;
+    private Button powerButton;
 
     @FXML
-    private Label resultLabel;
+    private MatrixView matrix1View;
 
     @FXML
-    private Label matrix2Label;
+    private MatrixView resultView;
+
+    @FXML
+    private MatrixView matrix2View;
 
     @FXML
     private Label determinant1Text;
@@ -67,6 +106,12 @@ public class HelloController {
     @FXML
     private Button addButton;
 
+    @FXML
+    private ProgressIndicator progressIndicator;
+
+    @FXML
+    private Button cancelButton;
+
     /**
      * Инициализирует контроллер, устанавливает действия для кнопок.
      */
@@ -76,9 +121,14 @@ public class HelloController {
         addButton.setOnAction(event -> add());
         subtractButton.setOnAction(event -> subtract());
         multiplyButton.setOnAction(event -> multiply());
+        powerButton.setOnAction(event -> power());
 
-        loadMatrix1Button.setOnAction(event -> loadMatrix(1, matrix1Label));
-        loadMatrix2Button.setOnAction(event -> loadMatrix(2, matrix2Label));
+        loadMatrix1Button.setOnAction(event -> loadMatrix(1, matrix1View));
+        loadMatrix2Button.setOnAction(event -> loadMatrix(2, matrix2View));
+        cancelButton.setOnAction(event -> cancelOperations());
+
+        progressIndicator.setVisible(false);
+        cancelButton.setDisable(true);
     }
 
     /**
@@ -87,7 +137,7 @@ public class HelloController {
     @FXML
     public void add() {
         logger.info("Пользователь нажал на кнопку 'Сложение'.");
-        performOperation("Сложение", MatrixOperations::addMatrices);
+        performOperation("Сложение", ExactOperations::add);
     }
 
     /**
@@ -96,7 +146,7 @@ public class HelloController {
     @FXML
     public void subtract() {
         logger.info("Пользователь нажал на кнопку 'Вычитание'.");
-        performOperation("Вычитание", MatrixOperations::subtractMatrices);
+        performOperation("Вычитание", ExactOperations::subtract);
     }
 
     /**
@@ -105,7 +155,63 @@ public class HelloController {
     @FXML
     public void multiply() {
         logger.info("Пользователь нажал на кнопку 'Умножение'.");
-        performOperation("Умножение", MatrixOperations::multiplyMatrices);
+        performOperation("Умножение", ExactOperations::multiply);
+    }
+
+    /**
+     * Возводит матрицу 1 в степень при нажатии кнопки "Степень". Показатель и необязательный модуль
+     * запрашиваются в диалоге в виде "k" или "k m".
+     */
+    @FXML
+    public void power() {
+        logger.info("Пользователь нажал на кнопку 'Степень'.");
+        if (matrix1Data == null) {
+            showError("Необходимо загрузить матрицу 1.");
+            return;
+        }
+        if (matrix1Data.rows() != matrix1Data.cols()) {
+            showError("Возвести в степень можно только квадратную матрицу");
+            return;
+        }
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Степень");
+        dialog.setHeaderText(null);
+        dialog.setContentText("Показатель степени и модуль (необязательно):");
+        Optional<String> input = dialog.showAndWait();
+        if (input.isEmpty()) {
+            return;
+        }
+        long exponent;
+        int modulus;
+        try {
+            String[] parts = input.get().trim().split("\\s+");
+            if (parts.length > 2) {
+                throw new NumberFormatException();
+            }
+            exponent = Long.parseLong(parts[0]);
+            modulus = parts.length == 2 ? Integer.parseInt(parts[1]) : 0;
+        } catch (NumberFormatException e) {
+            showError("Введите показатель степени и, при необходимости, модуль через пробел, например: 100 1000000007");
+            return;
+        }
+        logger.info("Возведение матрицы 1 в степень " + exponent + (modulus == 0 ? "" : " по модулю " + modulus));
+
+        LoadedMatrix matrix = matrix1Data;
+        String key = ResultCache.key("Степень " + exponent + " " + modulus, matrix.contentHash());
+        runInBackground(RESULT_TARGET, () -> resultCache.computeIfAbsent(key,
+                        () -> OperationMetrics.measure("Степень", matrix.matrix(), null,
+                                () -> ExactOperations.power(matrix.matrix(), exponent, modulus)), ResultCache::sizeOf),
+                resultMatrix -> {
+                    logger.info("Кэш результатов: " + resultCache);
+                    showMatrix(resultMatrix, resultView);
+                },
+                error -> {
+                    if (error instanceof IllegalArgumentException) {
+                        showError("Невозможно возвести матрицу в степень: " + error.getMessage());
+                    } else {
+                        showError("Невозможно возвести матрицу в степень: " + error);
+                    }
+                });
     }
 
     /**
@@ -122,10 +228,10 @@ public class HelloController {
         }
 
         // Получаем размеры матриц
-        int rows1 = matrix1Data.size();
-        int columns1 = matrix1Data.get(0).size();
-        int rows2 = matrix2Data.size();
-        int columns2 = matrix2Data.get(0).size();
+        int rows1 = matrix1Data.rows();
+        int columns1 = matrix1Data.cols();
+        int rows2 = matrix2Data.rows();
+        int columns2 = matrix2Data.cols();
 
         // Проверяем совместимость размеров матриц для операции сложения или вычитания
         if ((operation.equals("Сложение") || operation.equals("Вычитание")) &&
@@ -134,118 +240,80 @@ public class HelloController {
             return;
         }
 
-        try {
-            // Выполняем выбранную операцию
-            List<List<Integer>> resultMatrix = operationFunction.apply(matrix1Data, matrix2Data);
-            // Отображаем результат
-            showMatrix(resultMatrix, resultLabel);
-            // В случае ошибки выводим сообщение об ошибке
-        } catch (IllegalArgumentException e) {
-            showError("Невозможно выполнить операцию " + operation + ": " + e.getMessage());
-        } catch (NullPointerException e) {
-            showError("Одна или обе матрицы равны null");
-        }
-    }
-
-    /**
-     * Проверяет, является ли выбранный файл файлом с матрицей в формате CSV.
-     *
-     * @param file Выбранный файл.
-     * @return True, если файл представляет собой матрицу, в противном случае - false.
-     */
-    private boolean isMatrixFile(File file) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            int columnCount = -1;
-
-            int rowCount = 0;
-            while ((line = reader.readLine()) != null) {
-                // Разбиваем строку на значения, разделенные ";"
-                String[] values = line.split(";");
-                if (columnCount == -1) {
-                    // Если это первая строка, сохраняем количество столбцов
-                    columnCount = values.length;
-                } else {
-                    if (values.length != columnCount) {
-                        // Проверяем, что количество столбцов одинаково в каждой строке
-                        return false;
+        // Выполняем выбранную операцию в фоне и отображаем результат по завершении;
+        // повторная операция над теми же по содержимому матрицами берется из кэша
+        LoadedMatrix matrix1 = matrix1Data;
+        LoadedMatrix matrix2 = matrix2Data;
+        String key = ResultCache.key(operation, matrix1.contentHash(), matrix2.contentHash());
+        runInBackground(RESULT_TARGET, () -> resultCache.computeIfAbsent(key,
+                        () -> OperationMetrics.measure(operation, matrix1, matrix2,
+                                () -> operationFunction.apply(matrix1, matrix2)), ResultCache::sizeOf),
+                resultMatrix -> {
+                    logger.info("Кэш результатов: " + resultCache);
+                    showMatrix(resultMatrix, resultView);
+                },
+                error -> {
+                    // В случае ошибки выводим сообщение об ошибке
+                    if (error instanceof IllegalArgumentException) {
+                        showError("Невозможно выполнить операцию " + operation + ": " + error.getMessage());
+                    } else if (error instanceof NullPointerException) {
+                        showError("Одна или обе матрицы равны null");
+                    } else {
+                        showError("Невозможно выполнить операцию " + operation + ": " + error);
                     }
-                }
-                // Увеличиваем счетчик строк
-                rowCount++;
-            }
-            // Проверяем, что в файле есть хотя бы две строки (две строки для формирования матрицы)
-            return rowCount >= 2;
-        } catch (IOException e) {
-            // В случае ошибки ввода/вывода возвращаем false и выводим сообщение в лог
-            showError("Ошибка при чтении файла: " + e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * Загружает данные матрицы из файла.
-     *
-     * @param file Выбранный файл с матрицей.
-     * @return Список списков целых чисел, представляющих матрицу.
-     * @throws IOException                Возникает при ошибке ввода/вывода при чтении файла.
-     * @throws IllegalArgumentException   Возникает при обнаружении некорректного значения в файле.
-     */
-    private List<List<Integer>> loadMatrixFromFile(File file) throws IOException {
-        List<List<Integer>> matrixData = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                // Разбиваем строку на значения, разделенные ";"
-                String[] values = line.split(";");
-                List<Integer> row = new ArrayList<>();
-                for (String value : values) {
-                    try {
-                        // Парсим значение в целое число и добавляем в строку матрицы
-                        row.add(Integer.parseInt(value));
-                    } catch (NumberFormatException ex) {
-                        // В случае ошибки формата выводим сообщение и бросаем исключение
-                        throw new IllegalArgumentException("Некорректное значение в строке: " + line);
-                    }
-                }
-                matrixData.add(row);
-            }
-        }
-
-        return matrixData;
+                });
     }
 
     /**
      * Загружает матрицу из файла.
      *
      * @param matrixNumber Номер матрицы (1 или 2).
-     * @param label        Метка для отображения матрицы.
+     * @param view         Представление для отображения матрицы.
      */
-    private void loadMatrix(int matrixNumber, Label label) {
+    private void loadMatrix(int matrixNumber, MatrixView view) {
         logger.info("Пользователь нажал на кнопку 'Загрузить матрицу " + matrixNumber + "'.");
         try {
             // Создаем окно для выбора файла
             FileChooser fileChooser = new FileChooser();
-            fileChooser.getExtensionFilters().add(new ExtensionFilter("CSV Files", "*.csv"));
+            fileChooser.getExtensionFilters().addAll(
+                    new ExtensionFilter("Matrix Files", "*.csv", "*" + BinaryMatrixFormat.EXTENSION,
+                            "*" + MatrixMarketFormat.EXTENSION),
+                    new ExtensionFilter("CSV Files", "*.csv"),
+                    new ExtensionFilter("Binary Matrix Files", "*" + BinaryMatrixFormat.EXTENSION),
+                    new ExtensionFilter("Matrix Market Files", "*" + MatrixMarketFormat.EXTENSION));
             Stage stage = new Stage();
             File selectedFile = fileChooser.showOpenDialog(stage);
 
             if (selectedFile != null) {
-                // Проверяем, является ли файл матрицей
-                if (isMatrixFile(selectedFile)) {
-                    List<List<Integer>> matrixData = loadMatrixFromFile(selectedFile);
-                    // Сохраняем данные матрицы в соответствующей переменной
-                    if (matrixNumber == 1) {
-                        matrix1Data = matrixData;
-                    } else if (matrixNumber == 2) {
-                        matrix2Data = matrixData;
-                    }
-                    // Отображаем матрицу в интерфейсе
-                    showMatrix(matrixData, label);
-                } else {
-                    showError("Выбранный файл не является матрицей.");
-                }
+                // Файл читается в фоне; матрица сохраняется и отображается после успешной загрузки
+                // вместе с хешем содержимого для кэша результатов
+                runInBackground(MATRIX_TARGET + matrixNumber, () -> {
+                            LoadedMatrix loaded = MatrixReader.loadMatrixFile(selectedFile);
+                            // Хеш содержимого вычисляется сразу, чтобы не считать его в потоке интерфейса
+                            loaded.contentHash();
+                            return loaded;
+                        },
+                        matrixData -> {
+                            // Проверяем, является ли файл матрицей
+                            if (matrixData.rows() >= 2) {
+                                // Сохраняем данные матрицы в соответствующей переменной
+                                if (matrixNumber == 1) {
+                                    matrix1Data = matrixData;
+                                } else if (matrixNumber == 2) {
+                                    matrix2Data = matrixData;
+                                }
+                                // Определитель прежней матрицы больше не актуален
+                                cancelTask(DETERMINANT_TARGET + matrixNumber);
+                                Label determinantLabel = matrixNumber == 1 ? determinant1Text : determinant2Text;
+                                determinantLabel.setText("");
+                                determinantLabel.setTooltip(null);
+                                // Отображаем матрицу в интерфейсе
+                                showMatrix(matrixData.matrix(), view);
+                            } else {
+                                showError("Выбранный файл не является матрицей.");
+                            }
+                        },
+                        error -> showError("Произошла ошибка при загрузке матрицы: " + error.getMessage()));
             }
         } catch (Exception e) {
             showError("Произошла ошибка при загрузке матрицы: " + e.getMessage());
@@ -258,7 +326,7 @@ public class HelloController {
      * @param matrixNumber Номер матрицы (1 или 2).
      */
     private void calculateDeterminant(int matrixNumber) {
-        List<List<Integer>> matrixData;
+        LoadedMatrix matrixData;
         Label determinantLabel;
 
         if (matrixNumber == 1) {
@@ -276,13 +344,42 @@ public class HelloController {
             return;
         }
 
-        int determinant;
-        try {
-            determinant = MatrixOperations.calculateDeterminant(matrixData);
-            determinantLabel.setText("Определитель: " + determinant);
-        } catch (IllegalArgumentException e) {
-            showError(e.getMessage());
+        determinantLabel.setText("Вычисление...");
+        String key = ResultCache.key("Определитель", matrixData.contentHash());
+        runInBackground(DETERMINANT_TARGET + matrixNumber, () -> resultCache.computeIfAbsent(key,
+                        () -> OperationMetrics.measure("Определитель", matrixData.matrix(), null,
+                                () -> MatrixOperations.calculateDeterminantExact(matrixData.matrix())),
+                        determinant -> determinant.bitLength() / 8 + Long.BYTES),
+                determinant -> showDeterminant(determinant, determinantLabel),
+                error -> {
+                    determinantLabel.setText("");
+                    determinantLabel.setTooltip(null);
+                    if (error instanceof IllegalArgumentException || error instanceof ArithmeticException) {
+                        showError(error.getMessage());
+                    } else {
+                        showError("Невозможно вычислить определитель: " + error);
+                    }
+                });
+    }
+
+    /**
+     * Отображает определитель. Длинное значение сокращается до первых и последних цифр,
+     * полностью оно показывается во всплывающей подсказке.
+     *
+     * @param determinant Определитель.
+     * @param label       Метка для вывода.
+     */
+    private static void showDeterminant(BigInteger determinant, Label label) {
+        String digits = determinant.toString();
+        if (digits.length() <= MAX_DETERMINANT_DIGITS) {
+            label.setText("Определитель: " + digits);
+            label.setTooltip(null);
+            return;
         }
+        int shown = MAX_DETERMINANT_DIGITS / 2;
+        label.setText("Определитель: " + digits.substring(0, shown) + "…" + digits.substring(digits.length() - shown)
+                + " (" + (digits.length() - (determinant.signum() < 0 ? 1 : 0)) + " цифр)");
+        label.setTooltip(new Tooltip(digits));
     }
 
     /**
@@ -292,7 +389,7 @@ public class HelloController {
      */
     @FXML
     public void loadMatrix1(ActionEvent ignoredEvent) {
-        loadMatrix(1, matrix1Label);
+        loadMatrix(1, matrix1View);
     }
 
     /**
@@ -302,7 +399,7 @@ public class HelloController {
      */
     @FXML
     public void loadMatrix2(ActionEvent ignoredEvent) {
-        loadMatrix(2, matrix2Label);
+        loadMatrix(2, matrix2View);
     }
 
     /**
@@ -326,29 +423,106 @@ public class HelloController {
     }
 
     /**
-     * Отображает матрицу в пользовательском интерфейсе.
+     * Отменяет все выполняющиеся операции при нажатии кнопки "Отмена".
+     */
+    @FXML
+    public void cancelOperations() {
+        logger.info("Пользователь нажал на кнопку 'Отмена'.");
+        for (MatrixTask<?> task : runningTasks.values().toArray(new MatrixTask<?>[0])) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Запускает вычисление в фоновом потоке. Выполняющаяся задача с тем же назначением отменяется,
+     * задачи с другими назначениями продолжают работу. Обработчики результата и ошибки
+     * вызываются в потоке JavaFX; отмененная задача результат не публикует.
+     *
+     * @param target    Назначение задачи (куда будет выведен результат).
+     * @param action    Вычисление.
+     * @param onSuccess Обработчик результата.
+     * @param onFailure Обработчик ошибки.
+     * @param <T>       Тип результата.
+     */
+    private <T> void runInBackground(String target, Callable<T> action, Consumer<T> onSuccess,
+                                     Consumer<Throwable> onFailure) {
+        if (cancelTask(target)) {
+            logger.info("Предыдущая операция '" + target + "' отменена новым запросом.");
+        }
+        MatrixTask<T> task = new MatrixTask<>(action);
+        runningTasks.put(target, task);
+        task.setOnSucceeded(event -> {
+            finishTask(target, task);
+            onSuccess.accept(task.getValue());
+        });
+        task.setOnFailed(event -> {
+            finishTask(target, task);
+            onFailure.accept(task.getException());
+        });
+        task.setOnCancelled(event -> finishTask(target, task));
+        showProgress(task);
+        backgroundExecutor.execute(task);
+    }
+
+    /**
+     * Отменяет задачу с указанным назначением, если она выполняется.
+     *
+     * @return True, если задача была отменена.
+     */
+    private boolean cancelTask(String target) {
+        MatrixTask<?> task = runningTasks.remove(target);
+        if (task == null) {
+            return false;
+        }
+        task.cancel();
+        updateProgress();
+        return true;
+    }
+
+    /**
+     * Удаляет завершившуюся задачу из списка выполняющихся.
+     */
+    private void finishTask(String target, MatrixTask<?> task) {
+        runningTasks.remove(target, task);
+        updateProgress();
+    }
+
+    /**
+     * Показывает прогресс последней запущенной задачи или скрывает индикатор, если задач нет.
+     */
+    private void updateProgress() {
+        MatrixTask<?> latest = null;
+        for (Iterator<MatrixTask<?>> iterator = runningTasks.values().iterator(); iterator.hasNext(); ) {
+            latest = iterator.next();
+        }
+        showProgress(latest);
+    }
+
+    private void showProgress(MatrixTask<?> task) {
+        progressIndicator.progressProperty().unbind();
+        if (task == null) {
+            progressIndicator.setVisible(false);
+            cancelButton.setDisable(true);
+            return;
+        }
+        progressIndicator.progressProperty().bind(task.progressProperty());
+        progressIndicator.setVisible(true);
+        cancelButton.setDisable(false);
+    }
+
+    /**
+     * Отображает матрицу в пользовательском интерфейсе. Представление рисует только видимые ячейки,
+     * поэтому матрица любого размера отображается без построения строки со всеми элементами.
      *
      * @param matrixData Матрица для отображения.
-     * @param label      Метка для отображения матрицы.
+     * @param view       Представление для отображения матрицы.
      */
-    private void showMatrix(List<List<Integer>> matrixData, Label label) {
+    private void showMatrix(Matrix matrixData, MatrixView view) {
         // Проверяем, что матрица не пуста
         if (matrixData == null) {
             return;
         }
-
-        // Формируем строку для отображения матрицы
-        StringBuilder matrixString = new StringBuilder();
-        for (List<Integer> row : matrixData) {
-            for (Integer value : row) {
-                // Добавляем значение в строку с табуляцией после каждого элемента
-                matrixString.append(value).append("\t");
-            }
-            // Переходим на новую строку после каждой строки матрицы
-            matrixString.append("\n");
-        }
-        // Устанавливаем сформированную строку в метку интерфейса
-        label.setText(matrixString.toString());
+        view.setMatrix(matrixData);
     }
 
     /**
@@ -366,10 +540,10 @@ public class HelloController {
     }
 
     /**
-     * Функциональный интерфейс для представления операции над матрицами.
+     * Функциональный интерфейс для представления операции над загруженными матрицами.
      */
     @FunctionalInterface
     interface MatrixOperation {
-        List<List<Integer>> apply(List<List<Integer>> matrix1, List<List<Integer>> matrix2);
+        Matrix apply(LoadedMatrix matrix1, LoadedMatrix matrix2);
     }
 }
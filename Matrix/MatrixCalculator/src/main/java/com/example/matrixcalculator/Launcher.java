@@ -1,12 +1,30 @@
 package com.example.matrixcalculator;
+
+import java.nio.file.Path;
+
 /**
  * Класс для обхода ошибки при создании JAR файла.
+ * С аргументами "--batch файл_заданий" запускает пакетный режим {@link BatchRunner}, а с аргументами
+ * "--server [порт]" - локальный сервер вычислений {@link ComputeServer}; в обоих случаях без графического интерфейса.
  */
 public class Launcher {
     /**
      * Запуск основного файла.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            if (args.length != 2) {
+                System.err.println("Использование: --batch файл_заданий");
+                System.exit(2);
+            }
+            System.exit(BatchRunner.run(Path.of(args[1])) == 0 ? 0 : 1);
+        }
+        if (args.length > 0 && "--server".equals(args[0])) {
+            ComputeServer server = ComputeServer.start(args.length > 1 ? Integer.parseInt(args[1])
+                    : ComputeServer.DEFAULT_PORT);
+            System.out.println("Сервер вычислений: http://127.0.0.1:" + server.port() + "/");
+            return;
+        }
         HelloApplication.main(args);
     }
 }
@@ -0,0 +1,254 @@
+package com.example.matrixcalculator;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Загруженная матрица вместе с хешем ее содержимого. Хеш вычисляется один раз при первом запросе
+ * и служит ключом кэша результатов {@link ResultCache}: одинаковые по содержимому матрицы
+ * из разных файлов дают одинаковый ключ. Там же вычисляются оценки модулей элементов {@link MatrixBounds}
+ * для точных операций {@link ExactOperations}. Точное разложение {@link FractionFreeLU} строится
+ * при первом запросе и хранится вместе с матрицей.
+ * <p>
+ * Разреженная матрица (например, из файла Matrix Market) хранится в формате {@link CsrMatrix}, и память
+ * пропорциональна количеству ненулевых элементов; плотная копия создается только при первом вызове
+ * {@link #matrix()}. Плотная матрица с низкой плотностью, наоборот, при первом вызове {@link #sparse()}
+ * получает представление CSR. По плотности, измеренной при загрузке, {@link ExactOperations} выбирает
+ * разреженные или плотные ядра.
+ */
+public final class LoadedMatrix {
+
+    private final int rows;
+    private final int cols;
+    private final MatrixBounds bounds;
+    private volatile String contentHash;
+    private volatile IntMatrix matrix;
+    private volatile CsrMatrix sparse;
+    private volatile FractionFreeLU factorization;
+
+    private LoadedMatrix(int rows, int cols, IntMatrix matrix, CsrMatrix sparse, MatrixBounds bounds) {
+        this.rows = rows;
+        this.cols = cols;
+        this.matrix = matrix;
+        this.sparse = sparse;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Создает описание загруженной матрицы, вычисляя оценки элементов.
+     *
+     * @param matrix Матрица.
+     * @return Загруженная матрица.
+     */
+    public static LoadedMatrix of(IntMatrix matrix) {
+        return new LoadedMatrix(matrix.rows(), matrix.cols(), matrix, null, MatrixBounds.of(matrix));
+    }
+
+    /**
+     * Создает описание загруженной разреженной матрицы без построения плотной копии.
+     * Оценки элементов вычисляются за время, пропорциональное количеству ненулевых элементов.
+     *
+     * @param matrix Разреженная матрица.
+     * @return Загруженная матрица.
+     */
+    public static LoadedMatrix of(CsrMatrix matrix) {
+        return new LoadedMatrix(matrix.rows(), matrix.cols(), null, matrix, MatrixBounds.of(matrix));
+    }
+
+    /**
+     * Возвращает плотную матрицу; для разреженной матрицы плотная копия создается при первом вызове.
+     *
+     * @return Матрица.
+     * @throws IllegalArgumentException Если разреженная матрица слишком велика для плотного представления.
+     */
+    public IntMatrix matrix() {
+        IntMatrix result = matrix;
+        if (result == null) {
+            synchronized (this) {
+                result = matrix;
+                if (result == null) {
+                    result = sparse.toDense();
+                    matrix = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает представление CSR. Плотная матрица преобразуется при первом вызове,
+     * если ее плотность ниже {@link SparseOperations#DENSITY_THRESHOLD}.
+     *
+     * @return Разреженная матрица или null, если матрица плотная и загружена не в формате CSR.
+     */
+    public CsrMatrix sparse() {
+        CsrMatrix result = sparse;
+        if (result == null && isSparse()) {
+            synchronized (this) {
+                result = sparse;
+                if (result == null) {
+                    result = CsrMatrix.fromDense(matrix);
+                    sparse = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return True, если доля ненулевых элементов ниже {@link SparseOperations#DENSITY_THRESHOLD}
+     * и операции выгоднее выполнять в разреженном формате.
+     */
+    public boolean isSparse() {
+        return (long) rows * cols > 0 && density() < SparseOperations.DENSITY_THRESHOLD;
+    }
+
+    /**
+     * @return Доля ненулевых элементов, измеренная при загрузке.
+     */
+    public double density() {
+        long cells = (long) rows * cols;
+        return cells == 0 ? 0 : (double) bounds.nonZeros() / cells;
+    }
+
+    /**
+     * @return Количество строк.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return Количество столбцов.
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * Возвращает хеш содержимого, вычисляя его при первом вызове. Для разреженной матрицы хеш совпадает
+     * с хешем той же матрицы в плотном виде.
+     *
+     * @return Шестнадцатеричный SHA-256 размеров и элементов матрицы.
+     */
+    public String contentHash() {
+        String result = contentHash;
+        if (result == null) {
+            IntMatrix dense = matrix;
+            result = dense != null ? contentHash(dense) : contentHash(sparse);
+            contentHash = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return Оценки модулей элементов, вычисленные при загрузке.
+     */
+    public MatrixBounds bounds() {
+        return bounds;
+    }
+
+    /**
+     * Возвращает точное LU-разложение матрицы, строя его при первом вызове. Одновременные вызовы
+     * ждут одного и того же разложения. Определитель сюда не направляется: модульный алгоритм
+     * {@link MatrixOperations#calculateDeterminantExact} на больших матрицах на порядок быстрее.
+     *
+     * @return Разложение для ранга, решения систем и обратной матрицы.
+     */
+    public FractionFreeLU factorization() {
+        FractionFreeLU result = factorization;
+        if (result == null) {
+            synchronized (this) {
+                result = factorization;
+                if (result == null) {
+                    result = FractionFreeLU.of(matrix());
+                    factorization = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Вычисляет SHA-256 от размеров матрицы и ее элементов (построчно, без учета шага строки).
+     *
+     * @param matrix Матрица.
+     * @return Шестнадцатеричная запись хеша.
+     */
+    public static String contentHash(IntMatrix matrix) {
+        ContentDigest digest = new ContentDigest(matrix.rows(), matrix.cols());
+        int[] data = matrix.data();
+        for (int i = 0; i < matrix.rows(); i++) {
+            digest.update(data, i * matrix.stride(), matrix.cols());
+        }
+        return digest.finish();
+    }
+
+    /**
+     * Вычисляет тот же хеш, что и {@link #contentHash(IntMatrix)} для плотной копии, разворачивая
+     * разреженную матрицу по одной строке.
+     *
+     * @param matrix Разреженная матрица.
+     * @return Шестнадцатеричная запись хеша.
+     */
+    public static String contentHash(CsrMatrix matrix) {
+        ContentDigest digest = new ContentDigest(matrix.rows(), matrix.cols());
+        int[] pointers = matrix.rowPointers();
+        int[] columns = matrix.columnIndices();
+        int[] values = matrix.values();
+        int[] row = new int[matrix.cols()];
+        for (int i = 0; i < matrix.rows(); i++) {
+            for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+                row[columns[p]] = values[p];
+            }
+            digest.update(row, 0, row.length);
+            for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+                row[columns[p]] = 0;
+            }
+        }
+        return digest.finish();
+    }
+
+    /**
+     * Накопление SHA-256 через буфер: размеры, затем значения строк подряд.
+     */
+    private static final class ContentDigest {
+        private final MessageDigest digest;
+        private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+        ContentDigest(int rows, int cols) {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 недоступен", e);
+            }
+            buffer.putInt(rows).putInt(cols);
+        }
+
+        void update(int[] data, int offset, int remaining) {
+            while (remaining > 0) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+                int count = Math.min(remaining, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(data, offset, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+                offset += count;
+                remaining -= count;
+            }
+        }
+
+        String finish() {
+            buffer.flip();
+            digest.update(buffer);
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        }
+    }
+}
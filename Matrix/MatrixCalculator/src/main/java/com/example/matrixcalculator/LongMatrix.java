@@ -0,0 +1,132 @@
+package com.example.matrixcalculator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Плотная матрица целых чисел типа long, хранящаяся построчно в одном массиве.
+ */
+public final class LongMatrix extends Matrix {
+
+    /**
+     * Элементы матрицы в построчном порядке.
+     */
+    private final long[] data;
+
+    /**
+     * Создает нулевую матрицу заданного размера.
+     *
+     * @param rows Количество строк.
+     * @param cols Количество столбцов.
+     */
+    public LongMatrix(int rows, int cols) {
+        this(rows, cols, cols, new long[rows * cols]);
+    }
+
+    /**
+     * Создает матрицу поверх существующего массива без копирования.
+     *
+     * @param rows   Количество строк.
+     * @param cols   Количество столбцов.
+     * @param stride Шаг между строками.
+     * @param data   Массив элементов.
+     * @throws IllegalArgumentException Если массив меньше, чем требуют размеры.
+     */
+    public LongMatrix(int rows, int cols, int stride, long[] data) {
+        super(rows, cols, stride);
+        if (rows > 0 && data.length < (rows - 1) * stride + cols) {
+            throw new IllegalArgumentException("Массив данных слишком мал для матрицы " + rows + "x" + cols);
+        }
+        this.data = data;
+    }
+
+    /**
+     * Преобразует матрицу из представления в виде списка списков.
+     *
+     * @param matrix Матрица в виде списка строк.
+     * @return Новая матрица с теми же элементами.
+     * @throws IllegalArgumentException Если строки имеют разную длину.
+     */
+    public static LongMatrix fromList(List<? extends List<? extends Number>> matrix) {
+        int rows = matrix.size();
+        int cols = rows == 0 ? 0 : matrix.get(0).size();
+        LongMatrix result = new LongMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            List<? extends Number> row = matrix.get(i);
+            if (row.size() != cols) {
+                throw new IllegalArgumentException("Строка " + (i + 1) + " содержит " + row.size()
+                        + " элементов вместо " + cols);
+            }
+            int offset = i * cols;
+            for (int j = 0; j < cols; j++) {
+                result.data[offset + j] = row.get(j).longValue();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Преобразует матрицу в представление в виде списка списков.
+     *
+     * @return Список строк матрицы.
+     */
+    public List<List<Long>> toList() {
+        List<List<Long>> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            List<Long> row = new ArrayList<>(cols);
+            int offset = i * stride;
+            for (int j = 0; j < cols; j++) {
+                row.add(data[offset + j]);
+            }
+            result.add(row);
+        }
+        return result;
+    }
+
+    /**
+     * @param row Индекс строки.
+     * @param col Индекс столбца.
+     * @return Элемент (row, col).
+     */
+    public long get(int row, int col) {
+        return data[row * stride + col];
+    }
+
+    @Override
+    public String elementToString(int row, int col) {
+        return Long.toString(data[row * stride + col]);
+    }
+
+    /**
+     * Устанавливает значение элемента.
+     *
+     * @param row   Индекс строки.
+     * @param col   Индекс столбца.
+     * @param value Новое значение.
+     */
+    public void set(int row, int col, long value) {
+        data[row * stride + col] = value;
+    }
+
+    /**
+     * Возвращает внутренний массив данных без копирования.
+     *
+     * @return Массив элементов в построчном порядке с шагом {@link #stride()}.
+     */
+    public long[] data() {
+        return data;
+    }
+
+    /**
+     * Создает компактную копию матрицы (шаг строки равен количеству столбцов).
+     *
+     * @return Копия матрицы.
+     */
+    public LongMatrix copy() {
+        LongMatrix result = new LongMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(data, i * stride, result.data, i * cols, cols);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.matrixcalculator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Матрица int32, отображенная в память из файла двоичного формата {@link BinaryMatrixFormat}.
+ * Элементы читаются и записываются прямо в отображенных страницах без копирования в кучу,
+ * поэтому открытие файла любого размера занимает миллисекунды. Файл отображается участками
+ * по целому числу строк, не превышающими 1 ГБ.
+ */
+public final class MappedIntMatrix implements Closeable {
+
+    private final FileChannel channel;
+    private final int rows;
+    private final int cols;
+    private final int rowsPerRegion;
+    private final IntBuffer[] regions;
+
+    private MappedIntMatrix(FileChannel channel, BinaryMatrixFormat.Header header, FileChannel.MapMode mode)
+            throws IOException {
+        this.channel = channel;
+        this.rows = header.rows();
+        this.cols = header.cols();
+        this.rowsPerRegion = BinaryMatrixFormat.rowsPerRegion(header);
+        int regionCount = rows == 0 ? 0 : (rows + rowsPerRegion - 1) / rowsPerRegion;
+        this.regions = new IntBuffer[regionCount];
+        for (int r = 0; r < regionCount; r++) {
+            int row = r * rowsPerRegion;
+            int count = Math.min(rowsPerRegion, rows - row);
+            regions[r] = BinaryMatrixFormat.map(channel, header, row, count, mode).asIntBuffer();
+        }
+    }
+
+    /**
+     * Открывает существующий файл с матрицей int32.
+     *
+     * @param file     Путь к файлу.
+     * @param writable True - разрешить изменение элементов (изменения попадают в файл).
+     * @return Отображенная матрица.
+     * @throws IOException              Возникает при ошибке ввода/вывода.
+     * @throws IllegalArgumentException Если файл не содержит матрицу int32.
+     */
+    public static MappedIntMatrix open(Path file, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            BinaryMatrixFormat.Header header = BinaryMatrixFormat.readHeader(channel);
+            if (header.elementType() != BinaryMatrixFormat.TYPE_INT32) {
+                throw new IllegalArgumentException("Отображение в память поддерживается только для матриц int32.");
+            }
+            return new MappedIntMatrix(channel, header,
+                    writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Создает новый файл с нулевой матрицей int32 и отображает его в память для записи.
+     *
+     * @param file Путь к файлу (перезаписывается).
+     * @param rows Количество строк.
+     * @param cols Количество столбцов.
+     * @return Отображенная матрица.
+     * @throws IOException Возникает при ошибке ввода/вывода.
+     */
+    public static MappedIntMatrix create(Path file, int rows, int cols) throws IOException {
+        BinaryMatrixFormat.Header header = new BinaryMatrixFormat.Header(rows, cols,
+                BinaryMatrixFormat.TYPE_INT32, ByteOrder.nativeOrder());
+        FileChannel channel = BinaryMatrixFormat.openForWrite(file, header);
+        try {
+            return new MappedIntMatrix(channel, header, FileChannel.MapMode.READ_WRITE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Количество строк.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return Количество столбцов.
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @param row Индекс строки.
+     * @param col Индекс столбца.
+     * @return Элемент (row, col).
+     */
+    public int get(int row, int col) {
+        return regions[row / rowsPerRegion].get((row % rowsPerRegion) * cols + col);
+    }
+
+    /**
+     * Устанавливает значение элемента (только для матриц, открытых на запись).
+     *
+     * @param row   Индекс строки.
+     * @param col   Индекс столбца.
+     * @param value Новое значение.
+     */
+    public void set(int row, int col, int value) {
+        regions[row / rowsPerRegion].put((row % rowsPerRegion) * cols + col, value);
+    }
+
+    /**
+     * Копирует часть строки в массив.
+     *
+     * @param row       Индекс строки.
+     * @param fromCol   Первый копируемый столбец.
+     * @param target    Массив назначения.
+     * @param offset    Смещение в массиве назначения.
+     * @param length    Количество элементов.
+     */
+    public void readRow(int row, int fromCol, int[] target, int offset, int length) {
+        regions[row / rowsPerRegion].get((row % rowsPerRegion) * cols + fromCol, target, offset, length);
+    }
+
+    /**
+     * Записывает часть строки из массива (только для матриц, открытых на запись).
+     *
+     * @param row     Индекс строки.
+     * @param fromCol Первый записываемый столбец.
+     * @param source  Исходный массив.
+     * @param offset  Смещение в исходном массиве.
+     * @param length  Количество элементов.
+     */
+    public void writeRow(int row, int fromCol, int[] source, int offset, int length) {
+        regions[row / rowsPerRegion].put((row % rowsPerRegion) * cols + fromCol, source, offset, length);
+    }
+
+    /**
+     * Копирует матрицу в кучу.
+     *
+     * @return Матрица в памяти.
+     */
+    public IntMatrix toIntMatrix() {
+        IntMatrix matrix = new IntMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            readRow(i, 0, matrix.data(), i * cols, cols);
+        }
+        return matrix;
+    }
+
+    /**
+     * Закрывает файл. Отображенные страницы освобождаются сборщиком мусора.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
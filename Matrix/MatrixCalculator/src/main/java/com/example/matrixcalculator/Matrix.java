@@ -0,0 +1,94 @@
+package com.example.matrixcalculator;
+
+/**
+ * Базовый класс плотной матрицы, хранящей элементы построчно в одномерном массиве.
+ * Элемент (i, j) расположен по индексу {@code i * stride + j}.
+ */
+public abstract class Matrix {
+
+    /**
+     * Количество строк.
+     */
+    protected final int rows;
+
+    /**
+     * Количество столбцов.
+     */
+    protected final int cols;
+
+    /**
+     * Шаг между началами соседних строк в массиве данных (не меньше количества столбцов).
+     */
+    protected final int stride;
+
+    /**
+     * Создает описание размеров матрицы.
+     *
+     * @param rows   Количество строк.
+     * @param cols   Количество столбцов.
+     * @param stride Шаг между строками.
+     * @throws IllegalArgumentException Если размеры отрицательные или шаг меньше количества столбцов.
+     */
+    protected Matrix(int rows, int cols, int stride) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Размеры матрицы не могут быть отрицательными: " + rows + "x" + cols);
+        }
+        if (stride < cols) {
+            throw new IllegalArgumentException("Шаг строки " + stride + " меньше количества столбцов " + cols);
+        }
+        if ((long) rows * stride > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Матрица " + rows + "x" + cols + " слишком велика для размещения в массиве.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = stride;
+    }
+
+    /**
+     * @return Количество строк.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return Количество столбцов.
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @return Шаг между началами соседних строк.
+     */
+    public int stride() {
+        return stride;
+    }
+
+    /**
+     * Возвращает индекс элемента в массиве данных.
+     *
+     * @param row Индекс строки.
+     * @param col Индекс столбца.
+     * @return Индекс элемента (row, col).
+     */
+    public int index(int row, int col) {
+        return row * stride + col;
+    }
+
+    /**
+     * @return True, если матрица квадратная.
+     */
+    public boolean isSquare() {
+        return rows == cols;
+    }
+
+    /**
+     * Форматирует один элемент для отображения без преобразования всей матрицы в строку.
+     *
+     * @param row Индекс строки.
+     * @param col Индекс столбца.
+     * @return Десятичная запись элемента (row, col).
+     */
+    public abstract String elementToString(int row, int col);
+}
@@ -0,0 +1,94 @@
+package com.example.matrixcalculator;
+
+/**
+ * Оценки модулей элементов матрицы: наибольший модуль в каждой строке и во всей матрице,
+ * а также количество ненулевых элементов. Вычисляются один раз при загрузке (см. {@link LoadedMatrix})
+ * и позволяют {@link ExactOperations} заранее определить, в каких строках результата арифметики int
+ * достаточно, а где нужны long или BigInteger, и выбрать разреженный или плотный формат по плотности.
+ */
+public final class MatrixBounds {
+
+    private final long[] rowMaxAbs;
+    private final long maxAbs;
+    private final long nonZeros;
+
+    private MatrixBounds(long[] rowMaxAbs, long maxAbs, long nonZeros) {
+        this.rowMaxAbs = rowMaxAbs;
+        this.maxAbs = maxAbs;
+        this.nonZeros = nonZeros;
+    }
+
+    /**
+     * Вычисляет оценки за один проход по матрице.
+     *
+     * @param matrix Матрица.
+     * @return Оценки модулей элементов.
+     */
+    public static MatrixBounds of(IntMatrix matrix) {
+        int rows = matrix.rows();
+        int cols = matrix.cols();
+        int[] data = matrix.data();
+        long[] rowMaxAbs = new long[rows];
+        long maxAbs = 0;
+        long nonZeros = 0;
+        for (int i = 0; i < rows; i++) {
+            int offset = i * matrix.stride();
+            long max = 0;
+            for (int j = 0; j < cols; j++) {
+                int value = data[offset + j];
+                max = Math.max(max, Math.abs((long) value));
+                if (value != 0) {
+                    nonZeros++;
+                }
+            }
+            rowMaxAbs[i] = max;
+            maxAbs = Math.max(maxAbs, max);
+        }
+        return new MatrixBounds(rowMaxAbs, maxAbs, nonZeros);
+    }
+
+    /**
+     * Вычисляет оценки по ненулевым элементам разреженной матрицы.
+     *
+     * @param matrix Разреженная матрица.
+     * @return Оценки модулей элементов.
+     */
+    public static MatrixBounds of(CsrMatrix matrix) {
+        int rows = matrix.rows();
+        int[] pointers = matrix.rowPointers();
+        int[] values = matrix.values();
+        long[] rowMaxAbs = new long[rows];
+        long maxAbs = 0;
+        for (int i = 0; i < rows; i++) {
+            long max = 0;
+            for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+                max = Math.max(max, Math.abs((long) values[p]));
+            }
+            rowMaxAbs[i] = max;
+            maxAbs = Math.max(maxAbs, max);
+        }
+        return new MatrixBounds(rowMaxAbs, maxAbs, matrix.nonZeros());
+    }
+
+    /**
+     * @param row Индекс строки.
+     * @return Наибольший модуль элемента строки.
+     */
+    public long rowMaxAbs(int row) {
+        return rowMaxAbs[row];
+    }
+
+    /**
+     * @return Наибольший модуль элемента матрицы.
+     */
+    public long maxAbs() {
+        return maxAbs;
+    }
+
+    /**
+     * @return Количество ненулевых элементов матрицы.
+     */
+    public long nonZeros() {
+        return nonZeros;
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.matrixcalculator;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Произведение цепочки матриц A1 * A2 * ... * An в оптимальном порядке.
+ * Порядок выбирается динамическим программированием по размерам операндов так, чтобы минимизировать
+ * количество скалярных умножений; независимые подпроизведения (левое и правое поддерево плана)
+ * вычисляются параллельно в пуле {@link ParallelExecution#pool()}.
+ */
+public final class MatrixChain {
+
+    private MatrixChain() {
+    }
+
+    /**
+     * План вычисления цепочки: расстановка скобок и ее стоимость.
+     */
+    public static final class Plan {
+        private final int[] dimensions;
+        private final int[][] split;
+        private final long cost;
+
+        private Plan(int[] dimensions, int[][] split, long cost) {
+            this.dimensions = dimensions;
+            this.split = split;
+            this.cost = cost;
+        }
+
+        /**
+         * @return Количество матриц в цепочке.
+         */
+        public int size() {
+            return dimensions.length - 1;
+        }
+
+        /**
+         * @return Оценка стоимости плана в скалярных умножениях.
+         */
+        public long cost() {
+            return cost;
+        }
+
+        /**
+         * @return Стоимость умножения слева направо, для сравнения с выбранным планом.
+         */
+        public long sequentialCost() {
+            long total = 0;
+            for (int j = 2; j < dimensions.length; j++) {
+                total = saturatedAdd(total, saturatedProduct(dimensions[0], dimensions[j - 1], dimensions[j]));
+            }
+            return total;
+        }
+
+        /**
+         * Возвращает индекс k, по которому подцепочка [from, to] делится на [from, k] и [k + 1, to].
+         *
+         * @param from Первая матрица подцепочки (с нуля).
+         * @param to   Последняя матрица подцепочки (включительно).
+         * @return Индекс разбиения.
+         */
+        public int split(int from, int to) {
+            return split[from][to];
+        }
+
+        /**
+         * @return Расстановка скобок, например "((A1 A2) A3)".
+         */
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            append(text, 0, size() - 1);
+            return text.toString();
+        }
+
+        private void append(StringBuilder text, int from, int to) {
+            if (from == to) {
+                text.append('A').append(from + 1);
+                return;
+            }
+            text.append('(');
+            append(text, from, split[from][to]);
+            text.append(' ');
+            append(text, split[from][to] + 1, to);
+            text.append(')');
+        }
+    }
+
+    /**
+     * Строит оптимальный план по размерам матриц.
+     *
+     * @param dimensions Размеры: матрица i имеет размер dimensions[i] x dimensions[i + 1].
+     * @return План вычисления.
+     * @throws IllegalArgumentException Если цепочка пуста.
+     */
+    public static Plan plan(int[] dimensions) {
+        int n = dimensions.length - 1;
+        if (n < 1) {
+            throw new IllegalArgumentException("Цепочка должна содержать хотя бы одну матрицу.");
+        }
+        long[][] cost = new long[n][n];
+        int[][] split = new int[n][n];
+        // cost[i][j] - минимальная стоимость произведения матриц i..j
+        for (int length = 2; length <= n; length++) {
+            for (int i = 0; i + length - 1 < n; i++) {
+                int j = i + length - 1;
+                cost[i][j] = Long.MAX_VALUE;
+                for (int k = i; k < j; k++) {
+                    long candidate = saturatedAdd(saturatedAdd(cost[i][k], cost[k + 1][j]),
+                            saturatedProduct(dimensions[i], dimensions[k + 1], dimensions[j + 1]));
+                    if (candidate < cost[i][j]) {
+                        cost[i][j] = candidate;
+                        split[i][j] = k;
+                    }
+                }
+            }
+        }
+        return new Plan(dimensions.clone(), split, cost[0][n - 1]);
+    }
+
+    /**
+     * Строит оптимальный план для списка матриц.
+     *
+     * @param matrices Матрицы цепочки.
+     * @return План вычисления.
+     * @throws IllegalArgumentException Если цепочка пуста или размеры соседних матриц не согласованы.
+     */
+    public static Plan plan(List<? extends Matrix> matrices) {
+        return plan(dimensions(matrices));
+    }
+
+    /**
+     * Вычисляет произведение цепочки матриц в оптимальном порядке.
+     *
+     * @param matrices Матрицы цепочки.
+     * @return Произведение.
+     * @throws IllegalArgumentException Если цепочка пуста или размеры соседних матриц не согласованы.
+     */
+    public static IntMatrix multiply(List<IntMatrix> matrices) {
+        return multiply(matrices, plan(matrices));
+    }
+
+    /**
+     * Вычисляет произведение цепочки матриц по заданному плану.
+     *
+     * @param matrices Матрицы цепочки.
+     * @param plan     План, построенный для этих матриц.
+     * @return Произведение.
+     * @throws IllegalArgumentException Если план построен для цепочки другой длины.
+     */
+    public static IntMatrix multiply(List<IntMatrix> matrices, Plan plan) {
+        dimensions(matrices);
+        if (plan.size() != matrices.size()) {
+            throw new IllegalArgumentException("План построен для цепочки из " + plan.size() + " матриц, а передано "
+                    + matrices.size());
+        }
+        if (matrices.size() == 1) {
+            return matrices.get(0).copy();
+        }
+        // Стоимость плана равна сумме m * k * n умножений, о которых сообщают ядра
+        OperationMonitor.beginTotalWork(plan.cost());
+        ChainTask task = new ChainTask(matrices, plan, 0, matrices.size() - 1, OperationMonitor.current());
+        ForkJoinPool executor = ParallelExecution.pool();
+        if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == executor) {
+            return task.invoke();
+        }
+        return executor.invoke(task);
+    }
+
+    /**
+     * Проверяет согласованность размеров и возвращает их в виде массива для планировщика.
+     */
+    private static int[] dimensions(List<? extends Matrix> matrices) {
+        if (matrices.isEmpty()) {
+            throw new IllegalArgumentException("Цепочка должна содержать хотя бы одну матрицу.");
+        }
+        int[] dimensions = new int[matrices.size() + 1];
+        dimensions[0] = matrices.get(0).rows();
+        for (int i = 0; i < matrices.size(); i++) {
+            Matrix matrix = matrices.get(i);
+            if (matrix.rows() != dimensions[i]) {
+                throw new IllegalArgumentException("Невозможно умножить матрицы: количество столбцов матрицы " + i
+                        + " (" + dimensions[i] + ") не равно количеству строк матрицы " + (i + 1)
+                        + " (" + matrix.rows() + ").");
+            }
+            dimensions[i + 1] = matrix.cols();
+        }
+        return dimensions;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * Произведение трех размеров с насыщением: при размерах больше 2^21 оно может не поместиться в long.
+     */
+    private static long saturatedProduct(int a, int b, int c) {
+        long ab = (long) a * b;
+        return c != 0 && ab > Long.MAX_VALUE / c ? Long.MAX_VALUE : ab * c;
+    }
+
+    /**
+     * Вычисление подцепочки [from, to]: левое поддерево выполняется отдельной задачей,
+     * правое - в текущем потоке.
+     */
+    private static final class ChainTask extends RecursiveTask<IntMatrix> {
+        private static final long serialVersionUID = 1L;
+        private final List<IntMatrix> matrices;
+        private final Plan plan;
+        private final int from;
+        private final int to;
+        private final OperationMonitor monitor;
+
+        ChainTask(List<IntMatrix> matrices, Plan plan, int from, int to, OperationMonitor monitor) {
+            this.matrices = matrices;
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+            this.monitor = monitor;
+        }
+
+        @Override
+        protected IntMatrix compute() {
+            OperationMonitor previous = monitor == null ? null : monitor.bind();
+            try {
+                return product();
+            } finally {
+                if (monitor != null) {
+                    OperationMonitor.restore(previous);
+                }
+            }
+        }
+
+        private IntMatrix product() {
+            if (from == to) {
+                return matrices.get(from);
+            }
+            int split = plan.split(from, to);
+            ChainTask left = new ChainTask(matrices, plan, from, split, monitor);
+            ChainTask right = new ChainTask(matrices, plan, split + 1, to, monitor);
+            IntMatrix rightValue;
+            IntMatrix leftValue;
+            if (from == split) {
+                leftValue = matrices.get(from);
+                rightValue = right.compute();
+            } else if (split + 1 == to) {
+                leftValue = left.compute();
+                rightValue = matrices.get(to);
+            } else {
+                left.fork();
+                rightValue = right.compute();
+                leftValue = left.join();
+            }
+            OperationMonitor.checkCancelled();
+            return MatrixOperations.multiplyMatrices(leftValue, rightValue);
+        }
+    }
+}
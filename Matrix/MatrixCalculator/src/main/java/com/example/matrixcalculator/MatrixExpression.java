@@ -0,0 +1,272 @@
+package com.example.matrixcalculator;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ленивое выражение над матрицами. Методы {@link #add}, {@link #subtract}, {@link #multiply} и {@link #scale}
+ * только строят граф (DAG) вычисления; результат получается методом {@link #evaluate()}.
+ * <p>
+ * При вычислении выражение раскладывается в линейную комбинацию слагаемых c1 * T1 + c2 * T2 + ...,
+ * где каждое Ti - исходная матрица или произведение. Поэлементные операции над исходными матрицами
+ * выполняются за один проход без промежуточных матриц, а произведения накапливаются прямо в результат
+ * ядром {@link MultiplyKernels#multiplyAdd}. Например, (A + B) - C и A * B + C вычисляются
+ * с единственной выделенной матрицей - результатом. Материализуются только операнды произведений,
+ * которые сами являются выражениями, и произведения, для которых выгоднее алгоритм Штрассена
+ * или разреженное умножение. Узел, встречающийся в графе несколько раз, вычисляется один раз.
+ */
+public abstract class MatrixExpression {
+
+    private final int rows;
+    private final int cols;
+
+    private MatrixExpression(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Создает выражение из готовой матрицы. Матрица не копируется и не должна изменяться до вычисления.
+     *
+     * @param matrix Матрица.
+     * @return Выражение-лист.
+     */
+    public static MatrixExpression of(IntMatrix matrix) {
+        return new Leaf(matrix);
+    }
+
+    /**
+     * @return Количество строк результата.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return Количество столбцов результата.
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @param other Второе слагаемое.
+     * @return Выражение this + other.
+     * @throws IllegalArgumentException Если размеры не совпадают.
+     */
+    public MatrixExpression add(MatrixExpression other) {
+        checkSameSize(other);
+        return new Linear(rows, cols, new MatrixExpression[]{this, other}, new int[]{1, 1});
+    }
+
+    /**
+     * @param other Вычитаемое.
+     * @return Выражение this - other.
+     * @throws IllegalArgumentException Если размеры не совпадают.
+     */
+    public MatrixExpression subtract(MatrixExpression other) {
+        checkSameSize(other);
+        return new Linear(rows, cols, new MatrixExpression[]{this, other}, new int[]{1, -1});
+    }
+
+    /**
+     * @param factor Множитель.
+     * @return Выражение factor * this.
+     */
+    public MatrixExpression scale(int factor) {
+        return new Linear(rows, cols, new MatrixExpression[]{this}, new int[]{factor});
+    }
+
+    /**
+     * @param other Правый множитель.
+     * @return Выражение this * other.
+     * @throws IllegalArgumentException Если размеры не соответствуют правилам умножения.
+     */
+    public MatrixExpression multiply(MatrixExpression other) {
+        if (cols != other.rows) {
+            throw new IllegalArgumentException("Невозможно умножить матрицы: количество столбцов первой матрицы должно равняться количеству строк второй.");
+        }
+        return new Product(this, other);
+    }
+
+    /**
+     * Вычисляет выражение.
+     *
+     * @return Новая матрица с результатом.
+     */
+    public IntMatrix evaluate() {
+        return new Evaluation().evaluate(this);
+    }
+
+    private void checkSameSize(MatrixExpression other) {
+        if (rows != other.rows || cols != other.cols) {
+            throw new IllegalArgumentException("Матрицы должны быть одного размера для выполнения операции.");
+        }
+    }
+
+    /**
+     * Исходная матрица.
+     */
+    private static final class Leaf extends MatrixExpression {
+        private final IntMatrix matrix;
+
+        Leaf(IntMatrix matrix) {
+            super(matrix.rows(), matrix.cols());
+            this.matrix = matrix;
+        }
+    }
+
+    /**
+     * Линейная комбинация подвыражений с целыми коэффициентами.
+     */
+    private static final class Linear extends MatrixExpression {
+        private final MatrixExpression[] terms;
+        private final int[] coefficients;
+
+        Linear(int rows, int cols, MatrixExpression[] terms, int[] coefficients) {
+            super(rows, cols);
+            this.terms = terms;
+            this.coefficients = coefficients;
+        }
+    }
+
+    /**
+     * Произведение двух подвыражений.
+     */
+    private static final class Product extends MatrixExpression {
+        private final MatrixExpression left;
+        private final MatrixExpression right;
+
+        Product(MatrixExpression left, MatrixExpression right) {
+            super(left.rows(), right.cols());
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    /**
+     * Одно вычисление выражения: кэш материализованных узлов живет только в его пределах.
+     */
+    private static final class Evaluation {
+        private final Map<MatrixExpression, IntMatrix> materialized = new IdentityHashMap<>();
+
+        /**
+         * Вычисляет выражение в новую матрицу.
+         */
+        IntMatrix evaluate(MatrixExpression expression) {
+            // Раскладываем выражение в линейную комбинацию листьев и произведений
+            Map<MatrixExpression, Integer> combination = new LinkedHashMap<>();
+            expand(expression, 1, combination);
+
+            List<IntMatrix> leaves = new ArrayList<>();
+            List<Integer> leafCoefficients = new ArrayList<>();
+            List<IntMatrix[]> products = new ArrayList<>();
+            List<Integer> productCoefficients = new ArrayList<>();
+            for (Map.Entry<MatrixExpression, Integer> term : combination.entrySet()) {
+                int coefficient = term.getValue();
+                if (coefficient == 0) {
+                    continue;
+                }
+                MatrixExpression node = term.getKey();
+                if (node instanceof Leaf) {
+                    leaves.add(((Leaf) node).matrix);
+                    leafCoefficients.add(coefficient);
+                    continue;
+                }
+                Product product = (Product) node;
+                IntMatrix left = operand(product.left);
+                IntMatrix right = operand(product.right);
+                if (StrassenMultiplier.isApplicable(left, right) || SparseOperations.prefersSparse(left)) {
+                    // Для этих случаев есть более быстрые алгоритмы: произведение считается отдельно
+                    leaves.add(materialize(product));
+                    leafCoefficients.add(coefficient);
+                } else {
+                    products.add(new IntMatrix[]{left, right});
+                    productCoefficients.add(coefficient);
+                }
+            }
+            return combine(expression.rows(), expression.cols(), leaves, leafCoefficients,
+                    products, productCoefficients);
+        }
+
+        /**
+         * Добавляет слагаемые выражения с множителем coefficient в линейную комбинацию.
+         */
+        private static void expand(MatrixExpression expression, int coefficient,
+                                   Map<MatrixExpression, Integer> combination) {
+            if (expression instanceof Linear) {
+                Linear linear = (Linear) expression;
+                for (int t = 0; t < linear.terms.length; t++) {
+                    expand(linear.terms[t], coefficient * linear.coefficients[t], combination);
+                }
+            } else {
+                combination.merge(expression, coefficient, Integer::sum);
+            }
+        }
+
+        /**
+         * Возвращает операнд произведения в виде матрицы; исходная матрица используется без копирования.
+         */
+        private IntMatrix operand(MatrixExpression expression) {
+            if (expression instanceof Leaf) {
+                return ((Leaf) expression).matrix;
+            }
+            return materialize(expression);
+        }
+
+        private IntMatrix materialize(MatrixExpression expression) {
+            IntMatrix value = materialized.get(expression);
+            if (value == null) {
+                if (expression instanceof Product) {
+                    Product product = (Product) expression;
+                    value = MatrixOperations.multiplyMatrices(operand(product.left), operand(product.right));
+                } else {
+                    value = evaluate(expression);
+                }
+                materialized.put(expression, value);
+            }
+            return value;
+        }
+
+        /**
+         * Вычисляет сумму c_i * L_i + сумму d_j * (X_j * Y_j) построчно: каждая полоса строк результата
+         * заполняется поэлементными слагаемыми и затем накапливает произведения, пока находится в кэше.
+         */
+        private static IntMatrix combine(int rows, int cols, List<IntMatrix> leaves, List<Integer> leafCoefficients,
+                                         List<IntMatrix[]> products, List<Integer> productCoefficients) {
+            IntMatrix result = new IntMatrix(rows, cols);
+            int[] c = result.data();
+            long workPerRow = (long) cols * leaves.size();
+            for (IntMatrix[] product : products) {
+                workPerRow += (long) product[0].cols() * cols;
+            }
+            OperationMonitor.beginWork(rows * Math.max(1, workPerRow));
+            ParallelExecution.forEachRowBand(rows, Math.max(1, workPerRow), (fromRow, toRow) -> {
+                for (int i = fromRow; i < toRow; i++) {
+                    int rowC = i * cols;
+                    for (int t = 0; t < leaves.size(); t++) {
+                        IntMatrix leaf = leaves.get(t);
+                        int coefficient = leafCoefficients.get(t);
+                        int rowL = i * leaf.stride();
+                        if (t == 0 && coefficient == 1) {
+                            System.arraycopy(leaf.data(), rowL, c, rowC, cols);
+                        } else {
+                            VectorKernels.axpy(coefficient, leaf.data(), rowL, c, rowC, cols);
+                        }
+                    }
+                }
+                for (int t = 0; t < products.size(); t++) {
+                    IntMatrix x = products.get(t)[0];
+                    IntMatrix y = products.get(t)[1];
+                    MultiplyKernels.multiplyAdd(productCoefficients.get(t),
+                            x.data(), fromRow * x.stride(), x.stride(), y.data(), 0, y.stride(),
+                            c, fromRow * cols, cols, toRow - fromRow, x.cols(), cols);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.matrixcalculator;
+
+/**
+ * Исключение, возникающее при разборе файла с матрицей, содержащего некорректные данные.
+ * Хранит номер строки и столбца (начиная с 1), в которых обнаружена ошибка.
+ */
+public class MatrixFormatException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Номер строки файла, в которой обнаружена ошибка.
+     */
+    private final long line;
+
+    /**
+     * Номер значения в строке, в котором обнаружена ошибка.
+     */
+    private final int column;
+
+    /**
+     * Создает исключение с указанием места ошибки.
+     *
+     * @param message Описание ошибки.
+     * @param line    Номер строки (начиная с 1).
+     * @param column  Номер значения в строке (начиная с 1).
+     */
+    public MatrixFormatException(String message, long line, int column) {
+        super(message + " (строка " + line + ", столбец " + column + ")");
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * @return Номер строки файла, в которой обнаружена ошибка.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * @return Номер значения в строке, в котором обнаружена ошибка.
+     */
+    public int getColumn() {
+        return column;
+    }
+}
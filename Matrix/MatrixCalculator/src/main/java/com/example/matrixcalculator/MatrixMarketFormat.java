@@ -0,0 +1,267 @@
+package com.example.matrixcalculator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Чтение и запись разреженных матриц в координатном формате Matrix Market (расширение {@value #EXTENSION}).
+ * Поддерживаются поля integer, real (только с целыми значениями) и pattern, а также симметрии
+ * general, symmetric и skew-symmetric. Индексы в файле начинаются с 1.
+ */
+public final class MatrixMarketFormat {
+
+    /**
+     * Расширение файлов Matrix Market.
+     */
+    public static final String EXTENSION = ".mtx";
+
+    private static final String BANNER = "%%MatrixMarket";
+
+    /**
+     * Начальная емкость массивов координат: они растут по мере чтения, а не выделяются по количеству
+     * элементов из заголовка, которому нельзя доверять до прочтения самих элементов.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private MatrixMarketFormat() {
+    }
+
+    /**
+     * Проверяет, относится ли файл к формату Matrix Market (по расширению).
+     *
+     * @param file Файл.
+     * @return True, если имя файла оканчивается на {@value #EXTENSION}.
+     */
+    public static boolean isMatrixMarketFile(File file) {
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(EXTENSION);
+    }
+
+    /**
+     * Читает разреженную матрицу из файла.
+     *
+     * @param file Путь к файлу.
+     * @return Прочитанная матрица.
+     * @throws IOException           Возникает при ошибке ввода/вывода.
+     * @throws MatrixFormatException Возникает при некорректном содержимом файла.
+     */
+    public static CsrMatrix read(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long lineNumber = 1;
+            String line = reader.readLine();
+            if (line == null || !line.startsWith(BANNER)) {
+                throw new MatrixFormatException("Отсутствует заголовок " + BANNER, lineNumber, 1);
+            }
+            String[] banner = line.trim().toLowerCase(Locale.ROOT).split("\\s+");
+            if (banner.length != 5 || !banner[1].equals("matrix") || !banner[2].equals("coordinate")) {
+                throw new MatrixFormatException("Поддерживается только формат 'matrix coordinate'", lineNumber, 1);
+            }
+            String field = banner[3];
+            String symmetry = banner[4];
+            boolean pattern = field.equals("pattern");
+            if (!pattern && !field.equals("integer") && !field.equals("real")) {
+                throw new MatrixFormatException("Неподдерживаемый тип значений: " + field, lineNumber, 4);
+            }
+            boolean symmetric = symmetry.equals("symmetric");
+            boolean skew = symmetry.equals("skew-symmetric");
+            if (!symmetric && !skew && !symmetry.equals("general")) {
+                throw new MatrixFormatException("Неподдерживаемая симметрия: " + symmetry, lineNumber, 5);
+            }
+
+            // Пропускаем комментарии до строки размеров
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && (line.isBlank() || line.startsWith("%")));
+            if (line == null) {
+                throw new MatrixFormatException("Отсутствует строка размеров", lineNumber, 1);
+            }
+            long[] size = new long[3];
+            if (parseNumbers(line, size, 3) != 3) {
+                throw new MatrixFormatException("Строка размеров должна содержать три числа", lineNumber, 1);
+            }
+            checkSize(size, lineNumber);
+            int rows = (int) size[0];
+            int cols = (int) size[1];
+            int declared = (int) size[2];
+            int capacity = (int) Math.min(INITIAL_CAPACITY, symmetric || skew ? 2L * declared : declared);
+            int[] rowIndex = new int[capacity];
+            int[] colIndex = new int[capacity];
+            int[] values = new int[capacity];
+            int count = 0;
+            int entries = 0;
+            long[] entry = new long[3];
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("%")) {
+                    continue;
+                }
+                if (entries == declared) {
+                    throw new MatrixFormatException("Элементов больше, чем указано в заголовке", lineNumber, 1);
+                }
+                int expected = pattern ? 2 : 3;
+                int parsed = parseNumbers(line, entry, expected);
+                if (parsed != expected) {
+                    throw new MatrixFormatException("Ожидается " + expected + " числа", lineNumber, parsed + 1);
+                }
+                long i = entry[0] - 1;
+                long j = entry[1] - 1;
+                if (i < 0 || i >= rows || j < 0 || j >= cols) {
+                    throw new MatrixFormatException("Индекс выходит за пределы матрицы " + rows + "x" + cols,
+                            lineNumber, 1);
+                }
+                long value = pattern ? 1 : entry[2];
+                if (value != (int) value) {
+                    throw new MatrixFormatException("Значение выходит за пределы типа int", lineNumber, 3);
+                }
+                if (count + 2 > rowIndex.length) {
+                    int grown = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(2L * rowIndex.length, count + 2L));
+                    rowIndex = Arrays.copyOf(rowIndex, grown);
+                    colIndex = Arrays.copyOf(colIndex, grown);
+                    values = Arrays.copyOf(values, grown);
+                }
+                rowIndex[count] = (int) i;
+                colIndex[count] = (int) j;
+                values[count++] = (int) value;
+                if ((symmetric || skew) && i != j) {
+                    rowIndex[count] = (int) j;
+                    colIndex[count] = (int) i;
+                    values[count++] = skew ? -(int) value : (int) value;
+                }
+                entries++;
+            }
+            if (entries != declared) {
+                throw new MatrixFormatException("Элементов меньше, чем указано в заголовке (" + entries + " из "
+                        + declared + ")", lineNumber, 1);
+            }
+            return CsrMatrix.fromCoordinates(rows, cols, rowIndex, colIndex, values, count);
+        }
+    }
+
+    /**
+     * Читает из файла только строку размеров, не читая элементы.
+     *
+     * @param file Путь к файлу.
+     * @return Количество строк, столбцов и записей в файле.
+     * @throws IOException           Возникает при ошибке ввода/вывода.
+     * @throws MatrixFormatException Возникает, если строка размеров отсутствует или некорректна.
+     */
+    static long[] readSize(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            // Заголовок начинается с '%', поэтому пропускается вместе с комментариями
+            long lineNumber = 0;
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && (line.isBlank() || line.startsWith("%")));
+            long[] size = new long[3];
+            if (line == null || parseNumbers(line, size, 3) != 3) {
+                throw new MatrixFormatException("Строка размеров должна содержать три числа", lineNumber, 1);
+            }
+            checkSize(size, lineNumber);
+            return size;
+        }
+    }
+
+    /**
+     * Проверяет строку размеров: неотрицательные значения, не больше элементов, чем ячеек матрицы,
+     * и размеры в пределах int.
+     *
+     * @throws MatrixFormatException Если размеры некорректны.
+     */
+    private static void checkSize(long[] size, long lineNumber) {
+        if (size[0] < 0 || size[1] < 0 || size[2] < 0) {
+            throw new MatrixFormatException("Размеры и количество элементов не могут быть отрицательными: "
+                    + size[0] + " " + size[1] + " " + size[2], lineNumber, 1);
+        }
+        if (size[0] > Integer.MAX_VALUE || size[1] > Integer.MAX_VALUE || size[2] > Integer.MAX_VALUE / 2) {
+            throw new MatrixFormatException("Матрица слишком велика", lineNumber, 1);
+        }
+        if (size[0] * size[1] < size[2]) {
+            throw new MatrixFormatException("Элементов (" + size[2] + ") больше, чем ячеек матрицы " + size[0]
+                    + "x" + size[1], lineNumber, 3);
+        }
+    }
+
+    /**
+     * Записывает разреженную матрицу в файл в формате "matrix coordinate integer general".
+     *
+     * @param matrix Матрица.
+     * @param file   Путь к файлу (перезаписывается).
+     * @throws IOException Возникает при ошибке ввода/вывода.
+     */
+    public static void write(CsrMatrix matrix, Path file) throws IOException {
+        int[] pointers = matrix.rowPointers();
+        int[] columns = matrix.columnIndices();
+        int[] values = matrix.values();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(BANNER + " matrix coordinate integer general\n");
+            writer.write(matrix.rows() + " " + matrix.cols() + " " + matrix.nonZeros() + "\n");
+            StringBuilder line = new StringBuilder(32);
+            for (int i = 0; i < matrix.rows(); i++) {
+                for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+                    line.setLength(0);
+                    line.append(i + 1).append(' ').append(columns[p] + 1).append(' ').append(values[p]).append('\n');
+                    writer.append(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Записывает плотную матрицу в формате Matrix Market (сохраняются только ненулевые элементы).
+     *
+     * @param matrix Матрица.
+     * @param file   Путь к файлу (перезаписывается).
+     * @throws IOException Возникает при ошибке ввода/вывода.
+     */
+    public static void write(IntMatrix matrix, Path file) throws IOException {
+        write(CsrMatrix.fromDense(matrix), file);
+    }
+
+    /**
+     * Разбирает до limit целых чисел, разделенных пробелами. Значения вида "5.0" допускаются для поля real.
+     *
+     * @return Количество разобранных чисел (разбор останавливается на первом нецелом значении).
+     */
+    private static int parseNumbers(String line, long[] target, int limit) {
+        int count = 0;
+        int length = line.length();
+        int position = 0;
+        while (count < limit) {
+            while (position < length && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            if (position == length) {
+                break;
+            }
+            int start = position;
+            while (position < length && !Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            String token = line.substring(start, position);
+            try {
+                target[count] = Long.parseLong(token);
+            } catch (NumberFormatException e) {
+                try {
+                    double value = Double.parseDouble(token);
+                    if (value != Math.rint(value) || Math.abs(value) > Long.MAX_VALUE) {
+                        return count;
+                    }
+                    target[count] = (long) value;
+                } catch (NumberFormatException notNumber) {
+                    return count;
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.matrixcalculator;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие JFR об одной операции над матрицами. Записывается {@link OperationMetrics#measure}; длительность
+ * события равна времени выполнения операции. Включается стандартными настройками записи, например
+ * {@code java -XX:StartFlightRecording ...}, или командой {@code jcmd <pid> JFR.start}.
+ */
+@Name("com.example.matrixcalculator.MatrixOperation")
+@Label("Операция над матрицами")
+@Category("Matrix Calculator")
+@Description("Операция над матрицами: размеры операндов, выбранное ядро, число потоков и объем выделенной памяти")
+@StackTrace(false)
+final class MatrixOperationEvent extends Event {
+
+    @Label("Операция")
+    String operation;
+
+    @Label("Строк 1")
+    int rows1;
+
+    @Label("Столбцов 1")
+    int cols1;
+
+    @Label("Строк 2")
+    int rows2;
+
+    @Label("Столбцов 2")
+    int cols2;
+
+    @Label("Ядро")
+    String kernel;
+
+    @Label("Потоков")
+    int threads;
+
+    @Label("Выделено памяти")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Успешно")
+    boolean succeeded;
+}
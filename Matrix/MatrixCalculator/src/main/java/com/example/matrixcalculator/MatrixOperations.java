@@ -1,10 +1,13 @@
 package com.example.matrixcalculator;
-import java.util.ArrayList;
+import java.math.BigInteger;
 import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
 
 
 /**
  * Класс, предоставляющий статические методы для выполнения операций с матрицами.
+ * Основные реализации работают с плотными матрицами {@link IntMatrix}; методы,
+ * принимающие {@code List<List<Integer>>}, оставлены как адаптеры для старого представления.
  */
 public class MatrixOperations {
 
@@ -16,25 +19,43 @@ public class MatrixOperations {
      * @return Результирующая матрица, являющаяся суммой matrix1 и matrix2.
      * @throws IllegalArgumentException Если размеры матриц не совпадают.
      */
-    public static List<List<Integer>> addMatrices(List<List<Integer>> matrix1, List<List<Integer>> matrix2) {
+    public static IntMatrix addMatrices(IntMatrix matrix1, IntMatrix matrix2) {
         // Проверяем, что размеры матриц соответствуют для выполнения операции
         checkMatrixDimensions(matrix1, matrix2);
+        int rows = matrix1.rows();
+        int columns = matrix1.cols();
         // Создаем пустую матрицу для результата
-        List<List<Integer>> resultMatrix = new ArrayList<>();
-        // Проходим по каждой строке и столбцу и складываем соответствующие элементы
-        for (int i = 0; i < matrix1.size(); i++) {
-            List<Integer> row = new ArrayList<>();
-            for (int j = 0; j < matrix1.get(0).size(); j++) {
-                // Складываем элементы из первой и второй матрицы и добавляем в результат
-                row.add(matrix1.get(i).get(j) + matrix2.get(i).get(j));
+        IntMatrix resultMatrix = new IntMatrix(rows, columns);
+        int[] a = matrix1.data();
+        int[] b = matrix2.data();
+        int[] c = resultMatrix.data();
+        int strideA = matrix1.stride();
+        int strideB = matrix2.stride();
+        // Проходим по каждой строке и складываем соответствующие элементы (полосами строк, при большом объеме - параллельно)
+        OperationMonitor.beginWork((long) rows * columns);
+        ParallelExecution.forEachRowBand(rows, columns, (fromRow, toRow) -> {
+            for (int i = fromRow; i < toRow; i++) {
+                int offsetA = i * strideA;
+                int offsetB = i * strideB;
+                int offsetC = i * columns;
+                VectorKernels.add(a, offsetA, b, offsetB, c, offsetC, columns);
             }
-            // Добавляем строку с результатами в итоговую матрицу
-            resultMatrix.add(row);
-        }
-
+        });
         return resultMatrix;
     }
 
+    /**
+     * Сложение двух матриц, заданных списками строк.
+     *
+     * @param matrix1 Первая матрица.
+     * @param matrix2 Вторая матрица.
+     * @return Результирующая матрица, являющаяся суммой matrix1 и matrix2.
+     * @throws IllegalArgumentException Если размеры матриц не совпадают.
+     */
+    public static List<List<Integer>> addMatrices(List<List<Integer>> matrix1, List<List<Integer>> matrix2) {
+        return addMatrices(IntMatrix.fromList(matrix1), IntMatrix.fromList(matrix2)).toList();
+    }
+
     /**
      * Вычитание одной матрицы из другой.
      *
@@ -43,24 +64,43 @@ public class MatrixOperations {
      * @return Результирующая матрица, являющаяся разностью matrix1 и matrix2.
      * @throws IllegalArgumentException Если размеры матриц не совпадают.
      */
-    public static List<List<Integer>> subtractMatrices(List<List<Integer>> matrix1, List<List<Integer>> matrix2) {
+    public static IntMatrix subtractMatrices(IntMatrix matrix1, IntMatrix matrix2) {
         // Проверяем, что размеры матриц соответствуют для выполнения операции
         checkMatrixDimensions(matrix1, matrix2);
+        int rows = matrix1.rows();
+        int columns = matrix1.cols();
         // Создаем пустую матрицу для результата
-        List<List<Integer>> resultMatrix = new ArrayList<>();
-        // Проходим по каждой строке и столбцу и вычитаем соответствующие элементы
-        for (int i = 0; i < matrix1.size(); i++) {
-            List<Integer> row = new ArrayList<>();
-            for (int j = 0; j < matrix1.get(0).size(); j++) {
-                // Вычитаем элементы из первой матрицы второй и добавляем в результат
-                row.add(matrix1.get(i).get(j) - matrix2.get(i).get(j));
+        IntMatrix resultMatrix = new IntMatrix(rows, columns);
+        int[] a = matrix1.data();
+        int[] b = matrix2.data();
+        int[] c = resultMatrix.data();
+        int strideA = matrix1.stride();
+        int strideB = matrix2.stride();
+        // Проходим по каждой строке и вычитаем соответствующие элементы (полосами строк, при большом объеме - параллельно)
+        OperationMonitor.beginWork((long) rows * columns);
+        ParallelExecution.forEachRowBand(rows, columns, (fromRow, toRow) -> {
+            for (int i = fromRow; i < toRow; i++) {
+                int offsetA = i * strideA;
+                int offsetB = i * strideB;
+                int offsetC = i * columns;
+                VectorKernels.subtract(a, offsetA, b, offsetB, c, offsetC, columns);
             }
-            // Добавляем строку с результатами в итоговую матрицу
-            resultMatrix.add(row);
-        }
+        });
         return resultMatrix;
     }
 
+    /**
+     * Вычитание одной матрицы из другой, заданных списками строк.
+     *
+     * @param matrix1 Исходная матрица.
+     * @param matrix2 Вычитаемая матрица.
+     * @return Результирующая матрица, являющаяся разностью matrix1 и matrix2.
+     * @throws IllegalArgumentException Если размеры матриц не совпадают.
+     */
+    public static List<List<Integer>> subtractMatrices(List<List<Integer>> matrix1, List<List<Integer>> matrix2) {
+        return subtractMatrices(IntMatrix.fromList(matrix1), IntMatrix.fromList(matrix2)).toList();
+    }
+
     /**
      * Умножение двух матриц.
      *
@@ -69,38 +109,205 @@ public class MatrixOperations {
      * @return Результирующая матрица, являющаяся произведением matrix1 и matrix2.
      * @throws IllegalArgumentException Если размеры матриц не соответствуют правилам умножения.
      */
-    public static List<List<Integer>> multiplyMatrices(List<List<Integer>> matrix1, List<List<Integer>> matrix2) {
+    public static IntMatrix multiplyMatrices(IntMatrix matrix1, IntMatrix matrix2) {
         // Проверяем, что размеры матриц соответствуют для выполнения операции умножения
         checkMatrixMultiplication(matrix1, matrix2);
+        // Если первая матрица почти пустая, умножаем только ее ненулевые элементы
+        if ((long) matrix1.rows() * matrix1.cols() * matrix2.cols() > MultiplyKernels.SMALL_WORK_THRESHOLD
+                && SparseOperations.prefersSparse(matrix1)) {
+            OperationMetrics.kernel("sparse-csr");
+            return SparseOperations.multiply(CsrMatrix.fromDense(matrix1), matrix2);
+        }
+        // Для очень больших квадратных матриц используем схему Штрассена-Винограда
+        if (StrassenMultiplier.isApplicable(matrix1, matrix2)) {
+            OperationMetrics.kernel("strassen");
+            return StrassenMultiplier.multiply(matrix1, matrix2);
+        }
+        OperationMetrics.kernel(VectorKernels.ENABLED ? "blocked-vector" : "blocked-scalar");
+        int rows = matrix1.rows();
+        int inner = matrix1.cols();
+        int columns = matrix2.cols();
         // Создаем пустую матрицу для результата
-        List<List<Integer>> resultMatrix = new ArrayList<>();
-        // Проходим по каждой строке и столбцу и вычисляем соответствующие элементы
-        for (int i = 0; i < matrix1.size(); i++) {
-            List<Integer> row = new ArrayList<>();
-            for (int j = 0; j < matrix2.get(0).size(); j++) {
-                int sum = 0;
-                for (int k = 0; k < matrix1.get(0).size(); k++) {
-                    // Умножаем элементы из первой матрицы и второй, затем складываем
-                    sum += matrix1.get(i).get(k) * matrix2.get(k).get(j);
+        IntMatrix resultMatrix = new IntMatrix(rows, columns);
+        int[] a = matrix1.data();
+        int[] b = matrix2.data();
+        int[] c = resultMatrix.data();
+        int strideA = matrix1.stride();
+        int strideB = matrix2.stride();
+        // Вычисляем произведение блочным ядром (для малых размеров - циклом i-k-j),
+        // при большом объеме работы полосы строк результата считаются параллельно
+        OperationMonitor.beginWork((long) rows * inner * columns);
+        ParallelExecution.forEachRowBand(rows, (long) inner * columns, (fromRow, toRow) ->
+                MultiplyKernels.multiply(a, fromRow * strideA, strideA, b, 0, strideB,
+                        c, fromRow * columns, columns, toRow - fromRow, inner, columns, false));
+        return resultMatrix;
+    }
+
+    /**
+     * Умножение двух матриц, заданных списками строк.
+     *
+     * @param matrix1 Первая матрица.
+     * @param matrix2 Вторая матрица.
+     * @return Результирующая матрица, являющаяся произведением matrix1 и matrix2.
+     * @throws IllegalArgumentException Если размеры матриц не соответствуют правилам умножения.
+     */
+    public static List<List<Integer>> multiplyMatrices(List<List<Integer>> matrix1, List<List<Integer>> matrix2) {
+        return multiplyMatrices(IntMatrix.fromList(matrix1), IntMatrix.fromList(matrix2)).toList();
+    }
+
+    /**
+     * Возведение квадратной матрицы в степень методом двоичного возведения (O(log k) умножений).
+     * Элементы вычисляются в арифметике int с переполнением, как и при умножении; точный результат
+     * вычисляет {@link ExactOperations#power(IntMatrix, long, int)}.
+     *
+     * @param matrix   Квадратная матрица.
+     * @param exponent Неотрицательный показатель степени.
+     * @return Матрица matrix в степени exponent (для нулевой степени - единичная матрица).
+     * @throws IllegalArgumentException Если матрица не квадратная или показатель отрицательный.
+     */
+    public static IntMatrix power(IntMatrix matrix, long exponent) {
+        return power(matrix, exponent, 0);
+    }
+
+    /**
+     * Возведение квадратной матрицы в степень по модулю. Элементы исходной матрицы приводятся
+     * к диапазону [0, modulus), произведения накапливаются в long, поэтому результат точен
+     * при любом показателе.
+     * <p>
+     * Вычисление использует три буфера n x n (результат, текущий квадрат и рабочий), которые
+     * выделяются один раз: каждое умножение записывает произведение в рабочий буфер,
+     * после чего буферы меняются ролями.
+     *
+     * @param matrix   Квадратная матрица.
+     * @param exponent Неотрицательный показатель степени.
+     * @param modulus  Модуль или 0, если приводить элементы не нужно.
+     * @return Матрица matrix в степени exponent по модулю modulus.
+     * @throws IllegalArgumentException Если матрица не квадратная, показатель или модуль отрицательный.
+     */
+    public static IntMatrix power(IntMatrix matrix, long exponent, int modulus) {
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Возвести в степень можно только квадратную матрицу");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Показатель степени не может быть отрицательным: " + exponent);
+        }
+        if (modulus < 0) {
+            throw new IllegalArgumentException("Модуль не может быть отрицательным: " + modulus);
+        }
+        int n = matrix.rows();
+        IntMatrix result = new IntMatrix(n, n);
+        if (exponent == 0) {
+            if (modulus != 1) {
+                for (int i = 0; i < n; i++) {
+                    result.set(i, i, 1);
                 }
-                // Добавляем результат в строку
-                row.add(sum);
             }
-            // Добавляем строку с результатами в итоговую матрицу
-            resultMatrix.add(row);
+            return result;
+        }
+        // Текущий квадрат A^(2^i): начинается с копии исходной матрицы, приведенной по модулю
+        IntMatrix square = new IntMatrix(n, n);
+        int[] source = matrix.data();
+        int[] target = square.data();
+        for (int i = 0; i < n; i++) {
+            int from = i * matrix.stride();
+            int to = i * n;
+            for (int j = 0; j < n; j++) {
+                target[to + j] = modulus == 0 ? source[from + j] : Math.floorMod(source[from + j], modulus);
+            }
+        }
+        IntMatrix scratch = new IntMatrix(n, n);
+        int multiplications = 63 - Long.numberOfLeadingZeros(exponent) + Long.bitCount(exponent) - 1;
+        OperationMonitor.beginTotalWork((long) multiplications * n * n * n);
+        OperationMetrics.kernel(modulus == 0 ? "square-multiply" : "square-multiply-mod");
+        boolean empty = true;
+        while (true) {
+            if ((exponent & 1) != 0) {
+                if (empty) {
+                    // Первый множитель просто копируется, умножение на единичную матрицу не нужно
+                    System.arraycopy(square.data(), 0, result.data(), 0, n * n);
+                    empty = false;
+                } else {
+                    multiplyInto(result, square, scratch, modulus);
+                    IntMatrix swap = result;
+                    result = scratch;
+                    scratch = swap;
+                }
+            }
+            exponent >>>= 1;
+            if (exponent == 0) {
+                return result;
+            }
+            multiplyInto(square, square, scratch, modulus);
+            IntMatrix swap = square;
+            square = scratch;
+            scratch = swap;
         }
-        return resultMatrix;
     }
 
     /**
-     * Вычисление определителя квадратной матрицы.
+     * Вычисление определителя квадратной матрицы методом Барейса (исключение без дробей) за O(n^3).
      *
      * @param matrix Квадратная матрица.
      * @return Определитель матрицы.
      * @throws IllegalArgumentException Если матрица не квадратная.
+     * @throws ArithmeticException      Если определитель не помещается в long.
      */
-    public static int calculateDeterminant(List<List<Integer>> matrix) {
-        if (matrix.size() != matrix.get(0).size()) {
+    public static long calculateDeterminant(IntMatrix matrix) {
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Определитель можно найти только у квадратной матрицы");
+        }
+        try {
+            return calculateDeterminantExact(matrix).longValueExact();
+        } catch (ArithmeticException overflow) {
+            throw new ArithmeticException("Определитель слишком велик для типа long");
+        }
+    }
+
+    /**
+     * Точное вычисление определителя квадратной матрицы. Сначала используется метод Барейса в арифметике long;
+     * если промежуточные значения выходят за пределы long, определитель вычисляется многомодульным методом
+     * {@link ModularDeterminant} по простым модулям с восстановлением по китайской теореме об остатках.
+     *
+     * @param matrix Квадратная матрица.
+     * @return Определитель матрицы.
+     * @throws IllegalArgumentException Если матрица не квадратная.
+     */
+    public static BigInteger calculateDeterminantExact(IntMatrix matrix) {
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Определитель можно найти только у квадратной матрицы");
+        }
+        try {
+            OperationMetrics.kernel("bareiss-long");
+            return BigInteger.valueOf(calculateDeterminantBareiss(matrix.toLongMatrix()));
+        } catch (ArithmeticException e) {
+            // Промежуточные значения вышли за пределы long - считаем по модулям простых чисел
+            OperationMetrics.kernel("modular-crt");
+            return ModularDeterminant.determinant(matrix);
+        }
+    }
+
+    /**
+     * Вычисление определителя квадратной матрицы, заданной списком строк.
+     *
+     * @param matrix Квадратная матрица.
+     * @return Определитель матрицы.
+     * @throws IllegalArgumentException Если матрица не квадратная.
+     * @throws ArithmeticException      Если определитель не помещается в long.
+     */
+    public static long calculateDeterminant(List<List<Integer>> matrix) {
+        return calculateDeterminant(IntMatrix.fromList(matrix));
+    }
+
+    /**
+     * Эталонное вычисление определителя разложением по первой строке за O(n!).
+     * Используется только для проверки результатов метода Барейса на малых матрицах.
+     *
+     * @param matrix Квадратная матрица.
+     * @return Определитель матрицы в арифметике int.
+     * @throws IllegalArgumentException Если матрица не квадратная.
+     */
+    static int calculateDeterminantLaplace(IntMatrix matrix) {
+        if (!matrix.isSquare()) {
             throw new IllegalArgumentException("Определитель можно найти только у квадратной матрицы");
         }
         return calculateDeterminantRecursive(matrix);
@@ -108,20 +315,178 @@ public class MatrixOperations {
 
     // Приватные вспомогательные методы
 
+    /**
+     * Записывает произведение квадратных матриц в готовый буфер target (полосами строк, при большом
+     * объеме - параллельно). Буфер не должен совпадать ни с одним из множителей.
+     *
+     * @param modulus Модуль или 0 для арифметики int с переполнением.
+     */
+    private static void multiplyInto(IntMatrix matrix1, IntMatrix matrix2, IntMatrix target, int modulus) {
+        OperationMonitor.checkCancelled();
+        int n = matrix1.rows();
+        int[] a = matrix1.data();
+        int[] b = matrix2.data();
+        int[] c = target.data();
+        ParallelExecution.forEachRowBand(n, (long) n * n, (fromRow, toRow) -> {
+            if (modulus == 0) {
+                MultiplyKernels.multiply(a, fromRow * n, n, b, 0, n, c, fromRow * n, n, toRow - fromRow, n, n, false);
+            } else {
+                MultiplyKernels.multiplyMod(a, fromRow * n, n, b, 0, n, c, fromRow * n, n, toRow - fromRow, n, n,
+                        modulus, new long[n]);
+            }
+        });
+    }
+
+    /**
+     * Метод Барейса на рабочей копии матрицы в арифметике long с контролем переполнения.
+     * На k-м шаге каждый элемент правой нижней подматрицы пересчитывается как
+     * (a[k][k] * a[i][j] - a[i][k] * a[k][j]) / p, где p - ведущий элемент предыдущего шага;
+     * деление всегда выполняется нацело.
+     *
+     * @param work Рабочая копия матрицы (изменяется).
+     * @return Определитель матрицы.
+     * @throws ArithmeticException Если промежуточное значение не помещается в long.
+     */
+    private static long calculateDeterminantBareiss(LongMatrix work) {
+        int n = work.rows();
+        if (n == 0) {
+            return 1;
+        }
+        long[] a = work.data();
+        int stride = work.stride();
+        long previousPivot = 1;
+        int sign = 1;
+        // Наибольший модуль элементов активной подматрицы: пока он мал, переполнение невозможно
+        // и строки обновляются без проверок (векторным ядром, если оно доступно)
+        long bound = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                bound = Math.max(bound, Math.abs(a[i * stride + j]));
+            }
+        }
+        OperationMonitor.beginWork(bareissWork(n));
+        for (int k = 0; k < n - 1; k++) {
+            // Ищем ненулевой ведущий элемент в столбце k и при необходимости переставляем строки
+            int pivotRow = findPivotRow(a, stride, n, k);
+            if (pivotRow < 0) {
+                return 0;
+            }
+            if (pivotRow != k) {
+                swapRows(a, stride, k, pivotRow, k, n);
+                sign = -sign;
+            }
+            long pivot = a[k * stride + k];
+            // Строки правой нижней подматрицы обновляются независимо, поэтому их можно считать параллельно
+            LongAccumulator stepBound = new LongAccumulator(Math::max, 0);
+            ParallelExecution.forEachRowBand(k + 1, n, n - k, new BareissRowUpdate(a, stride, n, k, pivot, previousPivot,
+                    bound <= VectorKernels.BAREISS_SAFE_BOUND, stepBound));
+            bound = stepBound.get();
+            previousPivot = pivot;
+        }
+        return sign * a[(n - 1) * stride + n - 1];
+    }
+
+    /**
+     * Обновление полосы строк на одном шаге метода Барейса.
+     */
+    private static final class BareissRowUpdate implements ParallelExecution.RowBandAction {
+        private final long[] a;
+        private final int stride;
+        private final int n;
+        private final int k;
+        private final long pivot;
+        private final long previousPivot;
+        private final boolean unchecked;
+        private final LongAccumulator bound;
+
+        BareissRowUpdate(long[] a, int stride, int n, int k, long pivot, long previousPivot, boolean unchecked,
+                         LongAccumulator bound) {
+            this.a = a;
+            this.stride = stride;
+            this.n = n;
+            this.k = k;
+            this.pivot = pivot;
+            this.previousPivot = previousPivot;
+            this.unchecked = unchecked;
+            this.bound = bound;
+        }
+
+        @Override
+        public void apply(int fromRow, int toRow) {
+            int rowK = k * stride;
+            long max = 0;
+            for (int i = fromRow; i < toRow; i++) {
+                int rowI = i * stride;
+                long factor = a[rowI + k];
+                if (unchecked) {
+                    max = Math.max(max, VectorKernels.bareissUpdate(a, rowI + k + 1, a, rowK + k + 1, n - k - 1,
+                            pivot, factor, previousPivot));
+                } else {
+                    for (int j = k + 1; j < n; j++) {
+                        long value = Math.subtractExact(Math.multiplyExact(pivot, a[rowI + j]),
+                                Math.multiplyExact(factor, a[rowK + j])) / previousPivot;
+                        a[rowI + j] = value;
+                        max = Math.max(max, value == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(value));
+                    }
+                }
+                a[rowI + k] = 0;
+            }
+            bound.accumulate(max);
+        }
+    }
+
+    /**
+     * Объем работы метода Барейса для прогресса: на шаге k обновляется (n - k - 1) строк по (n - k) элементов.
+     */
+    private static long bareissWork(int n) {
+        long work = 0;
+        for (int k = 0; k < n - 1; k++) {
+            work += (long) (n - k - 1) * (n - k);
+        }
+        return work;
+    }
+
+    /**
+     * Находит строку с ненулевым элементом в столбце column, начиная с диагонали.
+     *
+     * @return Индекс строки или -1, если весь столбец ниже диагонали нулевой.
+     */
+    private static int findPivotRow(long[] a, int stride, int n, int column) {
+        for (int i = column; i < n; i++) {
+            if (a[i * stride + column] != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Меняет местами части строк row1 и row2, начиная со столбца fromColumn.
+     */
+    private static void swapRows(long[] a, int stride, int row1, int row2, int fromColumn, int columns) {
+        int offset1 = row1 * stride;
+        int offset2 = row2 * stride;
+        for (int j = fromColumn; j < columns; j++) {
+            long tmp = a[offset1 + j];
+            a[offset1 + j] = a[offset2 + j];
+            a[offset2 + j] = tmp;
+        }
+    }
+
     /**
      * Рекурсивный метод для вычисления определителя матрицы.
      *
      * @param matrix Квадратная матрица.
      * @return Определитель матрицы.
      */
-    private static int calculateDeterminantRecursive(List<List<Integer>> matrix) {
+    private static int calculateDeterminantRecursive(IntMatrix matrix) {
         try {
             // Получаем количество строк и столбцов в матрице
-            int rows = matrix.size();
-            int columns = matrix.get(0).size();
+            int rows = matrix.rows();
+            int columns = matrix.cols();
             // Если матрица имеет размер 1x1, возвращаем единственный элемент
             if (rows == 1) {
-                return matrix.get(0).get(0);
+                return matrix.get(0, 0);
             }
 
             // Инициализируем переменную для хранения определителя
@@ -134,7 +499,7 @@ public class MatrixOperations {
                 // Вычисляем минор и его определитель
                 int minorDeterminant = calculateDeterminantRecursive(getMinorMatrix(matrix, j));
                 // Суммируем определитель с учетом знака и элемента из верхней строки
-                determinant += sign * matrix.get(0).get(j) * minorDeterminant;
+                determinant += sign * matrix.get(0, j) * minorDeterminant;
             }
 
             return determinant;
@@ -145,38 +510,24 @@ public class MatrixOperations {
     }
 
     /**
-     * Возвращает минор матрицы, полученный удалением указанного столбца.
+     * Возвращает минор матрицы, полученный удалением первой строки и указанного столбца.
      *
      * @param matrix Исходная матрица.
      * @param column Индекс столбца, который необходимо исключить.
      * @return Минор матрицы после удаления столбца.
-     * @throws IllegalArgumentException Возникает, если индекс столбца выходит за пределы размеров матрицы.
      */
-    private static List<List<Integer>> getMinorMatrix(List<List<Integer>> matrix, int column) {
+    private static IntMatrix getMinorMatrix(IntMatrix matrix, int column) {
+        int size = matrix.rows() - 1;
         // Создаем пустую матрицу для минора
-        List<List<Integer>> minorMatrix = new ArrayList<>();
-        // Получаем количество строк и столбцов в матрице
-        int rows = matrix.size();
-        int columns = matrix.get(0).size();
-
-        // Проходим по каждой строке матрицы
-        for (int i = 0; i < rows; i++) {
-            // Исключаем строку с индексом 0
-            if (i != 0) {
-                // Создаем новую строку для минора
-                List<Integer> minorRow = new ArrayList<>();
-
-                // Проходим по каждому столбцу матрицы
-                for (int j = 0; j < columns; j++) {
-                    // Исключаем столбец с указанным индексом
-                    if (j != column) {
-                        // Добавляем элемент в минор
-                        minorRow.add(matrix.get(i).get(j));
-                    }
-                }
-                // Добавляем строку с элементами минора в итоговую матрицу
-                minorMatrix.add(minorRow);
-            }
+        IntMatrix minorMatrix = new IntMatrix(size, size);
+        int[] source = matrix.data();
+        int[] target = minorMatrix.data();
+        // Проходим по каждой строке матрицы, кроме первой, и копируем столбцы слева и справа от исключаемого
+        for (int i = 0; i < size; i++) {
+            int from = (i + 1) * matrix.stride();
+            int to = i * size;
+            System.arraycopy(source, from, target, to, column);
+            System.arraycopy(source, from + column + 1, target, to + column, size - column);
         }
         return minorMatrix;
     }
@@ -188,8 +539,8 @@ public class MatrixOperations {
      * @param matrix2 Вторая матрица.
      * @throws IllegalArgumentException Если размеры матриц не совпадают.
      */
-    private static void checkMatrixDimensions(List<List<Integer>> matrix1, List<List<Integer>> matrix2) {
-        if (matrix1.size() != matrix2.size() || matrix1.get(0).size() != matrix2.get(0).size()) {
+    private static void checkMatrixDimensions(Matrix matrix1, Matrix matrix2) {
+        if (matrix1.rows() != matrix2.rows() || matrix1.cols() != matrix2.cols()) {
             throw new IllegalArgumentException("Матрицы должны быть одного размера для выполнения операции.");
         }
     }
@@ -201,10 +552,8 @@ public class MatrixOperations {
      * @param matrix2 Вторая матрица.
      * @throws IllegalArgumentException Если размеры матриц не соответствуют правилам умножения.
      */
-    private static void checkMatrixMultiplication(List<List<Integer>> matrix1, List<List<Integer>> matrix2) {
-        int columns1 = matrix1.get(0).size();
-        int rows2 = matrix2.size();
-        if (columns1 != rows2) {
+    private static void checkMatrixMultiplication(Matrix matrix1, Matrix matrix2) {
+        if (matrix1.cols() != matrix2.rows()) {
             throw new IllegalArgumentException("Невозможно умножить матрицы: количество столбцов первой матрицы должно равняться количеству строк второй.");
         }
     }
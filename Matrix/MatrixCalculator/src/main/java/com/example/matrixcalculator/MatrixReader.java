@@ -0,0 +1,96 @@
+package com.example.matrixcalculator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Класс для чтения матриц из файлов CSV, в которых значения разделены символом ";".
+ */
+public class MatrixReader {
+
+    /**
+     * Читает матрицу из файла CSV за один проход; большой файл читается по частям параллельно
+     * ({@link ParallelCsvLoader}).
+     *
+     * @param file Выбранный файл с матрицей.
+     * @return Прочитанная матрица.
+     * @throws IOException           Возникает при ошибке ввода/вывода при чтении файла.
+     * @throws MatrixFormatException Возникает при некорректном значении или разной длине строк.
+     */
+    public static IntMatrix readMatrix(File file) throws IOException {
+        return ParallelCsvLoader.load(file.toPath());
+    }
+
+    /**
+     * Читает матрицу из файла любого поддерживаемого формата. Двоичный файл отображается в память,
+     * CSV читается за один проход; некорректные значения и строки разной длины приводят
+     * к MatrixFormatException с указанием строки и столбца. Разреженный файл Matrix Market
+     * разворачивается в плотную матрицу, а сжатый CSV ({@value MatrixWriter#GZIP_EXTENSION}) распаковывается при чтении.
+     *
+     * @param file Файл матрицы.
+     * @return Прочитанная матрица.
+     * @throws IOException Возникает при ошибке чтения или некорректном содержимом файла.
+     */
+    public static IntMatrix readMatrixFile(File file) throws IOException {
+        if (BinaryMatrixFormat.isBinaryFile(file)) {
+            return BinaryMatrixFormat.read(file.toPath());
+        }
+        if (MatrixMarketFormat.isMatrixMarketFile(file)) {
+            return MatrixMarketFormat.read(file.toPath()).toDense();
+        }
+        if (MatrixWriter.isGzipFile(file.toPath())) {
+            try (InputStream input = new GZIPInputStream(Files.newInputStream(file.toPath()), 1 << 16)) {
+                return CsvMatrixParser.parse(input);
+            }
+        }
+        return readMatrix(file);
+    }
+
+    /**
+     * Читает матрицу из файла любого поддерживаемого формата вместе с хешем содержимого и оценками элементов.
+     * В отличие от {@link #readMatrixFile(File)}, разреженный файл Matrix Market остается в формате CSR,
+     * и плотная копия не создается.
+     *
+     * @param file Файл матрицы.
+     * @return Загруженная матрица.
+     * @throws IOException Возникает при ошибке чтения или некорректном содержимом файла.
+     */
+    public static LoadedMatrix loadMatrixFile(File file) throws IOException {
+        if (MatrixMarketFormat.isMatrixMarketFile(file)) {
+            return LoadedMatrix.of(MatrixMarketFormat.read(file.toPath()));
+        }
+        return LoadedMatrix.of(readMatrixFile(file));
+    }
+
+    /**
+     * Проверяет, является ли выбранный файл файлом с матрицей в формате CSV.
+     *
+     * @param file Выбранный файл.
+     * @return True, если файл представляет собой матрицу, в противном случае - false.
+     * @throws IOException Возникает при ошибке ввода/вывода при чтении файла.
+     */
+    public static boolean isMatrixFile(File file) throws IOException {
+        try {
+            // Проверяем, что в файле есть хотя бы две строки (две строки для формирования матрицы)
+            return readMatrix(file).rows() >= 2;
+        } catch (MatrixFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Загружает данные матрицы из файла.
+     *
+     * @param file Выбранный файл с матрицей.
+     * @return Список списков целых чисел, представляющих матрицу.
+     * @throws IOException                Возникает при ошибке ввода/вывода при чтении файла.
+     * @throws IllegalArgumentException   Возникает при обнаружении некорректного значения в файле.
+     */
+    public static List<List<Integer>> loadMatrixFromFile(File file) throws IOException {
+        return readMatrix(file).toList();
+    }
+}
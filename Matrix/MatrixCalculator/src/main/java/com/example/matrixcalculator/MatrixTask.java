@@ -0,0 +1,44 @@
+package com.example.matrixcalculator;
+
+import javafx.concurrent.Task;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Фоновая задача JavaFX для операции над матрицами. Прогресс ядер, полученный через
+ * {@link OperationMonitor}, передается в {@link #progressProperty()}, а отмена задачи
+ * останавливает вычисление при ближайшей проверке в ядре.
+ *
+ * @param <T> Тип результата.
+ */
+public class MatrixTask<T> extends Task<T> {
+
+    private final Callable<T> action;
+    private final OperationMonitor monitor = new OperationMonitor(this::onProgress);
+
+    /**
+     * @param action Вычисление, выполняемое в фоновом потоке.
+     */
+    public MatrixTask(Callable<T> action) {
+        this.action = action;
+    }
+
+    @Override
+    protected T call() throws Exception {
+        return monitor.call(action);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        monitor.cancel();
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+    private void onProgress(long done, long total) {
+        if (total > 0) {
+            updateProgress(Math.min(done, total), total);
+        } else {
+            updateProgress(-1, 1);
+        }
+    }
+}
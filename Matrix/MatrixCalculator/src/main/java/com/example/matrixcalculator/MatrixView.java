@@ -0,0 +1,256 @@
+package com.example.matrixcalculator;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Виртуализированное представление матрицы. Рисуются только видимые ячейки: значения форматируются
+ * по запросу прямо из массива матрицы, а холст имеет размер области просмотра. Поэтому объем памяти
+ * и время перерисовки не зависят от размеров матрицы, и прокрутка остается плавной на миллионах ячеек.
+ * Ширина столбца растет по мере появления на экране более длинных значений.
+ */
+public class MatrixView extends Region {
+
+    private static final double PADDING = 6;
+    private static final double DEFAULT_SIZE = 226;
+    private static final Color TEXT_COLOR = Color.BLACK;
+    private static final Color HEADER_COLOR = Color.web("#E8BF98");
+    private static final Color HEADER_TEXT_COLOR = Color.web("#674846");
+    private static final Color GRID_COLOR = Color.web("#D9B08C");
+
+    private final Canvas canvas = new Canvas();
+    private final ScrollBar horizontal = new ScrollBar();
+    private final ScrollBar vertical = new ScrollBar();
+    private final StringProperty placeholder = new SimpleStringProperty(this, "placeholder", "");
+    private final Font font = Font.font("Monospaced", 14);
+    private final double charWidth;
+    private final double lineHeight;
+
+    private Matrix matrix;
+
+    /**
+     * Ширина ячейки в символах; для текущей матрицы только увеличивается.
+     */
+    private int cellChars;
+
+    public MatrixView() {
+        Text sample = new Text("0");
+        sample.setFont(font);
+        charWidth = sample.getLayoutBounds().getWidth();
+        lineHeight = Math.ceil(sample.getLayoutBounds().getHeight()) + 4;
+
+        vertical.setOrientation(Orientation.VERTICAL);
+        horizontal.setVisible(false);
+        vertical.setVisible(false);
+        getChildren().addAll(canvas, horizontal, vertical);
+
+        horizontal.valueProperty().addListener(observable -> draw());
+        vertical.valueProperty().addListener(observable -> draw());
+        placeholder.addListener(observable -> draw());
+        setOnScroll(event -> {
+            if (matrix == null) {
+                return;
+            }
+            scrollBy(vertical, -event.getDeltaY() / lineHeight);
+            scrollBy(horizontal, -event.getDeltaX() / cellWidth());
+            event.consume();
+        });
+    }
+
+    /**
+     * Устанавливает отображаемую матрицу. Матрица не копируется.
+     *
+     * @param value Матрица или null, чтобы показать текст-заполнитель.
+     */
+    public void setMatrix(Matrix value) {
+        matrix = value;
+        cellChars = 1;
+        horizontal.setValue(0);
+        vertical.setValue(0);
+        requestLayout();
+        draw();
+    }
+
+    /**
+     * @return Отображаемая матрица или null.
+     */
+    public Matrix getMatrix() {
+        return matrix;
+    }
+
+    /**
+     * @return Текст, показываемый при отсутствии матрицы.
+     */
+    public String getPlaceholder() {
+        return placeholder.get();
+    }
+
+    /**
+     * @param value Текст, показываемый при отсутствии матрицы.
+     */
+    public void setPlaceholder(String value) {
+        placeholder.set(value);
+    }
+
+    /**
+     * @return Свойство текста-заполнителя.
+     */
+    public StringProperty placeholderProperty() {
+        return placeholder;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = getWidth();
+        double height = getHeight();
+        double barWidth = vertical.prefWidth(-1);
+        double barHeight = horizontal.prefHeight(-1);
+
+        boolean showVertical = false;
+        boolean showHorizontal = false;
+        if (matrix != null) {
+            double contentWidth = headerWidth() + matrix.cols() * cellWidth();
+            double contentHeight = lineHeight * (matrix.rows() + 1);
+            // Появление одной полосы прокрутки уменьшает область просмотра для другой
+            for (int pass = 0; pass < 2; pass++) {
+                showHorizontal = contentWidth > width - (showVertical ? barWidth : 0);
+                showVertical = contentHeight > height - (showHorizontal ? barHeight : 0);
+            }
+        }
+        double viewWidth = Math.max(0, width - (showVertical ? barWidth : 0));
+        double viewHeight = Math.max(0, height - (showHorizontal ? barHeight : 0));
+
+        canvas.setWidth(viewWidth);
+        canvas.setHeight(viewHeight);
+        canvas.relocate(0, 0);
+        horizontal.setVisible(showHorizontal);
+        vertical.setVisible(showVertical);
+        if (showHorizontal) {
+            horizontal.resizeRelocate(0, viewHeight, viewWidth, barHeight);
+        }
+        if (showVertical) {
+            vertical.resizeRelocate(viewWidth, 0, barWidth, viewHeight);
+        }
+
+        if (matrix != null) {
+            // Значения полос прокрутки измеряются в строках и столбцах (с дробной частью для плавности)
+            double visibleCols = Math.max(1, (viewWidth - headerWidth()) / cellWidth());
+            double visibleRows = Math.max(1, (viewHeight - lineHeight) / lineHeight);
+            configure(horizontal, matrix.cols(), visibleCols);
+            configure(vertical, matrix.rows(), visibleRows);
+        }
+        draw();
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return DEFAULT_SIZE;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return DEFAULT_SIZE;
+    }
+
+    /**
+     * Перерисовывает видимую часть матрицы.
+     */
+    private void draw() {
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        gc.setFont(font);
+        gc.setTextBaseline(VPos.CENTER);
+        if (matrix == null) {
+            gc.setFill(TEXT_COLOR);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.fillText(getPlaceholder(), width / 2, height / 2);
+            return;
+        }
+
+        int previousChars = cellChars;
+        double cellWidth = cellWidth();
+        double headerWidth = headerWidth();
+        int firstRow = (int) vertical.getValue();
+        int firstCol = (int) horizontal.getValue();
+        double y0 = lineHeight - (vertical.getValue() - firstRow) * lineHeight;
+        double x0 = headerWidth - (horizontal.getValue() - firstCol) * cellWidth;
+
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setFill(TEXT_COLOR);
+        for (int i = firstRow; i < matrix.rows() && y0 + (i - firstRow) * lineHeight < height; i++) {
+            double y = y0 + (i - firstRow) * lineHeight + lineHeight / 2;
+            for (int j = firstCol; j < matrix.cols() && x0 + (j - firstCol) * cellWidth < width; j++) {
+                String text = matrix.elementToString(i, j);
+                cellChars = Math.max(cellChars, text.length());
+                gc.fillText(text, x0 + (j - firstCol + 1) * cellWidth - PADDING, y);
+            }
+        }
+
+        // Заголовки строк и столбцов (нумерация с единицы) поверх ячеек
+        gc.setFill(HEADER_COLOR);
+        gc.fillRect(0, 0, width, lineHeight);
+        gc.fillRect(0, 0, headerWidth, height);
+        gc.setFill(HEADER_TEXT_COLOR);
+        for (int i = firstRow; i < matrix.rows() && y0 + (i - firstRow) * lineHeight < height; i++) {
+            double y = y0 + (i - firstRow) * lineHeight;
+            if (y + lineHeight > lineHeight) {
+                gc.fillText(Integer.toString(i + 1), headerWidth - PADDING, y + lineHeight / 2);
+            }
+        }
+        gc.setFill(HEADER_COLOR);
+        gc.fillRect(0, 0, headerWidth, lineHeight);
+        gc.setFill(HEADER_TEXT_COLOR);
+        for (int j = firstCol; j < matrix.cols() && x0 + (j - firstCol) * cellWidth < width; j++) {
+            double x = x0 + (j - firstCol + 1) * cellWidth;
+            if (x > headerWidth) {
+                gc.fillText(Integer.toString(j + 1), x - PADDING, lineHeight / 2);
+            }
+        }
+        gc.setStroke(GRID_COLOR);
+        gc.strokeLine(headerWidth, 0, headerWidth, height);
+        gc.strokeLine(0, lineHeight, width, lineHeight);
+
+        if (cellChars != previousChars) {
+            // На экране появилось более длинное значение: пересчитываем ширину и полосы прокрутки
+            requestLayout();
+        }
+    }
+
+    private double cellWidth() {
+        int headerChars = matrix == null ? 1 : Integer.toString(matrix.cols()).length();
+        return Math.max(cellChars, headerChars) * charWidth + 2 * PADDING;
+    }
+
+    private double headerWidth() {
+        int digits = matrix == null ? 1 : Integer.toString(matrix.rows()).length();
+        return digits * charWidth + 2 * PADDING;
+    }
+
+    private static void configure(ScrollBar bar, int count, double visible) {
+        double max = Math.max(0, count - visible);
+        bar.setMin(0);
+        bar.setMax(max);
+        bar.setVisibleAmount(Math.min(visible, count));
+        bar.setUnitIncrement(1);
+        bar.setBlockIncrement(Math.max(1, Math.floor(visible)));
+        if (bar.getValue() > max) {
+            bar.setValue(max);
+        }
+    }
+
+    private static void scrollBy(ScrollBar bar, double delta) {
+        bar.setValue(Math.max(bar.getMin(), Math.min(bar.getMax(), bar.getValue() + delta)));
+    }
+}
@@ -1,21 +1,82 @@
 package com.example.matrixcalculator;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Класс для записи пользовательских матриц в файлы CSV.
+ * <p>
+ * Числа форматируются сразу в байты многократно используемых буферов (без строк и упаковки в Integer),
+ * а буферы записываются в {@link FileChannel} блоками около {@value #BAND_BYTES} байт. Строки большой
+ * матрицы форматируются полосами параллельно ({@link ParallelExecution}) и записываются по порядку.
+ * Файл с расширением {@value #GZIP_EXTENSION} сжимается в gzip. Формат совпадает с прежним:
+ * значения разделены ";", строки заканчиваются системным разделителем строк.
  */
 public class MatrixWriter {
 
+    /**
+     * Расширение сжатых файлов CSV.
+     */
+    public static final String GZIP_EXTENSION = ".gz";
+
+    /**
+     * Примерный объем текста одной полосы строк.
+     */
+    static final int BAND_BYTES = 1 << 20;
+
+    private static final byte SEPARATOR = ';';
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] MIN_INT = Integer.toString(Integer.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Цифры десятков и единиц чисел от 0 до 99: числа форматируются по две цифры за деление.
+     */
+    private static final byte[] DIGIT_TENS = new byte[100];
+    private static final byte[] DIGIT_ONES = new byte[100];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (byte) ('0' + i / 10);
+            DIGIT_ONES[i] = (byte) ('0' + i % 10);
+        }
+    }
+
+    /**
+     * Приемник отформатированных байтов.
+     */
+    @FunctionalInterface
+    private interface ByteSink {
+        void write(byte[] bytes, int offset, int length) throws IOException;
+    }
+
+    /**
+     * Записывающее действие, которому передается приемник байтов.
+     */
+    @FunctionalInterface
+    private interface SinkAction {
+        void run(ByteSink sink) throws IOException;
+    }
+
     /**
      * Метод main, в котором создаются две матрицы, сохраняются в файлы CSV, и выводится сообщение об успешном сохранении.
      *
      * @param args Аргументы командной строки (не используются).
+     * @throws IOException Возникает при ошибке записи.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Создаем две матрицы для примера
         List<List<Integer>> matrix1 = List.of(
                 List.of(1, 2, 3),
@@ -45,20 +106,350 @@ public class MatrixWriter {
      *
      * @param matrix   Матрица для записи.
      * @param filePath Путь к файлу, в который будет записана матрица.
+     * @throws IOException Возникает при ошибке записи.
      */
-    public static void writeMatrixToFile(List<List<Integer>> matrix, String filePath) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (List<Integer> row : matrix) {
-                StringBuilder line = new StringBuilder();
-                for (int value : row) {
-                    line.append(value).append(";");
+    public static void writeMatrixToFile(List<List<Integer>> matrix, String filePath) throws IOException {
+        Path file = Path.of(filePath);
+        try (FileChannel channel = openForWrite(file)) {
+            write(file, channel, sink -> {
+                RowFormatter formatter = new RowFormatter(BAND_BYTES);
+                for (List<Integer> row : matrix) {
+                    for (int j = 0; j < row.size(); j++) {
+                        if (j > 0) {
+                            formatter.put(SEPARATOR);
+                        }
+                        formatter.putInt(row.get(j));
+                    }
+                    formatter.put(LINE_SEPARATOR);
+                    if (formatter.length >= BAND_BYTES) {
+                        formatter.flush(sink);
+                    }
                 }
-                line.deleteCharAt(line.length() - 1); // Удаляем последний символ (;)
-                writer.write(line.toString());
-                writer.newLine();
+                formatter.flush(sink);
+            });
+        }
+    }
+
+    /**
+     * Метод для записи плотной матрицы в файл CSV в том же формате.
+     *
+     * @param matrix   Матрица для записи.
+     * @param filePath Путь к файлу, в который будет записана матрица.
+     * @throws IOException Возникает при ошибке записи.
+     */
+    public static void writeMatrixToFile(IntMatrix matrix, String filePath) throws IOException {
+        writeMatrix(matrix, Path.of(filePath));
+    }
+
+    /**
+     * Метод для записи матрицы любого типа (int, long, BigInteger) в файл CSV в том же формате.
+     * Если имя файла оканчивается на {@value #GZIP_EXTENSION}, файл сжимается в gzip.
+     *
+     * @param matrix Матрица для записи.
+     * @param file   Путь к файлу, в который будет записана матрица.
+     * @throws IOException Возникает при ошибке записи.
+     */
+    public static void writeMatrix(Matrix matrix, Path file) throws IOException {
+        try (FileChannel channel = openForWrite(file)) {
+            write(file, channel, sink -> writeRows(matrix, sink));
+        }
+    }
+
+    /**
+     * Метод для записи матрицы любого типа в поток байтов в формате CSV. Поток не закрывается.
+     *
+     * @param matrix Матрица для записи.
+     * @param output Поток, в который будет записана матрица.
+     * @throws IOException Возникает при ошибке записи.
+     */
+    public static void writeMatrix(Matrix matrix, OutputStream output) throws IOException {
+        writeRows(matrix, output::write);
+        output.flush();
+    }
+
+    /**
+     * Метод для записи матрицы рациональных чисел (например, обратной матрицы) в файл CSV.
+     * Значения записываются в виде "p/q" или "p" для целых чисел, разделители те же, что и у целых матриц.
+     *
+     * @param matrix Матрица дробей по строкам.
+     * @param file   Путь к файлу, в который будет записана матрица.
+     * @throws IOException Возникает при ошибке записи.
+     */
+    public static void writeFractions(Fraction[][] matrix, Path file) throws IOException {
+        try (FileChannel channel = openForWrite(file)) {
+            write(file, channel, sink -> {
+                RowFormatter formatter = new RowFormatter(BAND_BYTES);
+                for (Fraction[] row : matrix) {
+                    for (int j = 0; j < row.length; j++) {
+                        if (j > 0) {
+                            formatter.put(SEPARATOR);
+                        }
+                        formatter.put(row[j].toString().getBytes(StandardCharsets.US_ASCII));
+                    }
+                    formatter.put(LINE_SEPARATOR);
+                    if (formatter.length >= BAND_BYTES) {
+                        formatter.flush(sink);
+                        OperationMonitor.checkCancelled();
+                    }
+                }
+                formatter.flush(sink);
+            });
+        }
+    }
+
+    /**
+     * @param file Файл.
+     * @return True, если файл записывается со сжатием gzip (по расширению).
+     */
+    public static boolean isGzipFile(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(GZIP_EXTENSION);
+    }
+
+    private static FileChannel openForWrite(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Выполняет запись в канал файла напрямую или через сжатие gzip.
+     */
+    private static void write(Path file, FileChannel channel, SinkAction action) throws IOException {
+        if (isGzipFile(file)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), BAND_BYTES);
+            action.run(gzip::write);
+            gzip.finish();
+            return;
+        }
+        action.run((bytes, offset, length) -> {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    /**
+     * Форматирует строки матрицы полосами и передает их приемнику по порядку. Несколько полос подряд
+     * форматируются параллельно в свои буферы, затем записываются, и буферы используются для следующих полос.
+     */
+    private static void writeRows(Matrix matrix, ByteSink sink) throws IOException {
+        int rows = matrix.rows();
+        int cols = matrix.cols();
+        if (rows == 0) {
+            return;
+        }
+        long rowBytes = estimateRowBytes(matrix);
+        int bandRows = (int) Math.max(1, Math.min(rows, BAND_BYTES / rowBytes));
+        int bands = (rows - 1) / bandRows + 1;
+        RowFormatter[] formatters = new RowFormatter[Math.min(bands, ParallelExecution.parallelism() * 2)];
+        for (int s = 0; s < formatters.length; s++) {
+            formatters[s] = new RowFormatter((int) Math.min(Integer.MAX_VALUE - 8, bandRows * rowBytes));
+        }
+        OperationMonitor.beginWork((long) rows * Math.max(1, cols));
+        for (int firstBand = 0; firstBand < bands; firstBand += formatters.length) {
+            int count = Math.min(formatters.length, bands - firstBand);
+            int first = firstBand;
+            ParallelExecution.forEachRowBand(count, (long) bandRows * Math.max(1, cols), (from, to) -> {
+                for (int s = from; s < to; s++) {
+                    int fromRow = (first + s) * bandRows;
+                    formatters[s].length = 0;
+                    formatters[s].putRows(matrix, fromRow, Math.min(rows, fromRow + bandRows));
+                }
+            });
+            for (int s = 0; s < count; s++) {
+                formatters[s].flush(sink);
+            }
+            OperationMonitor.checkCancelled();
+        }
+    }
+
+    /**
+     * Оценка длины строки в байтах: точная верхняя граница для int и long, для BigInteger - по первой строке.
+     */
+    private static long estimateRowBytes(Matrix matrix) {
+        int cols = matrix.cols();
+        long perValue;
+        if (matrix instanceof IntMatrix) {
+            perValue = MIN_INT.length + 1;
+        } else if (matrix instanceof LongMatrix) {
+            perValue = MIN_LONG.length + 1;
+        } else {
+            long total = 0;
+            for (int j = 0; j < cols; j++) {
+                total += matrix.elementToString(0, j).length() + 1;
+            }
+            perValue = cols == 0 ? 1 : total / cols + 1;
+        }
+        return Math.max(1, perValue * cols + LINE_SEPARATOR.length);
+    }
+
+    /**
+     * Буфер, в который форматируются строки матрицы.
+     */
+    private static final class RowFormatter {
+        private byte[] buffer;
+        private int length;
+
+        RowFormatter(int capacity) {
+            this.buffer = new byte[Math.max(64, capacity)];
+        }
+
+        void flush(ByteSink sink) throws IOException {
+            if (length > 0) {
+                sink.write(buffer, 0, length);
+                length = 0;
+            }
+        }
+
+        /**
+         * Форматирует строки [fromRow, toRow) матрицы.
+         */
+        void putRows(Matrix matrix, int fromRow, int toRow) {
+            int cols = matrix.cols();
+            if (matrix instanceof IntMatrix) {
+                IntMatrix ints = (IntMatrix) matrix;
+                int[] data = ints.data();
+                for (int i = fromRow; i < toRow; i++) {
+                    int offset = i * ints.stride();
+                    for (int j = 0; j < cols; j++) {
+                        if (j > 0) {
+                            put(SEPARATOR);
+                        }
+                        putInt(data[offset + j]);
+                    }
+                    put(LINE_SEPARATOR);
+                }
+            } else if (matrix instanceof LongMatrix) {
+                LongMatrix longs = (LongMatrix) matrix;
+                long[] data = longs.data();
+                for (int i = fromRow; i < toRow; i++) {
+                    int offset = i * longs.stride();
+                    for (int j = 0; j < cols; j++) {
+                        if (j > 0) {
+                            put(SEPARATOR);
+                        }
+                        putLong(data[offset + j]);
+                    }
+                    put(LINE_SEPARATOR);
+                }
+            } else {
+                for (int i = fromRow; i < toRow; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        if (j > 0) {
+                            put(SEPARATOR);
+                        }
+                        putText(matrix.elementToString(i, j));
+                    }
+                    put(LINE_SEPARATOR);
+                }
+            }
+        }
+
+        void put(byte value) {
+            ensure(1);
+            buffer[length++] = value;
+        }
+
+        void put(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        void putText(String text) {
+            ensure(text.length());
+            for (int k = 0; k < text.length(); k++) {
+                buffer[length++] = (byte) text.charAt(k);
+            }
+        }
+
+        void putInt(int value) {
+            if (value == Integer.MIN_VALUE) {
+                put(MIN_INT);
+                return;
+            }
+            ensure(MIN_INT.length);
+            if (value < 0) {
+                buffer[length++] = '-';
+                value = -value;
+            }
+            int end = length + digits(value);
+            int position = end;
+            while (value >= 100) {
+                int quotient = value / 100;
+                int remainder = value - quotient * 100;
+                value = quotient;
+                buffer[--position] = DIGIT_ONES[remainder];
+                buffer[--position] = DIGIT_TENS[remainder];
+            }
+            if (value >= 10) {
+                buffer[--position] = DIGIT_ONES[value];
+                buffer[--position] = DIGIT_TENS[value];
+            } else {
+                buffer[--position] = (byte) ('0' + value);
+            }
+            length = end;
+        }
+
+        void putLong(long value) {
+            if (value == (int) value) {
+                putInt((int) value);
+                return;
+            }
+            if (value == Long.MIN_VALUE) {
+                put(MIN_LONG);
+                return;
+            }
+            ensure(MIN_LONG.length);
+            if (value < 0) {
+                buffer[length++] = '-';
+                value = -value;
+            }
+            int end = length + digits(value);
+            int position = end;
+            // Деление long выполняется, пока значение не поместится в int
+            while (value > Integer.MAX_VALUE) {
+                long quotient = value / 100;
+                int remainder = (int) (value - quotient * 100);
+                value = quotient;
+                buffer[--position] = DIGIT_ONES[remainder];
+                buffer[--position] = DIGIT_TENS[remainder];
+            }
+            int rest = (int) value;
+            while (rest >= 100) {
+                int quotient = rest / 100;
+                int remainder = rest - quotient * 100;
+                rest = quotient;
+                buffer[--position] = DIGIT_ONES[remainder];
+                buffer[--position] = DIGIT_TENS[remainder];
+            }
+            if (rest >= 10) {
+                buffer[--position] = DIGIT_ONES[rest];
+                buffer[--position] = DIGIT_TENS[rest];
+            } else {
+                buffer[--position] = (byte) ('0' + rest);
+            }
+            length = end;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max((long) buffer.length * 2, (long) length + extra)));
+            }
+        }
+
+        /**
+         * Количество десятичных цифр неотрицательного числа.
+         */
+        private static int digits(long value) {
+            int count = 1;
+            long bound = 10;
+            while (count < 19 && value >= bound) {
+                count++;
+                bound *= 10;
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            return count;
         }
     }
 }
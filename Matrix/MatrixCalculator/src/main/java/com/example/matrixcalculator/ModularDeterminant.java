@@ -0,0 +1,257 @@
+package com.example.matrixcalculator;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Точное вычисление определителя целочисленной матрицы многомодульным методом.
+ * Определитель вычисляется по модулю нескольких простых чисел меньше 2^31 исключением Гаусса
+ * в арифметике long (без выделения памяти на шаге исключения), после чего результат
+ * восстанавливается по китайской теореме об остатках. Количество простых выбирается так,
+ * чтобы их произведение превышало удвоенную оценку Адамара |det A| <= prod ||a_i|| (по строкам
+ * или по столбцам, смотря что меньше).
+ * Вычисления по разным модулям независимы и выполняются параллельно.
+ * <p>
+ * В отличие от метода Барейса в BigInteger, стоимость каждого шага не растет вместе с длиной
+ * промежуточных значений: работа равна O(n^3) операций над long на каждое простое число.
+ */
+public final class ModularDeterminant {
+
+    /**
+     * Наибольшее простое число, с которого начинается перебор модулей: 2^31 - 1.
+     */
+    private static final long FIRST_PRIME = Integer.MAX_VALUE;
+
+    private ModularDeterminant() {
+    }
+
+    /**
+     * Вычисляет точный определитель квадратной матрицы.
+     *
+     * @param matrix Квадратная матрица.
+     * @return Определитель.
+     * @throws IllegalArgumentException Если матрица не квадратная.
+     */
+    public static BigInteger determinant(IntMatrix matrix) {
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Определитель можно найти только у квадратной матрицы");
+        }
+        int n = matrix.rows();
+        if (n == 0) {
+            return BigInteger.ONE;
+        }
+        double bits = hadamardBits(matrix);
+        if (bits < 0) {
+            // Нулевая строка
+            return BigInteger.ZERO;
+        }
+        // Произведение модулей должно покрывать диапазон [-bound, bound]: нужен еще один бит на знак
+        long[] primes = primes(bits + 1);
+        long[] residues = new long[primes.length];
+        long workPerPrime = Math.max(1, (long) n * n * n / 3);
+        OperationMonitor.beginWork(primes.length * workPerPrime);
+        ParallelExecution.forEachRowBand(primes.length, workPerPrime, (from, to) -> {
+            // Рабочая матрица выделяется один раз на полосу модулей и переиспользуется
+            long[] work = new long[n * n];
+            for (int t = from; t < to; t++) {
+                residues[t] = determinantModulo(matrix, primes[t], work);
+            }
+        });
+        return reconstruct(residues, primes);
+    }
+
+    /**
+     * Оценка Адамара в битах: меньшее из log2(prod ||a_i||) по строкам и по столбцам матрицы.
+     *
+     * @return Количество бит или -1, если в матрице есть нулевая строка или нулевой столбец.
+     */
+    static double hadamardBits(IntMatrix matrix) {
+        int n = matrix.rows();
+        double[] columnSquares = new double[n];
+        double rowBits = 0;
+        for (int i = 0; i < n; i++) {
+            double squares = 0;
+            for (int j = 0; j < n; j++) {
+                double value = matrix.get(i, j);
+                squares += value * value;
+                columnSquares[j] += value * value;
+            }
+            if (squares == 0) {
+                return -1;
+            }
+            rowBits += log2(squares) / 2;
+        }
+        double columnBits = 0;
+        for (double squares : columnSquares) {
+            if (squares == 0) {
+                return -1;
+            }
+            columnBits += log2(squares) / 2;
+        }
+        return Math.min(rowBits, columnBits);
+    }
+
+    /**
+     * Выбирает простые числа меньше 2^31 по убыванию, пока их произведение не превысит 2^bits.
+     */
+    static long[] primes(double bits) {
+        long[] primes = new long[Math.max(1, (int) (bits / 30) + 1)];
+        int count = 0;
+        double covered = 0;
+        for (long candidate = FIRST_PRIME; covered <= bits; candidate -= 2) {
+            if (isPrime(candidate)) {
+                if (count == primes.length) {
+                    primes = Arrays.copyOf(primes, count * 2);
+                }
+                primes[count++] = candidate;
+                covered += log2(candidate);
+            }
+        }
+        return Arrays.copyOf(primes, count);
+    }
+
+    /**
+     * Определитель по модулю простого p. Элементы матрицы приводятся к [0, p), поэтому произведение
+     * двух элементов меньше 2^62 и вместе со слагаемым помещается в long. Во внутреннем цикле остаток
+     * вычисляется редукцией Барретта (умножение на заранее вычисленное 2^64 / p) вместо деления.
+     *
+     * @param work Рабочий массив длиной не меньше n * n.
+     */
+    static long determinantModulo(IntMatrix matrix, long p, long[] work) {
+        OperationMonitor.checkCancelled();
+        int n = matrix.rows();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                work[i * n + j] = Math.floorMod(matrix.get(i, j), p);
+            }
+        }
+        long barrett = barrettFactor(p);
+        long determinant = 1;
+        for (int k = 0; k < n; k++) {
+            int rowK = k * n;
+            int pivotRow = k;
+            while (pivotRow < n && work[pivotRow * n + k] == 0) {
+                pivotRow++;
+            }
+            if (pivotRow == n) {
+                return 0;
+            }
+            if (pivotRow != k) {
+                int rowP = pivotRow * n;
+                for (int j = k; j < n; j++) {
+                    long tmp = work[rowK + j];
+                    work[rowK + j] = work[rowP + j];
+                    work[rowP + j] = tmp;
+                }
+                determinant = p - determinant;
+            }
+            long pivot = work[rowK + k];
+            determinant = determinant * pivot % p;
+            long inverse = powMod(pivot, p - 2, p);
+            for (int i = k + 1; i < n; i++) {
+                int rowI = i * n;
+                long factor = work[rowI + k] * inverse % p;
+                if (factor == 0) {
+                    continue;
+                }
+                // a[i][j] - factor * a[k][j] = a[i][j] + (p - factor) * a[k][j] (mod p)
+                long negated = p - factor;
+                for (int j = k + 1; j < n; j++) {
+                    work[rowI + j] = reduce(work[rowI + j] + negated * work[rowK + j], p, barrett);
+                }
+            }
+        }
+        return determinant % p;
+    }
+
+    /**
+     * Восстанавливает число по остаткам (схема Гарнера) и переводит его в симметричный диапазон.
+     */
+    static BigInteger reconstruct(long[] residues, long[] primes) {
+        BigInteger value = BigInteger.valueOf(residues[0]);
+        BigInteger modulus = BigInteger.valueOf(primes[0]);
+        for (int t = 1; t < primes.length; t++) {
+            long p = primes[t];
+            BigInteger bigP = BigInteger.valueOf(p);
+            long current = value.mod(bigP).longValue();
+            long difference = Math.floorMod(residues[t] - current, p);
+            long coefficient = difference * powMod(modulus.mod(bigP).longValue(), p - 2, p) % p;
+            value = value.add(modulus.multiply(BigInteger.valueOf(coefficient)));
+            modulus = modulus.multiply(bigP);
+        }
+        if (value.shiftLeft(1).compareTo(modulus) > 0) {
+            value = value.subtract(modulus);
+        }
+        return value;
+    }
+
+    /**
+     * @return floor(2^64 / p) для модуля 2^30 < p < 2^31 (помещается в long).
+     */
+    private static long barrettFactor(long p) {
+        return BigInteger.ONE.shiftLeft(64).divide(BigInteger.valueOf(p)).longValueExact();
+    }
+
+    /**
+     * Остаток x mod p для 0 <= x < 2^63 по редукции Барретта: частное оценивается снизу не более чем на 2.
+     */
+    private static long reduce(long x, long p, long barrett) {
+        long r = x - Math.multiplyHigh(x, barrett) * p;
+        while (r >= p) {
+            r -= p;
+        }
+        return r;
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    private static long powMod(long base, long exponent, long p) {
+        long result = 1;
+        base %= p;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = result * base % p;
+            }
+            base = base * base % p;
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Детерминированный тест Миллера-Рабина: основания 2, 3, 5 и 7 достаточны для чисел меньше 3 215 031 751.
+     */
+    private static boolean isPrime(long candidate) {
+        if (candidate < 2) {
+            return false;
+        }
+        for (long small : new long[]{2, 3, 5, 7}) {
+            if (candidate % small == 0) {
+                return candidate == small;
+            }
+        }
+        long d = candidate - 1;
+        int s = Long.numberOfTrailingZeros(d);
+        d >>= s;
+        for (long base : new long[]{2, 3, 5, 7}) {
+            long x = powMod(base, d, candidate);
+            if (x == 1 || x == candidate - 1) {
+                continue;
+            }
+            boolean composite = true;
+            for (int r = 1; r < s; r++) {
+                x = x * x % candidate;
+                if (x == candidate - 1) {
+                    composite = false;
+                    break;
+                }
+            }
+            if (composite) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
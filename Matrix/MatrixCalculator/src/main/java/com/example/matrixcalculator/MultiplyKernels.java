@@ -0,0 +1,266 @@
+package com.example.matrixcalculator;
+
+import java.util.Arrays;
+
+/**
+ * Вычислительные ядра умножения плотных целочисленных матриц.
+ * Матрицы передаются как массив, смещение первого элемента и шаг строки, что позволяет
+ * умножать как целые матрицы, так и их подблоки без копирования.
+ * Все ядра используют арифметику int с переполнением, поэтому их результаты побитово совпадают
+ * независимо от порядка суммирования.
+ */
+public final class MultiplyKernels {
+
+    /**
+     * Количество строк упакованной панели A (можно задать системным свойством matrix.multiply.tileRows).
+     */
+    public static final int DEFAULT_TILE_ROWS = Integer.getInteger("matrix.multiply.tileRows", 64);
+
+    /**
+     * Длина блока по общей размерности (можно задать системным свойством matrix.multiply.tileInner).
+     */
+    public static final int DEFAULT_TILE_INNER = Integer.getInteger("matrix.multiply.tileInner", 128);
+
+    /**
+     * Количество столбцов B в одном блоке (можно задать системным свойством matrix.multiply.tileCols).
+     */
+    public static final int DEFAULT_TILE_COLS = Integer.getInteger("matrix.multiply.tileCols", 256);
+
+    /**
+     * Объем работы (m * k * n), ниже которого блочное ядро не дает выигрыша и используется порядок i-k-j.
+     */
+    public static final long SMALL_WORK_THRESHOLD = Long.getLong("matrix.multiply.smallWork", 64L * 64 * 64);
+
+    private MultiplyKernels() {
+    }
+
+    /**
+     * Умножение двух матриц с выбором ядра по размеру задачи.
+     *
+     * @param matrix1 Первая матрица размера m x k.
+     * @param matrix2 Вторая матрица размера k x n.
+     * @return Произведение размера m x n.
+     * @throws IllegalArgumentException Если размеры матриц не соответствуют правилам умножения.
+     */
+    public static IntMatrix multiply(IntMatrix matrix1, IntMatrix matrix2) {
+        if (matrix1.cols() != matrix2.rows()) {
+            throw new IllegalArgumentException("Невозможно умножить матрицы: количество столбцов первой матрицы должно равняться количеству строк второй.");
+        }
+        IntMatrix result = new IntMatrix(matrix1.rows(), matrix2.cols());
+        multiply(matrix1.data(), 0, matrix1.stride(), matrix2.data(), 0, matrix2.stride(),
+                result.data(), 0, result.stride(), matrix1.rows(), matrix1.cols(), matrix2.cols(), false);
+        return result;
+    }
+
+    /**
+     * Вычисляет C = A * B (или C += A * B) для подматриц, выбирая ядро по объему работы.
+     *
+     * @param a          Массив A.
+     * @param aOffset    Смещение элемента A(0, 0).
+     * @param aStride    Шаг строки A.
+     * @param b          Массив B.
+     * @param bOffset    Смещение элемента B(0, 0).
+     * @param bStride    Шаг строки B.
+     * @param c          Массив C.
+     * @param cOffset    Смещение элемента C(0, 0).
+     * @param cStride    Шаг строки C.
+     * @param m          Количество строк A и C.
+     * @param k          Количество столбцов A и строк B.
+     * @param n          Количество столбцов B и C.
+     * @param accumulate True - прибавить произведение к C, false - перезаписать C.
+     */
+    public static void multiply(int[] a, int aOffset, int aStride,
+                                int[] b, int bOffset, int bStride,
+                                int[] c, int cOffset, int cStride,
+                                int m, int k, int n, boolean accumulate) {
+        if ((long) m * k * n <= SMALL_WORK_THRESHOLD) {
+            multiplyIkj(a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, m, k, n, accumulate);
+        } else {
+            multiplyBlocked(a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, m, k, n, accumulate,
+                    DEFAULT_TILE_ROWS, DEFAULT_TILE_INNER, DEFAULT_TILE_COLS);
+        }
+    }
+
+    /**
+     * Вычисляет C += alpha * A * B для подматриц. Коэффициент применяется к элементам A во внутреннем цикле,
+     * поэтому масштабированное произведение не требует временной матрицы.
+     *
+     * @param alpha Коэффициент при произведении.
+     * @see #multiply(int[], int, int, int[], int, int, int[], int, int, int, int, int, boolean)
+     */
+    public static void multiplyAdd(int alpha, int[] a, int aOffset, int aStride,
+                                   int[] b, int bOffset, int bStride,
+                                   int[] c, int cOffset, int cStride,
+                                   int m, int k, int n) {
+        if (alpha == 0) {
+            return;
+        }
+        if ((long) m * k * n <= SMALL_WORK_THRESHOLD) {
+            ikj(alpha, a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, m, k, n);
+        } else {
+            blocked(alpha, a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, m, k, n,
+                    DEFAULT_TILE_ROWS, DEFAULT_TILE_INNER, DEFAULT_TILE_COLS);
+        }
+    }
+
+    /**
+     * Простое ядро с порядком циклов i-k-j: внутренний цикл проходит строки B и C подряд.
+     * Подходит для небольших матриц, которые целиком помещаются в кэш.
+     */
+    public static void multiplyIkj(int[] a, int aOffset, int aStride,
+                                   int[] b, int bOffset, int bStride,
+                                   int[] c, int cOffset, int cStride,
+                                   int m, int k, int n, boolean accumulate) {
+        if (!accumulate) {
+            clear(c, cOffset, cStride, m, n);
+        }
+        ikj(1, a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, m, k, n);
+    }
+
+    /**
+     * C += alpha * A * B в порядке циклов i-k-j.
+     */
+    private static void ikj(int alpha, int[] a, int aOffset, int aStride,
+                            int[] b, int bOffset, int bStride,
+                            int[] c, int cOffset, int cStride,
+                            int m, int k, int n) {
+        for (int i = 0; i < m; i++) {
+            int rowA = aOffset + i * aStride;
+            int rowC = cOffset + i * cStride;
+            for (int p = 0; p < k; p++) {
+                int valueA = a[rowA + p];
+                if (valueA == 0) {
+                    continue;
+                }
+                VectorKernels.axpy(alpha * valueA, b, bOffset + p * bStride, c, rowC, n);
+            }
+        }
+    }
+
+    /**
+     * Блочное ядро умножения. Полоса B из tileInner строк упаковывается один раз блоками tileInner x tileCols,
+     * каждый из которых лежит в памяти непрерывно. Для нее панель A размером tileRows x tileInner упаковывается
+     * в непрерывный буфер и проходит по всем блокам столбцов полосы, поэтому панель A остается в кэше,
+     * а каждый блок B, загруженный в кэш, используется для tileRows строк. Внутренний цикл читает только
+     * последовательную память.
+     *
+     * @param tileRows  Количество строк панели A, которая переиспользуется для всех блоков столбцов.
+     * @param tileInner Длина блока по общей размерности.
+     * @param tileCols  Количество столбцов B и C в блоке.
+     */
+    public static void multiplyBlocked(int[] a, int aOffset, int aStride,
+                                       int[] b, int bOffset, int bStride,
+                                       int[] c, int cOffset, int cStride,
+                                       int m, int k, int n, boolean accumulate,
+                                       int tileRows, int tileInner, int tileCols) {
+        if (tileRows <= 0 || tileInner <= 0 || tileCols <= 0) {
+            throw new IllegalArgumentException("Размеры блоков должны быть положительными.");
+        }
+        if (!accumulate) {
+            clear(c, cOffset, cStride, m, n);
+        }
+        blocked(1, a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, m, k, n,
+                tileRows, tileInner, tileCols);
+    }
+
+    /**
+     * C += alpha * A * B блочным ядром. Коэффициент alpha умножается на элементы A при упаковке панели.
+     */
+    private static void blocked(int alpha, int[] a, int aOffset, int aStride,
+                                int[] b, int bOffset, int bStride,
+                                int[] c, int cOffset, int cStride,
+                                int m, int k, int n, int tileRows, int tileInner, int tileCols) {
+        int[] packedB = new int[Math.min(tileInner, k) * n];
+        int[] packedA = new int[Math.min(tileRows, m) * Math.min(tileInner, k)];
+        for (int kk = 0; kk < k; kk += tileInner) {
+            int kc = Math.min(tileInner, k - kk);
+            // Упаковываем полосу B[kk..kk+kc, 0..n]: блок столбцов jj занимает kc * nc элементов с позиции kc * jj
+            for (int jj = 0; jj < n; jj += tileCols) {
+                int nc = Math.min(tileCols, n - jj);
+                for (int p = 0; p < kc; p++) {
+                    System.arraycopy(b, bOffset + (kk + p) * bStride + jj, packedB, kc * jj + p * nc, nc);
+                }
+            }
+            for (int ii = 0; ii < m; ii += tileRows) {
+                int mc = Math.min(tileRows, m - ii);
+                OperationMonitor.checkCancelled();
+                // Упаковываем панель alpha * A[ii..ii+mc, kk..kk+kc] построчно
+                for (int i = 0; i < mc; i++) {
+                    int rowA = aOffset + (ii + i) * aStride + kk;
+                    for (int p = 0; p < kc; p++) {
+                        packedA[i * kc + p] = alpha * a[rowA + p];
+                    }
+                }
+                for (int jj = 0; jj < n; jj += tileCols) {
+                    int nc = Math.min(tileCols, n - jj);
+                    int block = kc * jj;
+                    for (int i = 0; i < mc; i++) {
+                        int rowA = i * kc;
+                        int rowC = cOffset + (ii + i) * cStride + jj;
+                        for (int p = 0; p < kc; p++) {
+                            int valueA = packedA[rowA + p];
+                            if (valueA == 0) {
+                                continue;
+                            }
+                            VectorKernels.axpy(valueA, packedB, block + p * nc, c, rowC, nc);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Вычисляет C = A * B mod modulus для подматриц с элементами из [0, modulus). Строка C накапливается
+     * в буфере типа long и приводится по модулю только тогда, когда следующее слагаемое могло бы
+     * переполнить long, а не после каждого умножения.
+     *
+     * @param modulus Модуль (от 1 до {@link Integer#MAX_VALUE}).
+     * @param row     Буфер строки длиной не меньше n.
+     * @see #multiply(int[], int, int, int[], int, int, int[], int, int, int, int, int, boolean)
+     */
+    public static void multiplyMod(int[] a, int aOffset, int aStride,
+                                   int[] b, int bOffset, int bStride,
+                                   int[] c, int cOffset, int cStride,
+                                   int m, int k, int n, int modulus, long[] row) {
+        long max = modulus - 1L;
+        // Сколько произведений можно прибавить к приведенному значению без переполнения
+        long safeTerms = max == 0 ? Long.MAX_VALUE : (Long.MAX_VALUE - max) / (max * max);
+        for (int i = 0; i < m; i++) {
+            Arrays.fill(row, 0, n, 0L);
+            int rowA = aOffset + i * aStride;
+            long terms = 0;
+            for (int p = 0; p < k; p++) {
+                long aip = a[rowA + p];
+                if (aip == 0) {
+                    continue;
+                }
+                if (terms == safeTerms) {
+                    for (int j = 0; j < n; j++) {
+                        row[j] %= modulus;
+                    }
+                    terms = 0;
+                }
+                int rowB = bOffset + p * bStride;
+                for (int j = 0; j < n; j++) {
+                    row[j] += aip * b[rowB + j];
+                }
+                terms++;
+            }
+            int rowC = cOffset + i * cStride;
+            for (int j = 0; j < n; j++) {
+                c[rowC + j] = (int) (row[j] % modulus);
+            }
+        }
+    }
+
+    /**
+     * Обнуляет подматрицу m x n.
+     */
+    static void clear(int[] c, int cOffset, int cStride, int m, int n) {
+        for (int i = 0; i < m; i++) {
+            int row = cOffset + i * cStride;
+            Arrays.fill(c, row, row + n, 0);
+        }
+    }
+}
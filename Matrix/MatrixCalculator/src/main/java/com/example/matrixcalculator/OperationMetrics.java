@@ -0,0 +1,285 @@
+package com.example.matrixcalculator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Измерения операций над матрицами: время выполнения, размеры операндов, выделенная память, выбранное ядро
+ * и количество потоков. Каждая операция, выполненная через {@link #measure}, записывается как событие JFR
+ * {@link MatrixOperationEvent} и добавляется в счетчики и гистограммы времени по названию операции,
+ * которые можно получить в любой момент методом {@link #dump()}.
+ * <p>
+ * Измерение привязывается к потоку; {@link ParallelExecution} переносит его в рабочие потоки вместе с полосами
+ * строк, поэтому учитываются и потоки пула, и выделенная в них память. Ядра сообщают о своем выборе методом
+ * {@link #kernel(String)}. Без активного измерения эти методы ничего не делают.
+ * Измерения отключаются системным свойством matrix.metrics=false.
+ */
+public final class OperationMetrics {
+
+    /**
+     * True, если измерения включены.
+     */
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("matrix.metrics", "true"));
+
+    /**
+     * Количество интервалов гистограммы: интервал i содержит длительности [2^(i-1), 2^i) микросекунд.
+     */
+    private static final int BUCKETS = 40;
+
+    private static final ThreadLocal<Measurement> CURRENT = new ThreadLocal<>();
+
+    private static final Map<String, Statistics> REGISTRY = new ConcurrentHashMap<>();
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private OperationMetrics() {
+    }
+
+    /**
+     * Выполняет операцию и записывает ее измерения.
+     *
+     * @param operation Название операции.
+     * @param first     Первый операнд (может быть null).
+     * @param second    Второй операнд (может быть null).
+     * @param action    Операция.
+     * @param <T>       Тип результата.
+     * @return Результат операции.
+     */
+    public static <T> T measure(String operation, Matrix first, Matrix second, Supplier<T> action) {
+        return measure(operation, first == null ? 0 : first.rows(), first == null ? 0 : first.cols(),
+                second == null ? 0 : second.rows(), second == null ? 0 : second.cols(), action);
+    }
+
+    /**
+     * Выполняет операцию над загруженными матрицами и записывает ее измерения. Размеры берутся
+     * из описаний матриц, поэтому плотная копия разреженной матрицы не создается.
+     *
+     * @param operation Название операции.
+     * @param first     Первый операнд (может быть null).
+     * @param second    Второй операнд (может быть null).
+     * @param action    Операция.
+     * @param <T>       Тип результата.
+     * @return Результат операции.
+     */
+    public static <T> T measure(String operation, LoadedMatrix first, LoadedMatrix second, Supplier<T> action) {
+        return measure(operation, first == null ? 0 : first.rows(), first == null ? 0 : first.cols(),
+                second == null ? 0 : second.rows(), second == null ? 0 : second.cols(), action);
+    }
+
+    private static <T> T measure(String operation, int rows1, int cols1, int rows2, int cols2, Supplier<T> action) {
+        if (!ENABLED) {
+            return action.get();
+        }
+        Measurement measurement = new Measurement(Thread.currentThread());
+        Measurement previous = measurement.bind();
+        MatrixOperationEvent event = new MatrixOperationEvent();
+        event.begin();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = action.get();
+            succeeded = true;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocatedBefore + measurement.workerAllocated.sum();
+            restore(previous);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.rows1 = rows1;
+                event.cols1 = cols1;
+                event.rows2 = rows2;
+                event.cols2 = cols2;
+                event.kernel = measurement.kernel;
+                event.threads = measurement.threads.size();
+                event.allocatedBytes = allocated;
+                event.succeeded = succeeded;
+                event.commit();
+            }
+            REGISTRY.computeIfAbsent(operation, name -> new Statistics())
+                    .record(nanos, allocated, measurement.kernel, succeeded);
+        }
+    }
+
+    /**
+     * Сообщает, какое ядро выбрано для текущей операции. Если ядро выбиралось несколько раз
+     * (например, после переполнения), сохраняется последний выбор.
+     *
+     * @param name Название ядра.
+     */
+    public static void kernel(String name) {
+        Measurement measurement = CURRENT.get();
+        if (measurement != null) {
+            measurement.kernel = name;
+        }
+    }
+
+    /**
+     * Возвращает накопленную статистику в виде текстовой таблицы: количество выполнений и ошибок,
+     * среднее, перцентили (по верхней границе интервала гистограммы) и максимум времени,
+     * средний объем выделенной памяти и частоту выбора ядер.
+     *
+     * @return Статистика по операциям.
+     */
+    public static String dump() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%-16s %8s %6s %10s %10s %10s %10s %10s %12s  %s%n", "operation",
+                "count", "errors", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms", "alloc MB", "kernels"));
+        for (Map.Entry<String, Statistics> entry : new TreeMap<>(REGISTRY).entrySet()) {
+            Statistics statistics = entry.getValue();
+            long count = statistics.count.sum();
+            if (count == 0) {
+                continue;
+            }
+            text.append(String.format(Locale.ROOT, "%-16s %8d %6d %10.3f %10.3f %10.3f %10.3f %10.3f %12.3f  %s%n",
+                    entry.getKey(), count, statistics.failures.sum(),
+                    statistics.totalNanos.sum() / 1e6 / count, statistics.percentileMillis(0.5),
+                    statistics.percentileMillis(0.9), statistics.percentileMillis(0.99),
+                    statistics.maxNanos.get() / 1e6, statistics.allocatedBytes.sum() / 1048576.0 / count,
+                    new TreeMap<>(statistics.kernels)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Сбрасывает накопленную статистику.
+     */
+    public static void reset() {
+        REGISTRY.clear();
+    }
+
+    /**
+     * @return Измерение, привязанное к текущему потоку, или null.
+     */
+    static Measurement current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Восстанавливает измерение, привязанное к потоку до вызова {@link Measurement#bind()}.
+     */
+    static void restore(Measurement previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * @return Объем памяти, выделенной текущим потоком, или 0, если JVM его не сообщает.
+     */
+    static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+    /**
+     * Измерение одной выполняющейся операции.
+     */
+    static final class Measurement {
+        private final Thread owner;
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        private final LongAdder workerAllocated = new LongAdder();
+        private volatile String kernel = "";
+
+        Measurement(Thread owner) {
+            this.owner = owner;
+            threads.add(owner);
+        }
+
+        /**
+         * @return Поток, в котором начата операция.
+         */
+        Thread owner() {
+            return owner;
+        }
+
+        /**
+         * Привязывает измерение к текущему потоку.
+         *
+         * @return Ранее привязанное измерение, которое нужно восстановить.
+         */
+        Measurement bind() {
+            Measurement previous = CURRENT.get();
+            CURRENT.set(this);
+            threads.add(Thread.currentThread());
+            return previous;
+        }
+
+        /**
+         * Учитывает память, выделенную в рабочем потоке при выполнении части операции.
+         */
+        void addWorkerAllocated(long bytes) {
+            workerAllocated.add(bytes);
+        }
+    }
+
+    /**
+     * Счетчики и гистограмма времени одной операции.
+     */
+    private static final class Statistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        private final Map<String, LongAdder> kernels = new ConcurrentHashMap<>();
+
+        void record(long nanos, long allocated, String kernel, boolean succeeded) {
+            count.increment();
+            if (!succeeded) {
+                failures.increment();
+            }
+            totalNanos.add(nanos);
+            allocatedBytes.add(allocated);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            long micros = nanos / 1000;
+            histogram.incrementAndGet(Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros)));
+            if (!kernel.isEmpty()) {
+                kernels.computeIfAbsent(kernel, name -> new LongAdder()).increment();
+            }
+        }
+
+        /**
+         * @return Верхняя граница интервала гистограммы, в который попадает заданная доля измерений.
+         */
+        double percentileMillis(double fraction) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += histogram.get(i);
+            }
+            long rank = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram.get(i);
+                if (seen >= rank && seen > 0) {
+                    return Math.min((1L << i) / 1000.0, maxNanos.get() / 1e6);
+                }
+            }
+            return maxNanos.get() / 1e6;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.matrixcalculator;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Наблюдатель за длительной операцией: собирает прогресс и позволяет отменить вычисление.
+ * Монитор привязывается к потоку методом {@link #call(Callable)}; {@link ParallelExecution} переносит его
+ * в рабочие потоки, поэтому ядра сообщают о прогрессе и проверяют отмену через статические методы
+ * {@link #beginWork(long)}, {@link #worked(long)} и {@link #checkCancelled()}. Без привязанного монитора
+ * эти методы ничего не делают.
+ */
+public final class OperationMonitor {
+
+    private static final ThreadLocal<OperationMonitor> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Получатель прогресса. Вызывается из рабочих потоков.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param done  Выполненный объем работы.
+         * @param total Ожидаемый объем работы или 0, если он неизвестен.
+         */
+        void progress(long done, long total);
+    }
+
+    private final ProgressListener listener;
+    private final AtomicLong done = new AtomicLong();
+    private volatile long total;
+    private volatile boolean totalFixed;
+    private volatile boolean cancelled;
+
+    /**
+     * @param listener Получатель прогресса (может быть null).
+     */
+    public OperationMonitor(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Выполняет действие в текущем потоке с привязанным монитором.
+     *
+     * @param action Действие.
+     * @param <T>    Тип результата.
+     * @return Результат действия.
+     * @throws CancellationException Если операция отменена.
+     * @throws Exception             Исключение, выброшенное действием.
+     */
+    public <T> T call(Callable<T> action) throws Exception {
+        OperationMonitor previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            check();
+            return action.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Запрашивает отмену операции. Вычисление прерывается при ближайшей проверке.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return True, если запрошена отмена.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return Доля выполненной работы от 0 до 1 или -1, если объем работы неизвестен.
+     */
+    public double progress() {
+        long expected = total;
+        return expected <= 0 ? -1 : Math.min(1.0, (double) done.get() / expected);
+    }
+
+    /**
+     * @return Монитор, привязанный к текущему потоку, или null.
+     */
+    public static OperationMonitor current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Объявляет объем работы очередного этапа операции и сбрасывает счетчик выполненной работы.
+     *
+     * @param units Ожидаемый объем работы в условных единицах.
+     */
+    public static void beginWork(long units) {
+        OperationMonitor monitor = CURRENT.get();
+        if (monitor != null && !monitor.totalFixed) {
+            monitor.total = units;
+            monitor.done.set(0);
+            monitor.report(0);
+        }
+    }
+
+    /**
+     * Объявляет общий объем работы составной операции. Последующие вызовы {@link #beginWork(long)}
+     * из вложенных операций игнорируются, а их прогресс суммируется.
+     *
+     * @param units Ожидаемый объем работы в условных единицах.
+     */
+    public static void beginTotalWork(long units) {
+        OperationMonitor monitor = CURRENT.get();
+        if (monitor != null) {
+            monitor.totalFixed = false;
+            beginWork(units);
+            monitor.totalFixed = true;
+        }
+    }
+
+    /**
+     * Добавляет выполненную работу к прогрессу текущей операции.
+     *
+     * @param units Объем выполненной работы.
+     */
+    public static void worked(long units) {
+        OperationMonitor monitor = CURRENT.get();
+        if (monitor != null) {
+            monitor.report(monitor.done.addAndGet(units));
+        }
+    }
+
+    /**
+     * Прерывает вычисление, если текущая операция отменена.
+     *
+     * @throws CancellationException Если отмена запрошена.
+     */
+    public static void checkCancelled() {
+        OperationMonitor monitor = CURRENT.get();
+        if (monitor != null) {
+            monitor.check();
+        }
+    }
+
+    /**
+     * Привязывает монитор к рабочему потоку на время выполнения полосы строк.
+     *
+     * @return Ранее привязанный к потоку монитор, который нужно восстановить.
+     */
+    OperationMonitor bind() {
+        OperationMonitor previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    /**
+     * Восстанавливает монитор, привязанный к потоку до вызова {@link #bind()}.
+     */
+    static void restore(OperationMonitor previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    void check() {
+        if (cancelled) {
+            throw new CancellationException("Операция отменена");
+        }
+    }
+
+    private void report(long value) {
+        if (listener != null) {
+            listener.progress(value, total);
+        }
+    }
+}
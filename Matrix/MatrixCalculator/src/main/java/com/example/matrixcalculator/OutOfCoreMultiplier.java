@@ -0,0 +1,257 @@
+package com.example.matrixcalculator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Умножение матриц, не помещающихся в кучу. Операнды и результат хранятся в файлах двоичного формата
+ * {@link BinaryMatrixFormat} (int32). Результат вычисляется по блокам tileSize x tileSize: для каждого блока C
+ * блоки A и B читаются из файлов в буферы из ограниченного пула, перемножаются блочным ядром и блок C
+ * сразу записывается в выходной файл. Объем используемой кучи определяется только размером пула
+ * и не зависит от размеров матриц.
+ */
+public final class OutOfCoreMultiplier {
+
+    /**
+     * Размер блока по умолчанию.
+     */
+    public static final int DEFAULT_TILE_SIZE = Integer.getInteger("matrix.outOfCore.tileSize", 1024);
+
+    /**
+     * Количество буферов блоков в пуле по умолчанию (по три на каждый рабочий поток).
+     */
+    public static final int DEFAULT_BUFFER_TILES = Integer.getInteger("matrix.outOfCore.bufferTiles",
+            3 * Math.max(1, Runtime.getRuntime().availableProcessors()));
+
+    private OutOfCoreMultiplier() {
+    }
+
+    /**
+     * Умножение матриц из файлов с параметрами по умолчанию.
+     *
+     * @param matrix1 Файл первой матрицы.
+     * @param matrix2 Файл второй матрицы.
+     * @param result  Файл результата (перезаписывается).
+     * @throws IOException Возникает при ошибке ввода/вывода.
+     */
+    public static void multiply(Path matrix1, Path matrix2, Path result) throws IOException {
+        multiply(matrix1, matrix2, result, DEFAULT_TILE_SIZE, DEFAULT_BUFFER_TILES);
+    }
+
+    /**
+     * Умножение матриц из файлов.
+     *
+     * @param matrix1     Файл первой матрицы размера m x k.
+     * @param matrix2     Файл второй матрицы размера k x n.
+     * @param result      Файл результата размера m x n (перезаписывается).
+     * @param tileSize    Сторона квадратного блока.
+     * @param bufferTiles Количество буферов блоков в пуле (не меньше трех).
+     * @throws IOException              Возникает при ошибке ввода/вывода.
+     * @throws IllegalArgumentException Если размеры матриц не соответствуют правилам умножения.
+     */
+    public static void multiply(Path matrix1, Path matrix2, Path result, int tileSize, int bufferTiles)
+            throws IOException {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("Размер блока должен быть положительным: " + tileSize);
+        }
+        if (bufferTiles < 3) {
+            throw new IllegalArgumentException("Пул должен содержать хотя бы три буфера: " + bufferTiles);
+        }
+        try (FileChannel channelA = FileChannel.open(matrix1, StandardOpenOption.READ);
+             FileChannel channelB = FileChannel.open(matrix2, StandardOpenOption.READ)) {
+            BinaryMatrixFormat.Header headerA = BinaryMatrixFormat.readHeader(channelA);
+            BinaryMatrixFormat.Header headerB = BinaryMatrixFormat.readHeader(channelB);
+            if (headerA.elementType() != BinaryMatrixFormat.TYPE_INT32
+                    || headerB.elementType() != BinaryMatrixFormat.TYPE_INT32) {
+                throw new IllegalArgumentException("Внешнее умножение поддерживается только для матриц int32.");
+            }
+            if (headerA.cols() != headerB.rows()) {
+                throw new IllegalArgumentException("Невозможно умножить матрицы: количество столбцов первой матрицы должно равняться количеству строк второй.");
+            }
+            BinaryMatrixFormat.Header headerC = new BinaryMatrixFormat.Header(headerA.rows(), headerB.cols(),
+                    BinaryMatrixFormat.TYPE_INT32, headerA.order());
+            try (FileChannel channelC = BinaryMatrixFormat.openForWrite(result, headerC)) {
+                new Job(channelA, headerA, channelB, headerB, channelC, headerC, tileSize, bufferTiles).run();
+            }
+        }
+    }
+
+    /**
+     * Состояние одного умножения: каналы файлов, пул буферов и счетчик обработанных блоков результата.
+     */
+    private static final class Job {
+        private final FileChannel channelA;
+        private final BinaryMatrixFormat.Header headerA;
+        private final FileChannel channelB;
+        private final BinaryMatrixFormat.Header headerB;
+        private final FileChannel channelC;
+        private final BinaryMatrixFormat.Header headerC;
+        private final int tileSize;
+        private final int tileRows;
+        private final int tileCols;
+        private final int workers;
+        private final BlockingQueue<int[]> pool;
+        private final AtomicInteger nextTile = new AtomicInteger();
+        private final OperationMonitor monitor = OperationMonitor.current();
+
+        Job(FileChannel channelA, BinaryMatrixFormat.Header headerA,
+            FileChannel channelB, BinaryMatrixFormat.Header headerB,
+            FileChannel channelC, BinaryMatrixFormat.Header headerC, int tileSize, int bufferTiles) {
+            this.channelA = channelA;
+            this.headerA = headerA;
+            this.channelB = channelB;
+            this.headerB = headerB;
+            this.channelC = channelC;
+            this.headerC = headerC;
+            this.tileSize = tileSize;
+            this.tileRows = ceilDiv(headerC.rows(), tileSize);
+            this.tileCols = ceilDiv(headerC.cols(), tileSize);
+            this.workers = Math.max(1, Math.min(ParallelExecution.parallelism(), bufferTiles / 3));
+            this.pool = new ArrayBlockingQueue<>(workers * 3);
+            for (int i = 0; i < workers * 3; i++) {
+                pool.add(new int[tileSize * tileSize]);
+            }
+        }
+
+        /**
+         * Запускает рабочие потоки и ждет обработки всех блоков результата.
+         */
+        void run() throws IOException {
+            if (tileRows == 0 || tileCols == 0) {
+                return;
+            }
+            // Прогресс считается в обработанных блоках результата
+            OperationMonitor.beginWork((long) tileRows * tileCols);
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                tasks.add(ParallelExecution.pool().submit(this::work));
+            }
+            try {
+                for (ForkJoinTask<?> task : tasks) {
+                    task.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Умножение прервано", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        /**
+         * Цикл рабочего потока: берет очередной блок результата и вычисляет его.
+         */
+        private void work() {
+            OperationMonitor previous = monitor == null ? null : monitor.bind();
+            int[] tileA = take();
+            int[] tileB = take();
+            int[] tileC = take();
+            ByteBuffer io = ByteBuffer.allocateDirect(tileSize * Integer.BYTES);
+            try {
+                int tile;
+                while ((tile = nextTile.getAndIncrement()) < tileRows * tileCols) {
+                    OperationMonitor.checkCancelled();
+                    computeTile(tile / tileCols, tile % tileCols, tileA, tileB, tileC, io);
+                    OperationMonitor.worked(1);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                pool.add(tileA);
+                pool.add(tileB);
+                pool.add(tileC);
+                if (monitor != null) {
+                    OperationMonitor.restore(previous);
+                }
+            }
+        }
+
+        /**
+         * Вычисляет блок C(ti, tj) = сумма по tk блоков A(ti, tk) * B(tk, tj) и записывает его в файл.
+         */
+        private void computeTile(int ti, int tj, int[] tileA, int[] tileB, int[] tileC, ByteBuffer io)
+                throws IOException {
+            int row0 = ti * tileSize;
+            int col0 = tj * tileSize;
+            int m = Math.min(tileSize, headerC.rows() - row0);
+            int n = Math.min(tileSize, headerC.cols() - col0);
+            int inner = headerA.cols();
+            MultiplyKernels.clear(tileC, 0, n, m, n);
+            for (int k0 = 0; k0 < inner; k0 += tileSize) {
+                int k = Math.min(tileSize, inner - k0);
+                readTile(channelA, headerA, row0, k0, m, k, tileA, io);
+                readTile(channelB, headerB, k0, col0, k, n, tileB, io);
+                MultiplyKernels.multiply(tileA, 0, k, tileB, 0, n, tileC, 0, n, m, k, n, true);
+            }
+            writeTile(row0, col0, m, n, tileC, io);
+        }
+
+        /**
+         * Читает блок rows x cols, начиная с элемента (row0, col0), в плотный массив с шагом cols.
+         */
+        private void readTile(FileChannel channel, BinaryMatrixFormat.Header header, int row0, int col0,
+                              int rows, int cols, int[] target, ByteBuffer io) throws IOException {
+            io.order(header.order());
+            for (int i = 0; i < rows; i++) {
+                io.clear().limit(cols * Integer.BYTES);
+                long position = BinaryMatrixFormat.HEADER_SIZE
+                        + ((long) (row0 + i) * header.cols() + col0) * Integer.BYTES;
+                while (io.hasRemaining()) {
+                    if (channel.read(io, position + io.position()) < 0) {
+                        throw new IOException("Неожиданный конец файла матрицы");
+                    }
+                }
+                io.flip();
+                io.asIntBuffer().get(target, i * cols, cols);
+            }
+        }
+
+        /**
+         * Записывает блок m x n результата, начиная с элемента (row0, col0).
+         */
+        private void writeTile(int row0, int col0, int m, int n, int[] tile, ByteBuffer io) throws IOException {
+            io.order(headerC.order());
+            for (int i = 0; i < m; i++) {
+                io.clear();
+                io.asIntBuffer().put(tile, i * n, n);
+                io.limit(n * Integer.BYTES);
+                long position = BinaryMatrixFormat.HEADER_SIZE
+                        + ((long) (row0 + i) * headerC.cols() + col0) * Integer.BYTES;
+                while (io.hasRemaining()) {
+                    channelC.write(io, position + io.position());
+                }
+            }
+        }
+
+        private int[] take() {
+            try {
+                return pool.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ожидание буфера прервано", e);
+            }
+        }
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
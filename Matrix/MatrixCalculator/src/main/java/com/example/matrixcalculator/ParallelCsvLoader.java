@@ -0,0 +1,280 @@
+package com.example.matrixcalculator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Параллельное чтение больших файлов CSV. Файл отображается в память и делится на части, границы которых
+ * выровнены по концам строк. Чтение идет в два параллельных прохода:
+ * <ol>
+ *     <li>в каждой части подсчитываются строки файла и непустые строки матрицы, а в первой части -
+ *     количество столбцов; префиксные суммы дают номер первой строки каждой части и ее полосу
+ *     в массиве матрицы, после чего матрица выделяется целиком;</li>
+ *     <li>части разбираются {@link CsvMatrixParser} одновременно, каждая в свою полосу строк.
+ *     Количество значений в каждой строке сверяется с количеством столбцов первой строки,
+ *     поэтому несогласованные части дают ту же ошибку, что и при последовательном чтении.</li>
+ * </ol>
+ * Небольшие файлы (меньше {@link #DEFAULT_MIN_PARALLEL_BYTES}) и чтение без параллелизма
+ * выполняются однопроходным {@link CsvMatrixParser}.
+ */
+public final class ParallelCsvLoader {
+
+    /**
+     * Размер файла, начиная с которого чтение выполняется параллельно
+     * (системное свойство matrix.csv.parallelBytes).
+     */
+    public static final long DEFAULT_MIN_PARALLEL_BYTES = Long.getLong("matrix.csv.parallelBytes", 16L << 20);
+
+    /**
+     * Наименьший размер части файла.
+     */
+    private static final long MIN_CHUNK_BYTES = 4L << 20;
+
+    /**
+     * Наибольший размер части файла: часть отображается в память одним буфером.
+     */
+    private static final long MAX_CHUNK_BYTES = 256L << 20;
+
+    /**
+     * Размер блока при поиске конца строки.
+     */
+    private static final int SCAN_BYTES = 1 << 16;
+
+    private ParallelCsvLoader() {
+    }
+
+    /**
+     * Читает матрицу из файла CSV, при достаточном размере файла - параллельно.
+     *
+     * @param file Путь к файлу.
+     * @return Прочитанная матрица.
+     * @throws IOException           Возникает при ошибке ввода/вывода при чтении файла.
+     * @throws MatrixFormatException Возникает при некорректном значении или разной длине строк.
+     */
+    public static IntMatrix load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < DEFAULT_MIN_PARALLEL_BYTES || ParallelExecution.parallelism() == 1) {
+                return CsvMatrixParser.parse(file);
+            }
+            long chunkBytes = Math.min(MAX_CHUNK_BYTES,
+                    Math.max(MIN_CHUNK_BYTES, size / (ParallelExecution.parallelism() * 4L)));
+            return load(channel, size, chunkBytes);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Читает матрицу параллельно независимо от размера файла, деля его на части заданного размера.
+     * Используется в тестах, чтобы границы частей попадали внутрь небольших файлов.
+     *
+     * @param file       Путь к файлу.
+     * @param chunkBytes Размер части файла в байтах.
+     * @return Прочитанная матрица.
+     */
+    static IntMatrix load(Path file, long chunkBytes) throws IOException {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("Размер части должен быть положительным: " + chunkBytes);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return load(channel, channel.size(), chunkBytes);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static IntMatrix load(FileChannel channel, long size, long chunkBytes) throws IOException {
+        long[] bounds = chunkBounds(channel, size, chunkBytes);
+        int chunks = bounds.length - 1;
+        long averageChunk = size / chunks + 1;
+        OperationMonitor.beginWork(2 * chunks * averageChunk);
+
+        // Проход 1: строки файла, непустые строки, пустые строки в конце части и столбцы первой строки
+        long[] lines = new long[chunks];
+        long[] rows = new long[chunks];
+        long[] blanks = new long[chunks];
+        int[] firstColumns = new int[chunks];
+        ParallelExecution.forEachRowBand(chunks, averageChunk, (from, to) -> {
+            byte[] buffer = new byte[SCAN_BYTES];
+            for (int c = from; c < to; c++) {
+                try {
+                    count(map(channel, bounds[c], bounds[c + 1]), buffer, c, lines, rows, blanks, firstColumns);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+
+        int cols = 0;
+        long totalRows = 0;
+        long[] firstLine = new long[chunks];
+        long[] firstRow = new long[chunks];
+        // Начало пустых строк, которыми закончились предыдущие части: ошибка сообщается по первой из них
+        long[] blankLine = new long[chunks];
+        long line = 1;
+        for (int c = 0; c < chunks; c++) {
+            if (cols == 0 && rows[c] > 0) {
+                cols = firstColumns[c];
+            }
+            if (c > 0 && blanks[c - 1] > 0) {
+                blankLine[c] = rows[c - 1] == 0 && blankLine[c - 1] != 0 ? blankLine[c - 1] : line - blanks[c - 1];
+            }
+            firstLine[c] = line;
+            firstRow[c] = totalRows;
+            line += lines[c];
+            totalRows += rows[c];
+        }
+        if (totalRows * Math.max(cols, 1) > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Матрица " + totalRows + "x" + cols + " слишком велика для чтения в память");
+        }
+
+        // Проход 2: разбор частей в свои полосы строк
+        IntMatrix matrix = new IntMatrix((int) totalRows, cols);
+        int[] data = matrix.data();
+        int columns = cols;
+        long[] trailingBlank = new long[chunks];
+        ParallelExecution.forEachRowBand(chunks, averageChunk, (from, to) -> {
+            for (int c = from; c < to; c++) {
+                try {
+                    trailingBlank[c] = CsvMatrixParser.parseChunk(map(channel, bounds[c], bounds[c + 1]), data,
+                            (int) (firstRow[c] * columns), columns, firstLine[c], (int) rows[c], blankLine[c]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        // Пустые строки в конце части допустимы, только если дальше в файле нет строк матрицы
+        for (int c = 0; c < chunks; c++) {
+            if (trailingBlank[c] != 0 && firstRow[c] + rows[c] < totalRows) {
+                throw new MatrixFormatException("Пустая строка внутри матрицы", trailingBlank[c], 1);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Делит файл на части, каждая из которых начинается с начала строки. Метка порядка байтов
+     * в начале файла не входит в первую часть.
+     *
+     * @return Границы частей: часть c занимает байты [bounds[c], bounds[c + 1]).
+     */
+    static long[] chunkBounds(FileChannel channel, long size, long chunkBytes) throws IOException {
+        long[] bounds = new long[(int) (size / chunkBytes) + 2];
+        ByteBuffer head = ByteBuffer.allocate(3);
+        channel.read(head, 0);
+        bounds[0] = head.position() == 3 && head.get(0) == (byte) 0xEF && head.get(1) == (byte) 0xBB
+                && head.get(2) == (byte) 0xBF ? 3 : 0;
+        int count = 1;
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BYTES);
+        long position = bounds[0] + chunkBytes;
+        while (position < size) {
+            long end = lineEnd(channel, position, size, scan);
+            if (end >= size) {
+                break;
+            }
+            bounds[count++] = end;
+            position = end + chunkBytes;
+        }
+        bounds[count++] = size;
+        for (int c = 1; c < count; c++) {
+            if (bounds[c] - bounds[c - 1] > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Строка файла слишком длинная для параллельного чтения");
+            }
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * @return Позиция после первого перевода строки, начиная с position, или size.
+     */
+    private static long lineEnd(FileChannel channel, long position, long size, ByteBuffer scan) throws IOException {
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Подсчитывает строки части: все строки файла (для номеров строк в сообщениях об ошибках), непустые
+     * строки матрицы (строки, содержащие что-либо кроме '\r'), пустые строки после последней непустой
+     * и количество значений в первой непустой строке. Пустые значения в конце строки не учитываются -
+     * так же, как в {@link CsvMatrixParser}.
+     */
+    private static void count(ByteBuffer chunk, byte[] buffer, int index, long[] lines, long[] rows,
+                              long[] blanks, int[] firstColumns) {
+        long lineCount = 0;
+        long rowCount = 0;
+        long blankCount = 0;
+        boolean lineStarted = false;
+        // Столбцы первой непустой строки: номер текущего значения и последнего непустого
+        boolean firstRow = true;
+        boolean cellStarted = false;
+        int cell = 0;
+        int lastNonEmptyCell = 0;
+        while (chunk.hasRemaining()) {
+            int read = Math.min(buffer.length, chunk.remaining());
+            chunk.get(buffer, 0, read);
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b == '\n') {
+                    lineCount++;
+                    blankCount = lineStarted ? 0 : blankCount + 1;
+                    if (lineStarted) {
+                        rowCount++;
+                        if (firstRow) {
+                            firstRow = false;
+                            firstColumns[index] = cellStarted ? cell + 1 : lastNonEmptyCell;
+                        }
+                    }
+                    lineStarted = false;
+                } else if (b != '\r') {
+                    lineStarted = true;
+                    if (firstRow) {
+                        if (b == ';') {
+                            if (cellStarted) {
+                                lastNonEmptyCell = cell + 1;
+                            }
+                            cell++;
+                            cellStarted = false;
+                        } else {
+                            cellStarted = true;
+                        }
+                    }
+                }
+            }
+            OperationMonitor.checkCancelled();
+        }
+        if (lineStarted) {
+            lineCount++;
+            rowCount++;
+            blankCount = 0;
+            if (firstRow) {
+                firstColumns[index] = cellStarted ? cell + 1 : lastNonEmptyCell;
+            }
+        }
+        lines[index] = lineCount;
+        rows[index] = rowCount;
+        blanks[index] = blankCount;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long from, long to) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+    }
+}
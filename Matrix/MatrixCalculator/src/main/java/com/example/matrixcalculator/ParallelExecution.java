@@ -0,0 +1,263 @@
+package com.example.matrixcalculator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Настройки и вспомогательные методы параллельного выполнения операций над матрицами.
+ * Работа разбивается на полосы строк, которые выполняются в {@link ForkJoinPool}.
+ * Если объем работы меньше порога, операция выполняется последовательно в вызывающем потоке.
+ * Монитор {@link OperationMonitor} и измерение {@link OperationMetrics} вызывающего потока передаются
+ * в рабочие потоки вместе с полосами.
+ */
+public final class ParallelExecution {
+
+    /**
+     * Порог объема работы (в элементарных операциях), ниже которого операция выполняется последовательно.
+     * Можно задать системным свойством matrix.parallel.threshold.
+     */
+    public static final long DEFAULT_THRESHOLD = Long.getLong("matrix.parallel.threshold", 1L << 18);
+
+    /**
+     * Пул потоков, в котором выполняются параллельные операции.
+     */
+    private static volatile ForkJoinPool pool = createDefaultPool();
+
+    /**
+     * True, если текущий пул создан этим классом и должен быть остановлен при замене.
+     */
+    private static boolean ownsPool = Integer.getInteger("matrix.parallel.threads") != null;
+
+    /**
+     * Текущий порог объема работы.
+     */
+    private static volatile long threshold = DEFAULT_THRESHOLD;
+
+    private ParallelExecution() {
+    }
+
+    /**
+     * Действие над полосой строк [fromRow, toRow).
+     */
+    @FunctionalInterface
+    public interface RowBandAction {
+        void apply(int fromRow, int toRow);
+    }
+
+    /**
+     * @return Пул потоков, используемый для параллельных операций.
+     */
+    public static ForkJoinPool pool() {
+        return pool;
+    }
+
+    /**
+     * Устанавливает пул потоков, предоставленный вызывающим кодом.
+     *
+     * @param executor Пул потоков.
+     */
+    public static synchronized void setPool(ForkJoinPool executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Пул потоков не может быть null");
+        }
+        replacePool(executor, false);
+    }
+
+    /**
+     * Задает уровень параллелизма, создавая собственный пул потоков.
+     * Значение 1 отключает параллельное выполнение.
+     *
+     * @param parallelism Количество рабочих потоков.
+     */
+    public static synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Уровень параллелизма должен быть положительным: " + parallelism);
+        }
+        replacePool(new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * @return Текущий уровень параллелизма.
+     */
+    public static int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @return Порог объема работы для перехода к параллельному выполнению.
+     */
+    public static long threshold() {
+        return threshold;
+    }
+
+    /**
+     * Задает порог объема работы, ниже которого операции выполняются последовательно.
+     *
+     * @param workThreshold Порог в элементарных операциях.
+     */
+    public static void setThreshold(long workThreshold) {
+        if (workThreshold < 0) {
+            throw new IllegalArgumentException("Порог не может быть отрицательным: " + workThreshold);
+        }
+        threshold = workThreshold;
+    }
+
+    /**
+     * Выполняет действие над всеми строками [0, rows), разбивая их на полосы.
+     *
+     * @param rows       Количество строк.
+     * @param workPerRow Оценка объема работы на одну строку.
+     * @param action     Действие над полосой строк.
+     */
+    public static void forEachRowBand(int rows, long workPerRow, RowBandAction action) {
+        forEachRowBand(0, rows, workPerRow, action);
+    }
+
+    /**
+     * Выполняет действие над строками [fromRow, toRow), разбивая их на полосы.
+     *
+     * @param fromRow    Первая строка (включительно).
+     * @param toRow      Последняя строка (не включительно).
+     * @param workPerRow Оценка объема работы на одну строку.
+     * @param action     Действие над полосой строк.
+     */
+    public static void forEachRowBand(int fromRow, int toRow, long workPerRow, RowBandAction action) {
+        int rows = toRow - fromRow;
+        if (rows <= 0) {
+            return;
+        }
+        OperationMonitor monitor = OperationMonitor.current();
+        if (monitor != null) {
+            action = new MonitoredAction(monitor, workPerRow, action);
+        }
+        OperationMetrics.Measurement measurement = OperationMetrics.current();
+        if (measurement != null) {
+            action = new MeasuredAction(measurement, action);
+        }
+        ForkJoinPool executor = pool;
+        long totalWork = rows * Math.max(1, workPerRow);
+        if (rows == 1 || executor.getParallelism() == 1 || totalWork < threshold) {
+            action.apply(fromRow, toRow);
+            return;
+        }
+        // Минимальная полоса: не меньше порога и не мельче, чем несколько задач на поток
+        long bandWork = Math.max(threshold, totalWork / (executor.getParallelism() * 4L));
+        int minRows = (int) Math.max(1, Math.min(rows, bandWork / Math.max(1, workPerRow)));
+        RowBandTask task = new RowBandTask(fromRow, toRow, minRows, action);
+        if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == executor) {
+            task.invoke();
+        } else {
+            executor.invoke(task);
+        }
+    }
+
+    /**
+     * Заменяет текущий пул, останавливая предыдущий, если он был создан этим классом.
+     */
+    private static void replacePool(ForkJoinPool executor, boolean owned) {
+        ForkJoinPool previous = pool;
+        boolean previousOwned = ownsPool;
+        pool = executor;
+        ownsPool = owned;
+        if (previousOwned && previous != executor) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Создает пул по умолчанию с параллелизмом из системного свойства matrix.parallel.threads
+     * или общий пул, если свойство не задано.
+     */
+    private static ForkJoinPool createDefaultPool() {
+        Integer threads = Integer.getInteger("matrix.parallel.threads");
+        return threads == null ? ForkJoinPool.commonPool() : new ForkJoinPool(threads);
+    }
+
+    /**
+     * Полоса строк, выполняемая с монитором операции: перед началом проверяется отмена,
+     * после завершения к прогрессу добавляется объем работы полосы.
+     */
+    private static final class MonitoredAction implements RowBandAction {
+        private final OperationMonitor monitor;
+        private final long workPerRow;
+        private final RowBandAction action;
+
+        MonitoredAction(OperationMonitor monitor, long workPerRow, RowBandAction action) {
+            this.monitor = monitor;
+            this.workPerRow = workPerRow;
+            this.action = action;
+        }
+
+        @Override
+        public void apply(int fromRow, int toRow) {
+            OperationMonitor previous = monitor.bind();
+            try {
+                monitor.check();
+                action.apply(fromRow, toRow);
+                OperationMonitor.worked((long) (toRow - fromRow) * workPerRow);
+            } finally {
+                OperationMonitor.restore(previous);
+            }
+        }
+    }
+
+    /**
+     * Полоса строк, выполняемая с измерением операции: в рабочем потоке учитываются сам поток
+     * и выделенная в нем память. В потоке, начавшем операцию, память учитывается самим измерением.
+     */
+    private static final class MeasuredAction implements RowBandAction {
+        private final OperationMetrics.Measurement measurement;
+        private final RowBandAction action;
+
+        MeasuredAction(OperationMetrics.Measurement measurement, RowBandAction action) {
+            this.measurement = measurement;
+            this.action = action;
+        }
+
+        @Override
+        public void apply(int fromRow, int toRow) {
+            if (Thread.currentThread() == measurement.owner()) {
+                action.apply(fromRow, toRow);
+                return;
+            }
+            OperationMetrics.Measurement previous = measurement.bind();
+            long allocatedBefore = OperationMetrics.allocatedBytes();
+            try {
+                action.apply(fromRow, toRow);
+            } finally {
+                measurement.addWorkerAllocated(OperationMetrics.allocatedBytes() - allocatedBefore);
+                OperationMetrics.restore(previous);
+            }
+        }
+    }
+
+    /**
+     * Задача, рекурсивно делящая диапазон строк пополам до минимальной полосы.
+     */
+    private static final class RowBandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int fromRow;
+        private final int toRow;
+        private final int minRows;
+        private final RowBandAction action;
+
+        RowBandTask(int fromRow, int toRow, int minRows, RowBandAction action) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.minRows = minRows;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= minRows) {
+                action.apply(fromRow, toRow);
+                return;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new RowBandTask(fromRow, middle, minRows, action),
+                    new RowBandTask(middle, toRow, minRows, action));
+        }
+    }
+}
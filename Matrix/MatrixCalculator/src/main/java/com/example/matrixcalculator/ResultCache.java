@@ -0,0 +1,203 @@
+package com.example.matrixcalculator;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.ToLongFunction;
+
+/**
+ * Кэш результатов операций с ключом "операция + хеши содержимого операндов" (см. {@link LoadedMatrix}).
+ * Объем кэша ограничен суммарным размером результатов в байтах; при превышении вытесняются
+ * давно не использованные записи (LRU). Кэшированные матрицы возвращаются без копирования,
+ * поэтому их нельзя изменять.
+ */
+public final class ResultCache {
+
+    /**
+     * Объем кэша по умолчанию: системное свойство matrix.cache.bytes или четверть максимального размера кучи,
+     * но не больше 512 МБ.
+     */
+    public static final long DEFAULT_MAX_BYTES = Long.getLong("matrix.cache.bytes",
+            Math.min(512L << 20, Runtime.getRuntime().maxMemory() / 4));
+
+    /**
+     * Приблизительный размер записи без учета результата: ключ, узел списка и заголовки объектов.
+     */
+    private static final long ENTRY_OVERHEAD = 256;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxBytes Наибольший суммарный размер результатов в байтах.
+     */
+    public ResultCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Размер кэша не может быть отрицательным: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Составляет ключ кэша из названия операции и хешей операндов.
+     *
+     * @param operation     Название операции.
+     * @param contentHashes Хеши содержимого операндов в порядке аргументов.
+     * @return Ключ.
+     */
+    public static String key(String operation, String... contentHashes) {
+        StringBuilder key = new StringBuilder(operation);
+        for (String hash : contentHashes) {
+            key.append(':').append(hash);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Возвращает кэшированный результат или вычисляет и сохраняет его. Вычисление выполняется
+     * вне блокировки, поэтому одновременные запросы с одним ключом могут вычислить результат дважды.
+     *
+     * @param key     Ключ.
+     * @param compute Вычисление результата.
+     * @param sizeOf  Оценка размера результата в байтах.
+     * @param <T>     Тип результата.
+     * @return Результат.
+     * @throws Exception Исключение, выброшенное вычислением (в кэш не попадает).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(String key, Callable<T> compute, ToLongFunction<? super T> sizeOf)
+            throws Exception {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return (T) entry.value;
+            }
+            misses++;
+        }
+        T value = compute.call();
+        put(key, value, sizeOf.applyAsLong(value));
+        return value;
+    }
+
+    /**
+     * Сохраняет результат. Результат больше всего кэша не сохраняется.
+     *
+     * @param key   Ключ.
+     * @param value Результат.
+     * @param size  Размер результата в байтах.
+     */
+    public synchronized void put(String key, Object value, long size) {
+        long entrySize = size + ENTRY_OVERHEAD + 2L * key.length();
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.size;
+        }
+        if (entrySize > maxBytes) {
+            return;
+        }
+        entries.put(key, new Entry(value, entrySize));
+        bytes += entrySize;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            bytes -= evicted.size;
+            evictions++;
+        }
+    }
+
+    /**
+     * Удаляет все записи. Счетчики сохраняются.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * @return Оценка размера матрицы в байтах для кэша.
+     */
+    public static long sizeOf(Matrix matrix) {
+        long elements = (long) matrix.rows() * matrix.stride();
+        if (matrix instanceof IntMatrix) {
+            return elements * Integer.BYTES;
+        }
+        if (matrix instanceof LongMatrix) {
+            return elements * Long.BYTES;
+        }
+        if (matrix instanceof BigIntegerMatrix) {
+            // Ссылка, заголовок объекта и массив слов каждого числа
+            long bytes = 0;
+            for (BigInteger value : ((BigIntegerMatrix) matrix).data()) {
+                bytes += 56 + value.bitLength() / Byte.SIZE;
+            }
+            return bytes;
+        }
+        return elements * Long.BYTES;
+    }
+
+    /**
+     * @return Наибольший суммарный размер записей в байтах.
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return Текущий суммарный размер записей в байтах.
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    /**
+     * @return Количество записей.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Количество попаданий.
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return Количество промахов.
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * @return Количество вытесненных записей.
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResultCache{записей=" + entries.size() + ", байт=" + bytes + "/" + maxBytes
+                + ", попаданий=" + hits + ", промахов=" + misses + ", вытеснений=" + evictions + "}";
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long size;
+
+        Entry(Object value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.matrixcalculator;
+
+import java.util.Arrays;
+
+/**
+ * Операции над разреженными матрицами в формате {@link CsrMatrix}.
+ * Время работы и объем памяти пропорциональны количеству ненулевых элементов, а не размеру матриц.
+ * Арифметика int совпадает с плотными операциями {@link MatrixOperations}.
+ */
+public final class SparseOperations {
+
+    /**
+     * Доля ненулевых элементов, ниже которой матрица обрабатывается как разреженная
+     * (можно задать системным свойством matrix.sparse.density).
+     */
+    public static final double DENSITY_THRESHOLD = Double.parseDouble(System.getProperty("matrix.sparse.density", "0.05"));
+
+    private SparseOperations() {
+    }
+
+    /**
+     * Вычисляет долю ненулевых элементов плотной матрицы.
+     *
+     * @param matrix Плотная матрица.
+     * @return Доля ненулевых элементов от 0 до 1.
+     */
+    public static double density(IntMatrix matrix) {
+        long cells = (long) matrix.rows() * matrix.cols();
+        if (cells == 0) {
+            return 0;
+        }
+        int[] data = matrix.data();
+        long nonZeros = 0;
+        for (int i = 0; i < matrix.rows(); i++) {
+            for (int j = 0, p = i * matrix.stride(); j < matrix.cols(); j++, p++) {
+                if (data[p] != 0) {
+                    nonZeros++;
+                }
+            }
+        }
+        return (double) nonZeros / cells;
+    }
+
+    /**
+     * Проверяет, выгоднее ли обрабатывать матрицу в разреженном формате.
+     *
+     * @param matrix Плотная матрица.
+     * @return True, если доля ненулевых элементов ниже {@link #DENSITY_THRESHOLD}.
+     */
+    public static boolean prefersSparse(IntMatrix matrix) {
+        long cells = (long) matrix.rows() * matrix.cols();
+        if (cells == 0) {
+            return false;
+        }
+        // Просмотр прекращается, как только ненулевых элементов становится больше порога
+        long limit = (long) Math.ceil(DENSITY_THRESHOLD * cells);
+        int[] data = matrix.data();
+        long nonZeros = 0;
+        for (int i = 0; i < matrix.rows(); i++) {
+            for (int j = 0, p = i * matrix.stride(); j < matrix.cols(); j++, p++) {
+                if (data[p] != 0 && ++nonZeros >= limit) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Сложение разреженных матриц.
+     *
+     * @param matrix1 Первая матрица.
+     * @param matrix2 Вторая матрица.
+     * @return Сумма matrix1 и matrix2.
+     * @throws IllegalArgumentException Если размеры матриц не совпадают.
+     */
+    public static CsrMatrix add(CsrMatrix matrix1, CsrMatrix matrix2) {
+        return merge(matrix1, matrix2, false);
+    }
+
+    /**
+     * Вычитание разреженных матриц.
+     *
+     * @param matrix1 Исходная матрица.
+     * @param matrix2 Вычитаемая матрица.
+     * @return Разность matrix1 и matrix2.
+     * @throws IllegalArgumentException Если размеры матриц не совпадают.
+     */
+    public static CsrMatrix subtract(CsrMatrix matrix1, CsrMatrix matrix2) {
+        return merge(matrix1, matrix2, true);
+    }
+
+    /**
+     * Умножение разреженной матрицы на плотную.
+     *
+     * @param matrix1 Разреженная матрица размера m x k.
+     * @param matrix2 Плотная матрица размера k x n.
+     * @return Плотное произведение размера m x n.
+     * @throws IllegalArgumentException Если размеры матриц не соответствуют правилам умножения.
+     */
+    public static IntMatrix multiply(CsrMatrix matrix1, IntMatrix matrix2) {
+        checkMultiplication(matrix1.cols(), matrix2.rows());
+        int n = matrix2.cols();
+        IntMatrix result = new IntMatrix(matrix1.rows(), n);
+        int[] pointers = matrix1.rowPointers();
+        int[] columns = matrix1.columnIndices();
+        int[] values = matrix1.values();
+        int[] b = matrix2.data();
+        int strideB = matrix2.stride();
+        int[] c = result.data();
+        long workPerRow = Math.max(1, (long) matrix1.nonZeros() / Math.max(1, matrix1.rows())) * n;
+        OperationMonitor.beginWork(matrix1.rows() * workPerRow);
+        // Строка результата - линейная комбинация строк B с коэффициентами из строки A
+        ParallelExecution.forEachRowBand(matrix1.rows(), workPerRow, (fromRow, toRow) -> {
+            for (int i = fromRow; i < toRow; i++) {
+                int rowC = i * n;
+                for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+                    VectorKernels.axpy(values[p], b, columns[p] * strideB, c, rowC, n);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Умножение разреженных матриц по алгоритму Густавсона: строка результата накапливается
+     * в плотном буфере длины n, а список занятых столбцов позволяет обходить только ненулевые позиции.
+     *
+     * @param matrix1 Разреженная матрица размера m x k.
+     * @param matrix2 Разреженная матрица размера k x n.
+     * @return Разреженное произведение размера m x n.
+     * @throws IllegalArgumentException Если размеры матриц не соответствуют правилам умножения.
+     */
+    public static CsrMatrix multiply(CsrMatrix matrix1, CsrMatrix matrix2) {
+        checkMultiplication(matrix1.cols(), matrix2.rows());
+        int rows = matrix1.rows();
+        int n = matrix2.cols();
+        int[] pointersA = matrix1.rowPointers();
+        int[] columnsA = matrix1.columnIndices();
+        int[] valuesA = matrix1.values();
+        int[] pointersB = matrix2.rowPointers();
+        int[] columnsB = matrix2.columnIndices();
+        int[] valuesB = matrix2.values();
+
+        int[] accumulator = new int[n];
+        // marker[j] == i + 1, если столбец j уже встречался в строке i
+        int[] marker = new int[n];
+        int[] touched = new int[n];
+        int[] pointers = new int[rows + 1];
+        int[] columns = new int[Math.max(16, matrix1.nonZeros() + matrix2.nonZeros())];
+        int[] values = new int[columns.length];
+        int size = 0;
+        for (int i = 0; i < rows; i++) {
+            int touchedCount = 0;
+            for (int p = pointersA[i]; p < pointersA[i + 1]; p++) {
+                int k = columnsA[p];
+                int valueA = valuesA[p];
+                for (int q = pointersB[k]; q < pointersB[k + 1]; q++) {
+                    int j = columnsB[q];
+                    if (marker[j] != i + 1) {
+                        marker[j] = i + 1;
+                        accumulator[j] = 0;
+                        touched[touchedCount++] = j;
+                    }
+                    accumulator[j] += valueA * valuesB[q];
+                }
+            }
+            Arrays.sort(touched, 0, touchedCount);
+            if (size + touchedCount > columns.length) {
+                int capacity = Math.max(size + touchedCount, columns.length * 2);
+                columns = Arrays.copyOf(columns, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            for (int t = 0; t < touchedCount; t++) {
+                int j = touched[t];
+                if (accumulator[j] != 0) {
+                    columns[size] = j;
+                    values[size++] = accumulator[j];
+                }
+            }
+            pointers[i + 1] = size;
+        }
+        return new CsrMatrix(rows, n, pointers, Arrays.copyOf(columns, size), Arrays.copyOf(values, size));
+    }
+
+    /**
+     * Поэлементное слияние строк двух матриц: matrix1 + matrix2 или matrix1 - matrix2.
+     */
+    private static CsrMatrix merge(CsrMatrix matrix1, CsrMatrix matrix2, boolean subtract) {
+        if (matrix1.rows() != matrix2.rows() || matrix1.cols() != matrix2.cols()) {
+            throw new IllegalArgumentException("Матрицы должны быть одного размера для выполнения операции.");
+        }
+        int rows = matrix1.rows();
+        int[] pointersA = matrix1.rowPointers();
+        int[] columnsA = matrix1.columnIndices();
+        int[] valuesA = matrix1.values();
+        int[] pointersB = matrix2.rowPointers();
+        int[] columnsB = matrix2.columnIndices();
+        int[] valuesB = matrix2.values();
+        int capacity = matrix1.nonZeros() + matrix2.nonZeros();
+        int[] pointers = new int[rows + 1];
+        int[] columns = new int[capacity];
+        int[] values = new int[capacity];
+        int size = 0;
+        for (int i = 0; i < rows; i++) {
+            int p = pointersA[i];
+            int q = pointersB[i];
+            int endP = pointersA[i + 1];
+            int endQ = pointersB[i + 1];
+            while (p < endP || q < endQ) {
+                int column;
+                int value;
+                if (q >= endQ || (p < endP && columnsA[p] < columnsB[q])) {
+                    column = columnsA[p];
+                    value = valuesA[p++];
+                } else if (p >= endP || columnsB[q] < columnsA[p]) {
+                    column = columnsB[q];
+                    value = subtract ? -valuesB[q++] : valuesB[q++];
+                } else {
+                    column = columnsA[p];
+                    value = subtract ? valuesA[p++] - valuesB[q++] : valuesA[p++] + valuesB[q++];
+                }
+                if (value != 0) {
+                    columns[size] = column;
+                    values[size++] = value;
+                }
+            }
+            pointers[i + 1] = size;
+        }
+        return new CsrMatrix(rows, matrix1.cols(), pointers, Arrays.copyOf(columns, size), Arrays.copyOf(values, size));
+    }
+
+    private static void checkMultiplication(int columns1, int rows2) {
+        if (columns1 != rows2) {
+            throw new IllegalArgumentException("Невозможно умножить матрицы: количество столбцов первой матрицы должно равняться количеству строк второй.");
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.matrixcalculator;
+
+/**
+ * Умножение больших квадратных матриц по схеме Штрассена-Винограда (7 умножений и 15 сложений на уровень).
+ * Размер дополняется нулями до leaf * 2^depth, где leaf не превышает порога перехода, ниже которого
+ * используется классическое блочное ядро. Промежуточные буферы выделяются один раз на умножение
+ * (по три на уровень рекурсии) и переиспользуются всеми вызовами этого уровня.
+ * Кольцо int по модулю 2^32 коммутативно и ассоциативно, поэтому результат побитово совпадает
+ * с классическим умножением.
+ */
+public final class StrassenMultiplier {
+
+    /**
+     * Размер подматрицы, начиная с которого рекурсия прекращается
+     * (можно задать системным свойством matrix.strassen.crossover).
+     */
+    public static final int DEFAULT_CROSSOVER = Integer.getInteger("matrix.strassen.crossover", 512);
+
+    /**
+     * Минимальный размер квадратной матрицы, для которого {@link MatrixOperations#multiplyMatrices(IntMatrix, IntMatrix)}
+     * выбирает этот алгоритм (можно задать системным свойством matrix.strassen.minSize).
+     */
+    public static final int DEFAULT_MIN_SIZE = Integer.getInteger("matrix.strassen.minSize", 4096);
+
+    private StrassenMultiplier() {
+    }
+
+    /**
+     * Проверяет, стоит ли умножать матрицы по схеме Штрассена-Винограда.
+     *
+     * @param matrix1 Первая матрица.
+     * @param matrix2 Вторая матрица.
+     * @return True, если обе матрицы квадратные, одного размера и не меньше {@link #DEFAULT_MIN_SIZE}.
+     */
+    public static boolean isApplicable(IntMatrix matrix1, IntMatrix matrix2) {
+        return matrix1.isSquare() && matrix2.isSquare() && matrix1.rows() == matrix2.rows()
+                && matrix1.rows() >= DEFAULT_MIN_SIZE && matrix1.rows() > DEFAULT_CROSSOVER;
+    }
+
+    /**
+     * Умножение квадратных матриц с порогом перехода по умолчанию.
+     *
+     * @param matrix1 Первая квадратная матрица.
+     * @param matrix2 Вторая квадратная матрица того же размера.
+     * @return Произведение matrix1 и matrix2.
+     */
+    public static IntMatrix multiply(IntMatrix matrix1, IntMatrix matrix2) {
+        return multiply(matrix1, matrix2, DEFAULT_CROSSOVER);
+    }
+
+    /**
+     * Умножение квадратных матриц по схеме Штрассена-Винограда.
+     *
+     * @param matrix1   Первая квадратная матрица.
+     * @param matrix2   Вторая квадратная матрица того же размера.
+     * @param crossover Размер подматрицы, при котором рекурсия заменяется классическим ядром.
+     * @return Произведение matrix1 и matrix2.
+     * @throws IllegalArgumentException Если матрицы не квадратные или имеют разный размер.
+     */
+    public static IntMatrix multiply(IntMatrix matrix1, IntMatrix matrix2, int crossover) {
+        if (!matrix1.isSquare() || !matrix2.isSquare() || matrix1.rows() != matrix2.rows()) {
+            throw new IllegalArgumentException("Алгоритм Штрассена применим только к квадратным матрицам одного размера.");
+        }
+        if (crossover < 1) {
+            throw new IllegalArgumentException("Порог перехода должен быть положительным: " + crossover);
+        }
+        int n = matrix1.rows();
+        IntMatrix result = new IntMatrix(n, n);
+        if (n == 0) {
+            return result;
+        }
+
+        // Глубина рекурсии и размер листа: leaf = ceil(n / 2^depth) <= crossover
+        int depth = 0;
+        while (ceilDiv(n, 1 << depth) > crossover) {
+            depth++;
+        }
+        int leaf = ceilDiv(n, 1 << depth);
+        int padded = leaf << depth;
+
+        int[] a;
+        int[] b;
+        int[] c;
+        int strideA;
+        int strideB;
+        int strideC;
+        if (padded == n) {
+            a = matrix1.data();
+            b = matrix2.data();
+            c = result.data();
+            strideA = matrix1.stride();
+            strideB = matrix2.stride();
+            strideC = result.stride();
+        } else {
+            // Дополняем матрицы нулями до размера padded
+            a = pad(matrix1, padded);
+            b = pad(matrix2, padded);
+            c = new int[padded * padded];
+            strideA = padded;
+            strideB = padded;
+            strideC = padded;
+        }
+
+        // По три рабочих буфера на каждый уровень рекурсии
+        int[][][] workspace = new int[depth][3][];
+        for (int level = 0; level < depth; level++) {
+            int half = padded >> (level + 1);
+            for (int t = 0; t < 3; t++) {
+                workspace[level][t] = new int[half * half];
+            }
+        }
+
+        // Прогресс складывается из умножений листьев: 7^depth произведений размера leaf
+        long leafWork = (long) leaf * leaf * leaf;
+        long leaves = 1;
+        for (int level = 0; level < depth; level++) {
+            leaves *= 7;
+        }
+        OperationMonitor.beginWork(leaves * leafWork);
+        multiplyRecursive(a, 0, strideA, b, 0, strideB, c, 0, strideC, padded, 0, depth, workspace);
+
+        if (padded != n) {
+            int[] target = result.data();
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(c, i * padded, target, i * n, n);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Рекурсивный шаг схемы Винограда: C = A * B для подматриц размера size.
+     */
+    private static void multiplyRecursive(int[] a, int aOff, int aStride,
+                                          int[] b, int bOff, int bStride,
+                                          int[] c, int cOff, int cStride,
+                                          int size, int level, int depth, int[][][] workspace) {
+        if (level == depth) {
+            multiplyLeaf(a, aOff, aStride, b, bOff, bStride, c, cOff, cStride, size);
+            return;
+        }
+        OperationMonitor.checkCancelled();
+        int h = size >> 1;
+        int[] x = workspace[level][0];
+        int[] y = workspace[level][1];
+        int[] z = workspace[level][2];
+
+        int a11 = aOff;
+        int a12 = aOff + h;
+        int a21 = aOff + h * aStride;
+        int a22 = a21 + h;
+        int b11 = bOff;
+        int b12 = bOff + h;
+        int b21 = bOff + h * bStride;
+        int b22 = b21 + h;
+        int c11 = cOff;
+        int c12 = cOff + h;
+        int c21 = cOff + h * cStride;
+        int c22 = c21 + h;
+        int next = level + 1;
+
+        // P7 = (A11 - A21) * (B22 - B12) -> C21
+        subtract(x, 0, h, a, a11, aStride, a, a21, aStride, h);
+        subtract(y, 0, h, b, b22, bStride, b, b12, bStride, h);
+        multiplyRecursive(x, 0, h, y, 0, h, c, c21, cStride, h, next, depth, workspace);
+        // P5 = (A21 + A22) * (B12 - B11) -> C22; X = S1, Y = T1
+        add(x, 0, h, a, a21, aStride, a, a22, aStride, h);
+        subtract(y, 0, h, b, b12, bStride, b, b11, bStride, h);
+        multiplyRecursive(x, 0, h, y, 0, h, c, c22, cStride, h, next, depth, workspace);
+        // P6 = (S1 - A11) * (B22 - T1) -> C12; X = S2, Y = T2
+        subtract(x, 0, h, x, 0, h, a, a11, aStride, h);
+        subtract(y, 0, h, b, b22, bStride, y, 0, h, h);
+        multiplyRecursive(x, 0, h, y, 0, h, c, c12, cStride, h, next, depth, workspace);
+        // X = S4 = A12 - S2; P1 = A11 * B11 -> C11; C12 = P1 + P6 (U2)
+        subtract(x, 0, h, a, a12, aStride, x, 0, h, h);
+        multiplyRecursive(a, a11, aStride, b, b11, bStride, c, c11, cStride, h, next, depth, workspace);
+        add(c, c12, cStride, c, c12, cStride, c, c11, cStride, h);
+        // U3 = U2 + P7 -> C21; U4 = U2 + P5 -> C12; U7 = U3 + P5 -> C22
+        add(c, c21, cStride, c, c21, cStride, c, c12, cStride, h);
+        add(c, c12, cStride, c, c12, cStride, c, c22, cStride, h);
+        add(c, c22, cStride, c, c22, cStride, c, c21, cStride, h);
+        // P3 = S4 * B22; U5 = U4 + P3 -> C12
+        multiplyRecursive(x, 0, h, b, b22, bStride, z, 0, h, h, next, depth, workspace);
+        add(c, c12, cStride, c, c12, cStride, z, 0, h, h);
+        // T4 = T2 - B21; P4 = A22 * T4; U6 = U3 - P4 -> C21
+        subtract(y, 0, h, y, 0, h, b, b21, bStride, h);
+        multiplyRecursive(a, a22, aStride, y, 0, h, z, 0, h, h, next, depth, workspace);
+        subtract(c, c21, cStride, c, c21, cStride, z, 0, h, h);
+        // P2 = A12 * B21; C11 = P1 + P2
+        multiplyRecursive(a, a12, aStride, b, b21, bStride, z, 0, h, h, next, depth, workspace);
+        add(c, c11, cStride, c, c11, cStride, z, 0, h, h);
+    }
+
+    /**
+     * Умножение листовых блоков классическим ядром; полосы строк считаются параллельно.
+     */
+    private static void multiplyLeaf(int[] a, int aOff, int aStride,
+                                     int[] b, int bOff, int bStride,
+                                     int[] c, int cOff, int cStride, int size) {
+        ParallelExecution.forEachRowBand(size, (long) size * size, (fromRow, toRow) ->
+                MultiplyKernels.multiply(a, aOff + fromRow * aStride, aStride, b, bOff, bStride,
+                        c, cOff + fromRow * cStride, cStride, toRow - fromRow, size, size, false));
+    }
+
+    /**
+     * dst = x + y для квадратных подматриц размера size.
+     */
+    private static void add(int[] dst, int dOff, int dStride, int[] x, int xOff, int xStride,
+                            int[] y, int yOff, int yStride, int size) {
+        for (int i = 0; i < size; i++) {
+            VectorKernels.add(x, xOff + i * xStride, y, yOff + i * yStride, dst, dOff + i * dStride, size);
+        }
+    }
+
+    /**
+     * dst = x - y для квадратных подматриц размера size.
+     */
+    private static void subtract(int[] dst, int dOff, int dStride, int[] x, int xOff, int xStride,
+                                 int[] y, int yOff, int yStride, int size) {
+        for (int i = 0; i < size; i++) {
+            VectorKernels.subtract(x, xOff + i * xStride, y, yOff + i * yStride, dst, dOff + i * dStride, size);
+        }
+    }
+
+    /**
+     * Копирует матрицу в левый верхний угол нулевого массива размера size x size.
+     */
+    private static int[] pad(IntMatrix matrix, int size) {
+        int[] target = new int[size * size];
+        int[] source = matrix.data();
+        for (int i = 0; i < matrix.rows(); i++) {
+            System.arraycopy(source, i * matrix.stride(), target, i * size, matrix.cols());
+        }
+        return target;
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.matrixcalculator;
+
+/**
+ * Векторные ядра внутренних циклов: поэлементное сложение и вычитание строк, AXPY-цикл умножения
+ * и обновление строки в методе Барейса. Если модуль jdk.incubator.vector подключен
+ * (например, {@code --add-modules jdk.incubator.vector}), используются SIMD-инструкции через Vector API
+ * с предпочтительной для процессора длиной вектора, иначе - обычные скалярные циклы.
+ * Векторную версию можно отключить системным свойством matrix.vector=false.
+ * Результаты обеих версий побитово совпадают.
+ */
+public final class VectorKernels {
+
+    /**
+     * True, если используются векторные ядра.
+     */
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("matrix.vector", "true"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * Наибольшее по модулю значение, при котором произведения в методе Барейса гарантированно
+     * помещаются в long: |pivot * x - factor * y| <= 2 * BAREISS_SAFE_BOUND^2 < 2^63.
+     */
+    public static final long BAREISS_SAFE_BOUND = (1L << 31) - 1;
+
+    private VectorKernels() {
+    }
+
+    /**
+     * dst[dOff + j] = x[xOff + j] + y[yOff + j] для j из [0, length).
+     */
+    public static void add(int[] x, int xOff, int[] y, int yOff, int[] dst, int dOff, int length) {
+        if (ENABLED) {
+            VectorizedKernels.add(x, xOff, y, yOff, dst, dOff, length);
+            return;
+        }
+        addScalar(x, xOff, y, yOff, dst, dOff, length);
+    }
+
+    /**
+     * dst[dOff + j] = x[xOff + j] - y[yOff + j] для j из [0, length).
+     */
+    public static void subtract(int[] x, int xOff, int[] y, int yOff, int[] dst, int dOff, int length) {
+        if (ENABLED) {
+            VectorizedKernels.subtract(x, xOff, y, yOff, dst, dOff, length);
+            return;
+        }
+        subtractScalar(x, xOff, y, yOff, dst, dOff, length);
+    }
+
+    /**
+     * y[yOff + j] += alpha * x[xOff + j] для j из [0, length).
+     */
+    public static void axpy(int alpha, int[] x, int xOff, int[] y, int yOff, int length) {
+        if (ENABLED) {
+            VectorizedKernels.axpy(alpha, x, xOff, y, yOff, length);
+            return;
+        }
+        axpyScalar(alpha, x, xOff, y, yOff, length);
+    }
+
+    /**
+     * Шаг метода Барейса для одной строки без проверки переполнения:
+     * row[j] = (pivot * row[j] - factor * pivotRow[j]) / divisor.
+     * Вызывающий код гарантирует, что все значения по модулю не превышают {@link #BAREISS_SAFE_BOUND}.
+     *
+     * @return Наибольший модуль новых значений строки.
+     */
+    public static long bareissUpdate(long[] row, int rowOff, long[] pivotRow, int pivotOff, int length,
+                                     long pivot, long factor, long divisor) {
+        if (ENABLED) {
+            return VectorizedKernels.bareissUpdate(row, rowOff, pivotRow, pivotOff, length, pivot, factor, divisor);
+        }
+        return bareissUpdateScalar(row, rowOff, pivotRow, pivotOff, length, pivot, factor, divisor);
+    }
+
+    static void addScalar(int[] x, int xOff, int[] y, int yOff, int[] dst, int dOff, int length) {
+        for (int j = 0; j < length; j++) {
+            dst[dOff + j] = x[xOff + j] + y[yOff + j];
+        }
+    }
+
+    static void subtractScalar(int[] x, int xOff, int[] y, int yOff, int[] dst, int dOff, int length) {
+        for (int j = 0; j < length; j++) {
+            dst[dOff + j] = x[xOff + j] - y[yOff + j];
+        }
+    }
+
+    static void axpyScalar(int alpha, int[] x, int xOff, int[] y, int yOff, int length) {
+        for (int j = 0; j < length; j++) {
+            y[yOff + j] += alpha * x[xOff + j];
+        }
+    }
+
+    static long bareissUpdateScalar(long[] row, int rowOff, long[] pivotRow, int pivotOff, int length,
+                                    long pivot, long factor, long divisor) {
+        long max = 0;
+        for (int j = 0; j < length; j++) {
+            long value = (pivot * row[rowOff + j] - factor * pivotRow[pivotOff + j]) / divisor;
+            row[rowOff + j] = value;
+            max = Math.max(max, Math.abs(value));
+        }
+        return max;
+    }
+}
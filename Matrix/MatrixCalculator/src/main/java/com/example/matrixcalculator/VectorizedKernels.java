@@ -0,0 +1,72 @@
+package com.example.matrixcalculator;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Реализация {@link VectorKernels} на Vector API. Класс загружается только при наличии
+ * модуля jdk.incubator.vector; хвост короче длины вектора обрабатывается скалярно.
+ */
+final class VectorizedKernels {
+
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private VectorizedKernels() {
+    }
+
+    static void add(int[] x, int xOff, int[] y, int yOff, int[] dst, int dOff, int length) {
+        int bound = INT_SPECIES.loopBound(length);
+        int j = 0;
+        for (; j < bound; j += INT_SPECIES.length()) {
+            IntVector.fromArray(INT_SPECIES, x, xOff + j)
+                    .add(IntVector.fromArray(INT_SPECIES, y, yOff + j))
+                    .intoArray(dst, dOff + j);
+        }
+        VectorKernels.addScalar(x, xOff + j, y, yOff + j, dst, dOff + j, length - j);
+    }
+
+    static void subtract(int[] x, int xOff, int[] y, int yOff, int[] dst, int dOff, int length) {
+        int bound = INT_SPECIES.loopBound(length);
+        int j = 0;
+        for (; j < bound; j += INT_SPECIES.length()) {
+            IntVector.fromArray(INT_SPECIES, x, xOff + j)
+                    .sub(IntVector.fromArray(INT_SPECIES, y, yOff + j))
+                    .intoArray(dst, dOff + j);
+        }
+        VectorKernels.subtractScalar(x, xOff + j, y, yOff + j, dst, dOff + j, length - j);
+    }
+
+    static void axpy(int alpha, int[] x, int xOff, int[] y, int yOff, int length) {
+        int bound = INT_SPECIES.loopBound(length);
+        int j = 0;
+        for (; j < bound; j += INT_SPECIES.length()) {
+            IntVector.fromArray(INT_SPECIES, x, xOff + j)
+                    .mul(alpha)
+                    .add(IntVector.fromArray(INT_SPECIES, y, yOff + j))
+                    .intoArray(y, yOff + j);
+        }
+        VectorKernels.axpyScalar(alpha, x, xOff + j, y, yOff + j, length - j);
+    }
+
+    static long bareissUpdate(long[] row, int rowOff, long[] pivotRow, int pivotOff, int length,
+                              long pivot, long factor, long divisor) {
+        int bound = LONG_SPECIES.loopBound(length);
+        int j = 0;
+        LongVector max = LongVector.zero(LONG_SPECIES);
+        for (; j < bound; j += LONG_SPECIES.length()) {
+            LongVector value = LongVector.fromArray(LONG_SPECIES, row, rowOff + j).mul(pivot)
+                    .sub(LongVector.fromArray(LONG_SPECIES, pivotRow, pivotOff + j).mul(factor));
+            if (divisor != 1) {
+                value = value.div(divisor);
+            }
+            value.intoArray(row, rowOff + j);
+            max = max.max(value.abs());
+        }
+        long tail = VectorKernels.bareissUpdateScalar(row, rowOff + j, pivotRow, pivotOff + j, length - j,
+                pivot, factor, divisor);
+        return Math.max(tail, max.reduceLanes(VectorOperators.MAX));
+    }
+}
@@ -2,6 +2,10 @@ module com.example.matrixcalculator {
     requires javafx.controls;
     requires javafx.fxml;
     requires org.apache.logging.log4j;
+    requires jdk.httpserver;
+    requires jdk.jfr;
+    requires jdk.management;
+    requires static jdk.incubator.vector;
 
 
     opens com.example.matrixcalculator to javafx.fxml;
@@ -0,0 +1,234 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка двоичного формата и {@link MappedIntMatrix}: матрицы int32 и int64 (в том числе отказ при сужении
+ * до int), файлы с порядком байтов, отличным от порядка платформы, усеченные файлы и последовательное
+ * чтение нескольких матриц из одного буфера.
+ */
+class BinaryMatrixFormatTest {
+
+    /**
+     * Порядок байтов, отличный от порядка платформы.
+     */
+    static final ByteOrder FOREIGN_ORDER = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN
+            ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+
+    @TempDir
+    Path directory;
+
+    private final Random random = new Random(31L);
+
+    @Test
+    void int32RoundTrip() throws IOException {
+        IntMatrix matrix = randomMatrix(17, 9);
+        matrix.set(0, 0, Integer.MIN_VALUE);
+        matrix.set(16, 8, Integer.MAX_VALUE);
+        Path file = directory.resolve("int.mbin");
+        BinaryMatrixFormat.write(matrix, file);
+
+        BinaryMatrixFormat.Header header = BinaryMatrixFormat.readHeader(file);
+        assertEquals(17, header.rows());
+        assertEquals(9, header.cols());
+        assertEquals(BinaryMatrixFormat.TYPE_INT32, header.elementType());
+        assertEquals(ByteOrder.nativeOrder(), header.order());
+        assertEquals(Files.size(file), header.fileSize());
+
+        assertArrayEquals(matrix.data(), BinaryMatrixFormat.read(file).data());
+        LongMatrix longs = BinaryMatrixFormat.readLong(file);
+        for (int i = 0; i < matrix.data().length; i++) {
+            assertEquals(matrix.data()[i], longs.data()[i]);
+        }
+        // Представление с шагом больше числа столбцов записывается без лишних элементов
+        IntMatrix view = new IntMatrix(2, 2, 3, new int[]{1, 2, -99, 3, 4, -99});
+        BinaryMatrixFormat.write(view, file);
+        assertArrayEquals(new int[]{1, 2, 3, 4}, BinaryMatrixFormat.read(file).data());
+    }
+
+    @Test
+    void int64RoundTripAndNarrowing() throws IOException {
+        LongMatrix small = new LongMatrix(3, 4);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 4; j++) {
+                small.set(i, j, random.nextInt());
+            }
+        }
+        Path file = directory.resolve("long.mbin");
+        BinaryMatrixFormat.write(small, file);
+        assertEquals(BinaryMatrixFormat.TYPE_INT64, BinaryMatrixFormat.readHeader(file).elementType());
+        assertArrayEquals(small.data(), BinaryMatrixFormat.readLong(file).data());
+        IntMatrix narrowed = BinaryMatrixFormat.read(file);
+        for (int i = 0; i < small.data().length; i++) {
+            assertEquals(small.data()[i], narrowed.data()[i]);
+        }
+
+        // Значение вне диапазона int: readLong читает точно, read отказывает с номером строки
+        small.set(2, 1, (long) Integer.MAX_VALUE + 1);
+        BinaryMatrixFormat.write(small, file);
+        assertEquals((long) Integer.MAX_VALUE + 1, BinaryMatrixFormat.readLong(file).data()[2 * 4 + 1]);
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> BinaryMatrixFormat.read(file));
+        assertTrue(error.getMessage().contains("строке 3"), error.getMessage());
+        ByteBuffer encoded = BinaryMatrixFormat.encode(small);
+        assertThrows(IllegalArgumentException.class, () -> BinaryMatrixFormat.read(encoded));
+        assertThrows(IllegalArgumentException.class, () -> MappedIntMatrix.open(file, false));
+    }
+
+    @Test
+    void foreignByteOrder() throws IOException {
+        IntMatrix matrix = randomMatrix(11, 6);
+        Path file = directory.resolve("foreign.mbin");
+        writeInts(matrix, file, FOREIGN_ORDER);
+        assertEquals(FOREIGN_ORDER, BinaryMatrixFormat.readHeader(file).order());
+        assertArrayEquals(matrix.data(), BinaryMatrixFormat.read(file).data());
+        assertArrayEquals(matrix.data(), BinaryMatrixFormat.read(ByteBuffer.wrap(Files.readAllBytes(file))).data());
+        try (MappedIntMatrix mapped = MappedIntMatrix.open(file, false)) {
+            assertEquals(matrix.get(10, 5), mapped.get(10, 5));
+            assertArrayEquals(matrix.data(), mapped.toIntMatrix().data());
+        }
+
+        LongMatrix longs = new LongMatrix(4, 3);
+        for (int index = 0; index < 12; index++) {
+            longs.set(index / 3, index % 3, random.nextLong());
+        }
+        writeLongs(longs, file, FOREIGN_ORDER);
+        assertArrayEquals(longs.data(), BinaryMatrixFormat.readLong(file).data());
+    }
+
+    @Test
+    void truncatedFiles() throws IOException {
+        Path file = directory.resolve("truncated.mbin");
+        BinaryMatrixFormat.write(randomMatrix(5, 5), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IllegalArgumentException.class, () -> BinaryMatrixFormat.read(file));
+        assertThrows(IllegalArgumentException.class, () -> BinaryMatrixFormat.readLong(file));
+        assertThrows(IllegalArgumentException.class, () -> MappedIntMatrix.open(file, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryMatrixFormat.read(ByteBuffer.wrap(bytes, 0, bytes.length - 4)));
+
+        // Короче заголовка и с чужим магическим числом
+        Files.write(file, Arrays.copyOf(bytes, 10));
+        assertThrows(IllegalArgumentException.class, () -> BinaryMatrixFormat.readHeader(file));
+        assertThrows(IllegalArgumentException.class, () -> BinaryMatrixFormat.readHeader(ByteBuffer.wrap(bytes, 0, 10)));
+        bytes[0] = 'X';
+        Files.write(file, bytes);
+        assertThrows(IllegalArgumentException.class, () -> BinaryMatrixFormat.read(file));
+    }
+
+    @Test
+    void readsSequentialRecordsFromOneBuffer() {
+        IntMatrix first = randomMatrix(3, 4);
+        LongMatrix second = new LongMatrix(2, 2);
+        second.set(1, 1, -7);
+        IntMatrix third = new IntMatrix(0, 0);
+        IntMatrix fourth = randomMatrix(1, 5);
+        ByteBuffer[] records = {BinaryMatrixFormat.encode(first), BinaryMatrixFormat.encode(second),
+                BinaryMatrixFormat.encode(third), BinaryMatrixFormat.encode(fourth)};
+        // Перед записями - посторонние байты, чтобы чтение начиналось не с нулевой позиции
+        int prefix = 5;
+        int total = prefix;
+        for (ByteBuffer record : records) {
+            total += record.remaining();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        buffer.position(prefix);
+        for (ByteBuffer record : records) {
+            buffer.put(record);
+        }
+        buffer.position(prefix);
+
+        BinaryMatrixFormat.Header header = BinaryMatrixFormat.readHeader(buffer);
+        assertEquals(3, header.rows());
+        assertEquals(prefix, buffer.position(), "readHeader не двигает позицию");
+        assertArrayEquals(first.data(), BinaryMatrixFormat.read(buffer).data());
+        assertEquals(prefix + BinaryMatrixFormat.HEADER_SIZE + 12 * Integer.BYTES, buffer.position());
+        assertArrayEquals(new int[]{0, 0, 0, -7}, BinaryMatrixFormat.read(buffer).data());
+        IntMatrix empty = BinaryMatrixFormat.read(buffer);
+        assertEquals(0, empty.rows());
+        assertArrayEquals(fourth.data(), BinaryMatrixFormat.read(buffer).data());
+        assertEquals(total, buffer.position());
+        assertThrows(IllegalArgumentException.class, () -> BinaryMatrixFormat.read(buffer));
+    }
+
+    @Test
+    void mappedMatrixReadsAndWritesThrough() throws IOException {
+        Path file = directory.resolve("mapped.mbin");
+        try (MappedIntMatrix mapped = MappedIntMatrix.create(file, 4, 3)) {
+            mapped.set(0, 0, 5);
+            mapped.writeRow(3, 1, new int[]{9, -1, -2}, 1, 2);
+        }
+        assertArrayEquals(new int[]{5, 0, 0, 0, 0, 0, 0, 0, 0, 0, -1, -2}, BinaryMatrixFormat.read(file).data());
+        try (MappedIntMatrix mapped = MappedIntMatrix.open(file, true)) {
+            mapped.set(1, 2, Integer.MIN_VALUE);
+        }
+        try (MappedIntMatrix mapped = MappedIntMatrix.open(file, false)) {
+            assertEquals(Integer.MIN_VALUE, mapped.get(1, 2));
+            int[] row = new int[3];
+            mapped.readRow(3, 0, row, 0, 3);
+            assertArrayEquals(new int[]{0, -1, -2}, row);
+        }
+    }
+
+    /**
+     * Записывает матрицу int32 в файл с заданным порядком байтов.
+     */
+    static void writeInts(IntMatrix matrix, Path file, ByteOrder order) throws IOException {
+        BinaryMatrixFormat.Header header = new BinaryMatrixFormat.Header(matrix.rows(), matrix.cols(),
+                BinaryMatrixFormat.TYPE_INT32, order);
+        try (FileChannel channel = BinaryMatrixFormat.openForWrite(file, header)) {
+            if (matrix.rows() > 0) {
+                ByteBuffer data = BinaryMatrixFormat.map(channel, header, 0, matrix.rows(), FileChannel.MapMode.READ_WRITE);
+                for (int i = 0; i < matrix.rows(); i++) {
+                    for (int j = 0; j < matrix.cols(); j++) {
+                        data.putInt(matrix.get(i, j));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writeLongs(LongMatrix matrix, Path file, ByteOrder order) throws IOException {
+        BinaryMatrixFormat.Header header = new BinaryMatrixFormat.Header(matrix.rows(), matrix.cols(),
+                BinaryMatrixFormat.TYPE_INT64, order);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BinaryMatrixFormat.writeHeader(channel, header);
+            ByteBuffer data = ByteBuffer.allocate(matrix.rows() * matrix.cols() * Long.BYTES).order(order);
+            for (long value : matrix.data()) {
+                data.putLong(value);
+            }
+            data.flip();
+            while (data.hasRemaining()) {
+                channel.write(data, BinaryMatrixFormat.HEADER_SIZE + data.position());
+            }
+        }
+    }
+
+    private IntMatrix randomMatrix(int rows, int cols) {
+        IntMatrix matrix = new IntMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                matrix.set(i, j, random.nextInt());
+            }
+        }
+        return matrix;
+    }
+}
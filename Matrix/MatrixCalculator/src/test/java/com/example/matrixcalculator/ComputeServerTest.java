@@ -0,0 +1,97 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка ограничений размера запроса сервера вычислений. Запросы отправляются через сокет,
+ * чтобы заголовки и тело можно было задать независимо друг от друга.
+ */
+class ComputeServerTest {
+
+    private static ComputeServer server;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = ComputeServer.start(0);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void addsSmallCsvMatrices() throws IOException {
+        String response = post("/add", "text/csv", "1;2\n3;4\n\n5;6\n7;8\n".getBytes(StandardCharsets.US_ASCII));
+        assertTrue(response.startsWith("HTTP/1.1 200"), response);
+        assertTrue(response.contains("6;8"), response);
+    }
+
+    @Test
+    void rejectsDeclaredContentLengthBeforeReadingBody() throws IOException {
+        String request = "POST /add HTTP/1.1\r\nHost: localhost\r\nContent-Type: text/csv\r\n"
+                + "Content-Length: " + (ComputeServer.DEFAULT_MAX_BODY_BYTES + 1) + "\r\nConnection: close\r\n\r\n";
+        String response = exchange(request.getBytes(StandardCharsets.US_ASCII));
+        assertTrue(response.startsWith("HTTP/1.1 413"), response);
+    }
+
+    @Test
+    void rejectsBinaryHeaderLargerThanLimitBeforeAllocating() throws IOException {
+        // Заголовок обещает матрицу 65536x65536, а данных нет: ответ должен прийти по одному заголовку
+        ByteBuffer header = BinaryMatrixFormat.encode(new IntMatrix(0, 0));
+        header.order(BinaryMatrixFormat.readHeader(header).order());
+        header.putInt(8, 1 << 16).putInt(12, 1 << 16);
+        byte[] body = new byte[header.remaining()];
+        header.get(body);
+        String response = post("/add", "application/octet-stream", body);
+        assertTrue(response.startsWith("HTTP/1.1 413"), response);
+    }
+
+    private static String post(String path, String contentType, byte[] body) throws IOException {
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        request.write(("POST " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Type: " + contentType
+                + "\r\nContent-Length: " + body.length + "\r\nConnection: close\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        request.write(body);
+        return exchange(request.toByteArray());
+    }
+
+    private static String exchange(byte[] request) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            OutputStream output = socket.getOutputStream();
+            output.write(request);
+            output.flush();
+            // Ответ читается по Content-Length: после отказа сервер может ждать недоотправленное тело
+            InputStream input = socket.getInputStream();
+            ByteArrayOutputStream headers = new ByteArrayOutputStream();
+            while (!headers.toString(StandardCharsets.US_ASCII).endsWith("\r\n\r\n")) {
+                int b = input.read();
+                if (b < 0) {
+                    break;
+                }
+                headers.write(b);
+            }
+            String head = headers.toString(StandardCharsets.US_ASCII);
+            int length = 0;
+            for (String line : head.split("\r\n")) {
+                if (line.toLowerCase().startsWith("content-length:")) {
+                    length = Integer.parseInt(line.substring("content-length:".length()).trim());
+                }
+            }
+            return head + new String(input.readNBytes(length), StandardCharsets.UTF_8);
+        }
+    }
+}
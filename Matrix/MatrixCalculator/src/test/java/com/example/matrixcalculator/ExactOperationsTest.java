@@ -0,0 +1,196 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка разрядностей {@link ExactOperations} (int, long, 128 бит, BigInteger) по эталонным суммам
+ * и произведениям в BigInteger.
+ */
+class ExactOperationsTest {
+
+    private final Random random = new Random(17L);
+
+    @Test
+    void multiplyRowsOfDifferentTiers() {
+        // Строки первой матрицы попадают в разные ветви: int, long, 128 бит и BigInteger
+        int inner = 40;
+        IntMatrix matrix1 = new IntMatrix(4, inner);
+        IntMatrix matrix2 = new IntMatrix(inner, 6);
+        for (int p = 0; p < inner; p++) {
+            matrix1.set(0, p, random.nextInt(21) - 10);
+            matrix1.set(1, p, random.nextInt(1 << 20) - (1 << 19));
+            matrix1.set(2, p, random.nextBoolean() ? Integer.MAX_VALUE : Integer.MIN_VALUE);
+            matrix1.set(3, p, Integer.MIN_VALUE);
+            for (int j = 0; j < 6; j++) {
+                matrix2.set(p, j, j == 0 ? Integer.MIN_VALUE : random.nextInt(1 << 16));
+            }
+        }
+        Matrix product = ExactOperations.multiply(matrix1, MatrixBounds.of(matrix1), matrix2, MatrixBounds.of(matrix2));
+        assertInstanceOf(BigIntegerMatrix.class, product);
+        assertMatrixEquals(referenceProduct(matrix1, matrix2), product);
+    }
+
+    @Test
+    void multiplyFullRangeIntMatrices() {
+        for (int inner : new int[]{1, 2, 3, 64}) {
+            IntMatrix matrix1 = fullRange(7, inner);
+            IntMatrix matrix2 = fullRange(inner, 5);
+            Matrix product = ExactOperations.multiply(matrix1, MatrixBounds.of(matrix1),
+                    matrix2, MatrixBounds.of(matrix2));
+            assertMatrixEquals(referenceProduct(matrix1, matrix2), product, "inner = " + inner);
+        }
+    }
+
+    @Test
+    void productsThatCancelBackIntoLongRange() {
+        // Оценка строки больше 2^64, но слагаемые взаимно уничтожаются: результат мал, тип сужается
+        int max = Integer.MAX_VALUE;
+        IntMatrix matrix1 = matrix(new int[][]{{max, max, max, max}, {max, max, -max, -max}});
+        IntMatrix matrix2 = matrix(new int[][]{{max, 1}, {-max, 2}, {max, 3}, {-max + 5, 4}});
+        Matrix product = ExactOperations.multiply(matrix1, MatrixBounds.of(matrix1), matrix2, MatrixBounds.of(matrix2));
+        assertMatrixEquals(referenceProduct(matrix1, matrix2), product);
+        assertInstanceOf(LongMatrix.class, product);
+        assertEquals(String.valueOf(5L * max), product.elementToString(0, 0));
+    }
+
+    @Test
+    void addAndSubtractFullRange() {
+        IntMatrix matrix1 = fullRange(30, 20);
+        IntMatrix matrix2 = fullRange(30, 20);
+        matrix1.set(0, 0, Integer.MIN_VALUE);
+        matrix2.set(0, 0, Integer.MIN_VALUE);
+        Matrix sum = ExactOperations.add(matrix1, MatrixBounds.of(matrix1), matrix2, MatrixBounds.of(matrix2));
+        Matrix difference = ExactOperations.subtract(matrix1, MatrixBounds.of(matrix1),
+                matrix2, MatrixBounds.of(matrix2));
+        assertInstanceOf(LongMatrix.class, sum);
+        for (int i = 0; i < 30; i++) {
+            for (int j = 0; j < 20; j++) {
+                long a = matrix1.get(i, j);
+                long b = matrix2.get(i, j);
+                assertEquals(String.valueOf(a + b), sum.elementToString(i, j));
+                assertEquals(String.valueOf(a - b), difference.elementToString(i, j));
+            }
+        }
+        // Небольшие значения остаются в int
+        IntMatrix small = matrix(new int[][]{{1, -2}, {3, 4}});
+        assertInstanceOf(IntMatrix.class, ExactOperations.add(small, MatrixBounds.of(small), small, MatrixBounds.of(small)));
+    }
+
+    @Test
+    void powerWithoutModulusIsExact() {
+        IntMatrix matrix = matrix(new int[][]{{1, 1}, {1, 0}});
+        // F(47) = 2971215073 уже не помещается в int, но промежуточные степени помещаются
+        Matrix power = ExactOperations.power(matrix, 46, 0);
+        assertInstanceOf(LongMatrix.class, power);
+        assertEquals("2971215073", power.elementToString(0, 0));
+        assertMatrixEquals(referencePower(matrix, 46), power);
+        for (long k = 0; k <= 12; k++) {
+            IntMatrix random3 = new IntMatrix(3, 3);
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    random3.set(i, j, random.nextInt(7) - 3);
+                }
+            }
+            assertMatrixEquals(referencePower(random3, k), ExactOperations.power(random3, k, 0), "k = " + k);
+        }
+    }
+
+    @Test
+    void powerFailsInsteadOfWrappingAndUsesModulus() {
+        IntMatrix matrix = matrix(new int[][]{{1, 1}, {1, 0}});
+        assertThrows(IllegalArgumentException.class, () -> ExactOperations.power(matrix, 200, 0));
+        Matrix reduced = ExactOperations.power(matrix, 200, 1_000_000_007);
+        BigInteger expected = referencePower(matrix, 200)[0][0]
+                .mod(BigInteger.valueOf(1_000_000_007));
+        assertEquals(expected.toString(), reduced.elementToString(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> ExactOperations.power(new IntMatrix(2, 3), 2, 0));
+    }
+
+    private IntMatrix fullRange(int rows, int cols) {
+        IntMatrix matrix = new IntMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                matrix.set(i, j, random.nextInt());
+            }
+        }
+        return matrix;
+    }
+
+    private static IntMatrix matrix(int[][] values) {
+        IntMatrix matrix = new IntMatrix(values.length, values[0].length);
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j < values[i].length; j++) {
+                matrix.set(i, j, values[i][j]);
+            }
+        }
+        return matrix;
+    }
+
+    private static void assertMatrixEquals(BigInteger[][] expected, Matrix actual) {
+        assertMatrixEquals(expected, actual, "");
+    }
+
+    private static void assertMatrixEquals(BigInteger[][] expected, Matrix actual, String message) {
+        assertEquals(expected.length, actual.rows(), message);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].length, actual.cols(), message);
+            for (int j = 0; j < expected[i].length; j++) {
+                assertEquals(expected[i][j].toString(), actual.elementToString(i, j),
+                        message + " [" + i + "][" + j + "]");
+            }
+        }
+    }
+
+    private static BigInteger[][] referenceProduct(IntMatrix matrix1, IntMatrix matrix2) {
+        BigInteger[][] a = toBig(matrix1);
+        BigInteger[][] b = toBig(matrix2);
+        return multiply(a, b);
+    }
+
+    private static BigInteger[][] referencePower(IntMatrix matrix, long exponent) {
+        int n = matrix.rows();
+        BigInteger[][] result = new BigInteger[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                result[i][j] = i == j ? BigInteger.ONE : BigInteger.ZERO;
+            }
+        }
+        BigInteger[][] base = toBig(matrix);
+        for (long k = 0; k < exponent; k++) {
+            result = multiply(result, base);
+        }
+        return result;
+    }
+
+    private static BigInteger[][] multiply(BigInteger[][] a, BigInteger[][] b) {
+        int inner = b.length;
+        BigInteger[][] c = new BigInteger[a.length][b[0].length];
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b[0].length; j++) {
+                BigInteger sum = BigInteger.ZERO;
+                for (int p = 0; p < inner; p++) {
+                    sum = sum.add(a[i][p].multiply(b[p][j]));
+                }
+                c[i][j] = sum;
+            }
+        }
+        return c;
+    }
+
+    private static BigInteger[][] toBig(IntMatrix matrix) {
+        BigInteger[][] values = new BigInteger[matrix.rows()][matrix.cols()];
+        for (int i = 0; i < matrix.rows(); i++) {
+            for (int j = 0; j < matrix.cols(); j++) {
+                values[i][j] = BigInteger.valueOf(matrix.get(i, j));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка точного разложения: решение систем и обратная матрица проверяются подстановкой
+ * в точной арифметике, ранг - на матрицах с известным рангом.
+ */
+class FractionFreeLUTest {
+
+    private final Random random = new Random(5L);
+
+    @Test
+    void solveSatisfiesSystem() {
+        for (int n = 1; n <= 8; n++) {
+            IntMatrix matrix = randomInvertible(n);
+            FractionFreeLU factorization = FractionFreeLU.of(matrix);
+            int[] b = new int[n];
+            for (int i = 0; i < n; i++) {
+                b[i] = random.nextInt(41) - 20;
+            }
+            Fraction[] x = factorization.solve(b);
+            for (int i = 0; i < n; i++) {
+                Fraction sum = Fraction.of(BigInteger.ZERO);
+                for (int j = 0; j < n; j++) {
+                    sum = add(sum, multiply(x[j], matrix.get(i, j)));
+                }
+                assertEquals(Fraction.of(BigInteger.valueOf(b[i])), sum, "n = " + n + ", строка " + i);
+            }
+        }
+    }
+
+    @Test
+    void inverseTimesMatrixIsIdentity() {
+        for (int n = 1; n <= 7; n++) {
+            IntMatrix matrix = randomInvertible(n);
+            Fraction[][] inverse = FractionFreeLU.of(matrix).inverse();
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    Fraction sum = Fraction.of(BigInteger.ZERO);
+                    for (int k = 0; k < n; k++) {
+                        sum = add(sum, multiply(inverse[i][k], matrix.get(k, j)));
+                    }
+                    assertEquals(Fraction.of(BigInteger.valueOf(i == j ? 1 : 0)), sum, "n = " + n);
+                }
+            }
+        }
+    }
+
+    @Test
+    void inverseOfKnownMatrix() {
+        // [[2, 1], [5, 3]]^-1 = [[3, -1], [-5, 2]], [[2, 0], [0, 4]]^-1 = [[1/2, 0], [0, 1/4]]
+        Fraction[][] inverse = FractionFreeLU.of(matrix(new int[][]{{2, 1}, {5, 3}})).inverse();
+        assertEquals("3", inverse[0][0].toString());
+        assertEquals("-1", inverse[0][1].toString());
+        assertEquals("-5", inverse[1][0].toString());
+        assertEquals("2", inverse[1][1].toString());
+        Fraction[][] diagonal = FractionFreeLU.of(matrix(new int[][]{{2, 0}, {0, 4}})).inverse();
+        assertEquals("1/2", diagonal[0][0].toString());
+        assertEquals("1/4", diagonal[1][1].toString());
+    }
+
+    @Test
+    void rankOfSingularAndRectangularMatrices() {
+        assertEquals(0, FractionFreeLU.of(new IntMatrix(3, 4)).rank());
+        assertEquals(1, FractionFreeLU.of(matrix(new int[][]{{1, 2, 3}, {2, 4, 6}, {-3, -6, -9}})).rank());
+        // Третья строка - сумма первых двух, первый столбец нулевой
+        FractionFreeLU singular = FractionFreeLU.of(matrix(new int[][]{{0, 1, 2}, {0, 3, 5}, {0, 4, 7}}));
+        assertEquals(2, singular.rank());
+        assertFalse(singular.isInvertible());
+        assertEquals(BigInteger.ZERO, singular.determinant());
+        assertEquals(2, FractionFreeLU.of(matrix(new int[][]{{1, 0, 2, 3}, {0, 1, 4, 5}})).rank());
+        assertEquals(2, FractionFreeLU.of(matrix(new int[][]{{0, 1}, {1, 0}, {1, 1}})).rank());
+        for (int n = 1; n <= 6; n++) {
+            FractionFreeLU factorization = FractionFreeLU.of(randomInvertible(n));
+            assertEquals(n, factorization.rank());
+            assertTrue(factorization.isInvertible());
+        }
+    }
+
+    @Test
+    void rejectsSingularAndMismatchedSystems() {
+        FractionFreeLU singular = FractionFreeLU.of(matrix(new int[][]{{1, 2}, {2, 4}}));
+        assertThrows(IllegalArgumentException.class, () -> singular.solve(new int[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, singular::inverse);
+        FractionFreeLU invertible = FractionFreeLU.of(matrix(new int[][]{{1, 2}, {3, 4}}));
+        assertThrows(IllegalArgumentException.class, () -> invertible.solve(new int[]{1, 2, 3}));
+        FractionFreeLU rectangular = FractionFreeLU.of(new IntMatrix(2, 3));
+        assertThrows(IllegalArgumentException.class, rectangular::determinant);
+        assertThrows(IllegalArgumentException.class, rectangular::inverse);
+    }
+
+    @Test
+    void loadedMatrixKeepsOneFactorization() {
+        IntMatrix matrix = randomInvertible(5);
+        LoadedMatrix loaded = LoadedMatrix.of(matrix);
+        assertSame(loaded.factorization(), loaded.factorization());
+        assertEquals(MatrixOperations.calculateDeterminantLaplace(matrix),
+                loaded.factorization().determinant().longValueExact());
+    }
+
+    /**
+     * Случайная невырожденная матрица: перебираем случайные матрицы до ненулевого определителя.
+     */
+    private IntMatrix randomInvertible(int n) {
+        while (true) {
+            IntMatrix matrix = new IntMatrix(n, n);
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    matrix.set(i, j, random.nextInt(19) - 9);
+                }
+            }
+            if (FractionFreeLU.of(matrix).isInvertible()) {
+                return matrix;
+            }
+        }
+    }
+
+    private static IntMatrix matrix(int[][] values) {
+        IntMatrix matrix = new IntMatrix(values.length, values[0].length);
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j < values[i].length; j++) {
+                matrix.set(i, j, values[i][j]);
+            }
+        }
+        return matrix;
+    }
+
+    private static Fraction add(Fraction a, Fraction b) {
+        return Fraction.of(a.numerator().multiply(b.denominator()).add(b.numerator().multiply(a.denominator())),
+                a.denominator().multiply(b.denominator()));
+    }
+
+    private static Fraction multiply(Fraction a, int b) {
+        return Fraction.of(a.numerator().multiply(BigInteger.valueOf(b)), a.denominator());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка планировщика цепочки: расстановка скобок и стоимость на известных примерах, сравнение
+ * стоимости с перебором всех расстановок и результат умножения по плану.
+ */
+class MatrixChainTest {
+
+    private final Random random = new Random(43L);
+
+    @Test
+    void knownPlans() {
+        // Пример из Кормена и др.: шесть матриц 30x35, 35x15, 15x5, 5x10, 10x20, 20x25
+        MatrixChain.Plan plan = MatrixChain.plan(new int[]{30, 35, 15, 5, 10, 20, 25});
+        assertEquals(15125, plan.cost());
+        assertEquals("((A1 (A2 A3)) ((A4 A5) A6))", plan.toString());
+        assertEquals(2, plan.split(0, 5));
+
+        plan = MatrixChain.plan(new int[]{10, 100, 5, 50});
+        assertEquals(7500, plan.cost());
+        assertEquals(7500, plan.sequentialCost());
+        assertEquals("((A1 A2) A3)", plan.toString());
+
+        // Выгоднее начинать справа: 50x10 * (10x100 * 100x1)
+        plan = MatrixChain.plan(new int[]{50, 10, 100, 1});
+        assertEquals(1500, plan.cost());
+        assertEquals(50 * 10 * 100 + 50 * 100 * 1, plan.sequentialCost());
+        assertEquals("(A1 (A2 A3))", plan.toString());
+
+        plan = MatrixChain.plan(new int[]{4, 7});
+        assertEquals(0, plan.cost());
+        assertEquals("A1", plan.toString());
+    }
+
+    @Test
+    void costMatchesExhaustiveSearch() {
+        for (int trial = 0; trial < 50; trial++) {
+            int[] dimensions = new int[2 + random.nextInt(8)];
+            for (int i = 0; i < dimensions.length; i++) {
+                dimensions[i] = 1 + random.nextInt(60);
+            }
+            MatrixChain.Plan plan = MatrixChain.plan(dimensions);
+            assertEquals(bestCost(dimensions, 0, dimensions.length - 2), plan.cost());
+            assertEquals(plan.cost(), costOf(plan, dimensions, 0, dimensions.length - 2));
+        }
+    }
+
+    @Test
+    void saturatesHugeCosts() {
+        int big = Integer.MAX_VALUE;
+        MatrixChain.Plan plan = MatrixChain.plan(new int[]{big, big, big, big, big});
+        assertEquals(Long.MAX_VALUE, plan.cost());
+        assertEquals(Long.MAX_VALUE, plan.sequentialCost());
+        // 2^21 * 2^21 * 2^22 = 2^64: без насыщения произведение обращается в ноль
+        plan = MatrixChain.plan(new int[]{1 << 21, 1 << 21, 1 << 22});
+        assertEquals(Long.MAX_VALUE, plan.cost());
+        assertEquals(Long.MAX_VALUE, plan.sequentialCost());
+    }
+
+    @Test
+    void multiplyFollowsPlan() {
+        int[] dimensions = {13, 40, 3, 27, 9, 31};
+        List<IntMatrix> matrices = new ArrayList<>();
+        for (int i = 0; i + 1 < dimensions.length; i++) {
+            IntMatrix matrix = new IntMatrix(dimensions[i], dimensions[i + 1]);
+            for (int p = 0; p < matrix.data().length; p++) {
+                matrix.data()[p] = random.nextInt();
+            }
+            matrices.add(matrix);
+        }
+        int[] expected = matrices.get(0).data();
+        for (int i = 1; i < matrices.size(); i++) {
+            expected = MultiplyKernelsTest.naive(expected, matrices.get(i).data(), dimensions[0], dimensions[i],
+                    dimensions[i + 1]);
+        }
+        IntMatrix product = MatrixChain.multiply(matrices);
+        assertEquals(13, product.rows());
+        assertEquals(31, product.cols());
+        assertArrayEquals(expected, product.data());
+
+        // Одна матрица копируется
+        IntMatrix first = matrices.get(0);
+        int value = first.get(0, 0);
+        IntMatrix single = MatrixChain.multiply(List.of(first));
+        assertArrayEquals(first.data(), single.data());
+        single.set(0, 0, value + 1);
+        assertEquals(value, first.get(0, 0));
+    }
+
+    @Test
+    void rejectsInvalidChains() {
+        assertThrows(IllegalArgumentException.class, () -> MatrixChain.plan(new int[]{5}));
+        assertThrows(IllegalArgumentException.class, () -> MatrixChain.multiply(List.of()));
+        List<IntMatrix> mismatched = List.of(new IntMatrix(2, 3), new IntMatrix(4, 2));
+        assertThrows(IllegalArgumentException.class, () -> MatrixChain.multiply(mismatched));
+        List<IntMatrix> chain = List.of(new IntMatrix(2, 3), new IntMatrix(3, 2));
+        MatrixChain.Plan other = MatrixChain.plan(new int[]{2, 3, 2, 2});
+        assertThrows(IllegalArgumentException.class, () -> MatrixChain.multiply(chain, other));
+    }
+
+    /**
+     * Минимальная стоимость перебором всех расстановок скобок.
+     */
+    private static long bestCost(int[] d, int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        long best = Long.MAX_VALUE;
+        for (int k = from; k < to; k++) {
+            best = Math.min(best, bestCost(d, from, k) + bestCost(d, k + 1, to) + (long) d[from] * d[k + 1] * d[to + 1]);
+        }
+        return best;
+    }
+
+    /**
+     * Стоимость расстановки, записанной в плане.
+     */
+    private static long costOf(MatrixChain.Plan plan, int[] d, int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        int k = plan.split(from, to);
+        return costOf(plan, d, from, k) + costOf(plan, d, k + 1, to) + (long) d[from] * d[k + 1] * d[to + 1];
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка ленивых выражений: узлы, встречающиеся в графе несколько раз, дают сумму коэффициентов
+ * (в том числе взаимно уничтожающихся), а результат совпадает с пошаговым вычислением.
+ */
+class MatrixExpressionTest {
+
+    private final Random random = new Random(41L);
+
+    @Test
+    void sharedLeafCoefficientsAreMerged() {
+        IntMatrix a = randomMatrix(6, 5);
+        IntMatrix b = randomMatrix(6, 5);
+        MatrixExpression x = MatrixExpression.of(a);
+        MatrixExpression y = MatrixExpression.of(b);
+        // 2A + 3(A - B) - (A + A) = 3A - 3B
+        MatrixExpression expression = x.scale(2).add(x.subtract(y).scale(3)).subtract(x.add(x));
+        assertArrayEquals(linear(3, a, -3, b), expression.evaluate().data());
+        // Коэффициенты взаимно уничтожаются: A - A = 0 и (A + B) - B = A
+        assertArrayEquals(new int[30], x.subtract(x).evaluate().data());
+        assertArrayEquals(a.data(), x.add(y).subtract(y).evaluate().data());
+    }
+
+    @Test
+    void sharedProductCoefficientsAreMerged() {
+        IntMatrix a = randomMatrix(7, 4);
+        IntMatrix b = randomMatrix(4, 9);
+        IntMatrix c = randomMatrix(7, 9);
+        int[] product = MultiplyKernelsTest.naive(a.data(), b.data(), 7, 4, 9);
+        MatrixExpression p = MatrixExpression.of(a).multiply(MatrixExpression.of(b));
+        MatrixExpression z = MatrixExpression.of(c);
+        // P + P - 3P + C = C - P
+        assertArrayEquals(linear(1, c, -1, new IntMatrix(7, 9, 9, product)),
+                p.add(p).subtract(p.scale(3)).add(z).evaluate().data());
+        // P - P: произведение с нулевым коэффициентом не вычисляется, результат нулевой
+        assertArrayEquals(new int[63], p.subtract(p).evaluate().data());
+        assertArrayEquals(product, p.scale(5).add(p.scale(-4)).evaluate().data());
+    }
+
+    @Test
+    void sharedOperandOfProducts() {
+        IntMatrix a = randomMatrix(8, 8);
+        IntMatrix b = randomMatrix(8, 8);
+        MatrixExpression sum = MatrixExpression.of(a).add(MatrixExpression.of(b));
+        IntMatrix s = new IntMatrix(8, 8, 8, linear(1, a, 1, b));
+        int[] square = MultiplyKernelsTest.naive(s.data(), s.data(), 8, 8, 8);
+        // S = A + B - общий операнд всех произведений; S^2 - 2 S^2 + S^2 = 0
+        MatrixExpression squared = sum.multiply(sum);
+        assertArrayEquals(square, squared.evaluate().data());
+        assertArrayEquals(new int[64], squared.subtract(squared.scale(2)).add(squared).evaluate().data());
+        MatrixExpression cube = squared.multiply(sum);
+        assertArrayEquals(MultiplyKernelsTest.naive(square, s.data(), 8, 8, 8),
+                cube.add(squared.multiply(sum)).subtract(cube).evaluate().data());
+    }
+
+    @Test
+    void sparseProductIsMaterializedWithMergedCoefficient() {
+        // Разреженный левый операнд: произведение вычисляется отдельно и входит с суммарным коэффициентом
+        IntMatrix sparse = new IntMatrix(30, 30);
+        sparse.set(3, 7, 5);
+        sparse.set(20, 1, -2);
+        IntMatrix dense = randomMatrix(30, 30);
+        int[] product = MultiplyKernelsTest.naive(sparse.data(), dense.data(), 30, 30, 30);
+        MatrixExpression p = MatrixExpression.of(sparse).multiply(MatrixExpression.of(dense));
+        assertArrayEquals(linear(3, new IntMatrix(30, 30, 30, product), 0, dense),
+                p.add(p).add(p).evaluate().data());
+    }
+
+    @Test
+    void rejectsMismatchedSizes() {
+        MatrixExpression x = MatrixExpression.of(new IntMatrix(2, 3));
+        MatrixExpression y = MatrixExpression.of(new IntMatrix(3, 2));
+        assertThrows(IllegalArgumentException.class, () -> x.add(y));
+        assertThrows(IllegalArgumentException.class, () -> x.subtract(y));
+        assertThrows(IllegalArgumentException.class, () -> x.multiply(x));
+        assertEquals(2, x.multiply(y).rows());
+        assertEquals(2, x.multiply(y).cols());
+    }
+
+    /**
+     * Поэлементная линейная комбинация ca * A + cb * B в арифметике int.
+     */
+    private static int[] linear(int ca, IntMatrix a, int cb, IntMatrix b) {
+        int[] result = new int[a.rows() * a.cols()];
+        for (int i = 0; i < a.rows(); i++) {
+            for (int j = 0; j < a.cols(); j++) {
+                result[i * a.cols() + j] = ca * a.get(i, j) + cb * b.get(i, j);
+            }
+        }
+        return result;
+    }
+
+    private IntMatrix randomMatrix(int rows, int cols) {
+        IntMatrix matrix = new IntMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                matrix.set(i, j, random.nextInt(201) - 100);
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка чтения и записи Matrix Market, в том числе отказа на некорректной строке размеров
+ * до выделения памяти под элементы.
+ */
+class MatrixMarketFormatTest {
+
+    private static final String GENERAL = "%%MatrixMarket matrix coordinate integer general\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsThroughCsr() throws IOException {
+        IntMatrix dense = new IntMatrix(4, 5);
+        dense.set(0, 0, 7);
+        dense.set(1, 4, -3);
+        dense.set(3, 2, Integer.MIN_VALUE);
+        Path file = directory.resolve("matrix.mtx");
+        MatrixMarketFormat.write(dense, file);
+        assertArrayEquals(dense.data(), MatrixMarketFormat.read(file).toDense().data());
+        assertArrayEquals(new long[]{4, 5, 3}, MatrixMarketFormat.readSize(file));
+    }
+
+    @Test
+    void expandsSymmetricEntriesBeyondInitialCapacity() throws IOException {
+        // Больше начальной емкости массивов координат, чтобы они выросли по ходу чтения
+        int n = 3000;
+        StringBuilder text = new StringBuilder("%%MatrixMarket matrix coordinate integer skew-symmetric\n");
+        text.append(n).append(' ').append(n).append(' ').append(n - 1).append('\n');
+        for (int i = 2; i <= n; i++) {
+            text.append(i).append(' ').append(i - 1).append(' ').append(i).append('\n');
+        }
+        IntMatrix dense = MatrixMarketFormat.read(write("skew.mtx", text.toString())).toDense();
+        for (int i = 1; i < n; i++) {
+            assertEquals(i + 1, dense.get(i, i - 1));
+            assertEquals(-(i + 1), dense.get(i - 1, i));
+        }
+    }
+
+    @Test
+    void rejectsNegativeSizes() throws IOException {
+        for (String size : new String[]{"-1 2 0", "2 -2 0", "2 2 -3"}) {
+            Path file = write("negative.mtx", GENERAL + size + "\n");
+            assertThrows(MatrixFormatException.class, () -> MatrixMarketFormat.read(file), size);
+            assertThrows(MatrixFormatException.class, () -> MatrixMarketFormat.readSize(file), size);
+        }
+    }
+
+    @Test
+    void rejectsMoreEntriesThanCellsWithoutAllocating() throws IOException {
+        Path file = write("huge.mtx", GENERAL + "1 1 1000000000\n1 1 5\n");
+        MatrixFormatException error = assertThrows(MatrixFormatException.class, () -> MatrixMarketFormat.read(file));
+        assertEquals(2, error.getLine());
+        assertThrows(MatrixFormatException.class, () -> MatrixMarketFormat.readSize(file));
+    }
+
+    @Test
+    void rejectsFewerEntriesThanDeclared() throws IOException {
+        // Заявлено много элементов, но файл короткий: ошибка без выделения массивов по заголовку
+        Path file = write("short.mtx", GENERAL + "100000 100000 1000000000\n1 1 5\n");
+        assertThrows(MatrixFormatException.class, () -> MatrixMarketFormat.read(file));
+    }
+
+    private Path write(String name, String text) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+}
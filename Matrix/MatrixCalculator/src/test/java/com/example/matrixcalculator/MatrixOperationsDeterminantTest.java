@@ -0,0 +1,144 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка определителя методом Барейса (и многомодульным методом при переполнении long)
+ * по эталонному разложению {@link MatrixOperations#calculateDeterminantLaplace}.
+ */
+class MatrixOperationsDeterminantTest {
+
+    private final Random random = new Random(20240521L);
+
+    @Test
+    void matchesLaplaceOnRandomMatrices() {
+        // При n <= 6 и |a_ij| <= 9 определитель заведомо помещается в int, поэтому эталон точен
+        for (int n = 1; n <= 6; n++) {
+            for (int attempt = 0; attempt < 50; attempt++) {
+                assertMatchesLaplace(randomMatrix(n, 9));
+            }
+        }
+    }
+
+    @Test
+    void matchesLaplaceOnSingularMatrices() {
+        for (int n = 2; n <= 6; n++) {
+            // Две одинаковые строки
+            IntMatrix duplicateRow = randomMatrix(n, 9);
+            for (int j = 0; j < n; j++) {
+                duplicateRow.set(n - 1, j, duplicateRow.get(0, j));
+            }
+            assertMatchesLaplace(duplicateRow);
+            assertEquals(0, MatrixOperations.calculateDeterminant(duplicateRow));
+
+            // Нулевой столбец
+            IntMatrix zeroColumn = randomMatrix(n, 9);
+            for (int i = 0; i < n; i++) {
+                zeroColumn.set(i, n / 2, 0);
+            }
+            assertMatchesLaplace(zeroColumn);
+
+            // Последняя строка - линейная комбинация первых двух
+            IntMatrix combination = randomMatrix(n, 5);
+            for (int j = 0; j < n; j++) {
+                combination.set(n - 1, j, 2 * combination.get(0, j) - 3 * combination.get(1 % (n - 1), j));
+            }
+            assertMatchesLaplace(combination);
+            assertEquals(0, MatrixOperations.calculateDeterminant(combination));
+        }
+    }
+
+    @Test
+    void matchesLaplaceWhenPivotIsZero() {
+        for (int n = 2; n <= 6; n++) {
+            for (int attempt = 0; attempt < 20; attempt++) {
+                // Нулевой ведущий элемент на первом шаге требует перестановки строк
+                IntMatrix matrix = randomMatrix(n, 9);
+                matrix.set(0, 0, 0);
+                assertMatchesLaplace(matrix);
+
+                // Нулевой ведущий элемент появляется на втором шаге: вторая строка пропорциональна первой в начале
+                if (n >= 3) {
+                    IntMatrix later = randomMatrix(n, 9);
+                    int factor = random.nextInt(5) - 2;
+                    later.set(0, 0, 1 + random.nextInt(3));
+                    later.set(1, 0, factor * later.get(0, 0));
+                    later.set(1, 1, factor * later.get(0, 1));
+                    assertMatchesLaplace(later);
+                }
+            }
+        }
+        // Перестановочная матрица: каждый шаг требует перестановки
+        IntMatrix permutation = IntMatrix.fromList(List.of(
+                List.of(0, 0, 1),
+                List.of(1, 0, 0),
+                List.of(0, 1, 0)));
+        assertMatchesLaplace(permutation);
+        assertEquals(1, MatrixOperations.calculateDeterminant(permutation));
+    }
+
+    @Test
+    void exactDeterminantMatchesCofactorExpansionBeyondLong() {
+        // Большие элементы выводят метод Барейса за пределы long и включают многомодульный метод
+        for (int n = 2; n <= 6; n++) {
+            for (int attempt = 0; attempt < 10; attempt++) {
+                IntMatrix matrix = randomMatrix(n, Integer.MAX_VALUE);
+                assertEquals(cofactorExpansion(matrix), MatrixOperations.calculateDeterminantExact(matrix));
+            }
+        }
+    }
+
+    @Test
+    void rejectsNonSquareMatrix() {
+        IntMatrix matrix = new IntMatrix(2, 3);
+        assertThrows(IllegalArgumentException.class, () -> MatrixOperations.calculateDeterminant(matrix));
+        assertThrows(IllegalArgumentException.class, () -> MatrixOperations.calculateDeterminantExact(matrix));
+    }
+
+    private void assertMatchesLaplace(IntMatrix matrix) {
+        int expected = MatrixOperations.calculateDeterminantLaplace(matrix);
+        assertEquals(expected, MatrixOperations.calculateDeterminant(matrix));
+        assertEquals(BigInteger.valueOf(expected), MatrixOperations.calculateDeterminantExact(matrix));
+    }
+
+    private IntMatrix randomMatrix(int n, int maxAbs) {
+        IntMatrix matrix = new IntMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix.set(i, j, (int) (random.nextLong() % ((long) maxAbs + 1)));
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Разложение по первой строке в BigInteger - эталон для значений, не помещающихся в int.
+     */
+    private static BigInteger cofactorExpansion(IntMatrix matrix) {
+        int n = matrix.rows();
+        if (n == 1) {
+            return BigInteger.valueOf(matrix.get(0, 0));
+        }
+        BigInteger determinant = BigInteger.ZERO;
+        for (int column = 0; column < n; column++) {
+            IntMatrix minor = new IntMatrix(n - 1, n - 1);
+            for (int i = 1; i < n; i++) {
+                for (int j = 0, target = 0; j < n; j++) {
+                    if (j != column) {
+                        minor.set(i - 1, target++, matrix.get(i, j));
+                    }
+                }
+            }
+            BigInteger term = BigInteger.valueOf(matrix.get(0, column)).multiply(cofactorExpansion(minor));
+            determinant = column % 2 == 0 ? determinant.add(term) : determinant.subtract(term);
+        }
+        return determinant;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка возведения в степень без модуля (арифметика int с переполнением) и по модулю:
+ * нулевая и первая степени, сравнение с последовательным умножением и большие показатели
+ * на матрицах с известной степенью.
+ */
+class MatrixOperationsPowerTest {
+
+    private static final int MODULUS = 1_000_000_007;
+
+    private final Random random = new Random(47L);
+
+    @Test
+    void zeroAndFirstPower() {
+        IntMatrix matrix = randomMatrix(5);
+        matrix.set(0, 0, -3);
+        int[] identity = identity(5);
+        assertArrayEquals(identity, MatrixOperations.power(matrix, 0).data());
+        assertArrayEquals(identity, MatrixOperations.power(matrix, 0, MODULUS).data());
+        assertArrayEquals(new int[25], MatrixOperations.power(matrix, 0, 1).data());
+
+        assertArrayEquals(matrix.data(), MatrixOperations.power(matrix, 1).data());
+        int[] reduced = MatrixOperations.power(matrix, 1, MODULUS).data();
+        for (int p = 0; p < 25; p++) {
+            assertEquals(Math.floorMod(matrix.data()[p], MODULUS), reduced[p]);
+        }
+        // Результат - новая матрица, а не исходная
+        int value = matrix.get(1, 1);
+        MatrixOperations.power(matrix, 1).set(1, 1, value + 1);
+        assertEquals(value, matrix.get(1, 1));
+    }
+
+    @Test
+    void matchesRepeatedMultiplication() {
+        for (int n : new int[]{1, 2, 3, 7, 40}) {
+            IntMatrix matrix = randomMatrix(n);
+            int[] expected = identity(n);
+            long[] expectedMod = new long[n * n];
+            for (int i = 0; i < n; i++) {
+                expectedMod[i * n + i] = 1;
+            }
+            for (int k = 1; k <= 20; k++) {
+                expected = MultiplyKernelsTest.naive(expected, matrix.data(), n, n, n);
+                expectedMod = multiplyMod(expectedMod, matrix.data(), n, MODULUS);
+                assertArrayEquals(expected, MatrixOperations.power(matrix, k).data(), "n = " + n + ", k = " + k);
+                int[] actual = MatrixOperations.power(matrix, k, MODULUS).data();
+                for (int p = 0; p < n * n; p++) {
+                    assertEquals(expectedMod[p], actual[p], "n = " + n + ", k = " + k);
+                }
+            }
+        }
+    }
+
+    @Test
+    void largeExponents() {
+        // [[1, 1], [0, 1]]^k = [[1, k], [0, 1]]: без модуля k приводится по модулю 2^32, как int
+        IntMatrix shear = matrix(new int[][]{{1, 1}, {0, 1}});
+        for (long k : new long[]{1L << 31, 1_000_000_000_000L, Long.MAX_VALUE}) {
+            assertArrayEquals(new int[]{1, (int) k, 0, 1}, MatrixOperations.power(shear, k).data(), "k = " + k);
+            assertArrayEquals(new int[]{1, (int) (k % MODULUS), 0, 1},
+                    MatrixOperations.power(shear, k, MODULUS).data(), "k = " + k);
+        }
+        // Перестановка порядка 3: P^k = P^(k mod 3)
+        IntMatrix permutation = matrix(new int[][]{{0, 1, 0}, {0, 0, 1}, {1, 0, 0}});
+        long k = 1_000_000_000_000_000_001L;
+        assertArrayEquals(MatrixOperations.power(permutation, k % 3).data(),
+                MatrixOperations.power(permutation, k).data());
+        // Числа Фибоначчи по модулю: сверка с удвоением индекса
+        IntMatrix fibonacci = matrix(new int[][]{{1, 1}, {1, 0}});
+        for (long index : new long[]{90, 1_000_000, 1_000_000_000_000_000_000L}) {
+            BigInteger[] expected = fibonacciMod(index, BigInteger.valueOf(MODULUS));
+            IntMatrix power = MatrixOperations.power(fibonacci, index, MODULUS);
+            assertEquals(expected[0].intValueExact(), power.get(0, 1), "F(" + index + ")");
+            assertEquals(expected[1].intValueExact(), power.get(0, 0), "F(" + (index + 1) + ")");
+        }
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        IntMatrix square = new IntMatrix(2, 2);
+        assertThrows(IllegalArgumentException.class, () -> MatrixOperations.power(new IntMatrix(2, 3), 2));
+        assertThrows(IllegalArgumentException.class, () -> MatrixOperations.power(square, -1));
+        assertThrows(IllegalArgumentException.class, () -> MatrixOperations.power(square, 2, -5));
+    }
+
+    /**
+     * Пара (F(k), F(k + 1)) по модулю методом удвоения индекса.
+     */
+    private static BigInteger[] fibonacciMod(long k, BigInteger modulus) {
+        if (k == 0) {
+            return new BigInteger[]{BigInteger.ZERO, BigInteger.ONE};
+        }
+        BigInteger[] half = fibonacciMod(k / 2, modulus);
+        BigInteger a = half[0];
+        BigInteger b = half[1];
+        BigInteger even = a.multiply(b.shiftLeft(1).subtract(a)).mod(modulus);
+        BigInteger odd = a.multiply(a).add(b.multiply(b)).mod(modulus);
+        return k % 2 == 0 ? new BigInteger[]{even, odd} : new BigInteger[]{odd, even.add(odd).mod(modulus)};
+    }
+
+    private static long[] multiplyMod(long[] a, int[] b, int n, int modulus) {
+        long[] c = new long[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                long sum = 0;
+                for (int p = 0; p < n; p++) {
+                    sum = (sum + a[i * n + p] * Math.floorMod(b[p * n + j], modulus)) % modulus;
+                }
+                c[i * n + j] = sum;
+            }
+        }
+        return c;
+    }
+
+    private static int[] identity(int n) {
+        int[] identity = new int[n * n];
+        for (int i = 0; i < n; i++) {
+            identity[i * n + i] = 1;
+        }
+        return identity;
+    }
+
+    private static IntMatrix matrix(int[][] values) {
+        IntMatrix matrix = new IntMatrix(values.length, values[0].length);
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j < values[i].length; j++) {
+                matrix.set(i, j, values[i][j]);
+            }
+        }
+        return matrix;
+    }
+
+    private IntMatrix randomMatrix(int n) {
+        IntMatrix matrix = new IntMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix.set(i, j, random.nextInt());
+            }
+        }
+        return matrix;
+    }
+}
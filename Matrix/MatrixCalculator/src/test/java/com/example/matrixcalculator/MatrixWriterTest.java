@@ -0,0 +1,146 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка формата {@link MatrixWriter} по прежней записи: значения через ";" и системный разделитель
+ * строк после каждой строки, как делал {@code BufferedWriter.newLine()}.
+ */
+class MatrixWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private final Random random = new Random(13L);
+
+    @Test
+    void writesIntMatrixInLegacyFormat() throws IOException {
+        IntMatrix matrix = new IntMatrix(3, 4);
+        int[] values = {0, -1, 1, 9, 10, -10, 99, 100, -100, Integer.MAX_VALUE, Integer.MIN_VALUE, 1234567};
+        for (int index = 0; index < values.length; index++) {
+            matrix.set(index / 4, index % 4, values[index]);
+        }
+        assertEquals(legacy(matrix), write(matrix, "int.csv"));
+    }
+
+    @Test
+    void writesLongAndBigIntegerMatricesInLegacyFormat() throws IOException {
+        LongMatrix longs = new LongMatrix(2, 3);
+        long[] values = {Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, 1L << 40, -(1L << 33) + 7};
+        for (int index = 0; index < values.length; index++) {
+            longs.set(index / 3, index % 3, values[index]);
+        }
+        assertEquals(legacy(longs), write(longs, "long.csv"));
+
+        BigIntegerMatrix bigs = new BigIntegerMatrix(2, 2);
+        bigs.set(0, 0, BigInteger.TWO.pow(100).negate());
+        bigs.set(0, 1, BigInteger.ZERO);
+        bigs.set(1, 0, BigInteger.TEN.pow(40).add(BigInteger.ONE));
+        bigs.set(1, 1, BigInteger.valueOf(-5));
+        assertEquals(legacy(bigs), write(bigs, "big.csv"));
+    }
+
+    @Test
+    void writesLargeMatrixAcrossSeveralBands() throws IOException {
+        // Больше MatrixWriter.BAND_BYTES, чтобы строки форматировались несколькими полосами параллельно
+        int rows = 4000;
+        int cols = 30;
+        IntMatrix matrix = new IntMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                matrix.set(i, j, random.nextInt());
+            }
+        }
+        assertEquals(legacy(matrix), write(matrix, "large.csv"));
+    }
+
+    @Test
+    void writesStridedViewAndEmptyMatrix() throws IOException {
+        int[] data = {1, 2, -99, 3, 4, -99};
+        IntMatrix view = new IntMatrix(2, 2, 3, data);
+        assertEquals("1;2" + System.lineSeparator() + "3;4" + System.lineSeparator(), write(view, "view.csv"));
+        assertEquals("", write(new IntMatrix(0, 0), "empty.csv"));
+    }
+
+    @Test
+    void listAndStreamVariantsMatchFileOutput() throws IOException {
+        List<List<Integer>> rows = List.of(List.of(1, -2, 3), List.of(40, 50, Integer.MIN_VALUE));
+        Path file = directory.resolve("list.csv");
+        MatrixWriter.writeMatrixToFile(rows, file.toString());
+        IntMatrix matrix = IntMatrix.fromList(rows);
+        assertEquals(legacy(matrix), Files.readString(file, StandardCharsets.US_ASCII));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        MatrixWriter.writeMatrix(matrix, output);
+        assertEquals(legacy(matrix), output.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void gzipOutputRoundTrips() throws IOException {
+        IntMatrix matrix = new IntMatrix(50, 20);
+        for (int i = 0; i < 50; i++) {
+            for (int j = 0; j < 20; j++) {
+                matrix.set(i, j, random.nextInt(2001) - 1000);
+            }
+        }
+        Path file = directory.resolve("matrix.csv" + MatrixWriter.GZIP_EXTENSION);
+        MatrixWriter.writeMatrix(matrix, file);
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            byte[] unpacked = input.readAllBytes();
+            assertEquals(legacy(matrix), new String(unpacked, StandardCharsets.US_ASCII));
+            try (InputStream again = new GZIPInputStream(Files.newInputStream(file))) {
+                assertArrayEquals(matrix.data(), CsvMatrixParser.parse(again).data());
+            }
+        }
+    }
+
+    @Test
+    void writesFractions() throws IOException {
+        Fraction[][] fractions = {
+                {Fraction.of(BigInteger.ONE, BigInteger.TWO), Fraction.of(BigInteger.valueOf(-6), BigInteger.valueOf(4))},
+                {Fraction.of(BigInteger.valueOf(7)), Fraction.of(BigInteger.ZERO, BigInteger.valueOf(3))}
+        };
+        Path file = directory.resolve("fractions.csv");
+        MatrixWriter.writeFractions(fractions, file);
+        String separator = System.lineSeparator();
+        assertEquals("1/2;-3/2" + separator + "7;0" + separator, Files.readString(file, StandardCharsets.US_ASCII));
+    }
+
+    private String write(Matrix matrix, String name) throws IOException {
+        Path file = directory.resolve(name);
+        MatrixWriter.writeMatrix(matrix, file);
+        return Files.readString(file, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Прежний формат: значения через ";" (последний разделитель удалялся) и перевод строки
+     * {@code BufferedWriter.newLine()} после каждой строки.
+     */
+    private static String legacy(Matrix matrix) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < matrix.rows(); i++) {
+            StringBuilder line = new StringBuilder();
+            for (int j = 0; j < matrix.cols(); j++) {
+                line.append(matrix.elementToString(i, j)).append(";");
+            }
+            line.deleteCharAt(line.length() - 1);
+            text.append(line).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка многомодульного определителя: нулевой и отрицательный определители, матрицы Адамара,
+ * на которых оценка Адамара достигается точно, и сверка с {@link FractionFreeLU} на средних размерах.
+ */
+class ModularDeterminantTest {
+
+    private final Random random = new Random(23L);
+
+    @Test
+    void zeroDeterminant() {
+        assertEquals(BigInteger.ZERO, ModularDeterminant.determinant(new IntMatrix(5, 5)));
+        for (int n : new int[]{2, 10, 40}) {
+            IntMatrix matrix = randomMatrix(n, Integer.MAX_VALUE);
+            // Последняя строка повторяет первую
+            for (int j = 0; j < n; j++) {
+                matrix.set(n - 1, j, matrix.get(0, j));
+            }
+            assertEquals(BigInteger.ZERO, ModularDeterminant.determinant(matrix), "n = " + n);
+        }
+    }
+
+    @Test
+    void negativeDeterminantKeepsSign() {
+        // Диагональ с одним отрицательным элементом: det = -(2^31 - 1)^n
+        for (int n : new int[]{1, 3, 20}) {
+            IntMatrix matrix = new IntMatrix(n, n);
+            for (int i = 0; i < n; i++) {
+                matrix.set(i, i, i == 0 ? -Integer.MAX_VALUE : Integer.MAX_VALUE);
+            }
+            BigInteger expected = BigInteger.valueOf(Integer.MAX_VALUE).pow(n).negate();
+            assertEquals(expected, ModularDeterminant.determinant(matrix), "n = " + n);
+        }
+        // Перестановка двух строк меняет знак
+        IntMatrix matrix = randomMatrix(30, 1000);
+        BigInteger determinant = ModularDeterminant.determinant(matrix);
+        for (int j = 0; j < 30; j++) {
+            int value = matrix.get(0, j);
+            matrix.set(0, j, matrix.get(1, j));
+            matrix.set(1, j, value);
+        }
+        assertEquals(determinant.negate(), ModularDeterminant.determinant(matrix));
+    }
+
+    @Test
+    void hadamardMatricesReachTheBound() {
+        // Для матрицы Сильвестра порядка n |det| = n^(n/2) - ровно оценка Адамара
+        for (int n = 1; n <= 128; n *= 2) {
+            for (int scale : new int[]{1, Integer.MAX_VALUE}) {
+                IntMatrix matrix = sylvester(n, scale);
+                BigInteger bound = BigInteger.valueOf(n).pow(n).sqrt().multiply(BigInteger.valueOf(scale).pow(n));
+                BigInteger determinant = ModularDeterminant.determinant(matrix);
+                assertEquals(bound, determinant.abs(), "n = " + n + ", scale = " + scale);
+                if (n <= 32) {
+                    assertEquals(FractionFreeLU.of(matrix).determinant(), determinant, "n = " + n);
+                }
+            }
+        }
+        // Знак: det H_2 = -2, а для порядков от 4 определитель положителен
+        assertEquals(BigInteger.valueOf(-2), ModularDeterminant.determinant(sylvester(2, 1)));
+        IntMatrix negated = sylvester(64, -Integer.MAX_VALUE);
+        assertEquals(FractionFreeLU.of(sylvester(64, 1)).determinant().multiply(
+                BigInteger.valueOf(Integer.MAX_VALUE).pow(64)), ModularDeterminant.determinant(negated));
+    }
+
+    @Test
+    void matchesFractionFreeLuOnMediumMatrices() {
+        for (int n : new int[]{50, 80, 100}) {
+            for (int maxAbs : new int[]{1, 1000, Integer.MAX_VALUE}) {
+                IntMatrix matrix = randomMatrix(n, maxAbs);
+                assertEquals(FractionFreeLU.of(matrix).determinant(), ModularDeterminant.determinant(matrix),
+                        "n = " + n + ", maxAbs = " + maxAbs);
+            }
+        }
+    }
+
+    @Test
+    void rejectsNonSquareMatrix() {
+        assertThrows(IllegalArgumentException.class, () -> ModularDeterminant.determinant(new IntMatrix(3, 4)));
+    }
+
+    /**
+     * Матрица Сильвестра порядка n (степень двойки), умноженная на scale.
+     */
+    private static IntMatrix sylvester(int n, int scale) {
+        IntMatrix matrix = new IntMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix.set(i, j, Integer.bitCount(i & j) % 2 == 0 ? scale : -scale);
+            }
+        }
+        return matrix;
+    }
+
+    private IntMatrix randomMatrix(int n, int maxAbs) {
+        IntMatrix matrix = new IntMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix.set(i, j, maxAbs == Integer.MAX_VALUE ? random.nextInt() : random.nextInt(2 * maxAbs + 1) - maxAbs);
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка ядер умножения по наивному произведению в порядке i-j-k.
+ */
+class MultiplyKernelsTest {
+
+    private final Random random = new Random(7L);
+
+    @Test
+    void blockedMatchesNaiveProductForAllTileShapes() {
+        int[][] shapes = {{1, 1, 1}, {5, 7, 3}, {33, 17, 29}, {64, 64, 64}, {70, 130, 90}};
+        int[][] tiles = {{1, 1, 1}, {3, 5, 7}, {8, 16, 4}, {64, 128, 256}, {100, 200, 300}};
+        for (int[] shape : shapes) {
+            int m = shape[0];
+            int k = shape[1];
+            int n = shape[2];
+            int[] a = randomArray(m * k);
+            int[] b = randomArray(k * n);
+            int[] expected = naive(a, b, m, k, n);
+            for (int[] tile : tiles) {
+                int[] c = randomArray(m * n);
+                MultiplyKernels.multiplyBlocked(a, 0, k, b, 0, n, c, 0, n, m, k, n, false, tile[0], tile[1], tile[2]);
+                assertArrayEquals(expected, c);
+            }
+        }
+    }
+
+    @Test
+    void blockedAccumulatesIntoSubmatrix() {
+        // Подматрицы внутри больших массивов: смещения и шаги строк не совпадают с размерами
+        int m = 37;
+        int k = 41;
+        int n = 23;
+        int aStride = k + 3;
+        int bStride = n + 5;
+        int cStride = n + 2;
+        int[] a = randomArray(2 + m * aStride);
+        int[] b = randomArray(4 + k * bStride);
+        int[] c = randomArray(1 + m * cStride);
+        int[] expected = c.clone();
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                int sum = 0;
+                for (int p = 0; p < k; p++) {
+                    sum += a[2 + i * aStride + p] * b[4 + p * bStride + j];
+                }
+                expected[1 + i * cStride + j] += sum;
+            }
+        }
+        MultiplyKernels.multiplyBlocked(a, 2, aStride, b, 4, bStride, c, 1, cStride, m, k, n, true, 8, 16, 8);
+        assertArrayEquals(expected, c);
+    }
+
+    @Test
+    void dispatchingMultiplyMatchesNaiveProduct() {
+        // Размеры по обе стороны порога блочного ядра
+        int[][] shapes = {{3, 4, 5}, {64, 64, 64}, {65, 64, 64}, {150, 120, 130}};
+        for (int[] shape : shapes) {
+            int m = shape[0];
+            int k = shape[1];
+            int n = shape[2];
+            IntMatrix matrix1 = new IntMatrix(m, k, k, randomArray(m * k));
+            IntMatrix matrix2 = new IntMatrix(k, n, n, randomArray(k * n));
+            IntMatrix product = MultiplyKernels.multiply(matrix1, matrix2);
+            assertArrayEquals(naive(matrix1.data(), matrix2.data(), m, k, n), product.data());
+        }
+    }
+
+    @Test
+    void multiplyAddScalesProduct() {
+        int m = 90;
+        int k = 80;
+        int n = 70;
+        int[] a = randomArray(m * k);
+        int[] b = randomArray(k * n);
+        int[] product = naive(a, b, m, k, n);
+        int[] c = randomArray(m * n);
+        int[] expected = c.clone();
+        for (int index = 0; index < expected.length; index++) {
+            expected[index] += -3 * product[index];
+        }
+        MultiplyKernels.multiplyAdd(-3, a, 0, k, b, 0, n, c, 0, n, m, k, n);
+        assertArrayEquals(expected, c);
+    }
+
+    @Test
+    void multiplyModMatchesNaiveProduct() {
+        int m = 20;
+        int k = 30;
+        int n = 25;
+        int modulus = Integer.MAX_VALUE;
+        int[] a = new int[m * k];
+        int[] b = new int[k * n];
+        for (int index = 0; index < a.length; index++) {
+            a[index] = random.nextInt(modulus);
+        }
+        for (int index = 0; index < b.length; index++) {
+            b[index] = random.nextInt(modulus);
+        }
+        int[] expected = new int[m * n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                long sum = 0;
+                for (int p = 0; p < k; p++) {
+                    sum = (sum + (long) a[i * k + p] * b[p * n + j]) % modulus;
+                }
+                expected[i * n + j] = (int) sum;
+            }
+        }
+        int[] c = new int[m * n];
+        MultiplyKernels.multiplyMod(a, 0, k, b, 0, n, c, 0, n, m, k, n, modulus, new long[n]);
+        assertArrayEquals(expected, c);
+    }
+
+    @Test
+    void rejectsNonPositiveTiles() {
+        int[] a = new int[4];
+        assertThrows(IllegalArgumentException.class,
+                () -> MultiplyKernels.multiplyBlocked(a, 0, 2, a, 0, 2, a.clone(), 0, 2, 2, 2, 2, false, 0, 1, 1));
+    }
+
+    /**
+     * Значения по всему диапазону int: проверяется и арифметика с переполнением.
+     */
+    private int[] randomArray(int length) {
+        int[] array = new int[length];
+        for (int index = 0; index < length; index++) {
+            array[index] = random.nextInt(4) == 0 ? 0 : random.nextInt();
+        }
+        return array;
+    }
+
+    static int[] naive(int[] a, int[] b, int m, int k, int n) {
+        int[] c = new int[m * n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                int sum = 0;
+                for (int p = 0; p < k; p++) {
+                    sum += a[i * k + p] * b[p * n + j];
+                }
+                c[i * n + j] = sum;
+            }
+        }
+        return c;
+    }
+}
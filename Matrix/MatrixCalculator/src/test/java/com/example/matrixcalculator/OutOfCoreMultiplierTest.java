@@ -0,0 +1,126 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка внешнего умножения: результат, прочитанный из файла, сравнивается с произведением в памяти
+ * при неполных крайних блоках, размерах, не кратных блоку, разном порядке байтов операндов
+ * и пуле меньше трех буферов на поток.
+ */
+class OutOfCoreMultiplierTest {
+
+    @TempDir
+    Path directory;
+
+    private final Random random = new Random(37L);
+
+    @Test
+    void tileSizesThatDoNotDivideDimensions() throws IOException {
+        int m = 37;
+        int k = 23;
+        int n = 41;
+        IntMatrix a = randomMatrix(m, k);
+        IntMatrix b = randomMatrix(k, n);
+        int[] expected = MultiplyKernels.multiply(a, b).data();
+        assertArrayEquals(MultiplyKernelsTest.naive(a.data(), b.data(), m, k, n), expected);
+        for (int tileSize : new int[]{1, 5, 8, 16, 23, 37, 64}) {
+            assertArrayEquals(expected, multiply(a, ByteOrder.nativeOrder(), b, ByteOrder.nativeOrder(),
+                    tileSize, OutOfCoreMultiplier.DEFAULT_BUFFER_TILES).data(), "tileSize = " + tileSize);
+        }
+    }
+
+    @Test
+    void mixedByteOrder() throws IOException {
+        IntMatrix a = randomMatrix(19, 30);
+        IntMatrix b = randomMatrix(30, 13);
+        int[] expected = MultiplyKernelsTest.naive(a.data(), b.data(), 19, 30, 13);
+        ByteOrder foreign = BinaryMatrixFormatTest.FOREIGN_ORDER;
+        ByteOrder[][] orders = {
+                {ByteOrder.nativeOrder(), foreign}, {foreign, ByteOrder.nativeOrder()}, {foreign, foreign}
+        };
+        for (ByteOrder[] order : orders) {
+            Path result = directory.resolve("mixed.mbin");
+            OutOfCoreMultiplier.multiply(write(a, "a.mbin", order[0]), write(b, "b.mbin", order[1]), result, 8, 6);
+            // Результат записывается в порядке байтов первого операнда
+            assertEquals(order[0], BinaryMatrixFormat.readHeader(result).order());
+            assertArrayEquals(expected, BinaryMatrixFormat.read(result).data(), order[0] + " x " + order[1]);
+        }
+    }
+
+    @Test
+    void smallBufferPool() throws IOException {
+        // Пул меньше трех буферов на поток: число рабочих потоков ограничивается пулом
+        IntMatrix a = randomMatrix(50, 33);
+        IntMatrix b = randomMatrix(33, 29);
+        int[] expected = MultiplyKernelsTest.naive(a.data(), b.data(), 50, 33, 29);
+        int parallelism = ParallelExecution.parallelism();
+        for (int bufferTiles : new int[]{3, 4, 5, Math.max(3, 3 * parallelism - 1)}) {
+            assertArrayEquals(expected, multiply(a, ByteOrder.nativeOrder(), b, ByteOrder.nativeOrder(),
+                    7, bufferTiles).data(), "bufferTiles = " + bufferTiles);
+        }
+    }
+
+    @Test
+    void degenerateShapes() throws IOException {
+        IntMatrix row = randomMatrix(1, 9);
+        IntMatrix column = randomMatrix(9, 1);
+        assertArrayEquals(MultiplyKernelsTest.naive(row.data(), column.data(), 1, 9, 1),
+                multiply(row, ByteOrder.nativeOrder(), column, ByteOrder.nativeOrder(), 4, 3).data());
+        assertArrayEquals(MultiplyKernelsTest.naive(column.data(), row.data(), 9, 1, 9),
+                multiply(column, ByteOrder.nativeOrder(), row, ByteOrder.nativeOrder(), 4, 3).data());
+        // Внутренняя размерность 0 дает нулевую матрицу
+        IntMatrix zero = multiply(new IntMatrix(3, 0), ByteOrder.nativeOrder(), new IntMatrix(0, 4),
+                ByteOrder.nativeOrder(), 2, 3);
+        assertEquals(3, zero.rows());
+        assertArrayEquals(new int[12], zero.data());
+        assertEquals(0, multiply(new IntMatrix(0, 5), ByteOrder.nativeOrder(), new IntMatrix(5, 2),
+                ByteOrder.nativeOrder(), 2, 3).rows());
+    }
+
+    @Test
+    void rejectsInvalidArguments() throws IOException {
+        Path a = write(randomMatrix(3, 4), "a.mbin", ByteOrder.nativeOrder());
+        Path b = write(randomMatrix(3, 4), "b.mbin", ByteOrder.nativeOrder());
+        Path result = directory.resolve("result.mbin");
+        assertThrows(IllegalArgumentException.class, () -> OutOfCoreMultiplier.multiply(a, b, result, 4, 3));
+        assertThrows(IllegalArgumentException.class, () -> OutOfCoreMultiplier.multiply(a, a, result, 0, 3));
+        assertThrows(IllegalArgumentException.class, () -> OutOfCoreMultiplier.multiply(a, a, result, 4, 2));
+        Path longs = directory.resolve("long.mbin");
+        BinaryMatrixFormat.write(new LongMatrix(4, 4), longs);
+        assertThrows(IllegalArgumentException.class, () -> OutOfCoreMultiplier.multiply(a, longs, result, 4, 3));
+    }
+
+    private IntMatrix multiply(IntMatrix a, ByteOrder orderA, IntMatrix b, ByteOrder orderB, int tileSize,
+                               int bufferTiles) throws IOException {
+        Path result = directory.resolve("result.mbin");
+        OutOfCoreMultiplier.multiply(write(a, "a.mbin", orderA), write(b, "b.mbin", orderB), result,
+                tileSize, bufferTiles);
+        return BinaryMatrixFormat.read(result);
+    }
+
+    private Path write(IntMatrix matrix, String name, ByteOrder order) throws IOException {
+        Path file = directory.resolve(name);
+        BinaryMatrixFormatTest.writeInts(matrix, file, order);
+        return file;
+    }
+
+    private IntMatrix randomMatrix(int rows, int cols) {
+        IntMatrix matrix = new IntMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                matrix.set(i, j, random.nextInt());
+            }
+        }
+        return matrix;
+    }
+}
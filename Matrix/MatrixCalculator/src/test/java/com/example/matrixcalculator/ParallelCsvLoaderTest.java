@@ -0,0 +1,130 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка параллельного чтения CSV: при любом размере части результат и ошибки должны совпадать
+ * с однопроходным {@link CsvMatrixParser}, в том числе когда граница части попадает на перевод строки
+ * CRLF, метку порядка байтов или пустые строки.
+ */
+class ParallelCsvLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    private final Random random = new Random(29L);
+
+    @Test
+    void matchesSequentialParserAtEveryChunkSize() throws IOException {
+        assertSameAtEveryChunkSize("1;2;3\n-4;5;6\n7;8;-9\n");
+        assertSameAtEveryChunkSize("1;2;3\n-4;5;6\n7;8;-9");
+        assertSameAtEveryChunkSize("2147483647;-2147483648;\n0;1;;\n");
+        assertSameAtEveryChunkSize("5\n");
+    }
+
+    @Test
+    void crlfSplitAcrossChunks() throws IOException {
+        // При размере части 1..длина файла граница проходит в том числе между '\r' и '\n'
+        assertSameAtEveryChunkSize("10;20\r\n30;40\r\n50;60\r\n");
+        assertSameAtEveryChunkSize("10;20\r\n30;40\r\n50;60");
+        assertSameAtEveryChunkSize("10;20\r\n30;40\r\n\r\n\r\n");
+    }
+
+    @Test
+    void byteOrderMark() throws IOException {
+        assertSameAtEveryChunkSize("\uFEFF1;2\n3;4\n");
+        assertSameAtEveryChunkSize("\uFEFF1;2\r\n3;4");
+        assertSameAtEveryChunkSize("\uFEFF");
+    }
+
+    @Test
+    void blankLines() throws IOException {
+        // Пустые строки в конце файла допустимы
+        assertSameAtEveryChunkSize("1;2\n3;4\n\n\n");
+        assertSameAtEveryChunkSize("1;2\n3;4\n\r\n\n\r\n");
+        assertSameAtEveryChunkSize("\n");
+        assertSameAtEveryChunkSize("");
+        // Пустые строки внутри матрицы - ошибка, где бы ни прошла граница части
+        assertSameAtEveryChunkSize("1;2\n\n3;4\n");
+        assertSameAtEveryChunkSize("1;2\n3;4\n\n\n\n5;6\n7;8\n");
+        assertSameAtEveryChunkSize("\n1;2\n3;4\n");
+    }
+
+    @Test
+    void errorLineNumbersAcrossChunks() throws IOException {
+        assertSameAtEveryChunkSize("1;2\n3;4\n5;6\n7;x\n9;10\n");
+        assertSameAtEveryChunkSize("1;2\n3;4\n5;6\n7;8;9\n9;10\n");
+        assertSameAtEveryChunkSize("1;2\n3;4\n5\n7;8\n");
+        assertSameAtEveryChunkSize("1;2\r\n3;4\r\n5;;6\r\n");
+        assertSameAtEveryChunkSize("1;2\n3;4\n5;2147483648\n");
+        assertSameAtEveryChunkSize("1;2\n3;4\n5;6\r7;8\n");
+        assertSameAtEveryChunkSize("1;2\n3;4\n;;\n");
+    }
+
+    @Test
+    void largerRandomFile() throws IOException {
+        StringBuilder text = new StringBuilder("\uFEFF");
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < 12; j++) {
+                text.append(random.nextInt()).append(j < 11 ? ";" : "");
+            }
+            text.append(random.nextBoolean() ? "\r\n" : "\n");
+        }
+        text.append("\n\r\n");
+        Path file = write(text.toString());
+        for (long chunkBytes : new long[]{1, 7, 64, 1000, 4096, Files.size(file)}) {
+            assertSame(file, chunkBytes);
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveChunkSize() throws IOException {
+        Path file = write("1\n");
+        assertThrows(IllegalArgumentException.class, () -> ParallelCsvLoader.load(file, 0));
+    }
+
+    private void assertSameAtEveryChunkSize(String text) throws IOException {
+        Path file = write(text);
+        for (long chunkBytes = 1; chunkBytes <= Math.max(1, Files.size(file)); chunkBytes++) {
+            assertSame(file, chunkBytes);
+        }
+    }
+
+    private static void assertSame(Path file, long chunkBytes) throws IOException {
+        String message = "chunkBytes = " + chunkBytes + ", file = "
+                + Files.readString(file, StandardCharsets.UTF_8).replace("\r", "\\r").replace("\n", "\\n");
+        IntMatrix expected;
+        try {
+            expected = CsvMatrixParser.parse(new ByteArrayInputStream(Files.readAllBytes(file)));
+        } catch (MatrixFormatException e) {
+            MatrixFormatException actual = assertThrows(MatrixFormatException.class,
+                    () -> ParallelCsvLoader.load(file, chunkBytes), message);
+            assertEquals(e.getMessage(), actual.getMessage(), message);
+            assertEquals(e.getLine(), actual.getLine(), message);
+            assertEquals(e.getColumn(), actual.getColumn(), message);
+            return;
+        }
+        IntMatrix actual = ParallelCsvLoader.load(file, chunkBytes);
+        assertEquals(expected.rows(), actual.rows(), message);
+        assertEquals(expected.cols(), actual.cols(), message);
+        assertArrayEquals(expected.data(), actual.data(), message);
+    }
+
+    private Path write(String text) throws IOException {
+        Path file = Files.createTempFile(directory, "matrix", ".csv");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка разреженных операций по плотным и выбора разреженных ядер в {@link ExactOperations}.
+ */
+class SparseOperationsTest {
+
+    private final Random random = new Random(3L);
+
+    @Test
+    void sparseMultiplyMatchesNaiveProduct() {
+        int[][] shapes = {{1, 1, 1}, {10, 20, 15}, {60, 40, 70}};
+        for (int[] shape : shapes) {
+            IntMatrix dense1 = randomSparse(shape[0], shape[1], 0.1, Integer.MAX_VALUE);
+            IntMatrix dense2 = randomSparse(shape[1], shape[2], 0.1, Integer.MAX_VALUE);
+            int[] expected = MultiplyKernelsTest.naive(dense1.data(), dense2.data(), shape[0], shape[1], shape[2]);
+            CsrMatrix sparse1 = CsrMatrix.fromDense(dense1);
+            CsrMatrix sparse2 = CsrMatrix.fromDense(dense2);
+            assertArrayEquals(expected, SparseOperations.multiply(sparse1, dense2).data());
+            assertArrayEquals(expected, SparseOperations.multiply(sparse1, sparse2).toDense().data());
+        }
+    }
+
+    @Test
+    void sparseAddAndSubtractMatchDenseOperations() {
+        IntMatrix dense1 = randomSparse(40, 30, 0.2, 1000);
+        IntMatrix dense2 = randomSparse(40, 30, 0.2, 1000);
+        // Совпадающие элементы с противоположным знаком должны исчезнуть из суммы
+        dense2.set(0, 0, -dense1.get(0, 0));
+        CsrMatrix sum = SparseOperations.add(CsrMatrix.fromDense(dense1), CsrMatrix.fromDense(dense2));
+        CsrMatrix difference = SparseOperations.subtract(CsrMatrix.fromDense(dense1), CsrMatrix.fromDense(dense2));
+        assertArrayEquals(MatrixOperations.addMatrices(dense1, dense2).data(), sum.toDense().data());
+        assertArrayEquals(MatrixOperations.subtractMatrices(dense1, dense2).data(), difference.toDense().data());
+        assertEquals(0, sum.get(0, 0));
+        for (int p = 0; p < sum.nonZeros(); p++) {
+            assertTrue(sum.values()[p] != 0);
+        }
+    }
+
+    @Test
+    void loadedSparseMatrixKeepsCsrAndHashesLikeDense() {
+        IntMatrix dense = randomSparse(50, 60, 0.02, 100);
+        LoadedMatrix fromSparse = LoadedMatrix.of(CsrMatrix.fromDense(dense));
+        LoadedMatrix fromDense = LoadedMatrix.of(dense);
+        assertEquals(fromDense.contentHash(), fromSparse.contentHash());
+        assertEquals(fromDense.bounds().nonZeros(), fromSparse.bounds().nonZeros());
+        assertEquals(fromDense.bounds().maxAbs(), fromSparse.bounds().maxAbs());
+        assertTrue(fromSparse.isSparse());
+        assertTrue(fromDense.isSparse());
+        assertNotNull(fromDense.sparse());
+        assertArrayEquals(dense.data(), fromSparse.matrix().data());
+    }
+
+    @Test
+    void exactOperationsDispatchSparseOperandsToCsrKernels() {
+        IntMatrix dense1 = randomSparse(80, 80, 0.02, 1000);
+        IntMatrix dense2 = randomSparse(80, 80, 0.02, 1000);
+        LoadedMatrix matrix1 = LoadedMatrix.of(CsrMatrix.fromDense(dense1));
+        LoadedMatrix matrix2 = LoadedMatrix.of(CsrMatrix.fromDense(dense2));
+
+        assertArrayEquals(MatrixOperations.addMatrices(dense1, dense2).data(),
+                ExactOperations.addSparse(matrix1, matrix2).toDense().data());
+        assertArrayEquals(MatrixOperations.subtractMatrices(dense1, dense2).data(),
+                ExactOperations.subtractSparse(matrix1, matrix2).toDense().data());
+        assertArrayEquals(MatrixOperations.multiplyMatrices(dense1, dense2).data(),
+                ExactOperations.multiplySparse(matrix1, matrix2).toDense().data());
+        assertArrayEquals(MatrixOperations.multiplyMatrices(dense1, dense2).data(),
+                ((IntMatrix) ExactOperations.multiply(matrix1, matrix2)).data());
+
+        // Разреженная первая матрица и плотная вторая
+        IntMatrix full = randomSparse(80, 30, 1.0, 1000);
+        Matrix product = ExactOperations.multiply(matrix1, LoadedMatrix.of(full));
+        assertArrayEquals(MatrixOperations.multiplyMatrices(dense1, full).data(), ((IntMatrix) product).data());
+        assertNull(ExactOperations.multiplySparse(matrix1, LoadedMatrix.of(full)));
+    }
+
+    @Test
+    void sparsePathFallsBackWhenResultMayOverflowInt() {
+        IntMatrix dense1 = new IntMatrix(100, 100);
+        IntMatrix dense2 = new IntMatrix(100, 100);
+        dense1.set(3, 5, Integer.MAX_VALUE);
+        dense2.set(3, 5, Integer.MAX_VALUE);
+        dense2.set(5, 7, 2);
+        LoadedMatrix matrix1 = LoadedMatrix.of(CsrMatrix.fromDense(dense1));
+        LoadedMatrix matrix2 = LoadedMatrix.of(CsrMatrix.fromDense(dense2));
+        assertNull(ExactOperations.addSparse(matrix1, matrix2));
+        assertNull(ExactOperations.multiplySparse(matrix1, matrix2));
+
+        Matrix sum = ExactOperations.add(matrix1, matrix2);
+        assertInstanceOf(LongMatrix.class, sum);
+        assertEquals("4294967294", sum.elementToString(3, 5));
+        Matrix product = ExactOperations.multiply(matrix1, matrix2);
+        assertEquals("4294967294", product.elementToString(3, 7));
+    }
+
+    @Test
+    void sparseOperationsRejectMismatchedSizes() {
+        LoadedMatrix matrix1 = LoadedMatrix.of(CsrMatrix.fromDense(new IntMatrix(30, 20)));
+        LoadedMatrix matrix2 = LoadedMatrix.of(CsrMatrix.fromDense(new IntMatrix(30, 30)));
+        assertThrows(IllegalArgumentException.class, () -> ExactOperations.addSparse(matrix1, matrix2));
+        assertThrows(IllegalArgumentException.class, () -> ExactOperations.multiplySparse(matrix1, matrix2));
+    }
+
+    /**
+     * Матрица с заданной долей ненулевых элементов и модулем значений не больше maxAbs.
+     */
+    private IntMatrix randomSparse(int rows, int cols, double density, int maxAbs) {
+        IntMatrix matrix = new IntMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (random.nextDouble() < density) {
+                    int value = random.nextInt(maxAbs) + 1;
+                    matrix.set(i, j, random.nextBoolean() ? value : -value);
+                }
+            }
+        }
+        return matrix;
+    }
+}
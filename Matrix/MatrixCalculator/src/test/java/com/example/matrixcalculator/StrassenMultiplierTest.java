@@ -0,0 +1,71 @@
+package com.example.matrixcalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка схемы Штрассена-Винограда по наивному произведению. Малые пороги перехода заставляют
+ * рекурсию проходить несколько уровней и дополнять матрицы нулями на небольших размерах.
+ */
+class StrassenMultiplierTest {
+
+    private final Random random = new Random(11L);
+
+    @Test
+    void matchesNaiveProductOnPowerOfTwoSizes() {
+        for (int n : new int[]{1, 2, 8, 64}) {
+            for (int crossover : new int[]{1, 2, 16}) {
+                assertMatchesNaive(n, crossover);
+            }
+        }
+    }
+
+    @Test
+    void matchesNaiveProductWhenPaddingIsNeeded() {
+        for (int n : new int[]{3, 7, 33, 100}) {
+            for (int crossover : new int[]{1, 5, 16, 40}) {
+                assertMatchesNaive(n, crossover);
+            }
+        }
+    }
+
+    @Test
+    void multipliesEmptyMatrices() {
+        IntMatrix product = StrassenMultiplier.multiply(new IntMatrix(0, 0), new IntMatrix(0, 0), 4);
+        assertEquals(0, product.rows());
+    }
+
+    @Test
+    void rejectsNonSquareOperandsAndCrossover() {
+        IntMatrix square = new IntMatrix(2, 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> StrassenMultiplier.multiply(new IntMatrix(2, 3), new IntMatrix(3, 2), 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> StrassenMultiplier.multiply(square, new IntMatrix(3, 3), 4));
+        assertThrows(IllegalArgumentException.class, () -> StrassenMultiplier.multiply(square, square, 0));
+    }
+
+    private void assertMatchesNaive(int n, int crossover) {
+        IntMatrix matrix1 = randomMatrix(n);
+        IntMatrix matrix2 = randomMatrix(n);
+        IntMatrix product = StrassenMultiplier.multiply(matrix1, matrix2, crossover);
+        assertArrayEquals(MultiplyKernelsTest.naive(matrix1.data(), matrix2.data(), n, n, n), product.data(),
+                "n = " + n + ", crossover = " + crossover);
+    }
+
+    /**
+     * Значения по всему диапазону int: результат должен совпадать побитово и при переполнении.
+     */
+    private IntMatrix randomMatrix(int n) {
+        int[] data = new int[n * n];
+        for (int index = 0; index < data.length; index++) {
+            data[index] = random.nextInt();
+        }
+        return new IntMatrix(n, n, n, data);
+    }
+}